@@ -0,0 +1,32 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût de construction d'une grille, avec et sans cellules.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrilleBenchmark extends ParametresBenchmark {
+
+    @Benchmark
+    public Grille constructionAvecCellules() {
+        return new Grille(taille, taille);
+    }
+
+    @Benchmark
+    public Grille constructionSansCellules() {
+        return new Grille(taille, taille, false);
+    }
+}
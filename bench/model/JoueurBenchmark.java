@@ -0,0 +1,54 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chemins chauds du placement : placement aléatoire de la flotte et test de place libre.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoueurBenchmark extends ParametresBenchmark {
+
+    private JoueurAleatoire joueur;
+    private SplittableRandom aleatoire;
+    private final Bateau bateau = new Bateau(3);
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        couperConsole();
+        Grille grille = new Grille(taille, taille);
+        joueur = new JoueurAleatoire(grille, new Grille(taille, taille));
+        joueur.setVerbeux(false);
+        joueur.setTailleBateau(tailleBateau());
+        joueur.ajoutBateauAleatoire();
+        aleatoire = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public ArrayList<Bateau> ajoutBateauAleatoire() {
+        joueur.ajoutBateauAleatoire();
+        return joueur.getFlotte();
+    }
+
+    @Benchmark
+    public boolean placeLibre() {
+        int x = aleatoire.nextInt(taille);
+        int y = aleatoire.nextInt(taille);
+        return joueur.placeLibre(x, y, bateau, aleatoire.nextBoolean());
+    }
+}
@@ -0,0 +1,45 @@
+package model;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Paramètres communs aux benchmarks du modèle : taille de la grille (carrée) et composition de la flotte.
+ * Les états des benchmarks héritent de cette classe pour être mesurés sur toutes les combinaisons.
+ */
+@State(Scope.Thread)
+public abstract class ParametresBenchmark {
+
+    /** Côté de la grille */
+    @Param({"10", "20", "50"})
+    public int taille;
+
+    /** Tailles des bateaux, séparées par des tirets */
+    @Param({"5-4-3-3-2", "5-4-4-3-3-3-2-2-2-2"})
+    public String flotte;
+
+    /**
+     * Convertit le paramètre de flotte en tableau de tailles.
+     * @return Les tailles des bateaux.
+     */
+    protected int[] tailleBateau() {
+        String[] morceaux = flotte.split("-");
+        int[] tailles = new int[morceaux.length];
+        for (int i = 0; i < morceaux.length; i++) {
+            tailles[i] = Integer.parseInt(morceaux[i]);
+        }
+        return tailles;
+    }
+
+    /**
+     * Coupe la sortie standard : le modèle affiche encore certains événements (bateau coulé...)
+     * qui fausseraient les mesures.
+     */
+    protected static void couperConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
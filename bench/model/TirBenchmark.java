@@ -0,0 +1,69 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chemins chauds des tirs : choix du tir par {@link JoueurAleatoire#tireCase()} et résolution par
+ * {@link Jeu#tireGrilleAdversaire(int, int)}.
+ * Une opération correspond à un balayage complet de la grille (taille x taille tirs),
+ * l'état étant reconstruit avant chaque balayage hors de la mesure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TirBenchmark extends ParametresBenchmark {
+
+    private JoueurAleatoire aleatoire;
+    private Jeu jeu;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        couperConsole();
+    }
+
+    @Setup(Level.Invocation)
+    public void nouvellePartie() {
+        Grille grilleHumain = new Grille(taille, taille);
+        Grille grilleAleatoire = new Grille(taille, taille);
+        JoueurHumain humain = new JoueurHumain(grilleHumain, "Humain");
+        aleatoire = new JoueurAleatoire(grilleAleatoire, grilleHumain);
+        aleatoire.setVerbeux(false);
+        humain.setTailleBateau(tailleBateau());
+        aleatoire.setTailleBateau(tailleBateau());
+        humain.ajoutBateauAleatoire();
+        aleatoire.ajoutBateauAleatoire();
+        jeu = new Jeu(humain, aleatoire);
+    }
+
+    @Benchmark
+    public int balayageTire() {
+        int somme = 0;
+        for (int i = taille * taille; i > 0; i--) {
+            somme += aleatoire.tireCase();
+        }
+        return somme;
+    }
+
+    @Benchmark
+    public AbstractJoueur balayageTireGrilleAdversaire() {
+        for (int x = 0; x < taille; x++) {
+            for (int y = 0; y < taille; y++) {
+                jeu.setJoueurActuel(jeu.getJoueurHumain());
+                jeu.tireGrilleAdversaire(x, y);
+            }
+        }
+        return jeu.getJoueurActuel();
+    }
+}
@@ -0,0 +1,53 @@
+package simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import model.GenerateurSplitMix;
+import model.JoueurAleatoire;
+import model.ParametresBenchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Capture et reprise d'une partie en cours (chaque joueur a tiré sur un tiers de la grille adverse).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantaneBenchmark extends ParametresBenchmark {
+
+    private final FabriqueJoueur aleatoire = (grille, grilleAdversaire) ->
+            new JoueurAleatoire(grille, grilleAdversaire, new GenerateurSplitMix(42));
+
+    private PartieSimulee partie;
+    private byte[] donnees;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        partie = new PartieSimulee(taille, taille, tailleBateau(), aleatoire, aleatoire);
+        for (int i = 2 * taille * taille / 3; i > 0 && !partie.jouerTir(); i--) {
+            // La partie avance jusqu'au point de capture
+        }
+        donnees = partie.capturer();
+    }
+
+    @Benchmark
+    public byte[] capturer() {
+        return partie.capturer();
+    }
+
+    @Benchmark
+    public PartieSimulee restaurer() {
+        return PartieSimulee.restaurer(donnees, aleatoire, aleatoire);
+    }
+}
@@ -0,0 +1,41 @@
+package simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import model.JoueurAleatoire;
+import model.JoueurDensite;
+import model.ParametresBenchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Partie complète sans interface entre deux joueurs automatiques, placement des flottes compris.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartieBenchmark extends ParametresBenchmark {
+
+    private final FabriqueJoueur aleatoire = (grille, grilleAdversaire) -> new JoueurAleatoire(grille, grilleAdversaire);
+    private final FabriqueJoueur densite = (grille, grilleAdversaire) -> new JoueurDensite(grille, grilleAdversaire);
+
+    @Benchmark
+    public int partieComplete() {
+        PartieSimulee partie = new PartieSimulee(taille, taille, tailleBateau(), aleatoire, aleatoire);
+        return partie.jouer(0);
+    }
+
+    @Benchmark
+    public int partieDensite() {
+        PartieSimulee partie = new PartieSimulee(taille, taille, tailleBateau(), densite, densite);
+        return partie.jouer(0);
+    }
+}
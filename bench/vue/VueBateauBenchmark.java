@@ -0,0 +1,67 @@
+package vue;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import model.Bateau;
+import model.GenerateurSplitMix;
+import model.Grille;
+import model.JoueurAleatoire;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Placements répétés de la flotte avec création des vues de ses bateaux, sur une même grille affichée,
+ * comme autant d'appuis sur « Placer mes Bateaux ». Les vues des anciennes flottes doivent être libérées :
+ * le débit doit rester stable d'une itération à l'autre, et le tas occupé, affiché après chaque itération,
+ * ne doit pas croître.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class VueBateauBenchmark {
+
+    private JoueurAleatoire joueur;
+    private GrilleVue vue;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Grille grille = new Grille(10, 10);
+        joueur = new JoueurAleatoire(grille, grille, new GenerateurSplitMix(42));
+        joueur.setVerbeux(false);
+        vue = new GrilleVue(grille, "Joueur", true, true);
+    }
+
+    @Benchmark
+    public VueBateau placement() {
+        joueur.ajoutBateauAleatoire();
+        VueBateau derniere = null;
+        for (Bateau bateau : joueur.getFlotte()) {
+            derniere = new VueBateau(bateau, vue);
+        }
+        return derniere;
+    }
+
+    @TearDown(Level.Iteration)
+    public void mesurerTas() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        System.err.printf("tas occupé : %d Kio%n", (runtime.totalMemory() - runtime.freeMemory()) >> 10);
+    }
+}
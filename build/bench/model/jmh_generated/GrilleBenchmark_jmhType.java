@@ -0,0 +1,4 @@
+package model.jmh_generated;
+public class GrilleBenchmark_jmhType extends GrilleBenchmark_jmhType_B3 {
+}
+
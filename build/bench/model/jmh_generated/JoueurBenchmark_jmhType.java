@@ -0,0 +1,4 @@
+package model.jmh_generated;
+public class JoueurBenchmark_jmhType extends JoueurBenchmark_jmhType_B3 {
+}
+
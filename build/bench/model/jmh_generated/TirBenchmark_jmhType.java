@@ -0,0 +1,4 @@
+package model.jmh_generated;
+public class TirBenchmark_jmhType extends TirBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package simulation.jmh_generated;
+public class InstantaneBenchmark_jmhType extends InstantaneBenchmark_jmhType_B3 {
+}
+
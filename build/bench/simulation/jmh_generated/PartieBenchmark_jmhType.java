@@ -0,0 +1,4 @@
+package simulation.jmh_generated;
+public class PartieBenchmark_jmhType extends PartieBenchmark_jmhType_B3 {
+}
+
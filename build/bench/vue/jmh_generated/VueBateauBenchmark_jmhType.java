@@ -0,0 +1,4 @@
+package vue.jmh_generated;
+public class VueBateauBenchmark_jmhType extends VueBateauBenchmark_jmhType_B3 {
+}
+
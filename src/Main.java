@@ -1,31 +1,217 @@
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.swing.LookAndFeel;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.plaf.nimbus.NimbusLookAndFeel;
 
+import controleur.ControleJeu;
+import controleur.Relecture;
+import journal.JournalTirs;
+import journal.LecteurJournal;
+import metrique.Metriques;
 import model.*;
+import simulation.PartieSimulee;
+import simulation.Simulateur;
 import vue.*;
 
 public class Main {
-	public static void main(String[] args) throws UnsupportedLookAndFeelException {
-	        
-		UIManager.setLookAndFeel(new NimbusLookAndFeel());
-		
-		new PhotoEcran();
+
+	// Share of each startup phase in the splash progress bar (sums to 100)
+	private static final int POIDS_ECRAN = 10;
+	private static final int POIDS_APPARENCE = 30;
+	private static final int POIDS_MODELE = 30;
+	private static final int POIDS_FENETRE = 30;
+
+	private static final long DEBUT = System.nanoTime();
+
+	public static void main(String[] args) {
+		// Background work runs on its own daemon threads, so phases overlap even on a single core
+		Executor arrierePlan = tache -> {
+			Thread thread = new Thread(tache, "demarrage");
+			thread.setDaemon(true);
+			thread.start();
+		};
+
+		// Hot-path metrics MBean (collection itself is enabled by -Dbataille.metriques=true or from JMX)
+		arrierePlan.execute(Metriques::publier);
+
+		// Spectator mode: replay a journaled game, or watch two AIs play live
+		if (System.getProperty("bataille.relecture") != null || System.getProperty("bataille.spectateur") != null) {
+			Relecture relecture = creerRelecture();
+			int vitesse = Integer.getInteger("bataille.vitesse", 20);
+			SwingUtilities.invokeLater(() -> {
+				try {
+					UIManager.setLookAndFeel(new NimbusLookAndFeel());
+				} catch (UnsupportedLookAndFeelException e) {
+					System.out.println("Apparence Nimbus indisponible, apparence par défaut conservée");
+				}
+				new FenetrePrincipale(relecture, vitesse);
+			});
+			return;
+		}
+
+		// Loading the Nimbus classes and building the game model don't need the EDT
+		CompletableFuture<LookAndFeel> apparence = CompletableFuture.supplyAsync(() -> {
+			long debut = System.nanoTime();
+			LookAndFeel nimbus = new NimbusLookAndFeel();
+			journaliser("apparence", debut);
+			return nimbus;
+		}, arrierePlan);
+		CompletableFuture<Jeu> modele = CompletableFuture.supplyAsync(() -> {
+			long debut = System.nanoTime();
+			Jeu jeu = creerJeu(Integer.getInteger("bataille.taille", 10));
+			journaliser("modele", debut);
+			return jeu;
+		}, arrierePlan);
+
+		// Meanwhile the EDT shows the splash screen
+		CompletableFuture<PhotoEcran> ecran = new CompletableFuture<>();
+		SwingUtilities.invokeLater(() -> {
+			long debut = System.nanoTime();
+			try {
+				PhotoEcran photoEcran = new PhotoEcran();
+				photoEcran.avancer(POIDS_ECRAN);
+				journaliser("ecran de demarrage", debut);
+				ecran.complete(photoEcran);
+			} catch (RuntimeException e) {
+				ecran.completeExceptionally(e);
+			}
+		});
+		apparence.thenCombine(ecran, (nimbus, photoEcran) -> photoEcran).thenAccept(p -> p.avancer(POIDS_APPARENCE));
+		modele.thenCombine(ecran, (jeu, photoEcran) -> photoEcran).thenAccept(p -> p.avancer(POIDS_MODELE));
+
+		// Once everything is ready, build the main window on the EDT and close the splash screen
+		apparence.thenCombine(modele, Demarrage::new).thenCombine(ecran, Demarrage::avecEcran)
+			.thenAccept(demarrage -> SwingUtilities.invokeLater(() -> ouvrirFenetre(demarrage)))
+			.exceptionally(erreur -> {
+				erreur.printStackTrace();
+				System.exit(1);
+				return null;
+			});
+	}
+
+	/**
+	 * Creates the two grids, the two players and the game.
+	 */
+	private static Jeu creerJeu(int taille) {
+		// Boards drawn on a single canvas don't need a cell object per position: they are sparse
+		boolean creuse = taille * taille > ControleJeu.SEUIL_CANEVAS;
+
 		// Creating human player grid object
-		Grille grille = new Grille(10,10);
+		Grille grille = creuse ? Grille.creuse(taille,taille) : new Grille(taille,taille);
 
 		// Creating random player grid object
-		Grille grilleAleatoire = new Grille(10,10);
+		Grille grilleAleatoire = creuse ? Grille.creuse(taille,taille) : new Grille(taille,taille);
 
 		// Creating human player and random player object
 		JoueurHumain humain = new JoueurHumain (grille, "Moi");
-		JoueurAleatoire aleatoire = new JoueurAleatoire (grilleAleatoire, grille);
+		// Its generator state can be saved in a game snapshot
+		JoueurAleatoire aleatoire = new JoueurAleatoire (grilleAleatoire, grille, new GenerateurSplitMix(System.nanoTime()));
 
-		// Create the game object and launch GUI
+		// Create the game object
 		Jeu jeu = new Jeu(humain, aleatoire);
-	    new FenetrePrincipale(jeu);
 
+		// Optional shot journal (-Dbataille.journal=file), flushed and closed when the JVM exits
+		String fichierJournal = System.getProperty("bataille.journal");
+		if (fichierJournal != null) {
+			try {
+				JournalTirs journal = JournalTirs.ouvrir(Paths.get(fichierJournal));
+				jeu.setJournal(journal);
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+					try {
+						journal.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return jeu;
+	}
+
+	/**
+	 * Loads the game to watch: game n of a journal (-Dbataille.relecture=file or file#n),
+	 * or a live game between two strategies (-Dbataille.spectateur=montecarlo,aleatoire) played on its own thread.
+	 */
+	private static Relecture creerRelecture() {
+		String fichier = System.getProperty("bataille.relecture");
+		if (fichier != null) {
+			int diese = fichier.lastIndexOf('#');
+			long numero = (diese < 0) ? 0 : Long.parseLong(fichier.substring(diese + 1));
+			if (diese >= 0) fichier = fichier.substring(0, diese);
+			try (LecteurJournal lecteur = LecteurJournal.ouvrir(Paths.get(fichier))) {
+				return Relecture.depuisJournal(lecteur, numero);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		String[] strategies = System.getProperty("bataille.spectateur").split(",");
+		int taille = Integer.getInteger("bataille.taille", 10);
+		PartieSimulee partie = new PartieSimulee(taille, taille, Simulateur.fabrique(strategies[0]),
+				Simulateur.fabrique(strategies[strategies.length - 1]));
+		return Relecture.suivre(partie, tache -> {
+			Thread thread = new Thread(tache, "spectateur");
+			thread.setDaemon(true);
+			thread.start();
+		});
+	}
+
+	/**
+	 * Applies the look and feel, launches the GUI and closes the splash screen. Runs on the EDT.
+	 */
+	private static void ouvrirFenetre(Demarrage demarrage) {
+		long debut = System.nanoTime();
+		try {
+			UIManager.setLookAndFeel(demarrage.apparence);
+		} catch (UnsupportedLookAndFeelException e) {
+			System.out.println("Apparence Nimbus indisponible, apparence par défaut conservée");
+		}
+		try {
+			new FenetrePrincipale(demarrage.jeu);
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		demarrage.ecran.avancer(POIDS_FENETRE);
+		demarrage.ecran.fermer();
+		journaliser("fenetre principale", debut);
+
+		// The window becomes interactive once the events queued by its construction are processed
+		SwingUtilities.invokeLater(() -> System.out.printf("⏱️ Démarrage : fenêtre interactive après %d ms%n",
+				(System.nanoTime() - DEBUT) / 1_000_000));
+	}
+
+	/**
+	 * Logs the duration of a startup phase and the elapsed time since launch.
+	 */
+	private static void journaliser(String phase, long debut) {
+		long fin = System.nanoTime();
+		System.out.printf("⏱️ Démarrage : %s en %d ms (à %d ms)%n", phase, (fin - debut) / 1_000_000, (fin - DEBUT) / 1_000_000);
+	}
+
+	/** Results of the background phases, gathered before opening the window */
+	private static final class Demarrage {
+		final LookAndFeel apparence;
+		final Jeu jeu;
+		PhotoEcran ecran;
+
+		Demarrage(LookAndFeel apparence, Jeu jeu) {
+			this.apparence = apparence;
+			this.jeu = jeu;
+		}
+
+		Demarrage avecEcran(PhotoEcran ecran) {
+			this.ecran = ecran;
+			return this;
+		}
 	}
 
 }
@@ -0,0 +1,71 @@
+package controleur;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ecoute.BusEvenements;
+import ecoute.RelaisEvenements;
+
+/**
+ * Thread de jeu : c'est lui qui modifie le modèle, en exécutant dans l'ordre les commandes que l'interface
+ * lui transmet par une file (tir sur une case, placement de la flotte, début de partie).
+ * Les événements qu'il émet sont relayés vers le thread de l'interface par un {@link RelaisEvenements},
+ * en lots regroupés : le thread de l'interface ne fait que redessiner, et reste fluide pendant que
+ * l'adversaire réfléchit. Le thread de jeu possède aussi les lectures : l'interface ne lit que l'état
+ * publié par le modèle à chaque événement (par exemple {@link model.Grille#getEtatPublie()}).
+ */
+public class BoucleJeu implements AutoCloseable {
+
+    private final ExecutorService executeur;
+    private volatile Thread thread;
+
+    /**
+     * Démarre le thread de jeu.
+     * @param interfaceGraphique L'exécuteur du thread de l'interface, où sont diffusés les événements
+     *                           (par exemple {@code SwingUtilities::invokeLater}).
+     */
+    public BoucleJeu(Executor interfaceGraphique) {
+        this.executeur = Executors.newSingleThreadExecutor(tache -> {
+            Thread t = new Thread(tache, "boucle-jeu");
+            t.setDaemon(true);
+            return t;
+        });
+        RelaisEvenements relais = new RelaisEvenements(interfaceGraphique);
+        executeur.execute(() -> {
+            thread = Thread.currentThread();
+            BusEvenements.relayer(relais);
+        });
+    }
+
+    /**
+     * Ajoute une commande à la file du thread de jeu. Une exception levée par la commande est affichée
+     * et n'interrompt pas le thread.
+     * @param commande La commande, qui peut modifier le modèle.
+     */
+    public void soumettre(Runnable commande) {
+        executeur.execute(() -> {
+            try {
+                commande.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Indique si le thread courant est le thread de jeu.
+     * @return true depuis une commande.
+     */
+    public boolean estThreadJeu() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Arrête le thread de jeu une fois les commandes en file exécutées.
+     */
+    @Override
+    public void close() {
+        executeur.shutdown();
+    }
+}
@@ -8,16 +8,21 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import javax.swing.*;
 import model.*;
 import vue.*;
 import ecoute.ModelEcoute;
-import ecoute.notifications.JeuNotification;
+import ecoute.Evenement;
+import metrique.Metriques;
 
 /**
  * Classe représentant la vue principale du jeu de bataille navale.
  * Elle gère l'affichage du tableau de jeu, ainsi que les boutons de contrôle permettant de démarrer la partie et de placer les navires.
+ * Les actions de l'utilisateur ne modifient pas le modèle sur le thread de l'interface : elles sont transmises
+ * au {@link BoucleJeu}, qui joue les coups et renvoie leurs événements à l'interface.
  */
 public class ControleJeu extends JPanel implements ModelEcoute {
 
@@ -33,10 +38,25 @@ public class ControleJeu extends JPanel implements ModelEcoute {
     /** Vue de la grille du joueur aléatoire */
     protected GrilleVue aleatoireGrilleVue;
 
+    /** Au-delà de ce nombre de cellules, les grilles sont dessinées sur un canevas unique */
+    public static final int SEUIL_CANEVAS = 400;
+
+    /** true si les grilles sont affichées par des {@link GrilleCanevas} plutôt que des {@link GrilleVue} */
+    protected boolean canevas;
+
     /** Panneau contenant les boutons de contrôle */
     protected JPanel buttonPanel;
     protected JButton aleatoireButton; // Bouton pour placer les navires du joueur humain de manière aléatoire
     protected JButton playButton; // Bouton pour démarrer la partie
+
+    /** Thread de jeu qui possède le modèle */
+    protected final BoucleJeu boucle;
+
+    /** true entre un clic sur la grille adverse et la fin de la riposte : les autres clics sont ignorés */
+    private final AtomicBoolean tirEnCours = new AtomicBoolean();
+
+    /** true entre une commande qui crée une flotte et la création des vues de ses bateaux : les autres sont ignorées */
+    private final AtomicBoolean flotteEnCours = new AtomicBoolean();
     
     public Jeu getJeu() {
         return this.jeu;
@@ -55,28 +75,44 @@ public class ControleJeu extends JPanel implements ModelEcoute {
         // Association du modèle au contrôleur et ajout de l'écouteur
         this.jeu = jeu;
         this.jeu.addListening(this);
+        this.boucle = new BoucleJeu(SwingUtilities::invokeLater);
 
-        // Création des vues des grilles
-        humainGrilleVue = new GrilleVue(jeu.getJoueurHumain().getGrille(), "Ma Grille", true, true);
-        aleatoireGrilleVue = new GrilleVue(jeu.getJoueurAleatoire().getGrille(), "Grille du Joueur Aléatoire", false, false);
+        // Création des vues des grilles : une vue par cellule, ou un canevas unique pour les grandes grilles
+        Grille humainGrille = jeu.getJoueurHumain().getGrille();
+        Grille aleatoireGrille = jeu.getJoueurAleatoire().getGrille();
+        this.canevas = utiliseCanevas(humainGrille);
+        JComponent humainVue;
+        JComponent aleatoireVue;
+        if (canevas) {
+            humainVue = new GrilleCanevas(humainGrille, "Ma Grille", true);
+            GrilleCanevas aleatoireCanevas = new GrilleCanevas(aleatoireGrille, "Grille du Joueur Aléatoire", false);
+            aleatoireCanevas.setClicCellule(this::tirHumain);
+            aleatoireVue = aleatoireCanevas;
+        } else {
+            humainGrilleVue = new GrilleVue(humainGrille, "Ma Grille", true, true);
+            aleatoireGrilleVue = new GrilleVue(aleatoireGrille, "Grille du Joueur Aléatoire", false, false);
+            humainVue = humainGrilleVue;
+            aleatoireVue = aleatoireGrilleVue;
+        }
 
-        // Définition du layout de la vue
+        // Définition du layout de la vue (les canevas suivent la taille de la fenêtre)
         this.setLayout(new GridBagLayout());
         this.gbc = new GridBagConstraints();
-        this.gbc.fill = GridBagConstraints.HORIZONTAL;
+        this.gbc.fill = canevas ? GridBagConstraints.BOTH : GridBagConstraints.HORIZONTAL;
+        this.gbc.weighty = canevas ? 1 : 0;
         this.gbc.insets = new Insets(10, 0, 0, 0);
 
         // Ajout de la grille du joueur humain à la vue
         this.gbc.gridx = 0;
         this.gbc.gridy = 0;
         this.gbc.weightx = 1;
-        this.add(humainGrilleVue, this.gbc);
+        this.add(humainVue, this.gbc);
 
         // Ajout de la grille du joueur aléatoire à la vue
         this.gbc.gridx = 1;
         this.gbc.gridy = 0;
         this.gbc.weightx = 1;
-        this.add(aleatoireGrilleVue, this.gbc);
+        this.add(aleatoireVue, this.gbc);
 
         // Configuration de l'interface des boutons de contrôle
         this.gbc.insets = new Insets(35, 0, 0, 0);
@@ -109,25 +145,138 @@ public class ControleJeu extends JPanel implements ModelEcoute {
 
         // Liaison des événements
         gererEvenement();
+
+        // Flottes déjà posées (partie restaurée depuis un instantané)
+        if (!jeu.getJoueurHumain().getFlotte().isEmpty()) this.poigneeHumainFlotteCree(List.copyOf(jeu.getJoueurHumain().getFlotte()));
+        if (!jeu.getJoueurAleatoire().getFlotte().isEmpty()) this.handleAleatoireFlotteCree(List.copyOf(jeu.getJoueurAleatoire().getFlotte()));
     }
 
     /**
-     * Crée la flotte du joueur humain en ajoutant les navires de manière aléatoire.
+     * Indique si une grille doit être affichée sur un canevas unique.
+     * C'est le cas au-delà de {@link #SEUIL_CANEVAS} cellules, ou si la propriété système
+     * {@code bataille.canevas} vaut true.
+     * @param grille La grille à afficher.
+     * @return true pour un {@link GrilleCanevas}, false pour une {@link GrilleVue}.
      */
-    public void creerHumainFlotte() {
-        if (jeu.debutJeu()) {
-            // Message d'avertissement si la partie est déjà en cours
-            new MessageDialog("Vous ne pouvez pas placer vos Bateaux en pleine partie", JOptionPane.WARNING_MESSAGE).showMessageDialog();
+    public static boolean utiliseCanevas(Grille grille) {
+        return Boolean.getBoolean("bataille.canevas") || grille.getLignes() * grille.getColonnes() > SEUIL_CANEVAS;
+    }
+
+    /**
+     * Joue le tir du joueur humain sur la cellule (x, y) de la grille adverse, puis la réponse de l'adversaire.
+     * Termine la partie si l'un des deux tirs la conclut.
+     * Appelée depuis l'interface, elle ne fait que transmettre le tir au thread de jeu ; les clics reçus
+     * avant la fin de la riposte sont ignorés.
+     * @param x Coordonnée X (ligne) de la cellule visée.
+     * @param y Coordonnée Y (colonne) de la cellule visée.
+     */
+    public void tirHumain(int x, int y) {
+        if (!tirEnCours.compareAndSet(false, true)) return;
+        long debutMesure = Metriques.debut();
+        boucle.soumettre(() -> {
+            try {
+                jouerClic(x, y);
+            } finally {
+                tirEnCours.set(false);
+                Metriques.CLICS.fin(debutMesure);
+            }
+        });
+    }
+
+    /**
+     * Joue un clic sur le thread de jeu. Le tir du joueur humain est relayé à l'interface
+     * avant que l'adversaire ne choisisse le sien.
+     */
+    private void jouerClic(int x, int y) {
+        // Vérifier si la cellule a déjà été visée
+        GrilleBits bits = jeu.getJoueurAleatoire().getGrille().getBits();
+        if (bits.estTiree(bits.index(x, y))) {
+            return;
+        }
+
+        // Vérifier si la partie a commencé
+        if (!jeu.debutJeu()) {
+            afficher("Appuyez sur le bouton Play pour commencer la partie", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        // Gérer le tir du joueur humain
+        jeu.setJoueurActuel(jeu.getJoueurHumain());
+        jeu.tireGrilleAdversaire(x, y);
+
+        // Vérifier si la partie est terminée
+        if (!jeu.estFini()) {
+            // L'adversaire effectue un tir
+            long debutDecision = Metriques.debut();
+            int index = jeu.getJoueurAleatoire().tireCase();
+            Metriques.DECISIONS.fin(debutDecision);
+            jeu.tireCaseAdversaire(index);
+
+            if (jeu.estFini()) finJeu();
         } else {
-            // Ajoute la flotte aléatoirement
-            this.jeu.humainAjoutBateauAleatoire();
+            finJeu();
         }
     }
 
+    /**
+     * Crée la flotte du joueur humain en ajoutant les navires de manière aléatoire.
+     * Les vues des navires sont créées sur le thread de l'interface à partir d'une copie de la flotte prise
+     * sur le thread de jeu ; tant qu'elles ne le sont pas, les clics suivants sont ignorés.
+     */
+    public void creerHumainFlotte() {
+        if (!flotteEnCours.compareAndSet(false, true)) return;
+        boucle.soumettre(() -> {
+            List<Bateau> flotte = null;
+            try {
+                if (jeu.debutJeu()) {
+                    // Message d'avertissement si la partie est déjà en cours
+                    afficher("Vous ne pouvez pas placer vos Bateaux en pleine partie", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    // Ajoute la flotte aléatoirement
+                    this.jeu.humainAjoutBateauAleatoire();
+                    flotte = List.copyOf(this.jeu.getJoueurHumain().getFlotte());
+                }
+            } finally {
+                afficherFlotte(flotte, this::poigneeHumainFlotteCree);
+            }
+        });
+    }
+
+    /**
+     * Crée sur le thread de l'interface les vues d'une flotte copiée sur le thread de jeu, puis accepte
+     * à nouveau les commandes qui créent une flotte. Les événements de la commande, relayés avant,
+     * ont déjà détaché les vues de l'ancienne flotte.
+     * @param flotte La copie de la flotte, ou null si la commande n'en a pas créé.
+     * @param creerVues La création des vues de la flotte.
+     */
+    private void afficherFlotte(List<Bateau> flotte, Consumer<List<Bateau>> creerVues) {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                if (flotte != null) creerVues.accept(flotte);
+            } finally {
+                flotteEnCours.set(false);
+            }
+        });
+    }
+
+    /**
+     * Affiche un message sur le thread de l'interface, sans attendre qu'il soit fermé.
+     * @param message Le message.
+     * @param type Le type de message (constante de {@link JOptionPane}).
+     */
+    private void afficher(String message, int type) {
+        SwingUtilities.invokeLater(() -> new MessageDialog(message, type).showMessageDialog());
+    }
+
     /**
      * Gère la fin de la partie en affichant un message de félicitations et en fermant l'application.
+     * Le vainqueur est lu sur le thread de jeu, le message est affiché sur celui de l'interface.
      */
     public void finJeu() {
+        if (!boucle.estThreadJeu()) {
+            boucle.soumettre(this::finJeu);
+            return;
+        }
         if (jeu.estFini()) {
             // Déterminer le gagnant de la partie
             AbstractJoueur gagnant = jeu.getVainqueur();
@@ -141,14 +290,17 @@ public class ControleJeu extends JPanel implements ModelEcoute {
             }
 
             // Afficher le message de fin et quitter
-            int resultat = new MessageDialog(finMessage, JOptionPane.INFORMATION_MESSAGE)
-                    .showConfirmationMessageDialog("Ok", "Quitter");
+            String message = finMessage;
+            SwingUtilities.invokeLater(() -> {
+                int resultat = new MessageDialog(message, JOptionPane.INFORMATION_MESSAGE)
+                        .showConfirmationMessageDialog("Ok", "Quitter");
 
-            if (resultat == JOptionPane.OK_OPTION) {
-                System.exit(0);
-            } else {
-                System.exit(0);
-            }
+                if (resultat == JOptionPane.OK_OPTION) {
+                    System.exit(0);
+                } else {
+                    System.exit(0);
+                }
+            });
         }
     }
 
@@ -157,35 +309,45 @@ public class ControleJeu extends JPanel implements ModelEcoute {
      * Démarre la partie si elle n'est pas encore commencée.
      */
     public void debutJeuClique() {
-        if (jeu.debutJeu()) {
-            new MessageDialog("La partie est déjà en cours", JOptionPane.INFORMATION_MESSAGE).showMessageDialog();
-        } else {
-            // Démarre la partie
-            this.jeu.debutPartie();
-        }
+        if (!flotteEnCours.compareAndSet(false, true)) return;
+        boucle.soumettre(() -> {
+            List<Bateau> flotte = null;
+            try {
+                if (jeu.debutJeu()) {
+                    afficher("La partie est déjà en cours", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    // Démarre la partie, ce qui crée la flotte du joueur aléatoire
+                    this.jeu.debutPartie();
+                    flotte = List.copyOf(this.jeu.getJoueurAleatoire().getFlotte());
+                }
+            } finally {
+                afficherFlotte(flotte, this::handleAleatoireFlotteCree);
+            }
+        });
     }
 
     /**
-     * Gère la notification de création de la flotte du joueur humain.
-     * Crée les vues des navires du joueur humain.
+     * Crée les vues des navires du joueur humain, sur le thread de l'interface.
+     * @param flotte Copie de la flotte, prise sur le thread de jeu.
      */
-    public void poigneeHumainFlotteCree() {
-        // Assigner une vue à chaque bateau de la flotte
-        ArrayList<Bateau> flotte = this.jeu.getJoueurHumain().getFlotte();
+    public void poigneeHumainFlotteCree(List<Bateau> flotte) {
+        // Le canevas dessine lui-même les bateaux
+        if (canevas) return;
 
+        // Assigner une vue à chaque bateau de la flotte
         for (Bateau bateau : flotte) {
             new VueBateau(bateau, this.humainGrilleVue);
         }
     }
 
     /**
-     * Gère la notification de création de la flotte du joueur aléatoire.
-     * Crée les vues des navires du joueur aléatoire.
+     * Crée les vues des navires du joueur aléatoire, sur le thread de l'interface.
+     * @param fleet Copie de la flotte, prise sur le thread de jeu.
      */
-    public void handleAleatoireFlotteCree() {
-        // Assigner une vue à chaque bateau de la flotte
-        ArrayList<Bateau> fleet = this.jeu.getJoueurAleatoire().getFlotte();
+    public void handleAleatoireFlotteCree(List<Bateau> fleet) {
+        if (canevas) return;
 
+        // Assigner une vue à chaque bateau de la flotte
         for (Bateau ship : fleet) {
             new VueBateau(ship, this.aleatoireGrilleVue);
         }
@@ -195,27 +357,29 @@ public class ControleJeu extends JPanel implements ModelEcoute {
      * Gère la notification du début du jeu. Affiche un message indiquant que la partie peut commencer.
      */
     public void handleJeuCommencee() {
-        new MessageDialog("La partie peut commencer", JOptionPane.INFORMATION_MESSAGE).showMessageDialog();
+        // Affiché après le lot en cours, pour ne pas retarder les autres événements derrière la boîte modale
+        afficher("La partie peut commencer", JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
      * Méthode appelée lors de la mise à jour du modèle pour traiter les notifications reçues.
      * 
      * @param source L'objet source de la notification.
-     * @param notification L'objet notification contenant le type de changement.
+     * @param code Le code de l'événement (voir {@link Evenement}).
      */
     @Override
-    public void modelMisAJour(Object source, Object notification) {
-        if (notification instanceof JeuNotification) {
-            if (notification == JeuNotification.HUMAIN_FLOTTE_CREE) {
-                this.poigneeHumainFlotteCree();
-            } else if (notification == JeuNotification.ALEATOIRE_FLOTTE_CREE) {
-                this.handleAleatoireFlotteCree();
-            } else if (notification == JeuNotification.PARTIE_COMMENCEE) {
+    public void evenement(Object source, int code) {
+        switch (code) {
+            case Evenement.HUMAIN_FLOTTE_CREE:
+            case Evenement.ALEATOIRE_FLOTTE_CREE:
+                // Rien à lire ici : la flotte du modèle appartient au thread de jeu, qui a peut-être déjà
+                // commencé la commande suivante. Les vues sont créées à partir de la copie prise par la commande.
+                break;
+            case Evenement.PARTIE_COMMENCEE:
                 this.handleJeuCommencee();
-            }
-        } else {
-            System.out.println("Notification non gérée pour VueCellule : " + notification);
+                break;
+            default:
+                System.out.println("Notification non gérée pour ControleJeu : " + Evenement.notification(code));
         }
     }
 
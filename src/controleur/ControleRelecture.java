@@ -0,0 +1,196 @@
+package controleur;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import javax.swing.*;
+
+import vue.GrilleCanevas;
+
+/**
+ * Vue de spectateur : relecture d'une partie enregistrée ou suivie en direct, à vitesse réglable.
+ * <p>
+ * Les tirs ne sont pas appliqués un par un mais une fois par image : un minuteur Swing cadencé à
+ * {@value #IMAGES_PAR_SECONDE} images par seconde calcule combien de tirs la vitesse choisie fait avancer
+ * depuis l'image précédente, et les applique d'un seul {@link Relecture#allerA(int)}. Chaque canevas
+ * ne reçoit donc qu'un événement et ne repeint qu'une fois par image, que la partie avance d'un tir
+ * ou de plusieurs milliers par seconde. Un déplacement du curseur est lui aussi reporté à l'image suivante :
+ * glisser le curseur ne rejoue pas chaque position intermédiaire.
+ */
+public class ControleRelecture extends JPanel {
+
+    /** Cadence du minuteur */
+    public static final int IMAGES_PAR_SECONDE = 60;
+
+    /** Vitesse maximale, en tirs par seconde */
+    public static final int VITESSE_MAX = 10_000;
+
+    /** Nombre de crans du curseur de vitesse par facteur 10 */
+    private static final int CRANS_PAR_DECADE = 10;
+
+    /** Contraintes de la mise en page GridBag */
+    protected GridBagConstraints gbc;
+
+    /** Partie relue */
+    protected final Relecture relecture;
+
+    /** Commandes de la relecture */
+    protected JPanel buttonPanel;
+    protected JButton lectureButton;
+    protected JSlider curseurPosition;
+    protected JSlider curseurVitesse;
+    protected JLabel etat;
+
+    private final Timer minuteur;
+
+    // État de la lecture, propre au thread de l'interface
+    private boolean enLecture = true;
+    private double vitesse;            // Tirs par seconde
+    private double reste;              // Fraction de tir accumulée d'une image à l'autre
+    private long derniereImage;
+    private int positionDemandee = -1; // Position choisie au curseur, appliquée à l'image suivante
+    private boolean majCurseur;        // true pendant la mise à jour du curseur par le minuteur
+
+    /**
+     * Constructeur de la vue de relecture.
+     * @param relecture La partie à relire.
+     * @param vitesse La vitesse de départ, en tirs par seconde.
+     */
+    public ControleRelecture(Relecture relecture, int vitesse) {
+        super();
+        this.setBackground(Color.BLACK);
+        this.relecture = relecture;
+        this.vitesse = Math.max(1, Math.min(VITESSE_MAX, vitesse));
+
+        // Les deux grilles, bateaux visibles
+        this.setLayout(new GridBagLayout());
+        this.gbc = new GridBagConstraints();
+        this.gbc.fill = GridBagConstraints.BOTH;
+        this.gbc.weightx = 1;
+        this.gbc.weighty = 1;
+        this.gbc.insets = new Insets(10, 0, 0, 0);
+        for (int j = 0; j < 2; j++) {
+            this.gbc.gridx = j;
+            this.gbc.gridy = 0;
+            this.add(new GrilleCanevas(relecture.getGrille(j), "Joueur " + (j + 1), true), this.gbc);
+        }
+
+        // Commandes : lecture, position, vitesse
+        buttonPanel = new JPanel();
+        buttonPanel.setBackground(Color.BLACK);
+
+        lectureButton = new JButton("Pause");
+        lectureButton.setPreferredSize(new Dimension(150, 40));
+        lectureButton.setFont(new Font("Arial", Font.BOLD, 17));
+        lectureButton.addActionListener(e -> basculerLecture());
+
+        curseurPosition = new JSlider(0, relecture.getNombreTirs(), 0);
+        curseurPosition.setPreferredSize(new Dimension(400, 40));
+        curseurPosition.addChangeListener(e -> {
+            if (!majCurseur) positionDemandee = curseurPosition.getValue();
+        });
+
+        curseurVitesse = new JSlider(0, CRANS_PAR_DECADE * (int) Math.round(Math.log10(VITESSE_MAX)),
+                (int) Math.round(CRANS_PAR_DECADE * Math.log10(this.vitesse)));
+        curseurVitesse.setPreferredSize(new Dimension(200, 40));
+        curseurVitesse.addChangeListener(e -> this.vitesse = Math.pow(10, curseurVitesse.getValue() / (double) CRANS_PAR_DECADE));
+
+        etat = new JLabel();
+        etat.setForeground(Color.WHITE);
+        etat.setFont(new Font("Arial", Font.BOLD, 14));
+        etat.setPreferredSize(new Dimension(260, 40));
+
+        buttonPanel.add(lectureButton);
+        buttonPanel.add(curseurPosition);
+        buttonPanel.add(curseurVitesse);
+        buttonPanel.add(etat);
+
+        // Positionnement du panneau de commandes en bas de la fenêtre
+        this.gbc.gridx = 0;
+        this.gbc.gridy = 1;
+        this.gbc.gridwidth = 2;
+        this.gbc.fill = GridBagConstraints.HORIZONTAL;
+        this.gbc.weighty = 0.0;
+        this.gbc.anchor = GridBagConstraints.PAGE_END;
+        this.add(buttonPanel, this.gbc);
+
+        // Une image par tic ; les tics en retard sont fusionnés par le minuteur
+        this.minuteur = new Timer(1000 / IMAGES_PAR_SECONDE, e -> image());
+        this.minuteur.setCoalesce(true);
+        this.derniereImage = System.nanoTime();
+        this.minuteur.start();
+        majCommandes();
+    }
+
+    /**
+     * Avance la relecture d'une image : applique en un lot les tirs dus depuis l'image précédente,
+     * ou la position choisie au curseur.
+     */
+    private void image() {
+        long maintenant = System.nanoTime();
+        double ecoule = (maintenant - derniereImage) / 1e9;
+        derniereImage = maintenant;
+
+        if (positionDemandee >= 0) {
+            relecture.allerA(positionDemandee);
+            positionDemandee = -1;
+            reste = 0;
+        } else if (enLecture) {
+            reste += vitesse * ecoule;
+            int pas = (int) reste;
+            reste -= pas;
+            relecture.allerA(relecture.getPosition() + pas);
+            // En attente des tirs d'une partie en direct : pas de rattrapage en rafale ensuite
+            if (relecture.getPosition() == relecture.getNombreTirs()) {
+                reste = 0;
+                if (relecture.estComplete()) basculerLecture();
+            }
+        }
+        majCommandes();
+    }
+
+    /**
+     * Met en pause ou reprend la lecture ; une lecture arrivée au bout reprend du début.
+     */
+    private void basculerLecture() {
+        enLecture = !enLecture;
+        if (enLecture && relecture.estComplete() && relecture.getPosition() == relecture.getNombreTirs()) {
+            positionDemandee = 0;
+        }
+        lectureButton.setText(enLecture ? "Pause" : "Lecture");
+    }
+
+    /**
+     * Reporte la position et la vitesse sur les commandes, sans déclencher de déplacement.
+     */
+    private void majCommandes() {
+        int total = relecture.getNombreTirs();
+        int position = relecture.getPosition();
+        majCurseur = true;
+        try {
+            if (curseurPosition.getMaximum() != total) curseurPosition.setMaximum(total);
+            if (!curseurPosition.getValueIsAdjusting()) curseurPosition.setValue(position);
+        } finally {
+            majCurseur = false;
+        }
+
+        String texte = String.format("Tir %d / %d%s - %.0f tirs/s", position, total,
+                relecture.estComplete() ? "" : "+", vitesse);
+        int vainqueur = relecture.getVainqueur();
+        if (vainqueur >= 0) texte += " - Joueur " + (vainqueur + 1) + " gagne";
+        if (relecture.getErreur() != null) texte += " - partie interrompue";
+        if (!texte.equals(etat.getText())) etat.setText(texte);
+    }
+
+    /**
+     * Arrête le minuteur quand la vue est retirée de la fenêtre.
+     */
+    @Override
+    public void removeNotify() {
+        minuteur.stop();
+        super.removeNotify();
+    }
+}
@@ -0,0 +1,258 @@
+package controleur;
+
+import java.util.concurrent.Executor;
+
+import ecoute.BusEvenements;
+import journal.FormatJournal;
+import journal.LecteurJournal;
+import journal.VisiteurJournal;
+import model.AbstractJoueur;
+import model.Bateau;
+import model.Grille;
+import model.GrilleBits;
+import model.HistoriqueTirs;
+import simulation.PartieSimulee;
+
+/**
+ * Relecture d'une partie entre deux joueurs automatiques : une partie enregistrée dans un journal,
+ * ou une partie en cours suivie en direct.
+ * <p>
+ * La relecture possède ses propres grilles, sans cellules, sur lesquelles elle rejoue les tirs jusqu'à la position
+ * demandée par {@link #allerA(int)}. Tous les tirs appliqués par un même appel le sont dans un seul lot du
+ * {@link BusEvenements} : chaque grille n'émet qu'un événement, quel que soit le nombre de tirs, et un canevas
+ * qui l'écoute ne compare ses masques et ne repeint qu'une fois. Revenir en arrière efface les tirs des grilles
+ * puis rejoue le début de la partie, toujours en un seul lot.
+ * <p>
+ * Les grilles ne doivent être modifiées que depuis un seul thread (celui de l'interface) ; seule la liste
+ * des tirs peut être complétée depuis un autre, pendant une partie suivie en direct.
+ */
+public final class Relecture {
+
+    private final int lignes;
+    private final int colonnes;
+    // Grille de chaque joueur, qui reçoit les tirs de l'autre
+    private final Grille[] grilles = new Grille[2];
+
+    // Tirs de la partie ({@code index << 1 | tireur}), complétés en direct sous le verrou de la relecture
+    private final HistoriqueTirs tirs;
+    private volatile boolean complete;
+    private volatile Throwable erreur;
+
+    // Nombre de tirs appliqués aux grilles, et copie des tirs à appliquer, propres au thread de l'interface
+    private int position;
+    private int[] aAppliquer = new int[64];
+
+    /**
+     * Crée une relecture sans bateau ni tir.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     */
+    public Relecture(int lignes, int colonnes) {
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.grilles[0] = new Grille(lignes, colonnes, false);
+        this.grilles[1] = new Grille(lignes, colonnes, false);
+        this.tirs = new HistoriqueTirs(2 * lignes * colonnes);
+    }
+
+    // --------------------- SOURCES ---------------------
+
+    /**
+     * Charge une partie d'un journal.
+     * @param lecteur Le journal, qui peut être fermé dès le retour de la méthode.
+     * @param numero Numéro de la partie dans le journal, à partir de 0.
+     * @return La relecture de la partie, complète.
+     */
+    public static Relecture depuisJournal(LecteurJournal lecteur, long numero) {
+        long rang = 0;
+        for (long n = 0; n < numero; n++) {
+            if (rang >= lecteur.getNombreEnregistrements()) break;
+            rang += FormatJournal.nombreEnregistrements(lecteur.enregistrement(rang));
+        }
+        if (rang >= lecteur.getNombreEnregistrements()) {
+            throw new IllegalArgumentException("Le journal ne contient pas de partie n° " + numero + ".");
+        }
+        Relecture[] relecture = new Relecture[1];
+        lecteur.rejouer(rang, new VisiteurJournal() {
+            @Override
+            public void partie(long rang, int lignes, int colonnes) {
+                relecture[0] = new Relecture(lignes, colonnes);
+            }
+
+            @Override
+            public void bateau(int joueur, int index, int taille, boolean vertical) {
+                relecture[0].poserBateau(joueur, index, taille, vertical);
+            }
+
+            @Override
+            public void tir(int tireur, int index, int resultat) {
+                relecture[0].ajouterTir(index, tireur);
+            }
+        });
+        relecture[0].terminer();
+        return relecture[0];
+    }
+
+    /**
+     * Suit en direct une partie entre deux joueurs automatiques, jouée tir par tir sur un autre thread.
+     * Les flottes de la partie sont recopiées ; chaque tir joué est ajouté à la relecture.
+     * @param partie La partie, pas encore commencée, dont le joueur 0 tire en premier.
+     * @param executeur L'exécuteur sur lequel jouer la partie (un thread qui peut réfléchir longtemps).
+     * @return La relecture, qui se complète au fil de la partie.
+     */
+    public static Relecture suivre(PartieSimulee partie, Executor executeur) {
+        Grille grille = partie.getJoueur(0).getGrille();
+        Relecture relecture = new Relecture(grille.getLignes(), grille.getColonnes());
+        for (int j = 0; j < 2; j++) {
+            GrilleBits bits = partie.getJoueur(j).getGrille().getBits();
+            for (int b = 0; b < bits.getNbBateaux(); b++) {
+                int origine = bits.getOrigineBateau(b);
+                relecture.poserBateau(j, origine >>> 1, bits.getTailleBateau(b), (origine & 1) != 0);
+            }
+        }
+        executeur.execute(() -> {
+            try {
+                HistoriqueTirs historique = partie.getHistorique();
+                boolean finie = false;
+                while (!finie) {
+                    finie = partie.jouerTir();
+                    int dernier = historique.taille() - 1;
+                    relecture.ajouterTir(historique.getCase(dernier), historique.getTireur(dernier));
+                }
+            } catch (RuntimeException e) {
+                relecture.erreur = e;
+                throw e;
+            } finally {
+                relecture.terminer();
+            }
+        });
+        return relecture;
+    }
+
+    /**
+     * Pose un bateau d'un joueur, avant le premier tir.
+     * @param joueur Le joueur (0 ou 1).
+     * @param index Indice de la première case du bateau.
+     * @param taille Taille du bateau.
+     * @param vertical true si le bateau est vertical.
+     */
+    public void poserBateau(int joueur, int index, int taille, boolean vertical) {
+        if (!grilles[joueur].poserBateau(index / colonnes, index % colonnes, new Bateau(taille), vertical)) {
+            throw new IllegalArgumentException("Bateau de taille " + taille + " impossible à poser en " + index + ".");
+        }
+    }
+
+    /**
+     * Ajoute un tir à la fin de la partie. Peut être appelée depuis le thread qui joue la partie.
+     * @param index Indice de la case visée sur la grille de l'adversaire.
+     * @param tireur Joueur qui tire (0 ou 1).
+     */
+    public synchronized void ajouterTir(int index, int tireur) {
+        tirs.ajouter(index, tireur);
+    }
+
+    /**
+     * Indique que la partie est terminée : plus aucun tir ne sera ajouté.
+     */
+    public void terminer() {
+        complete = true;
+    }
+
+    // --------------------- LECTURE ---------------------
+
+    /**
+     * Amène les grilles à la position demandée, en avant comme en arrière, en un seul lot d'événements.
+     * @param cible Nombre de tirs à avoir appliqué, ramené entre 0 et le nombre de tirs connus.
+     * @return Le nombre de tirs appliqués par l'appel.
+     */
+    public int allerA(int cible) {
+        int depart = position;
+        int n;
+        synchronized (this) {
+            cible = Math.max(0, Math.min(cible, tirs.taille()));
+            if (cible < depart) depart = 0;
+            n = cible - depart;
+            if (aAppliquer.length < n) aAppliquer = new int[Math.max(n, 2 * aAppliquer.length)];
+            for (int i = 0; i < n; i++) {
+                aAppliquer[i] = tirs.get(depart + i);
+            }
+        }
+        if (cible == position) return 0;
+
+        BusEvenements.debutLot();
+        try {
+            if (depart < position) {
+                grilles[0].viderTirs();
+                grilles[1].viderTirs();
+            }
+            for (int i = 0; i < n; i++) {
+                int tir = aAppliquer[i];
+                grilles[1 - (tir & 1)].recevoirTir(tir >>> 1);
+            }
+            position = cible;
+        } finally {
+            BusEvenements.finLot();
+        }
+        return n;
+    }
+
+    /**
+     * Retourne le nombre de tirs appliqués aux grilles.
+     * @return La position courante.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Retourne le nombre de tirs connus, qui augmente pendant une partie suivie en direct.
+     * @return Le nombre de tirs.
+     */
+    public synchronized int getNombreTirs() {
+        return tirs.taille();
+    }
+
+    /**
+     * Indique si tous les tirs de la partie sont connus.
+     * @return true pour une partie relue depuis un journal, ou suivie jusqu'à sa fin.
+     */
+    public boolean estComplete() {
+        return complete;
+    }
+
+    /**
+     * Retourne l'erreur qui a interrompu une partie suivie en direct.
+     * @return L'erreur, ou null.
+     */
+    public Throwable getErreur() {
+        return erreur;
+    }
+
+    /**
+     * Retourne la grille d'un joueur, sur laquelle tire l'autre.
+     * @param joueur Le joueur (0 ou 1).
+     * @return La grille, sans cellules.
+     */
+    public Grille getGrille(int joueur) {
+        return grilles[joueur];
+    }
+
+    /**
+     * Retourne le vainqueur à la position courante.
+     * @return 0 ou 1, ou -1 si les deux flottes sont encore à flot.
+     */
+    public int getVainqueur() {
+        for (int j = 0; j < 2; j++) {
+            if (grilles[1 - j].getBits().flotteCoulee()) return j;
+        }
+        return -1;
+    }
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+}
@@ -0,0 +1,17 @@
+package ecoute;
+
+/**
+ * Abonnement d'un écouteur à un modèle, obtenu par {@link AbstractModelEcoutable#abonner(ModelEcoute)}
+ * ou {@link AbstractModelEcoutable#abonnerFaible(ModelEcoute)}.
+ * Le fermer désabonne l'écouteur : une vue qui garde son abonnement n'a pas besoin de retenir le modèle
+ * pour s'en détacher, et peut l'utiliser dans un bloc try-with-resources.
+ */
+@FunctionalInterface
+public interface Abonnement extends AutoCloseable {
+
+    /**
+     * Désabonne l'écouteur. Sans effet s'il l'est déjà.
+     */
+    @Override
+    void close();
+}
@@ -1,58 +1,143 @@
 package ecoute;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+
+import metrique.Metriques;
 
 /**
  * Classe abstraite représentant un modèle qui peut être écouté par plusieurs écouteurs.
- * Elle implémente l'interface ModelEcoutable et gère une liste d'écouteurs qui réagiront aux changements dans le modèle.
+ * Elle implémente l'interface ModelEcoutable ; la diffusion des événements est confiée au {@link BusEvenements}.
+ * Le tableau des écouteurs n'est alloué qu'au premier abonnement : un modèle que personne n'écoute
+ * (par exemple dans une simulation) ne coûte qu'une référence nulle et n'émet rien.
+ * <p>
+ * Les vues créées et abandonnées au fil de la partie (par exemple celles des bateaux, recréées à chaque
+ * placement de la flotte) s'abonnent par {@link #abonner(ModelEcoute)}, qui rend un {@link Abonnement} à fermer,
+ * ou par {@link #abonnerFaible(ModelEcoute)}, qui ne retient pas la vue. Les abonnements peuvent être pris
+ * depuis le thread de l'interface pendant que le thread de jeu modifie le modèle.
  */
 public abstract class AbstractModelEcoutable implements ModelEcoutable {
     
-    // Liste des écouteurs attachés au modèle
-    private ArrayList<ModelEcoute> ecouteurs;
+    // Écouteurs attachés au modèle, null tant qu'aucun écouteur ne s'est abonné
+    private volatile ModelEcoute[] ecouteurs;
+
+    // Codes des événements en attente dans le lot courant (un bit par code), géré par le bus
+    int evenementsEnAttente;
     
     /**
      * Constructeur de la classe AbstractModelEcoutable.
-     * Initialise la liste des écouteurs comme une nouvelle ArrayList vide.
+     * Aucun écouteur n'est alloué tant que personne ne s'abonne.
      */
     public AbstractModelEcoutable() {
         super();  // Appel au constructeur de la classe parente (si applicable)
-        this.ecouteurs = new ArrayList<ModelEcoute>();  // Initialisation de la liste des écouteurs
     }
 
     /**
      * Ajoute un écouteur à la liste des écouteurs.
      * Cet écouteur sera notifié lors des changements dans le modèle.
+     * Le tableau est recopié à chaque abonnement, ce qui permet de diffuser sans copie même si un écouteur se désabonne pendant la diffusion.
+     * Les écouteurs faibles dont la vue a disparu sont retirés au passage.
      * 
      * @param e L'écouteur à ajouter.
      */
     @Override
-    public void addListening(ModelEcoute e) {
-        this.ecouteurs.add(e);  // Ajoute l'écouteur à la liste
+    public synchronized void addListening(ModelEcoute e) {
+        ModelEcoute[] actuels = ecouteurs;
+        if (actuels == null) {
+            ecouteurs = new ModelEcoute[] { e };
+            return;
+        }
+        ModelEcoute[] copie = new ModelEcoute[actuels.length + 1];
+        int n = 0;
+        for (ModelEcoute ecouteur : actuels) {
+            if (ecouteur instanceof EcouteFaible faible && faible.get() == null) continue;
+            copie[n++] = ecouteur;
+        }
+        copie[n++] = e;
+        ecouteurs = (n == copie.length) ? copie : Arrays.copyOf(copie, n);
+    }
+
+    /**
+     * Abonne un écouteur et rend l'abonnement, qui le désabonnera une fois fermé.
+     * @param e L'écouteur à ajouter.
+     * @return L'abonnement de l'écouteur.
+     */
+    public Abonnement abonner(ModelEcoute e) {
+        addListening(e);
+        return () -> removeListening(e);
+    }
+
+    /**
+     * Abonne un écouteur sans le retenir : s'il n'est plus référencé ailleurs (par exemple une vue retirée
+     * de l'interface), il est récupéré par le ramasse-miettes et son abonnement disparaît de lui-même.
+     * L'écouteur peut aussi être désabonné par {@link #removeListening(ModelEcoute)} ou en fermant l'abonnement.
+     * @param e L'écouteur à ajouter, qui doit être retenu par ailleurs.
+     * @return L'abonnement de l'écouteur.
+     */
+    public Abonnement abonnerFaible(ModelEcoute e) {
+        EcouteFaible faible = new EcouteFaible(e);
+        addListening(faible);
+        return () -> removeListening(faible);
     }
 
     /**
      * Supprime un écouteur de la liste des écouteurs.
      * Cet écouteur ne sera plus notifié lors des changements dans le modèle.
+     * Un écouteur abonné par {@link #abonnerFaible(ModelEcoute)} est retrouvé à travers son enveloppe.
      * 
      * @param e L'écouteur à supprimer.
      */
     @Override
-    public void removeListening(ModelEcoute e) {
-        this.ecouteurs.remove(e);  // Retire l'écouteur de la liste
+    public synchronized void removeListening(ModelEcoute e) {
+        ModelEcoute[] actuels = ecouteurs;
+        if (actuels == null) return;
+        for (int i = 0; i < actuels.length; i++) {
+            if (actuels[i] == e || (actuels[i] instanceof EcouteFaible faible && faible.get() == e && e != null)) {
+                if (actuels.length == 1) {
+                    ecouteurs = null;
+                    return;
+                }
+                ModelEcoute[] copie = new ModelEcoute[actuels.length - 1];
+                System.arraycopy(actuels, 0, copie, 0, i);
+                System.arraycopy(actuels, i + 1, copie, i, actuels.length - i - 1);
+                ecouteurs = copie;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre d'écouteurs abonnés au modèle, sans compter les écouteurs faibles déjà récupérés.
+     * @return Le nombre d'écouteurs.
+     */
+    public int getNombreEcouteurs() {
+        ModelEcoute[] actuels = ecouteurs;
+        if (actuels == null) return 0;
+        int n = 0;
+        for (ModelEcoute ecouteur : actuels) {
+            if (!(ecouteur instanceof EcouteFaible faible) || faible.get() != null) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Retourne les écouteurs actuels (null si aucun), pour le bus d'événements.
+     */
+    ModelEcoute[] getEcouteurs() {
+        return ecouteurs;
     }
 
     /**
      * Notifie tous les écouteurs enregistrés qu'un changement a eu lieu.
-     * Les écouteurs seront informés via la méthode modelMisAJour.
+     * Si un lot est ouvert sur le thread courant, l'événement est mis en attente jusqu'à la fin du lot.
      * 
-     * @param notification L'objet représentant l'information sur le changement.
+     * @param code Le code de l'événement (voir {@link Evenement}).
      */
-    protected void fireChangement(Object notification) {
-        // Parcours la liste des écouteurs et leur envoie la notification du changement
-        for (ModelEcoute e : ecouteurs) {
-            e.modelMisAJour(this, notification);  // Appelle la méthode de mise à jour sur chaque écouteur
-        }
+    protected void fireChangement(int code) {
+        ModelEcoute[] actuels = ecouteurs;
+        if (Metriques.actives()) Metriques.notification((actuels == null) ? 0 : actuels.length);
+        // Personne n'écoute : rien à faire
+        if (actuels == null) return;
+        BusEvenements.emettre(this, code);
     }
 
 }
@@ -0,0 +1,186 @@
+package ecoute;
+
+import java.util.Arrays;
+
+/**
+ * Bus central de diffusion des événements des modèles.
+ * Un événement est diffusé immédiatement aux écouteurs de sa source, sauf si un lot est ouvert sur le thread courant :
+ * il est alors mis en attente et diffusé à la fin du lot. Dans un lot, un même événement émis plusieurs fois
+ * par une même source n'est diffusé qu'une fois, ce qui permet de regrouper toutes les mises à jour d'un coup joué.
+ * Les lots peuvent être imbriqués ; seule la fin du lot le plus externe déclenche la diffusion.
+ *
+ * Les lots sont propres à chaque thread. Les écouteurs d'un modèle sont appelés depuis le thread qui le modifie,
+ * sauf si ce thread a installé un {@link RelaisEvenements} : ses événements sont alors diffusés sur le thread
+ * de l'interface.
+ */
+public final class BusEvenements {
+
+    /** Lot en cours de chaque thread */
+    private static final ThreadLocal<Lot> LOTS = ThreadLocal.withInitial(Lot::new);
+
+    /** Écouteurs prévenus à la fin de chaque lot */
+    private static volatile EcouteurLot[] ecouteursLots = new EcouteurLot[0];
+
+    private BusEvenements() {
+    }
+
+    /**
+     * Ouvre un lot sur le thread courant : les événements seront diffusés à l'appel de {@link #finLot()}.
+     * Chaque appel doit être suivi d'un appel à finLot(), de préférence dans un bloc finally.
+     */
+    public static void debutLot() {
+        LOTS.get().profondeur++;
+    }
+
+    /**
+     * Ferme le lot courant. Si c'est le lot le plus externe, diffuse tous les événements en attente
+     * dans leur ordre d'émission, puis prévient les écouteurs de lots.
+     */
+    public static void finLot() {
+        Lot lot = LOTS.get();
+        if (lot.profondeur == 0) {
+            throw new IllegalStateException("finLot() appelé sans debutLot()");
+        }
+        if (lot.profondeur > 1) {
+            lot.profondeur--;
+            return;
+        }
+
+        // Le lot reste ouvert pendant la diffusion : ce qu'émettent les écouteurs est diffusé à la suite
+        int n;
+        try {
+            n = lot.diffuser();
+        } finally {
+            lot.profondeur = 0;
+        }
+        if (n > 0) {
+            for (EcouteurLot e : ecouteursLots) {
+                e.lotTermine(n);
+            }
+        }
+    }
+
+    /**
+     * Confie les événements émis par le thread courant à un relais, qui les diffusera sur un autre thread.
+     * @param relais Le relais, ou null pour diffuser de nouveau sur le thread courant.
+     */
+    public static void relayer(RelaisEvenements relais) {
+        LOTS.get().relais = relais;
+    }
+
+    /**
+     * Indique si un lot est ouvert sur le thread courant.
+     * @return true si les événements sont actuellement mis en attente.
+     */
+    public static boolean enLot() {
+        return LOTS.get().profondeur > 0;
+    }
+
+    /**
+     * Abonne un écouteur à la fin des lots.
+     * @param e L'écouteur à ajouter.
+     */
+    public static synchronized void ajouterEcouteurLot(EcouteurLot e) {
+        EcouteurLot[] copie = new EcouteurLot[ecouteursLots.length + 1];
+        System.arraycopy(ecouteursLots, 0, copie, 0, ecouteursLots.length);
+        copie[ecouteursLots.length] = e;
+        ecouteursLots = copie;
+    }
+
+    /**
+     * Désabonne un écouteur de la fin des lots.
+     * @param e L'écouteur à retirer.
+     */
+    public static synchronized void retirerEcouteurLot(EcouteurLot e) {
+        for (int i = 0; i < ecouteursLots.length; i++) {
+            if (ecouteursLots[i] == e) {
+                EcouteurLot[] copie = new EcouteurLot[ecouteursLots.length - 1];
+                System.arraycopy(ecouteursLots, 0, copie, 0, i);
+                System.arraycopy(ecouteursLots, i + 1, copie, i, ecouteursLots.length - i - 1);
+                ecouteursLots = copie;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Émet un événement d'une source : diffusion immédiate, ou mise en attente si un lot est ouvert.
+     * @param source Le modèle à l'origine de l'événement (qui a au moins un écouteur).
+     * @param code Le code de l'événement.
+     */
+    static void emettre(AbstractModelEcoutable source, int code) {
+        Lot lot = LOTS.get();
+        if (lot.relais != null) {
+            // Le relais regroupe lui-même les événements : le lot du thread n'est pas utilisé
+            lot.relais.publier(source, code);
+        } else if (lot.profondeur > 0) {
+            lot.ajouter(source, code);
+        } else {
+            diffuser(source, code);
+        }
+    }
+
+    /**
+     * Diffuse un événement à tous les écouteurs actuels de sa source.
+     */
+    private static void diffuser(AbstractModelEcoutable source, int code) {
+        ModelEcoute[] ecouteurs = source.getEcouteurs();
+        if (ecouteurs == null) return;
+        for (ModelEcoute e : ecouteurs) {
+            e.evenement(source, code);
+        }
+    }
+
+    /**
+     * Événements en attente d'un thread, rangés dans deux tableaux parallèles réutilisés d'un lot à l'autre.
+     */
+    private static final class Lot {
+        private int profondeur;
+        private RelaisEvenements relais;
+        private AbstractModelEcoutable[] sources = new AbstractModelEcoutable[64];
+        private int[] codes = new int[64];
+        private int taille;
+
+        /**
+         * Met un événement en attente, sauf si la même source a déjà un événement de même code dans le lot.
+         */
+        void ajouter(AbstractModelEcoutable source, int code) {
+            int bit = 1 << code;
+            if ((source.evenementsEnAttente & bit) != 0) return;
+            source.evenementsEnAttente |= bit;
+
+            if (taille == codes.length) {
+                sources = Arrays.copyOf(sources, 2 * taille);
+                codes = Arrays.copyOf(codes, 2 * taille);
+            }
+            sources[taille] = source;
+            codes[taille] = code;
+            taille++;
+        }
+
+        /**
+         * Diffuse les événements en attente dans l'ordre d'émission, y compris ceux ajoutés pendant la diffusion, et vide le lot.
+         * @return Le nombre d'événements diffusés.
+         */
+        int diffuser() {
+            int i = 0;
+            try {
+                for (; i < taille; i++) {
+                    AbstractModelEcoutable source = sources[i];
+                    sources[i] = null;
+                    source.evenementsEnAttente &= ~(1 << codes[i]);
+                    BusEvenements.diffuser(source, codes[i]);
+                }
+            } finally {
+                // En cas d'exception, les événements restants sont abandonnés
+                for (int j = i; j < taille; j++) {
+                    if (sources[j] == null) continue;
+                    sources[j].evenementsEnAttente &= ~(1 << codes[j]);
+                    sources[j] = null;
+                }
+                taille = 0;
+            }
+            return i;
+        }
+    }
+}
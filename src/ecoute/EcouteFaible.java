@@ -0,0 +1,25 @@
+package ecoute;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Écouteur qui ne retient pas l'écouteur réel : une vue abandonnée peut être récupérée par le ramasse-miettes
+ * même si le modèle qu'elle écoutait est toujours utilisé. L'enveloppe se retire elle-même du modèle
+ * au premier événement qui suit la disparition de la vue, ou au prochain abonnement.
+ */
+final class EcouteFaible extends WeakReference<ModelEcoute> implements ModelEcoute {
+
+    EcouteFaible(ModelEcoute ecouteur) {
+        super(ecouteur);
+    }
+
+    @Override
+    public void evenement(Object source, int code) {
+        ModelEcoute ecouteur = get();
+        if (ecouteur == null) {
+            ((ModelEcoutable) source).removeListening(this);
+        } else {
+            ecouteur.evenement(source, code);
+        }
+    }
+}
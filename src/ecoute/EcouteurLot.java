@@ -0,0 +1,16 @@
+package ecoute;
+
+/**
+ * Écouteur prévenu une seule fois à la fin de chaque lot d'événements,
+ * après que tous les événements du lot ont été diffusés.
+ * Il permet par exemple à une vue de ne se redessiner qu'une fois par coup joué.
+ */
+@FunctionalInterface
+public interface EcouteurLot {
+
+	/**
+	 * Appelée à la fin d'un lot non vide.
+	 * @param nbEvenements Nombre d'événements diffusés (après regroupement des doublons).
+	 */
+	public void lotTermine(int nbEvenements);
+}
@@ -0,0 +1,49 @@
+package ecoute;
+
+import ecoute.notifications.BateauNotification;
+import ecoute.notifications.CelluleNotification;
+import ecoute.notifications.GrilleNotification;
+import ecoute.notifications.JeuNotification;
+import ecoute.notifications.JoueurNotification;
+
+/**
+ * Codes primitifs des événements émis par les modèles.
+ * Un événement est un simple entier : son émission et sa diffusion n'allouent aucun objet,
+ * et les écouteurs le traitent par un {@code switch} plutôt que par des tests {@code instanceof}.
+ * Les codes restent inférieurs à 32 pour que le bus puisse les regrouper dans un masque.
+ */
+public final class Evenement {
+
+    public static final int CELLULE_ETAT_CHANGE = 0;
+    public static final int BATEAU_DETRUIT = 1;
+    public static final int BATEAU_VISIBILITEE_CHANGEE = 2;
+    public static final int PARTIE_COMMENCEE = 3;
+    public static final int HUMAIN_FLOTTE_CREE = 4;
+    public static final int ALEATOIRE_FLOTTE_CREE = 5;
+    public static final int FLOTTE_CREE = 6;
+    public static final int GRILLE_MODIFIEE = 7;
+
+    /** Notification historique correspondant à chaque code, pour les écouteurs qui attendent un objet */
+    private static final Object[] NOTIFICATIONS = {
+        CelluleNotification.ETAT_CHANGE,
+        BateauNotification.BATEAU_DETRUIT,
+        BateauNotification.BATEAU_VISIBILITEE_CHANGEE,
+        JeuNotification.PARTIE_COMMENCEE,
+        JeuNotification.HUMAIN_FLOTTE_CREE,
+        JeuNotification.ALEATOIRE_FLOTTE_CREE,
+        JoueurNotification.FLOTTE_CREE,
+        GrilleNotification.GRILLE_MODIFIEE
+    };
+
+    private Evenement() {
+    }
+
+    /**
+     * Retourne la notification (énumération) correspondant à un code d'événement.
+     * @param code Le code de l'événement.
+     * @return La notification équivalente.
+     */
+    public static Object notification(int code) {
+        return NOTIFICATIONS[code];
+    }
+}
@@ -1,5 +1,22 @@
 package ecoute;
 
 public interface ModelEcoute {
-	public void modelMisAJour(Object source, Object notification);
+
+	/**
+	 * Appelée par le bus d'événements pour chaque événement d'un modèle écouté.
+	 * Par défaut, l'événement est converti en notification et transmis à {@link #modelMisAJour(Object, Object)}.
+	 * @param source Le modèle à l'origine de l'événement.
+	 * @param code Le code de l'événement (voir {@link Evenement}).
+	 */
+	public default void evenement(Object source, int code) {
+		modelMisAJour(source, Evenement.notification(code));
+	}
+
+	/**
+	 * Forme historique de la notification, sous forme d'objet.
+	 * @param source Le modèle à l'origine de l'événement.
+	 * @param notification La notification (énumération du paquetage ecoute.notifications).
+	 */
+	public default void modelMisAJour(Object source, Object notification) {
+	}
 }
@@ -0,0 +1,93 @@
+package ecoute;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Relais des événements d'un thread de calcul vers le thread de l'interface.
+ * Un thread qui a installé un relais par {@link BusEvenements#relayer(RelaisEvenements)} ne prévient plus
+ * lui-même les écouteurs : ses événements sont confiés au relais, qui les diffuse sur le thread de l'interface.
+ * <p>
+ * Les événements sont regroupés : tant que le lot précédent n'a pas été diffusé, les nouveaux s'y ajoutent,
+ * et un même événement d'une même source n'y figure qu'une fois. Le thread de l'interface ne reçoit donc
+ * qu'une tâche à la fois, quel que soit le rythme des coups joués, et chaque tâche rattrape tous les changements
+ * survenus depuis la précédente.
+ * <p>
+ * Le thread de calcul reste seul à lire l'état vivant du modèle : les écouteurs ne lisent que l'état que
+ * le modèle a publié à l'émission, sur le thread de calcul, sous forme immuable (l'instantané des masques
+ * d'une grille, la valeur volatile de l'état d'une cellule). Cet état peut déjà être plus récent que
+ * l'événement reçu, mais jamais à moitié modifié.
+ */
+public final class RelaisEvenements {
+
+    private final Executor interfaceGraphique;
+
+    // Événements en attente de diffusion, dans leur ordre d'émission
+    private AbstractModelEcoutable[] sources = new AbstractModelEcoutable[64];
+    private int[] codes = new int[64];
+    private int taille;
+    // Codes en attente de chaque source (un bit par code), pour ne pas relayer deux fois le même événement
+    private final IdentityHashMap<AbstractModelEcoutable, Integer> enAttente = new IdentityHashMap<>();
+    private boolean diffusionPrevue;
+
+    /**
+     * Crée un relais.
+     * @param interfaceGraphique L'exécuteur du thread des écouteurs, par exemple {@code SwingUtilities::invokeLater}.
+     */
+    public RelaisEvenements(Executor interfaceGraphique) {
+        this.interfaceGraphique = interfaceGraphique;
+    }
+
+    /**
+     * Met un événement en attente et programme sa diffusion si aucune n'est déjà prévue.
+     * @param source Le modèle à l'origine de l'événement.
+     * @param code Le code de l'événement.
+     */
+    void publier(AbstractModelEcoutable source, int code) {
+        boolean programmer;
+        synchronized (this) {
+            int masque = enAttente.getOrDefault(source, 0);
+            if ((masque & (1 << code)) != 0) return;
+            enAttente.put(source, masque | (1 << code));
+            if (taille == codes.length) {
+                sources = Arrays.copyOf(sources, 2 * taille);
+                codes = Arrays.copyOf(codes, 2 * taille);
+            }
+            sources[taille] = source;
+            codes[taille] = code;
+            taille++;
+            programmer = !diffusionPrevue;
+            diffusionPrevue = true;
+        }
+        if (programmer) interfaceGraphique.execute(this::diffuser);
+    }
+
+    /**
+     * Diffuse, sur le thread de l'interface, tous les événements en attente, dans un seul lot :
+     * les écouteurs de lots (repeinture des canevas) ne sont prévenus qu'une fois.
+     */
+    private void diffuser() {
+        AbstractModelEcoutable[] lotSources;
+        int[] lotCodes;
+        int n;
+        synchronized (this) {
+            lotSources = sources;
+            lotCodes = codes;
+            n = taille;
+            sources = new AbstractModelEcoutable[Math.max(64, n)];
+            codes = new int[sources.length];
+            taille = 0;
+            enAttente.clear();
+            diffusionPrevue = false;
+        }
+        BusEvenements.debutLot();
+        try {
+            for (int i = 0; i < n; i++) {
+                BusEvenements.emettre(lotSources[i], lotCodes[i]);
+            }
+        } finally {
+            BusEvenements.finLot();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 package ecoute.notifications;
 
 public enum GrilleNotification {
-    
+    GRILLE_MODIFIEE
 }
@@ -0,0 +1,84 @@
+package journal;
+
+import java.util.Arrays;
+
+/**
+ * Tampon des enregistrements d'une partie en cours, rempli par le seul thread qui joue la partie.
+ * Rien n'est écrit dans le journal avant {@link #terminer(int)}, qui y ajoute le bloc complet en une fois
+ * puis vide le tampon : le même objet peut alors servir à la partie suivante, sans nouvelle allocation.
+ */
+public final class EnregistrementPartie {
+
+    private static final int LIMITE_DIMENSION = 1 << 16;
+    private static final int LIMITE_ENREGISTREMENTS = 1 << 28;
+
+    private final JournalTirs journal;
+    private long[] enregistrements = new long[128];
+    private int taille = 1;     // La case 0 est réservée à l'enregistrement PARTIE, écrit à la fin
+    private int nombreTirs;
+    private int lignes;
+    private int colonnes;
+
+    EnregistrementPartie(JournalTirs journal, int lignes, int colonnes) {
+        this.journal = journal;
+        recommencer(lignes, colonnes);
+    }
+
+    /**
+     * Oublie la partie en cours et prépare l'enregistrement d'une nouvelle partie.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     */
+    public void recommencer(int lignes, int colonnes) {
+        if (lignes >= LIMITE_DIMENSION || colonnes >= LIMITE_DIMENSION) {
+            throw new IllegalArgumentException("Grille trop grande pour le journal : " + lignes + "x" + colonnes);
+        }
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.taille = 1;
+        this.nombreTirs = 0;
+    }
+
+    /**
+     * Note la position d'un bateau.
+     * @param joueur Joueur propriétaire du bateau (0 ou 1).
+     * @param index Indice de la première case du bateau.
+     * @param tailleBateau Taille du bateau.
+     * @param vertical true si le bateau est vertical.
+     */
+    public void bateau(int joueur, int index, int tailleBateau, boolean vertical) {
+        ajouter(FormatJournal.bateau(joueur, index, tailleBateau, vertical));
+    }
+
+    /**
+     * Note un tir.
+     * @param tireur Joueur qui tire (0 ou 1).
+     * @param index Indice de la case visée sur la grille de l'adversaire.
+     * @param resultat Rang du résultat dans {@code ResultatTir}.
+     */
+    public void tir(int tireur, int index, int resultat) {
+        ajouter(FormatJournal.tir(tireur, index, resultat));
+        nombreTirs++;
+    }
+
+    /**
+     * Termine la partie et ajoute son bloc au journal.
+     * @param vainqueur Indice du vainqueur (0 ou 1), ou -1 pour une partie interrompue.
+     */
+    public void terminer(int vainqueur) {
+        ajouter(FormatJournal.fin((vainqueur < 0) ? FormatJournal.SANS_VAINQUEUR : vainqueur, nombreTirs));
+        enregistrements[0] = FormatJournal.partie(taille, lignes, colonnes);
+        journal.ajouter(enregistrements, taille);
+        recommencer(lignes, colonnes);
+    }
+
+    private void ajouter(long enregistrement) {
+        if (taille == enregistrements.length) {
+            if (taille >= LIMITE_ENREGISTREMENTS - 1) {
+                throw new IllegalStateException("Partie trop longue pour le journal.");
+            }
+            enregistrements = Arrays.copyOf(enregistrements, 2 * taille);
+        }
+        enregistrements[taille++] = enregistrement;
+    }
+}
@@ -0,0 +1,109 @@
+package journal;
+
+/**
+ * Format binaire du journal des tirs.
+ * Le fichier commence par un en-tête de {@link #TAILLE_ENTETE} octets, suivi d'enregistrements de largeur fixe :
+ * un long (8 octets) chacun, dont les 4 bits de poids fort donnent le type.
+ * Chaque partie occupe un bloc contigu d'enregistrements :
+ * <ul>
+ *   <li>PARTIE : nombre d'enregistrements du bloc (28 bits), lignes et colonnes (16 bits chacun) ;</li>
+ *   <li>BATEAU, un par bateau posé : joueur, sens, taille et indice de la première case ;</li>
+ *   <li>TIR, un par tir joué : tireur, résultat ({@code ResultatTir.ordinal()}) et indice de la case visée ;</li>
+ *   <li>FIN : vainqueur (ou {@link #SANS_VAINQUEUR}) et nombre total de tirs.</li>
+ * </ul>
+ * Un enregistrement nul (type 0) marque la fin des données écrites.
+ * Les méthodes de cette classe encodent et décodent les champs directement sur les longs, sans rien allouer.
+ */
+public final class FormatJournal {
+
+    /** Signature du fichier ("BNJRNL01") */
+    public static final long SIGNATURE = 0x424E4A524E4C3031L;
+    /** Taille de l'en-tête en octets : signature, longueur des données à la fermeture, réserve */
+    public static final int TAILLE_ENTETE = 64;
+    /** Position dans l'en-tête de la longueur des données, écrite à la fermeture du journal */
+    static final int POSITION_LONGUEUR = 8;
+    /** Taille d'un enregistrement en octets */
+    public static final int TAILLE_ENREGISTREMENT = Long.BYTES;
+
+    public static final int PARTIE = 1;
+    public static final int BATEAU = 2;
+    public static final int TIR = 3;
+    public static final int FIN = 4;
+
+    /** Valeur du champ vainqueur d'une partie interrompue */
+    public static final int SANS_VAINQUEUR = 3;
+
+    private FormatJournal() {
+    }
+
+    // --------------------- ENCODAGE ---------------------
+
+    static long partie(int nombreEnregistrements, int lignes, int colonnes) {
+        return ((long) PARTIE << 60) | ((long) nombreEnregistrements << 32) | ((long) lignes << 16) | colonnes;
+    }
+
+    static long bateau(int joueur, int index, int taille, boolean vertical) {
+        return ((long) BATEAU << 60) | ((long) joueur << 40) | ((vertical ? 1L : 0L) << 39)
+                | ((long) taille << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    static long tir(int tireur, int index, int resultat) {
+        return ((long) TIR << 60) | ((long) resultat << 34) | ((long) tireur << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    static long fin(int vainqueur, int nombreTirs) {
+        return ((long) FIN << 60) | ((long) vainqueur << 32) | (nombreTirs & 0xFFFFFFFFL);
+    }
+
+    // --------------------- DÉCODAGE ---------------------
+
+    public static int type(long enregistrement) {
+        return (int) (enregistrement >>> 60);
+    }
+
+    /** Nombre d'enregistrements du bloc, en-tête PARTIE et FIN compris (enregistrement PARTIE). */
+    public static int nombreEnregistrements(long enregistrement) {
+        return (int) (enregistrement >>> 32) & 0x0FFFFFFF;
+    }
+
+    public static int lignes(long enregistrement) {
+        return (int) (enregistrement >>> 16) & 0xFFFF;
+    }
+
+    public static int colonnes(long enregistrement) {
+        return (int) enregistrement & 0xFFFF;
+    }
+
+    /** Indice compacté de la case (enregistrements BATEAU et TIR). */
+    public static int index(long enregistrement) {
+        return (int) enregistrement;
+    }
+
+    public static int joueur(long enregistrement) {
+        return (int) (enregistrement >>> 40) & 1;
+    }
+
+    public static boolean vertical(long enregistrement) {
+        return ((enregistrement >>> 39) & 1) != 0;
+    }
+
+    public static int taille(long enregistrement) {
+        return (int) (enregistrement >>> 32) & 0x7F;
+    }
+
+    public static int tireur(long enregistrement) {
+        return (int) (enregistrement >>> 32) & 1;
+    }
+
+    public static int resultat(long enregistrement) {
+        return (int) (enregistrement >>> 34) & 3;
+    }
+
+    public static int vainqueur(long enregistrement) {
+        return (int) (enregistrement >>> 32) & 3;
+    }
+
+    public static int nombreTirs(long enregistrement) {
+        return (int) enregistrement;
+    }
+}
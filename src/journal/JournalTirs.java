@@ -0,0 +1,217 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal des parties, en ajout seul, dans un fichier projeté en mémoire.
+ * Chaque partie est d'abord accumulée dans son {@link EnregistrementPartie}, sans aucun partage entre threads ;
+ * à la fin de la partie, son bloc d'enregistrements (voir {@link FormatJournal}) est ajouté d'un seul coup :
+ * une place est réservée par un simple incrément atomique, puis les enregistrements sont copiés dans la
+ * projection mémoire. Aucun appel système n'a lieu sur ce chemin.
+ * <p>
+ * La durabilité est assurée par validation groupée : un unique thread de fond force périodiquement sur disque
+ * tout ce qui a été ajouté depuis son dernier passage et projette à l'avance le segment suivant.
+ * Un bloc réservé peut encore être en cours de copie quand le thread passe : la position validée n'avance que
+ * lorsque toutes les places réservées ont été remplies, et le passage suivant force de nouveau depuis elle.
+ * Un bloc dont la copie échoue compte tout de même comme rempli ; le journal se ferme alors sur le dernier bloc
+ * complet qui le précède, comme après un arrêt brutal.
+ * <p>
+ * Chaque ajout se déclare dans un compteur d'écrivains avant de vérifier que le journal est ouvert, et la
+ * fermeture attend que ce compteur retombe à zéro : aucune copie ne peut viser la projection une fois le fichier
+ * tronqué.
+ * Les threads de simulation ne bloquent donc jamais sur une entrée-sortie ; en cas d'arrêt brutal,
+ * seuls les ajouts de la dernière période peuvent être perdus, et le lecteur s'arrête au premier bloc incomplet.
+ */
+public final class JournalTirs implements AutoCloseable {
+
+    /** Segments de 64 Mio (8 millions d'enregistrements) */
+    private static final int DECALAGE_SEGMENT = 26;
+    /** Période de la validation groupée */
+    private static final long PERIODE_VALIDATION_NS = 50_000_000L;
+
+    private final FileChannel canal;
+    private final SegmentsMappes segments;
+    private final long tailleSegment;
+    private final AtomicLong fin;                           // Position du prochain bloc à réserver
+    private final AtomicLong copie;                         // fin, moins les octets des blocs réservés pas encore copiés
+    private final AtomicLong parties = new AtomicLong();    // Parties ajoutées depuis l'ouverture
+    private final AtomicInteger ecrivains = new AtomicInteger();    // Ajouts en cours, attendus par la fermeture
+    private volatile boolean incomplet;                     // Vrai si la copie d'un bloc réservé a échoué
+    private final Thread validateur;
+    private volatile boolean ouvert = true;
+    private long valide;                                    // Position jusqu'à laquelle tout a été forcé sur disque
+
+    private JournalTirs(FileChannel canal, int decalageSegment) throws IOException {
+        this.canal = canal;
+        this.segments = new SegmentsMappes(canal, true, decalageSegment, Long.MAX_VALUE);
+        this.tailleSegment = 1L << decalageSegment;
+
+        long tailleFichier = canal.size();
+        long position = FormatJournal.TAILLE_ENTETE;
+        if (tailleFichier >= FormatJournal.TAILLE_ENTETE) {
+            ByteBuffer entete = ByteBuffer.allocate(2 * Long.BYTES);
+            canal.read(entete, 0);
+            if (entete.getLong(0) != FormatJournal.SIGNATURE) {
+                throw new IOException("Ce fichier n'est pas un journal de tirs.");
+            }
+            long longueur = entete.getLong(FormatJournal.POSITION_LONGUEUR);
+            position = (longueur > 0) ? FormatJournal.TAILLE_ENTETE + longueur : LecteurJournal.chercherFin(segments, tailleFichier);
+        }
+        segments.ecrire(0, FormatJournal.SIGNATURE);
+        // Longueur nulle tant que le journal est ouvert : une relecture après un arrêt brutal cherchera la fin
+        segments.ecrire(FormatJournal.POSITION_LONGUEUR, 0);
+        this.fin = new AtomicLong(position);
+        this.copie = new AtomicLong(position);
+        this.valide = position;
+
+        this.validateur = new Thread(this::validerEnBoucle, "journal-tirs");
+        this.validateur.setDaemon(true);
+        this.validateur.start();
+    }
+
+    /**
+     * Ouvre un journal, en le créant s'il n'existe pas ; les nouvelles parties sont ajoutées à la suite des anciennes.
+     * @param fichier Le chemin du fichier.
+     * @return Le journal ouvert.
+     * @throws IOException Si le fichier ne peut être ouvert ou n'est pas un journal de tirs.
+     */
+    public static JournalTirs ouvrir(Path fichier) throws IOException {
+        return ouvrir(fichier, DECALAGE_SEGMENT);
+    }
+
+    static JournalTirs ouvrir(Path fichier, int decalageSegment) throws IOException {
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new JournalTirs(canal, decalageSegment);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Commence l'enregistrement d'une partie.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @return Le tampon de la partie, à remplir par un seul thread puis à terminer.
+     */
+    public EnregistrementPartie nouvellePartie(int lignes, int colonnes) {
+        return new EnregistrementPartie(this, lignes, colonnes);
+    }
+
+    /**
+     * Ajoute le bloc d'une partie terminée. Sûr depuis n'importe quel thread.
+     * L'enregistrement PARTIE, en tête du bloc, est écrit en dernier.
+     */
+    void ajouter(long[] enregistrements, int nombre) {
+        // Déclaré avant de lire ouvert : la fermeture, qui écrit ouvert avant de lire le compteur, attend cet ajout
+        ecrivains.incrementAndGet();
+        try {
+            if (!ouvert) {
+                throw new IllegalStateException("Le journal est fermé.");
+            }
+            long taille = (long) nombre * FormatJournal.TAILLE_ENREGISTREMENT;
+            long position = fin.getAndAdd(taille);
+            boolean reussie = false;
+            try {
+                for (int i = nombre - 1; i >= 0; i--) {
+                    segments.ecrire(position + (long) i * FormatJournal.TAILLE_ENREGISTREMENT, enregistrements[i]);
+                }
+                reussie = true;
+            } finally {
+                // Un bloc dont la copie a échoué ne doit pas bloquer la validation ni la fermeture
+                if (!reussie) incomplet = true;
+                copie.addAndGet(taille);
+            }
+            parties.incrementAndGet();
+        } finally {
+            ecrivains.decrementAndGet();
+        }
+    }
+
+    /**
+     * Retourne le nombre de parties ajoutées depuis l'ouverture du journal.
+     * @return Le nombre de parties.
+     */
+    public long getNombreParties() {
+        return parties.get();
+    }
+
+    /**
+     * Retourne la taille des données du journal, en-tête non compris.
+     * @return Le nombre d'octets réservés par les parties.
+     */
+    public long getTaille() {
+        return fin.get() - FormatJournal.TAILLE_ENTETE;
+    }
+
+    /**
+     * Boucle du thread de validation. Il attend sans pouvoir être interrompu et la fermeture le réveille :
+     * une interruption pendant qu'il projette un segment fermerait le canal sous la fermeture.
+     */
+    private void validerEnBoucle() {
+        while (ouvert) {
+            LockSupport.parkNanos(this, PERIODE_VALIDATION_NS);
+            if (!ouvert) return;
+            valider();
+            segments.preparer(fin.get() + tailleSegment / 2);
+        }
+    }
+
+    /**
+     * Force sur disque tout ce qui a été réservé depuis la position validée. Celle-ci n'avance que si aucun bloc
+     * réservé n'est en cours de copie : sinon les écritures tardives seraient hors de la plage des passages suivants.
+     */
+    private void valider() {
+        long copiee = copie.get();      // Lue avant fin : si les deux sont égales, tout bloc réservé avant fin est copié
+        long position = fin.get();
+        segments.forcer(valide, position);
+        if (copiee == position) valide = position;
+    }
+
+    /**
+     * Ferme le journal : toutes les parties ajoutées sont forcées sur disque et le fichier est ramené à sa taille utile.
+     * Les ajouts déjà commencés finissent leur copie ; ceux qui commencent après cet appel échouent.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!ouvert) return;
+        ouvert = false;
+        LockSupport.unpark(validateur);
+        // Une interruption n'est rétablie qu'après les écritures : elle fermerait le canal avant la troncature
+        boolean interrompu = false;
+        while (validateur.isAlive()) {
+            try {
+                validateur.join();
+            } catch (InterruptedException e) {
+                interrompu = true;
+            }
+        }
+        // Les parties terminées juste avant la fermeture finissent leur copie, réussie ou non
+        while (ecrivains.get() != 0) {
+            Thread.onSpinWait();
+        }
+        try {
+            valider();
+            long position = fin.get();
+            if (incomplet) {
+                // Seuls les blocs qui précèdent le premier bloc manquant restent lisibles
+                position = LecteurJournal.chercherFin(segments, position);
+            }
+            segments.ecrire(FormatJournal.POSITION_LONGUEUR, position - FormatJournal.TAILLE_ENTETE);
+            segments.forcer(0, FormatJournal.TAILLE_ENTETE);
+            canal.truncate(position);
+        } finally {
+            canal.close();
+            if (interrompu) Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lecture d'un journal de tirs directement dans sa projection mémoire, sans désérialisation :
+ * les enregistrements sont lus comme des longs à leur position dans le fichier et décodés par
+ * {@link FormatJournal}, ou transmis champ par champ à un {@link VisiteurJournal}.
+ * Le journal peut être relu pendant qu'un {@link JournalTirs} y ajoute des parties : seules les parties
+ * complètes au moment de l'ouverture sont vues.
+ */
+public final class LecteurJournal implements AutoCloseable {
+
+    /** Segments de lecture de 1 Gio */
+    private static final int DECALAGE_SEGMENT = 30;
+
+    private final FileChannel canal;
+    private final SegmentsMappes segments;
+    private final long fin;   // Position suivant la dernière partie complète
+
+    private LecteurJournal(FileChannel canal) throws IOException {
+        this.canal = canal;
+        long tailleFichier = canal.size();
+        this.segments = new SegmentsMappes(canal, false, DECALAGE_SEGMENT, tailleFichier);
+        if (tailleFichier < FormatJournal.TAILLE_ENTETE || segments.lire(0) != FormatJournal.SIGNATURE) {
+            throw new IOException("Ce fichier n'est pas un journal de tirs.");
+        }
+        long longueur = segments.lire(FormatJournal.POSITION_LONGUEUR);
+        this.fin = (longueur > 0 && FormatJournal.TAILLE_ENTETE + longueur <= tailleFichier)
+                ? FormatJournal.TAILLE_ENTETE + longueur
+                : chercherFin(segments, tailleFichier);
+    }
+
+    /**
+     * Ouvre un journal en lecture.
+     * @param fichier Le chemin du fichier.
+     * @return Le lecteur.
+     * @throws IOException Si le fichier ne peut être ouvert ou n'est pas un journal de tirs.
+     */
+    public static LecteurJournal ouvrir(Path fichier) throws IOException {
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ);
+        try {
+            return new LecteurJournal(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Cherche la fin des données d'un journal qui n'a pas été fermé proprement :
+     * les blocs sont sautés un à un jusqu'au premier qui est absent ou incomplet.
+     * @param segments La projection du fichier.
+     * @param limite Taille du fichier.
+     * @return La position suivant le dernier bloc complet.
+     */
+    static long chercherFin(SegmentsMappes segments, long limite) {
+        long position = FormatJournal.TAILLE_ENTETE;
+        while (position + FormatJournal.TAILLE_ENREGISTREMENT <= limite) {
+            long entete = segments.lire(position);
+            int nombre = FormatJournal.nombreEnregistrements(entete);
+            long suivante = position + (long) nombre * FormatJournal.TAILLE_ENREGISTREMENT;
+            if (FormatJournal.type(entete) != FormatJournal.PARTIE || nombre < 2 || suivante > limite
+                    || FormatJournal.type(segments.lire(suivante - FormatJournal.TAILLE_ENREGISTREMENT)) != FormatJournal.FIN) {
+                break;
+            }
+            position = suivante;
+        }
+        return position;
+    }
+
+    // --------------------- ACCÈS DIRECT ---------------------
+
+    /**
+     * Retourne le nombre d'enregistrements lisibles.
+     * @return Le nombre d'enregistrements de toutes les parties complètes.
+     */
+    public long getNombreEnregistrements() {
+        return (fin - FormatJournal.TAILLE_ENTETE) / FormatJournal.TAILLE_ENREGISTREMENT;
+    }
+
+    /**
+     * Lit un enregistrement brut, à décoder avec {@link FormatJournal}.
+     * @param rang Rang de l'enregistrement.
+     * @return L'enregistrement.
+     */
+    public long enregistrement(long rang) {
+        if (rang < 0 || rang >= getNombreEnregistrements()) {
+            throw new IndexOutOfBoundsException("Enregistrement " + rang + " sur " + getNombreEnregistrements());
+        }
+        return segments.lire(FormatJournal.TAILLE_ENTETE + rang * FormatJournal.TAILLE_ENREGISTREMENT);
+    }
+
+    // --------------------- PARCOURS ---------------------
+
+    /**
+     * Parcourt toutes les parties du journal.
+     * @param visiteur Le visiteur qui reçoit les enregistrements.
+     * @return Le nombre de parties parcourues.
+     */
+    public long parcourir(VisiteurJournal visiteur) {
+        long parties = 0;
+        for (long rang = 0; rang < getNombreEnregistrements(); rang = rejouer(rang, visiteur)) {
+            parties++;
+        }
+        return parties;
+    }
+
+    /**
+     * Rejoue une seule partie.
+     * @param rang Rang de l'enregistrement PARTIE qui ouvre la partie.
+     * @param visiteur Le visiteur qui reçoit les enregistrements de la partie.
+     * @return Le rang de la partie suivante.
+     */
+    public long rejouer(long rang, VisiteurJournal visiteur) {
+        long entete = enregistrement(rang);
+        if (FormatJournal.type(entete) != FormatJournal.PARTIE) {
+            throw new IllegalArgumentException("L'enregistrement " + rang + " n'ouvre pas une partie.");
+        }
+        long suivante = rang + FormatJournal.nombreEnregistrements(entete);
+        visiteur.partie(rang, FormatJournal.lignes(entete), FormatJournal.colonnes(entete));
+        for (long r = rang + 1; r < suivante; r++) {
+            long e = enregistrement(r);
+            switch (FormatJournal.type(e)) {
+                case FormatJournal.BATEAU:
+                    visiteur.bateau(FormatJournal.joueur(e), FormatJournal.index(e), FormatJournal.taille(e), FormatJournal.vertical(e));
+                    break;
+                case FormatJournal.TIR:
+                    visiteur.tir(FormatJournal.tireur(e), FormatJournal.index(e), FormatJournal.resultat(e));
+                    break;
+                case FormatJournal.FIN:
+                    visiteur.fin(FormatJournal.vainqueur(e), FormatJournal.nombreTirs(e));
+                    break;
+                default:
+                    throw new IllegalStateException("Enregistrement " + r + " invalide.");
+            }
+        }
+        return suivante;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Point d'entrée en ligne de commande : affiche les statistiques d'un journal.
+     * @param args Le chemin du journal.
+     * @throws IOException Si le journal ne peut être lu.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage : LecteurJournal <fichier>");
+            System.exit(1);
+        }
+        long debut = System.nanoTime();
+        long[] victoires = new long[4];
+        long[] tirs = new long[2];
+        long[] touches = new long[2];
+        long parties;
+        try (LecteurJournal lecteur = ouvrir(Paths.get(args[0]))) {
+            parties = lecteur.parcourir(new VisiteurJournal() {
+                @Override
+                public void tir(int tireur, int index, int resultat) {
+                    tirs[tireur]++;
+                    if (resultat >= 2) touches[tireur]++;  // TOUCHE ou COULE
+                }
+
+                @Override
+                public void fin(int vainqueur, int nombreTirs) {
+                    victoires[vainqueur]++;
+                }
+            });
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.out.printf("%d parties, %d tirs lus en %.2f s%n", parties, tirs[0] + tirs[1], secondes);
+        for (int j = 0; j < 2; j++) {
+            System.out.printf("Joueur %d : %d victoires, %d tirs, %.1f %% de touchés%n",
+                    j + 1, victoires[j], tirs[j], (tirs[j] == 0) ? 0.0 : 100.0 * touches[j] / tirs[j]);
+        }
+        if (victoires[FormatJournal.SANS_VAINQUEUR] > 0) {
+            System.out.println(victoires[FormatJournal.SANS_VAINQUEUR] + " parties interrompues");
+        }
+    }
+}
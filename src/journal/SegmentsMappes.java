@@ -0,0 +1,84 @@
+package journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Vue d'un fichier découpé en segments projetés en mémoire, de 2^decalage octets chacun.
+ * Un segment est projeté à sa première utilisation puis conservé ; le tableau des segments est recopié
+ * à chaque ajout et publié par une écriture volatile, si bien que les lectures et écritures concurrentes
+ * ne prennent aucun verrou. Les accès se font par position absolue : plusieurs threads peuvent écrire
+ * en même temps dans des zones disjointes.
+ */
+final class SegmentsMappes {
+
+    private final FileChannel canal;
+    private final FileChannel.MapMode mode;
+    private final int decalage;
+    private final long masque;
+    private final long limite;  // Taille maximale projetée en lecture seule
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    /**
+     * @param canal Le canal du fichier.
+     * @param ecriture true pour projeter en lecture-écriture (le fichier grandit alors par segments entiers).
+     * @param decalage Logarithme en base 2 de la taille d'un segment.
+     * @param limite Taille du fichier à ne pas dépasser en lecture seule.
+     */
+    SegmentsMappes(FileChannel canal, boolean ecriture, int decalage, long limite) {
+        this.canal = canal;
+        this.mode = ecriture ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        this.decalage = decalage;
+        this.masque = (1L << decalage) - 1;
+        this.limite = limite;
+    }
+
+    long lire(long position) {
+        return segment((int) (position >>> decalage)).getLong((int) (position & masque));
+    }
+
+    void ecrire(long position, long valeur) {
+        segment((int) (position >>> decalage)).putLong((int) (position & masque), valeur);
+    }
+
+    /**
+     * Force sur disque les segments couvrant les octets [debut, fin).
+     */
+    void forcer(long debut, long fin) {
+        if (fin <= debut) return;
+        for (int s = (int) (debut >>> decalage); s <= (int) ((fin - 1) >>> decalage); s++) {
+            segment(s).force();
+        }
+    }
+
+    /**
+     * Projette à l'avance le segment contenant une position, pour que les écrivains ne le fassent pas eux-mêmes.
+     */
+    void preparer(long position) {
+        segment((int) (position >>> decalage));
+    }
+
+    private MappedByteBuffer segment(int numero) {
+        MappedByteBuffer[] s = segments;
+        if (numero < s.length && s[numero] != null) return s[numero];
+        return projeter(numero);
+    }
+
+    private synchronized MappedByteBuffer projeter(int numero) {
+        MappedByteBuffer[] s = segments;
+        if (numero < s.length && s[numero] != null) return s[numero];
+        s = Arrays.copyOf(s, Math.max(numero + 1, s.length));
+        long debut = (long) numero << decalage;
+        long longueur = (mode == FileChannel.MapMode.READ_WRITE) ? (1L << decalage) : Math.min(1L << decalage, limite - debut);
+        try {
+            s[numero] = canal.map(mode, debut, longueur);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = s;
+        return s[numero];
+    }
+}
@@ -0,0 +1,44 @@
+package journal;
+
+/**
+ * Reçoit le contenu d'un journal de tirs champ par champ, sans qu'aucun objet ne soit créé par enregistrement.
+ * Toutes les méthodes ne font rien par défaut : il suffit de redéfinir celles qui intéressent le parcours.
+ */
+public interface VisiteurJournal {
+
+    /**
+     * Début d'une partie.
+     * @param rang Rang de l'enregistrement PARTIE dans le journal, qui identifie la partie.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     */
+    default void partie(long rang, int lignes, int colonnes) {
+    }
+
+    /**
+     * Position d'un bateau, dans l'ordre de pose.
+     * @param joueur Joueur propriétaire du bateau (0 ou 1).
+     * @param index Indice de la première case du bateau.
+     * @param taille Taille du bateau.
+     * @param vertical true si le bateau est vertical.
+     */
+    default void bateau(int joueur, int index, int taille, boolean vertical) {
+    }
+
+    /**
+     * Un tir, dans l'ordre de la partie.
+     * @param tireur Joueur qui tire (0 ou 1).
+     * @param index Indice de la case visée sur la grille de l'adversaire.
+     * @param resultat Rang du résultat dans {@code ResultatTir}.
+     */
+    default void tir(int tireur, int index, int resultat) {
+    }
+
+    /**
+     * Fin d'une partie.
+     * @param vainqueur Indice du vainqueur, ou {@link FormatJournal#SANS_VAINQUEUR}.
+     * @param nombreTirs Nombre total de tirs de la partie.
+     */
+    default void fin(int vainqueur, int nombreTirs) {
+    }
+}
@@ -0,0 +1,82 @@
+package metrique;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Compteurs répartis en bandes, une bande par thread.
+ * Chaque thread n'écrit que dans sa bande, sans instruction atomique : un compteur y est incrémenté par une
+ * simple écriture opaque, qu'aucun autre thread ne peut écraser. Une lecture additionne toutes les bandes ;
+ * elle voit les écritures des autres threads avec un léger retard, sans jamais lire de valeur déchirée.
+ * La remise à zéro mémorise les totaux du moment, déduits des lectures suivantes : elle ne touche pas aux bandes
+ * et ne perd donc aucune incrémentation concurrente.
+ */
+final class Bandes {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int taille;
+    private final ThreadLocal<long[]> locale;
+    private volatile long[][] toutes = new long[0][];   // Bandes de tous les threads, recopiées à chaque ajout
+    private volatile long[] origine;                     // Totaux à la dernière remise à zéro
+
+    /**
+     * Crée des bandes vides.
+     * @param taille Nombre de compteurs par bande.
+     */
+    Bandes(int taille) {
+        this.taille = taille;
+        this.origine = new long[taille];
+        this.locale = ThreadLocal.withInitial(this::nouvelleBande);
+    }
+
+    private synchronized long[] nouvelleBande() {
+        long[] bande = new long[taille];
+        long[][] copie = Arrays.copyOf(toutes, toutes.length + 1);
+        copie[toutes.length] = bande;
+        toutes = copie;
+        return bande;
+    }
+
+    /**
+     * Retourne la bande du thread courant, à ne modifier que par {@link #ajouter(long[], int, long)}.
+     * @return La bande.
+     */
+    long[] locale() {
+        return locale.get();
+    }
+
+    /**
+     * Ajoute une valeur à un compteur de la bande du thread courant.
+     */
+    static void ajouter(long[] bande, int compteur, long valeur) {
+        LONGS.setOpaque(bande, compteur, bande[compteur] + valeur);
+    }
+
+    /**
+     * Additionne toutes les bandes, depuis la dernière remise à zéro.
+     * @return Les totaux de chaque compteur.
+     */
+    long[] totaux() {
+        long[] totaux = bruts();
+        long[] zero = origine;
+        for (int i = 0; i < taille; i++) totaux[i] -= zero[i];
+        return totaux;
+    }
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    synchronized void reinitialiser() {
+        origine = bruts();
+    }
+
+    private long[] bruts() {
+        long[] totaux = new long[taille];
+        for (long[] bande : toutes) {
+            for (int i = 0; i < taille; i++) totaux[i] += (long) LONGS.getOpaque(bande, i);
+        }
+        return totaux;
+    }
+}
@@ -0,0 +1,136 @@
+package metrique;
+
+/**
+ * Histogramme de durées, en nanosecondes, alimenté sans verrou par de nombreux threads.
+ * Les classes sont logarithmiques avec quatre sous-classes par puissance de deux : une durée est connue
+ * à 25 % près, de la nanoseconde à plusieurs années, avec {@value #CLASSES} compteurs seulement.
+ * Chaque thread a ses propres compteurs (voir {@link Bandes}) : enregistrer une durée ne coûte
+ * ni verrou ni instruction atomique.
+ */
+public final class HistogrammeLatence {
+
+    /** Nombre de classes de durées */
+    public static final int CLASSES = 248;
+    /** Position de la somme des durées, après les compteurs des classes */
+    private static final int SOMME = CLASSES;
+
+    private final String nom;
+    private final Bandes bandes = new Bandes(CLASSES + 1);
+
+    /**
+     * Crée un histogramme vide.
+     * @param nom Le nom de la mesure, repris par le MBean.
+     */
+    public HistogrammeLatence(String nom) {
+        this.nom = nom;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    /**
+     * Enregistre une durée.
+     * @param nanos La durée en nanosecondes.
+     */
+    public void enregistrer(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long[] bande = bandes.locale();
+        Bandes.ajouter(bande, classe(nanos), 1);
+        Bandes.ajouter(bande, SOMME, nanos);
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis un instant pris par {@link Metriques#debut()}.
+     * Ne fait rien si cet instant vaut 0, c'est-à-dire si les métriques étaient désactivées.
+     * @param debut L'instant de début, en nanosecondes.
+     */
+    public void fin(long debut) {
+        if (debut != 0) enregistrer(System.nanoTime() - debut);
+    }
+
+    /**
+     * Retourne le nombre de durées enregistrées.
+     * @return Le nombre de mesures.
+     */
+    public long nombre() {
+        long[] totaux = bandes.totaux();
+        long n = 0;
+        for (int c = 0; c < CLASSES; c++) n += totaux[c];
+        return n;
+    }
+
+    /**
+     * Retourne la durée moyenne.
+     * @return La moyenne en nanosecondes, 0 sans mesure.
+     */
+    public double moyenne() {
+        long[] totaux = bandes.totaux();
+        long n = 0;
+        for (int c = 0; c < CLASSES; c++) n += totaux[c];
+        return (n == 0) ? 0 : (double) totaux[SOMME] / n;
+    }
+
+    /**
+     * Retourne une estimation d'un quantile des durées : le milieu de la classe qui le contient.
+     * @param proportion La proportion, entre 0 et 1 (0.99 pour le 99e centile).
+     * @return La durée en nanosecondes, 0 sans mesure.
+     */
+    public long quantile(double proportion) {
+        long[] parClasse = bandes.totaux();
+        long total = 0;
+        for (int c = 0; c < CLASSES; c++) total += parClasse[c];
+        if (total == 0) return 0;
+        long rang = (long) Math.ceil(proportion * total);
+        long cumul = 0;
+        for (int c = 0; c < CLASSES; c++) {
+            cumul += parClasse[c];
+            if (cumul >= Math.max(1, rang)) return (borneInferieure(c) + borneInferieure(c + 1) - 1) / 2;
+        }
+        return borneInferieure(CLASSES - 1);
+    }
+
+    /**
+     * Retourne la borne supérieure de la plus longue durée enregistrée.
+     * @return La durée maximale en nanosecondes, à 25 % près.
+     */
+    public long max() {
+        long[] parClasse = bandes.totaux();
+        for (int c = CLASSES - 1; c >= 0; c--) {
+            if (parClasse[c] != 0) return borneInferieure(c + 1) - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Remet l'histogramme à zéro.
+     */
+    public void reinitialiser() {
+        bandes.reinitialiser();
+    }
+
+    /**
+     * Classe d'une durée : la durée elle-même en dessous de 4, puis quatre classes par puissance de deux.
+     */
+    static int classe(long nanos) {
+        if (nanos < 4) return (int) nanos;
+        int exposant = 63 - Long.numberOfLeadingZeros(nanos);
+        return 4 * (exposant - 1) + (int) ((nanos >>> (exposant - 2)) & 3);
+    }
+
+    /**
+     * Plus petite durée d'une classe.
+     */
+    static long borneInferieure(int classe) {
+        if (classe < 4) return classe;
+        if (classe >= CLASSES) return Long.MAX_VALUE;
+        int exposant = classe / 4 + 1;
+        return (4L + (classe & 3)) << (exposant - 2);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s : %d mesures, moyenne %.2f µs, p50 %.2f µs, p99 %.2f µs, max %.2f µs",
+                nom, nombre(), moyenne() / 1e3, quantile(0.5) / 1e3, quantile(0.99) / 1e3, max() / 1e3);
+    }
+}
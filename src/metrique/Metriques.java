@@ -0,0 +1,313 @@
+package metrique;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import model.ResultatTir;
+
+/**
+ * Métriques des chemins chauds : compteurs de tirs, de parties et de notifications, et histogrammes
+ * de la durée des tirs joués par {@code Jeu}, des décisions des joueurs automatiques et des clics de l'interface.
+ * <p>
+ * Tout est collecté sans verrou ni instruction atomique : chaque thread incrémente ses propres compteurs
+ * (voir {@link Bandes}), additionnés à la lecture. Les durées des tirs et des décisions, trop brèves pour
+ * supporter deux lectures de l'horloge à chaque fois, sont échantillonnées : une sur {@value #ECHANTILLONNAGE}.
+ * Désactivées, les métriques ne coûtent qu'une lecture de champ par point de mesure : elles peuvent rester
+ * compilées partout. Elles sont activées par la propriété système {@code bataille.metriques=true}, ou à chaud par JMX.
+ */
+public final class Metriques implements MetriquesMBean {
+
+    /** Nom de publication du MBean */
+    public static final String NOM_JMX = "bataille:type=Metriques";
+
+    /** Une durée de tir ou de décision mesurée sur ce nombre, puissance de deux */
+    public static final int ECHANTILLONNAGE = 16;
+
+    /** Durée des tirs joués par Jeu, du tir à la diffusion de ses événements (échantillonnée) */
+    public static final HistogrammeLatence TIRS_JEU = new HistogrammeLatence("Tirs du jeu");
+    /** Durée de décision des tirs des joueurs automatiques (échantillonnée) */
+    public static final HistogrammeLatence DECISIONS = new HistogrammeLatence("Décisions");
+    /** Durée de traitement d'un clic sur la grille adverse, riposte comprise */
+    public static final HistogrammeLatence CLICS = new HistogrammeLatence("Clics");
+
+    /** Nombre de classes de la répartition des notifications par nombre d'écouteurs */
+    private static final int CLASSES_ECOUTEURS = 17;
+
+    private static volatile boolean actives = Boolean.getBoolean("bataille.metriques");
+
+    // Positions des compteurs dans les bandes
+    private static final int TIRS = 0;
+    private static final int TOUCHES = 1;
+    private static final int COULES = 2;
+    private static final int PARTIES = 3;
+    private static final int NOTIFICATIONS = 4;
+    private static final int ECOUTEURS_NOTIFIES = 5;
+    private static final int TIRAGE = 6;              // Compteur d'échantillonnage, non publié
+    private static final int REPARTITION = 7;         // Notifications vers 1, 2... écouteurs (0 s'en déduit)
+
+    private static final Bandes COMPTEURS = new Bandes(REPARTITION + CLASSES_ECOUTEURS);
+    // Seules les sources écoutées, rares hors de l'interface, y contribuent
+    private static final LongAccumulator ECOUTEURS_MAX = new LongAccumulator(Math::max, 0);
+
+    private static final Metriques INSTANCE = new Metriques();
+
+    private Metriques() {
+    }
+
+    // --------------------- COLLECTE ---------------------
+
+    /**
+     * Indique si les métriques sont collectées.
+     * @return true si les points de mesure doivent enregistrer.
+     */
+    public static boolean actives() {
+        return actives;
+    }
+
+    /**
+     * Active ou désactive la collecte.
+     * @param actives true pour collecter.
+     */
+    public static void activer(boolean actives) {
+        Metriques.actives = actives;
+    }
+
+    /**
+     * Prend l'instant de début d'une mesure de durée, à passer à {@link HistogrammeLatence#fin(long)}.
+     * @return L'instant en nanosecondes, ou 0 si les métriques sont désactivées.
+     */
+    public static long debut() {
+        if (!actives) return 0;
+        long t = System.nanoTime();
+        return (t == 0) ? 1 : t;
+    }
+
+    /**
+     * Comme {@link #debut()}, mais seul un appel sur {@value #ECHANTILLONNAGE} de chaque thread
+     * donne lieu à une mesure.
+     * @return L'instant en nanosecondes, ou 0 si cette mesure n'est pas prise.
+     */
+    public static long debutEchantillon() {
+        if (!actives) return 0;
+        long[] bande = COMPTEURS.locale();
+        long tirage = bande[TIRAGE];
+        Bandes.ajouter(bande, TIRAGE, 1);
+        return ((tirage & (ECHANTILLONNAGE - 1)) != 0) ? 0 : debut();
+    }
+
+    /**
+     * Compte un tir reçu par une grille.
+     * @param resultat Le résultat du tir.
+     */
+    public static void tir(ResultatTir resultat) {
+        if (!actives || resultat == ResultatTir.DEJA_TIRE) return;
+        long[] bande = COMPTEURS.locale();
+        Bandes.ajouter(bande, TIRS, 1);
+        if (resultat != ResultatTir.RATE) Bandes.ajouter(bande, TOUCHES, 1);
+        if (resultat == ResultatTir.COULE) Bandes.ajouter(bande, COULES, 1);
+    }
+
+    /**
+     * Compte une partie terminée.
+     */
+    public static void partieTerminee() {
+        if (actives) Bandes.ajouter(COMPTEURS.locale(), PARTIES, 1);
+    }
+
+    /**
+     * Compte une notification de changement et le nombre d'écouteurs qu'elle atteint.
+     * @param ecouteurs Le nombre d'écouteurs de la source.
+     */
+    public static void notification(int ecouteurs) {
+        if (!actives) return;
+        long[] bande = COMPTEURS.locale();
+        Bandes.ajouter(bande, NOTIFICATIONS, 1);
+        if (ecouteurs == 0) return;
+        Bandes.ajouter(bande, ECOUTEURS_NOTIFIES, ecouteurs);
+        Bandes.ajouter(bande, REPARTITION + Math.min(ecouteurs, CLASSES_ECOUTEURS - 1) - 1, 1);
+        ECOUTEURS_MAX.accumulate(ecouteurs);
+    }
+
+    // --------------------- PUBLICATION ---------------------
+
+    /**
+     * Publie le MBean des métriques sur le serveur JMX de la plateforme, s'il ne l'est pas déjà.
+     */
+    public static void publier() {
+        MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+        try {
+            serveur.registerMBean(INSTANCE, new ObjectName(NOM_JMX));
+        } catch (InstanceAlreadyExistsException e) {
+            // Déjà publié
+        } catch (JMException e) {
+            throw new IllegalStateException("Publication JMX impossible", e);
+        }
+    }
+
+    /**
+     * Retourne l'instance publiée par JMX, pour lire les métriques dans le programme.
+     * @return L'instance unique.
+     */
+    public static Metriques getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isActives() {
+        return actives;
+    }
+
+    @Override
+    public void setActives(boolean actives) {
+        activer(actives);
+    }
+
+    @Override
+    public long getTirs() {
+        return COMPTEURS.totaux()[TIRS];
+    }
+
+    @Override
+    public long getTouches() {
+        return COMPTEURS.totaux()[TOUCHES];
+    }
+
+    @Override
+    public long getCoules() {
+        return COMPTEURS.totaux()[COULES];
+    }
+
+    @Override
+    public long getParties() {
+        return COMPTEURS.totaux()[PARTIES];
+    }
+
+    @Override
+    public long getNotifications() {
+        return COMPTEURS.totaux()[NOTIFICATIONS];
+    }
+
+    @Override
+    public long getEcouteursNotifies() {
+        return COMPTEURS.totaux()[ECOUTEURS_NOTIFIES];
+    }
+
+    @Override
+    public double getEcouteursParNotification() {
+        long[] totaux = COMPTEURS.totaux();
+        long n = totaux[NOTIFICATIONS];
+        return (n == 0) ? 0 : (double) totaux[ECOUTEURS_NOTIFIES] / n;
+    }
+
+    @Override
+    public long getEcouteursMax() {
+        return ECOUTEURS_MAX.get();
+    }
+
+    @Override
+    public long[] getRepartitionEcouteurs() {
+        long[] totaux = COMPTEURS.totaux();
+        long[] repartition = new long[CLASSES_ECOUTEURS];
+        repartition[0] = totaux[NOTIFICATIONS];
+        for (int i = 1; i < CLASSES_ECOUTEURS; i++) {
+            repartition[i] = totaux[REPARTITION + i - 1];
+            repartition[0] -= repartition[i];
+        }
+        return repartition;
+    }
+
+    @Override
+    public long getTirsJeuNombre() {
+        return TIRS_JEU.nombre();
+    }
+
+    @Override
+    public double getTirsJeuMoyenneMicros() {
+        return TIRS_JEU.moyenne() / 1e3;
+    }
+
+    @Override
+    public double getTirsJeuP50Micros() {
+        return TIRS_JEU.quantile(0.5) / 1e3;
+    }
+
+    @Override
+    public double getTirsJeuP99Micros() {
+        return TIRS_JEU.quantile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getTirsJeuMaxMicros() {
+        return TIRS_JEU.max() / 1e3;
+    }
+
+    @Override
+    public long getDecisionsNombre() {
+        return DECISIONS.nombre();
+    }
+
+    @Override
+    public double getDecisionsMoyenneMicros() {
+        return DECISIONS.moyenne() / 1e3;
+    }
+
+    @Override
+    public double getDecisionsP50Micros() {
+        return DECISIONS.quantile(0.5) / 1e3;
+    }
+
+    @Override
+    public double getDecisionsP99Micros() {
+        return DECISIONS.quantile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getDecisionsMaxMicros() {
+        return DECISIONS.max() / 1e3;
+    }
+
+    @Override
+    public long getClicsNombre() {
+        return CLICS.nombre();
+    }
+
+    @Override
+    public double getClicsMoyenneMicros() {
+        return CLICS.moyenne() / 1e3;
+    }
+
+    @Override
+    public double getClicsP50Micros() {
+        return CLICS.quantile(0.5) / 1e3;
+    }
+
+    @Override
+    public double getClicsP99Micros() {
+        return CLICS.quantile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getClicsMaxMicros() {
+        return CLICS.max() / 1e3;
+    }
+
+    @Override
+    public void reinitialiser() {
+        COMPTEURS.reinitialiser();
+        ECOUTEURS_MAX.reset();
+        TIRS_JEU.reinitialiser();
+        DECISIONS.reinitialiser();
+        CLICS.reinitialiser();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Tirs : %d (touchés %d, coulés %d) | Parties : %d | Notifications : %d, %.2f écouteurs en moyenne, %d au plus%n%s%n%s%n%s",
+                getTirs(), getTouches(), getCoules(), getParties(), getNotifications(), getEcouteursParNotification(),
+                getEcouteursMax(), TIRS_JEU, DECISIONS, CLICS);
+    }
+}
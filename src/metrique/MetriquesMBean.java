@@ -0,0 +1,71 @@
+package metrique;
+
+/**
+ * Interface de gestion JMX des métriques du jeu, publiée sous le nom {@value Metriques#NOM_JMX}
+ * (visible par exemple dans JConsole ou VisualVM).
+ * Les durées sont en microsecondes.
+ */
+public interface MetriquesMBean {
+
+    boolean isActives();
+
+    void setActives(boolean actives);
+
+    long getTirs();
+
+    long getTouches();
+
+    long getCoules();
+
+    long getParties();
+
+    long getNotifications();
+
+    long getEcouteursNotifies();
+
+    double getEcouteursParNotification();
+
+    long getEcouteursMax();
+
+    /**
+     * Nombre de notifications par nombre d'écouteurs prévenus : l'élément i compte les notifications
+     * émises vers i écouteurs, le dernier celles émises vers davantage.
+     * @return La répartition des notifications.
+     */
+    long[] getRepartitionEcouteurs();
+
+    long getTirsJeuNombre();
+
+    double getTirsJeuMoyenneMicros();
+
+    double getTirsJeuP50Micros();
+
+    double getTirsJeuP99Micros();
+
+    double getTirsJeuMaxMicros();
+
+    long getDecisionsNombre();
+
+    double getDecisionsMoyenneMicros();
+
+    double getDecisionsP50Micros();
+
+    double getDecisionsP99Micros();
+
+    double getDecisionsMaxMicros();
+
+    long getClicsNombre();
+
+    double getClicsMoyenneMicros();
+
+    double getClicsP50Micros();
+
+    double getClicsP99Micros();
+
+    double getClicsMaxMicros();
+
+    /**
+     * Remet toutes les métriques à zéro.
+     */
+    void reinitialiser();
+}
@@ -1,7 +1,12 @@
 package model;
 
 import ecoute.AbstractModelEcoutable;
+import journal.EnregistrementPartie;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe représentant un joueur du jeu de bataille navale.
@@ -12,6 +17,17 @@ public abstract class AbstractJoueur extends AbstractModelEcoutable {
     protected Grille grille;
     protected String nom;
     protected ArrayList<Bateau> flotte;
+    protected boolean verbeux = true; // false pour les parties sans console (simulations)
+    protected RandomGenerator generateur; // null : générateur du thread courant
+
+    // Nombre maximal de tentatives de placement complet de la flotte
+    private static final int ESSAIS_PLACEMENT = 100;
+    // Tampon réutilisé pour lister les placements compatibles
+    private int[] placementsCompatibles;
+    // Au-delà de ce nombre de cellules, les placements sont tirés au hasard plutôt que listés
+    private static final int SEUIL_TABLES = 4096;
+    // Nombre maximal de tirages d'un placement sur une grande grille
+    private static final int ESSAIS_TIRAGE = 1000;
 
     /**
      * Constructeur principal.
@@ -57,6 +73,35 @@ public abstract class AbstractJoueur extends AbstractModelEcoutable {
         this.flotte = flotte;
     }
 
+    public int[] getTailleBateau() {
+        return tailleBateau;
+    }
+
+    public void setTailleBateau(int[] tailleBateau) {
+        this.tailleBateau = tailleBateau;
+    }
+
+    public RandomGenerator getGenerateur() {
+        return generateur;
+    }
+
+    /**
+     * Fixe le générateur aléatoire du joueur (par exemple un générateur initialisé avec une graine
+     * pour rejouer une simulation à l'identique).
+     * @param generateur Le générateur, ou null pour utiliser celui du thread courant.
+     */
+    public void setGenerateur(RandomGenerator generateur) {
+        this.generateur = generateur;
+    }
+
+    public boolean estVerbeux() {
+        return verbeux;
+    }
+
+    public void setVerbeux(boolean verbeux) {
+        this.verbeux = verbeux;
+    }
+
     /**
      * Détruit la flotte du joueur.
      */
@@ -65,6 +110,9 @@ public abstract class AbstractJoueur extends AbstractModelEcoutable {
             bateau.detruit();
         }
         flotte.clear();
+        if (grille != null) {
+            grille.retirerBateaux();
+        }
     }
 
     /**
@@ -76,18 +124,7 @@ public abstract class AbstractJoueur extends AbstractModelEcoutable {
      * @return true si l'emplacement est libre, sinon false
      */
     public boolean placeLibre(int x, int y, Bateau bateau, boolean estVertical) {
-        if (!estVertical) {
-            if (y + bateau.getTaille() > grille.getColonnes()) return false;
-            for (int i = y; i < y + bateau.getTaille(); i++) {
-                if (grille.getTab()[x][i].aUnBateau()) return false;
-            }
-        } else {
-            if (x + bateau.getTaille() > grille.getLignes()) return false;
-            for (int j = x; j < x + bateau.getTaille(); j++) {
-                if (grille.getTab()[j][y].aUnBateau()) return false;
-            }
-        }
-        return true;
+        return grille.placeLibre(x, y, bateau.getTaille(), estVertical);
     }
 
     /**
@@ -99,56 +136,168 @@ public abstract class AbstractJoueur extends AbstractModelEcoutable {
      * @return true si le bateau a été ajouté, sinon false
      */
     public boolean ajoutBateau(int x, int y, Bateau bateau, boolean estVertical) {
-        if (!placeLibre(x, y, bateau, estVertical)) return false;
-
-        if (!estVertical) {
-            for (int i = y; i < y + bateau.getTaille(); i++) {
-                grille.getTab()[x][i].setBateauCellule(bateau);
-                bateau.getCellulesBateau().add(grille.getTab()[x][i]);
-            }
-        } else {
-            for (int j = x; j < x + bateau.getTaille(); j++) {
-                grille.getTab()[j][y].setBateauCellule(bateau);
-                bateau.getCellulesBateau().add(grille.getTab()[j][y]);
-            }
-        }
+        if (!grille.poserBateau(x, y, bateau, estVertical)) return false;
         flotte.add(bateau);
         return true;
     }
 
+    /**
+     * Retourne le nombre de bateaux du joueur encore à flot.
+     * Ce compteur est tenu à jour par la grille à chaque tir reçu.
+     * @return le nombre de bateaux non coulés
+     */
+    public int getBateauxRestants() {
+        return grille.getBits().getBateauxRestants();
+    }
+
     /**
      * Vérifie si tous les bateaux du joueur ont été coulés.
+     * Le test lit le compteur de bateaux restants : il est immédiat et sans effet de bord.
      * @return true si le joueur a perdu, sinon false
      */
     public boolean aPerdu() {
-        for (Bateau bateau : flotte) {
-            if (!bateau.toucheCellules()) return false;
-        }
-        return true;
+        return getBateauxRestants() == 0;
     }
 
     /**
      * Ajoute des bateaux aléatoirement sur la grille.
+     * Chaque bateau est tiré uniformément parmi les placements encore compatibles avec les bateaux déjà posés,
+     * à partir des tables de placements précalculées : aucun mélange de positions et aucun essai refusé.
+     * Sur les grandes grilles, où ces tables deviendraient énormes et presque tous les placements sont libres,
+     * un placement est tiré au hasard puis redemandé tant qu'il chevauche un bateau.
+     * Si un bateau ne trouve plus de place, toute la flotte est replacée.
      */
     public void ajoutBateauAleatoire() {
-        this.detruireFlotte();
+        for (int essai = 0; essai < ESSAIS_PLACEMENT; essai++) {
+            this.detruireFlotte();
+            if (placerFlotteAleatoire()) return;
+        }
+        throw new IllegalStateException("Impossible de placer la flotte sur une grille " + grille.getLignes() + "x" + grille.getColonnes());
+    }
+
+    /**
+     * Place chaque bateau de la flotte sur un placement compatible tiré au hasard.
+     * @return true si tous les bateaux ont été placés, false si l'un d'eux n'a plus de place.
+     */
+    private boolean placerFlotteAleatoire() {
+        RandomGenerator generateur = generateur();
+        if (grille.getLignes() * grille.getColonnes() > SEUIL_TABLES) {
+            return tirerFlotteAleatoire(generateur);
+        }
+        long[] occupation = grille.getBits().getOccupation();
         for (int taille : tailleBateau) {
-            for (int[] position : grille.grillePosition()) {
-                //Bateau bateau = new Bateau(taille);
-                boolean ajoute = this.ajoutBateau(position[0], position[1], new Bateau(taille), true);
-                if (!ajoute) {
-                    ajoute = this.ajoutBateau(position[0], position[1], new Bateau(taille), false);
+            TablePlacements table = TablePlacements.pour(grille.getLignes(), grille.getColonnes(), taille);
+            if (placementsCompatibles == null || placementsCompatibles.length < table.getNbPlacements()) {
+                placementsCompatibles = new int[table.getNbPlacements()];
+            }
+            int n = table.compatibles(occupation, placementsCompatibles);
+            if (n == 0) return false;
+
+            int p = placementsCompatibles[generateur.nextInt(n)];
+            this.ajoutBateau(table.getX(p), table.getY(p), new Bateau(taille), table.estVertical(p));
+        }
+        return true;
+    }
+
+    /**
+     * Place chaque bateau de la flotte par tirages successifs d'un placement uniforme sur la grille vide,
+     * jusqu'à en trouver un libre : le placement retenu est uniforme parmi les placements libres.
+     * @return true si tous les bateaux ont été placés, false si l'un d'eux n'a pas trouvé de place.
+     */
+    private boolean tirerFlotteAleatoire(RandomGenerator generateur) {
+        int lignes = grille.getLignes();
+        int colonnes = grille.getColonnes();
+        for (int taille : tailleBateau) {
+            int horizontaux = (taille <= colonnes) ? lignes * (colonnes - taille + 1) : 0;
+            int verticaux = (taille <= lignes) ? (lignes - taille + 1) * colonnes : 0;
+            if (horizontaux + verticaux == 0) return false;
+
+            boolean place = false;
+            for (int essai = 0; essai < ESSAIS_TIRAGE && !place; essai++) {
+                int r = generateur.nextInt(horizontaux + verticaux);
+                boolean estVertical = r >= horizontaux;
+                int x = estVertical ? (r - horizontaux) / colonnes : r / (colonnes - taille + 1);
+                int y = estVertical ? (r - horizontaux) % colonnes : r % (colonnes - taille + 1);
+                if (grille.placeLibre(x, y, taille, estVertical)) {
+                    this.ajoutBateau(x, y, new Bateau(taille), estVertical);
+                    place = true;
                 }
-                if (ajoute) break;
             }
+            if (!place) return false;
         }
+        return true;
+    }
+
+    /**
+     * Retourne le générateur aléatoire du joueur, ou celui du thread courant si aucun n'a été fixé.
+     * @return Le générateur à utiliser.
+     */
+    protected RandomGenerator generateur() {
+        return (generateur != null) ? generateur : ThreadLocalRandom.current();
     }
 
     /**
-     * Méthode abstraite permettant au joueur de choisir la position de son tir.
-     * @return Tableau contenant les coordonnées du tir
+     * Méthode abstraite permettant au joueur de choisir la case de son tir, sans allocation.
+     * @return L'indice compacté (x * colonnes + y) de la case visée sur la grille adverse
      */
-    public abstract int[] tire();
+    public abstract int tireCase();
+
+    /**
+     * Choisit la position du tir sous forme de coordonnées.
+     * Adaptateur de {@link #tireCase()}, qui alloue un tableau à chaque appel.
+     * @return Tableau contenant les coordonnées [x, y] du tir
+     */
+    public int[] tire() {
+        int index = tireCase();
+        int colonnes = getColonnesCible();
+        return new int[]{index / colonnes, index % colonnes};
+    }
+
+    /**
+     * Version asynchrone de {@link #tireCase()} : la case visée est rendue par une étape à compléter plus tard,
+     * si bien qu'aucun thread n'attend pendant qu'un joueur humain ou distant réfléchit.
+     * Par défaut, c'est un adaptateur des joueurs synchrones : le tir est calculé tout de suite,
+     * sur le thread appelant, et l'étape rendue est déjà complétée.
+     * L'appelant peut imposer un délai ou annuler l'attente via {@link CompletionStage#toCompletableFuture()}.
+     * @return L'étape qui fournira l'indice compacté de la case visée sur la grille adverse
+     */
+    public CompletionStage<Integer> tireCaseAsync() {
+        try {
+            return CompletableFuture.completedFuture(tireCase());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Prend en compte un tir du joueur qui n'est pas passé par {@link #tireCase()},
+     * par exemple lors de la restauration d'une partie. Par défaut, rien n'est à mémoriser.
+     * @param index L'indice de la case visée sur la grille adverse
+     */
+    public void noterTir(int index) {
+    }
+
+    /**
+     * Note dans le journal la position de chacun des bateaux posés sur la grille du joueur.
+     * @param enregistrement L'enregistrement de la partie en cours
+     * @param joueur Le numéro du joueur dans la partie (0 ou 1)
+     */
+    public void journaliserFlotte(EnregistrementPartie enregistrement, int joueur) {
+        GrilleBits bits = grille.getBits();
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            int origine = bits.getOrigineBateau(b);
+            enregistrement.bateau(joueur, origine >>> 1, bits.getTailleBateau(b), (origine & 1) != 0);
+        }
+    }
+
+    /**
+     * Retourne le nombre de colonnes de la grille visée, qui sert à décoder les indices de tir.
+     * Les deux grilles d'une partie ont les mêmes dimensions : par défaut, c'est celui de la grille du joueur.
+     * @return Le nombre de colonnes de la grille adverse
+     */
+    public int getColonnesCible() {
+        return grille.getColonnes();
+    }
 
     /**
      * Méthode abstraite permettant de rendre un bateau visible.
@@ -3,7 +3,7 @@ package model;
 import java.util.ArrayList;
 
 import ecoute.AbstractModelEcoutable;
-import ecoute.notifications.BateauNotification;
+import ecoute.Evenement;
 
 /**
  * Classe représentant un navire dans un jeu (par exemple, un jeu de bataille navale).
@@ -12,9 +12,10 @@ public class Bateau extends AbstractModelEcoutable {
 
     // Attributs de la classe
     private ArrayList<Cellule> cellulesBateau;  // Liste des cellules occupées par le navire
-    private boolean visible;                    // Indique si le navire est visible ou non
+    private volatile boolean visible;           // Indique si le navire est visible ou non (lu par sa vue, sur le thread de l'interface)
     private int taille;                         // Taille du navire (en termes de cellules)
     protected boolean estDetruit = false;       // Indique si le navire a été détruit
+    private int touches = 0;                    // Nombre de cellules du navire déjà touchées
     
     /**
      * Constructeur pour créer un navire avec une taille spécifiée. 
@@ -69,7 +70,7 @@ public class Bateau extends AbstractModelEcoutable {
      */
     public void setVisible(boolean visible) {
         this.visible = visible;
-        this.fireChangement(BateauNotification.BATEAU_VISIBILITEE_CHANGEE);  // Notification du changement de visibilité
+        this.fireChangement(Evenement.BATEAU_VISIBILITEE_CHANGEE);  // Notification du changement de visibilité
     }
 
     /**
@@ -97,11 +98,37 @@ public class Bateau extends AbstractModelEcoutable {
             cellule.setBateauCellule(null);  // Détache ce navire de la cellule
         }
         this.estDetruit = true;
-        this.fireChangement(BateauNotification.BATEAU_DETRUIT);  // Notification du changement d'état du navire
+        this.fireChangement(Evenement.BATEAU_DETRUIT);  // Notification du changement d'état du navire
     }
 
     /**
-     * Vérifie si toutes les cellules du navire ont été touchées.
+     * Comptabilise une touche sur le navire. Appelée par la grille à chaque tir qui atteint l'une de ses cellules.
+     * @return `true` si cette touche coule le navire, `false` sinon.
+     */
+    public boolean enregistrerTouche() {
+        touches++;
+        return touches == taille;
+    }
+
+    /**
+     * Retourne le nombre de cellules du navire déjà touchées.
+     * @return le nombre de touches reçues.
+     */
+    public int getTouches() {
+        return touches;
+    }
+
+    /**
+     * Vérifie si le navire est coulé à partir de son compteur de touches.
+     * Contrairement à {@link #toucheCellules()}, ce test ne parcourt pas les cellules et n'a aucun effet de bord.
+     * @return `true` si le navire est coulé, `false` sinon.
+     */
+    public boolean estCoule() {
+        return touches >= taille;
+    }
+
+    /**
+     * Vérifie si toutes les cellules du navire ont été touchées en parcourant ses cellules.
      * Si c'est le cas, on rend le navire visible immédiatement.
      * @return `true` si toutes les cellules sont touchées, `false` sinon.
      */
@@ -1,7 +1,7 @@
 package model;
 
 import ecoute.AbstractModelEcoutable;
-import ecoute.notifications.CelluleNotification;
+import ecoute.Evenement;
 
 /**
  * Classe représentant une cellule dans la grille d'un joueur.
@@ -13,8 +13,9 @@ public class Cellule extends AbstractModelEcoutable {
     private int posX;                // Coordonnée X de la cellule (position horizontale)
     private int posY;                // Coordonnée Y de la cellule (position verticale)
 
-    // L'état de la cellule : vide, touché, etc.
-    private EtatCellule etat;        // L'état actuel de la cellule (par exemple, VIDE, TOUCHE, COULE)
+    // L'état de la cellule : vide, touché, etc. Volatile : la vue de la cellule le lit sur le thread de l'interface,
+    // et la valeur, immuable, est à elle seule l'état publié
+    private volatile EtatCellule etat;  // L'état actuel de la cellule (par exemple, VIDE, TOUCHE, COULE)
 
     // Un bateau peut être affecté à cette cellule, si cette cellule contient un bateau
     private Bateau bateauCellule;    // Référence au bateau affecté à cette cellule, ou null si aucun bateau
@@ -89,7 +90,7 @@ public class Cellule extends AbstractModelEcoutable {
      */
     public void setEtat(EtatCellule etat) {
         this.etat = etat; // Mise à jour de l'état de la cellule
-        this.fireChangement(CelluleNotification.ETAT_CHANGE); // Notifie les observateurs du changement d'état
+        this.fireChangement(Evenement.CELLULE_ETAT_CHANGE); // Notifie les observateurs du changement d'état
     }
 
     /**
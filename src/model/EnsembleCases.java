@@ -0,0 +1,146 @@
+package model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Ensemble de cases d'une grille, désignées par leur indice compacté {@code x * colonnes + y}.
+ * Les cases sont rangées dans un tableau d'entiers primitifs qui reste en permanence une permutation
+ * de toutes les cases : les membres de l'ensemble en occupent le début, et un second tableau donne
+ * la place de chaque case. L'ajout, le retrait, le test d'appartenance et le tirage d'une case au hasard
+ * se font ainsi en temps constant et sans aucune allocation ; l'ensemble peut aussi être parcouru
+ * comme une liste, de {@code get(0)} à {@code get(taille() - 1)}.
+ */
+public final class EnsembleCases {
+
+    private final int[] cases;      // Permutation des cases ; les membres sont dans cases[0 .. taille - 1]
+    private final int[] places;     // Place de chaque case dans le tableau cases
+    private int taille;             // Nombre de membres
+
+    /**
+     * Constructeur d'un ensemble vide.
+     * @param capacite Nombre de cases de la grille (les indices vont de 0 à capacite - 1).
+     */
+    public EnsembleCases(int capacite) {
+        this.cases = new int[capacite];
+        this.places = new int[capacite];
+        for (int i = 0; i < capacite; i++) {
+            cases[i] = i;
+            places[i] = i;
+        }
+    }
+
+    /**
+     * Crée un ensemble contenant toutes les cases d'une grille.
+     * @param capacite Nombre de cases de la grille.
+     * @return L'ensemble plein.
+     */
+    public static EnsembleCases pleine(int capacite) {
+        EnsembleCases ensemble = new EnsembleCases(capacite);
+        ensemble.remplir();
+        return ensemble;
+    }
+
+    // --------------------- CONSULTATION ---------------------
+
+    public int taille() {
+        return taille;
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    public int getCapacite() {
+        return cases.length;
+    }
+
+    /**
+     * Vérifie si une case appartient à l'ensemble.
+     * @param index Indice de la case.
+     * @return true si la case est membre, sinon false.
+     */
+    public boolean contient(int index) {
+        return places[index] < taille;
+    }
+
+    /**
+     * Retourne le i-ème membre de l'ensemble (l'ordre change lors des retraits et des mélanges).
+     * @param i Rang du membre, entre 0 et taille() - 1.
+     * @return L'indice de la case.
+     */
+    public int get(int i) {
+        if (i >= taille) throw new IndexOutOfBoundsException("Rang " + i + " pour " + taille + " cases");
+        return cases[i];
+    }
+
+    // --------------------- MODIFICATION ---------------------
+
+    /**
+     * Ajoute une case à l'ensemble.
+     * @param index Indice de la case.
+     * @return true si la case a été ajoutée, false si elle était déjà membre.
+     */
+    public boolean ajouter(int index) {
+        if (contient(index)) return false;
+        echanger(places[index], taille++);
+        return true;
+    }
+
+    /**
+     * Retire une case de l'ensemble.
+     * @param index Indice de la case.
+     * @return true si la case a été retirée, false si elle n'était pas membre.
+     */
+    public boolean retirer(int index) {
+        if (!contient(index)) return false;
+        echanger(places[index], --taille);
+        return true;
+    }
+
+    /**
+     * Retire et retourne une case tirée uniformément parmi les membres.
+     * @param generateur Le générateur aléatoire.
+     * @return L'indice de la case retirée.
+     */
+    public int retirerAuHasard(RandomGenerator generateur) {
+        if (taille == 0) {
+            throw new IllegalStateException("Aucune case disponible.");
+        }
+        int index = cases[generateur.nextInt(taille)];
+        echanger(places[index], --taille);
+        return index;
+    }
+
+    /**
+     * Mélange l'ordre des membres (Fisher-Yates).
+     * @param generateur Le générateur aléatoire.
+     */
+    public void melanger(RandomGenerator generateur) {
+        for (int i = taille - 1; i > 0; i--) {
+            echanger(i, generateur.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * Rend toutes les cases de la grille membres, en temps constant.
+     */
+    public void remplir() {
+        taille = cases.length;
+    }
+
+    /**
+     * Vide l'ensemble, en temps constant.
+     */
+    public void vider() {
+        taille = 0;
+    }
+
+    private void echanger(int i, int j) {
+        int a = cases[i];
+        int b = cases[j];
+        cases[i] = b;
+        cases[j] = a;
+        places[b] = i;
+        places[a] = j;
+    }
+}
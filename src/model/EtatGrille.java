@@ -0,0 +1,107 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Instantané immuable de ce qu'une vue affiche d'une grille : ses quatre masques et la position de ses bateaux.
+ * Il est pris par le thread qui modifie la grille, à chaque modification une fois qu'une vue l'a demandé
+ * (voir {@link Grille#getEtatPublie()}), et publié par une écriture volatile : une vue sur un autre thread
+ * ne lit jamais les masques ni les tableaux de bateaux pendant qu'ils changent.
+ */
+public final class EtatGrille {
+
+    private final int lignes;
+    private final int colonnes;
+    private final long[] occupation;
+    private final long[] tirs;
+    private final long[] touches;
+    private final long[] coules;
+    private final int[] originesBateaux;    // Première cellule de chaque bateau << 1 | 1 si vertical
+    private final int[] taillesBateaux;
+
+    /**
+     * Copie l'état courant des masques d'une grille.
+     * @param bits Les masques, lus sur le thread qui les modifie.
+     */
+    EtatGrille(GrilleBits bits) {
+        this.lignes = bits.getLignes();
+        this.colonnes = bits.getColonnes();
+        this.occupation = bits.getOccupation().clone();
+        this.tirs = bits.getTirs().clone();
+        this.touches = bits.getTouches().clone();
+        this.coules = bits.getCoules().clone();
+        int nbBateaux = bits.getNbBateaux();
+        this.originesBateaux = new int[nbBateaux];
+        this.taillesBateaux = new int[nbBateaux];
+        for (int b = 0; b < nbBateaux; b++) {
+            originesBateaux[b] = bits.getOrigineBateau(b);
+            taillesBateaux[b] = bits.getTailleBateau(b);
+        }
+    }
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+
+    /**
+     * Retourne le masque des cellules occupées par un bateau (à ne pas modifier).
+     * @return Le masque d'occupation.
+     */
+    public long[] getOccupation() {
+        return occupation;
+    }
+
+    /**
+     * Retourne le masque des cellules déjà visées (à ne pas modifier).
+     * @return Le masque des tirs.
+     */
+    public long[] getTirs() {
+        return tirs;
+    }
+
+    /**
+     * Retourne le masque des cellules touchées (à ne pas modifier).
+     * @return Le masque des touches.
+     */
+    public long[] getTouches() {
+        return touches;
+    }
+
+    /**
+     * Retourne le masque des cellules des bateaux coulés (à ne pas modifier).
+     * @return Le masque des cellules coulées.
+     */
+    public long[] getCoules() {
+        return coules;
+    }
+
+    public int getNbBateaux() {
+        return originesBateaux.length;
+    }
+
+    /**
+     * Retourne la position d'un bateau.
+     * @param bateau Identifiant du bateau (rang de pose).
+     * @return L'indice de sa première cellule décalé d'un bit, avec 1 dans le bit de poids faible s'il est vertical.
+     */
+    public int getOrigineBateau(int bateau) {
+        return originesBateaux[bateau];
+    }
+
+    public int getTailleBateau(int bateau) {
+        return taillesBateaux[bateau];
+    }
+
+    /**
+     * Indique si deux états ont les mêmes bateaux, posés aux mêmes positions.
+     * @param autre L'autre état.
+     * @return true si les flottes sont identiques.
+     */
+    public boolean memeFlotte(EtatGrille autre) {
+        return Arrays.equals(originesBateaux, autre.originesBateaux) && Arrays.equals(taillesBateaux, autre.taillesBateaux);
+    }
+}
@@ -0,0 +1,52 @@
+package model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Générateur aléatoire SplitMix64 dont tout l'état tient dans un long, lisible et modifiable.
+ * Contrairement à {@link java.util.concurrent.ThreadLocalRandom} ou {@link java.util.SplittableRandom},
+ * son état peut être enregistré dans un instantané de partie puis restauré : la partie reprend
+ * alors exactement les mêmes tirages.
+ */
+public final class GenerateurSplitMix implements RandomGenerator {
+
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long etat;
+
+    /**
+     * Constructeur à partir d'une graine.
+     * @param graine La graine (état initial).
+     */
+    public GenerateurSplitMix(long graine) {
+        this.etat = graine;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = etat;
+        etat += GAMMA;
+        return melanger(z);
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64 : des entrées voisines donnent des sorties sans rapport.
+     * C'est le tirage qui suit l'état {@code z} ; elle sert aussi de hachage aux clés des situations.
+     * @param z L'entrée.
+     * @return La sortie mélangée.
+     */
+    static long melanger(long z) {
+        z += GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getEtat() {
+        return etat;
+    }
+
+    public void setEtat(long etat) {
+        this.etat = etat;
+    }
+}
@@ -2,8 +2,10 @@ package model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
 import ecoute.AbstractModelEcoutable;
+import ecoute.Evenement;
+import metrique.Metriques;
 
 /**
  * Cette classe représente la grille d'un joueur dans le jeu, qui contient toutes les cellules du jeu.
@@ -18,8 +20,17 @@ public class Grille extends AbstractModelEcoutable {
     // Tableau à deux dimensions représentant la grille de cellules
     private Cellule[][] tab;          // Tableau représentant la grille de cellules
 
-    // Liste contenant toutes les positions possibles de la grille
-    private ArrayList<int[]> toutesPositions = new ArrayList<>();
+    // Cellules matérialisées d'une grille creuse, indexées par x * colonnes + y (null pour une grille dense)
+    private TableCellules<Cellule> creuses;
+
+    // Liste contenant toutes les positions possibles de la grille, construite au premier appel
+    private ArrayList<int[]> toutesPositions;
+
+    // Représentation de la grille en masques de bits (occupation, tirs, touches)
+    private GrilleBits bits;
+
+    // Dernier état publié pour les vues, null tant qu'aucune vue ne l'a demandé
+    private volatile EtatGrille etatPublie;
 
     /**
      * Constructeur de la classe permettant d'initialiser la grille.
@@ -29,26 +40,64 @@ public class Grille extends AbstractModelEcoutable {
      * @param colonnes Nombre de colonnes dans la grille.
      */
     public Grille(int lignes, int colonnes) {
+        this(lignes, colonnes, true);
+    }
+
+    /**
+     * Constructeur permettant de choisir si les cellules sont créées.
+     * Sans cellules, la grille ne repose que sur ses masques de bits : c'est le mode utilisé
+     * par les simulations, qui n'ont besoin d'aucune vue ni d'aucun écouteur.
+     * @param lignes Nombre de lignes dans la grille.
+     * @param colonnes Nombre de colonnes dans la grille.
+     * @param avecCellules true pour créer les cellules (interface graphique), false pour une grille sans cellules.
+     */
+    public Grille(int lignes, int colonnes, boolean avecCellules) {
         this.lignes = lignes;           // Initialisation du nombre de lignes
         this.colonnes = colonnes;       // Initialisation du nombre de colonnes
-        this.tab = new Cellule[lignes][colonnes];  // Création du tableau de cellules
+        this.bits = new GrilleBits(lignes, colonnes);
+        if (avecCellules) {
+            this.tab = new Cellule[lignes][colonnes];  // Création du tableau de cellules
 
-        // Initialisation des cellules et ajout des positions possibles
-        for (int i = 0; i < lignes; i++) {
-            for (int j = 0; j < colonnes; j++) {
-                toutesPositions.add(new int[]{i, j});  // Ajout de chaque position de cellule à la liste
-                this.tab[i][j] = new Cellule(i, j);    // Initialisation de chaque cellule avec ses coordonnées
+            // Initialisation des cellules
+            for (int i = 0; i < lignes; i++) {
+                for (int j = 0; j < colonnes; j++) {
+                    this.tab[i][j] = new Cellule(i, j);    // Initialisation de chaque cellule avec ses coordonnées
+                }
             }
         }
     }
 
+    /**
+     * Crée une grille creuse, adaptée aux très grandes grilles.
+     * Seules les cellules des bateaux, et celles demandées par {@link #getCellulePosition(int, int)},
+     * sont créées ; l'état des autres cellules n'existe que dans les masques de bits.
+     * La mémoire occupée dépend ainsi de l'activité sur la grille plutôt que de sa surface.
+     * @param lignes Nombre de lignes dans la grille.
+     * @param colonnes Nombre de colonnes dans la grille.
+     * @return La grille creuse.
+     */
+    public static Grille creuse(int lignes, int colonnes) {
+        Grille grille = new Grille(lignes, colonnes, false);
+        grille.creuses = new TableCellules<>();
+        return grille;
+    }
+
     // --------------------- GETTERS & SETTERS ---------------------
 
     /**
      * Retourne la liste de toutes les positions possibles de la grille.
+     * La liste est construite au premier appel.
      * @return Liste des positions sous forme de tableau [x, y].
      */
     public ArrayList<int[]> getToutesPositions() {
+        if (toutesPositions == null) {
+            toutesPositions = new ArrayList<>(lignes * colonnes);
+            for (int i = 0; i < lignes; i++) {
+                for (int j = 0; j < colonnes; j++) {
+                    toutesPositions.add(new int[]{i, j});  // Ajout de chaque position de cellule à la liste
+                }
+            }
+        }
         return toutesPositions;
     }
 
@@ -78,7 +127,8 @@ public class Grille extends AbstractModelEcoutable {
 
     /**
      * Retourne le tableau des cellules représentant la grille.
-     * @return Tableau bidimensionnel des cellules.
+     * Pour une grille creuse ou sans cellules, le tableau n'existe pas : utiliser {@link #getCellulePosition(int, int)}.
+     * @return Tableau bidimensionnel des cellules, ou null si la grille n'est pas dense.
      */
     public Cellule[][] getTab() {
         return tab;
@@ -92,19 +142,219 @@ public class Grille extends AbstractModelEcoutable {
         this.tab = tab;
     }
 
+    /**
+     * Retourne la représentation en masques de bits de la grille.
+     * @return Les masques d'occupation, de tirs et de touches.
+     */
+    public GrilleBits getBits() {
+        return bits;
+    }
+
+    /**
+     * Indique si la grille possède des cellules (false pour une grille de simulation).
+     * @return true si les cellules existent ou sont créées à la demande, sinon false.
+     */
+    public boolean aDesCellules() {
+        return tab != null || creuses != null;
+    }
+
+    /**
+     * Indique si la grille est creuse (cellules créées à la demande).
+     * @return true pour une grille créée par {@link #creuse(int, int)}.
+     */
+    public boolean estCreuse() {
+        return creuses != null;
+    }
+
+    /**
+     * Retourne le nombre de cellules créées.
+     * @return lignes * colonnes pour une grille dense, le nombre de cellules matérialisées pour une grille creuse.
+     */
+    public int getNombreCellules() {
+        if (tab != null) return lignes * colonnes;
+        return (creuses != null) ? creuses.taille() : 0;
+    }
+
     /**
      * Cette méthode renvoie la cellule correspondant à une position spécifique dans la grille.
-     * Si la position est hors limites, la méthode retourne null.
+     * Si la position est hors limites, ou si la grille n'a pas de cellules, la méthode retourne null.
+     * Dans une grille creuse, la cellule est créée au premier appel, dans l'état indiqué par les masques.
      * @param x Coordonnée X (ligne) de la cellule recherchée.
      * @param y Coordonnée Y (colonne) de la cellule recherchée.
      * @return La cellule à la position spécifiée, ou null si hors limites.
      */
     public Cellule getCellulePosition(int x, int y) {
         // Vérifie que les coordonnées sont dans les limites de la grille
-        if (x >= 0 && x < lignes && y >= 0 && y < colonnes) {
+        if (x < 0 || x >= lignes || y < 0 || y >= colonnes) {
+            return null;  // Retourne null si la position est hors limites
+        }
+        if (tab != null) {
             return this.tab[x][y];  // Retourne la cellule à la position spécifiée
         }
-        return null;  // Retourne null si la position est hors limites
+        return (creuses != null) ? materialiser(x, y) : null;
+    }
+
+    /**
+     * Retourne la cellule (x, y) d'une grille creuse, en la créant si besoin.
+     * Une cellule absente de la table ne porte aucun bateau (les cellules des bateaux sont créées à la pose) :
+     * seul son état est à reprendre des masques.
+     */
+    private Cellule materialiser(int x, int y) {
+        int index = bits.index(x, y);
+        Cellule cellule = creuses.get(index);
+        if (cellule == null) {
+            cellule = new Cellule(x, y);
+            if (bits.estTouchee(index)) {
+                cellule.setEtat(EtatCellule.TOUCHE);
+            } else if (bits.estTiree(index)) {
+                cellule.setEtat(EtatCellule.RATE);
+            }
+            creuses.put(index, cellule);
+        }
+        return cellule;
+    }
+
+    /**
+     * Vérifie si un bateau de la taille donnée peut être posé à partir de la cellule (x, y).
+     * @param x Coordonnée X (ligne) de la première cellule.
+     * @param y Coordonnée Y (colonne) de la première cellule.
+     * @param taille Taille du bateau.
+     * @param estVertical Orientation du bateau.
+     * @return true si le bateau tient dans la grille sans chevaucher un autre bateau.
+     */
+    public boolean placeLibre(int x, int y, int taille, boolean estVertical) {
+        return bits.placeLibre(x, y, taille, estVertical);
+    }
+
+    /**
+     * Pose un bateau à partir de la cellule (x, y) si l'emplacement est libre.
+     * Le bateau est inscrit dans les masques et, si la grille a des cellules, relié à ses cellules.
+     * @param x Coordonnée X (ligne) de la première cellule.
+     * @param y Coordonnée Y (colonne) de la première cellule.
+     * @param bateau Le bateau à poser.
+     * @param estVertical Orientation du bateau.
+     * @return true si le bateau a été posé, sinon false.
+     */
+    public boolean poserBateau(int x, int y, Bateau bateau, boolean estVertical) {
+        if (bits.placer(x, y, bateau.getTaille(), estVertical) < 0) return false;
+
+        if (aDesCellules()) {
+            for (int k = 0; k < bateau.getTaille(); k++) {
+                Cellule cellule = estVertical ? getCellulePosition(x + k, y) : getCellulePosition(x, y + k);
+                cellule.setBateauCellule(bateau);
+                bateau.getCellulesBateau().add(cellule);
+            }
+        }
+        this.publier();
+        return true;
+    }
+
+    /**
+     * Retire tous les bateaux des masques de la grille.
+     * Les cellules sont libérées par {@link Bateau#detruit()} ; une grille creuse oublie ensuite
+     * les cellules sans bateau que plus aucune vue n'écoute.
+     */
+    public void retirerBateaux() {
+        bits.viderBateaux();
+        if (creuses != null) {
+            creuses.retirerSi(cellule -> cellule.getBateauCellule() == null && cellule.getNombreEcouteurs() == 0);
+        }
+        this.publier();
+    }
+
+    /**
+     * Efface tous les tirs reçus, les bateaux restant en place : la grille revient au début de la partie.
+     * Réservé aux grilles sans cellules, dont tout l'état tient dans les masques (par exemple pour revenir
+     * en arrière dans la relecture d'une partie).
+     */
+    public void viderTirs() {
+        if (aDesCellules()) {
+            throw new IllegalStateException("Les tirs d'une grille avec cellules ne peuvent être effacés.");
+        }
+        bits.viderTirs();
+        this.publier();
+    }
+
+    /**
+     * Retourne le dernier état publié de la grille, seul état qu'une vue doit lire : il est pris sur le thread
+     * qui modifie la grille, à chaque modification, avant l'émission de {@link Evenement#GRILLE_MODIFIEE}.
+     * Le premier appel prend l'état sur le thread appelant : il a lieu à la création des vues, avant que
+     * le thread de jeu ne reçoive sa première commande.
+     * @return L'instantané immuable des masques et des bateaux.
+     */
+    public EtatGrille getEtatPublie() {
+        EtatGrille etat = etatPublie;
+        if (etat == null) {
+            etat = new EtatGrille(bits);
+            etatPublie = etat;
+        }
+        return etat;
+    }
+
+    /**
+     * Publie le nouvel état de la grille pour ses vues, s'il en existe, puis prévient ses écouteurs.
+     * Une grille que personne n'affiche, par exemple dans une simulation, ne copie rien.
+     */
+    private void publier() {
+        if (etatPublie != null) etatPublie = new EtatGrille(bits);
+        this.fireChangement(Evenement.GRILLE_MODIFIEE);
+    }
+
+    /**
+     * Retourne l'indice compacté d'une cellule, utilisé par l'API primitive des tirs et des positions.
+     * @param x Coordonnée X (ligne) de la cellule.
+     * @param y Coordonnée Y (colonne) de la cellule.
+     * @return L'indice x * colonnes + y.
+     */
+    public int index(int x, int y) {
+        return x * colonnes + y;
+    }
+
+    /**
+     * Applique un tir sur la cellule (x, y) de cette grille.
+     * Adaptateur de {@link #recevoirTir(int)}.
+     * @param x Coordonnée X (ligne) de la cellule visée.
+     * @param y Coordonnée Y (colonne) de la cellule visée.
+     * @return Le résultat du tir (DEJA_TIRE si la cellule avait déjà été visée).
+     */
+    public ResultatTir recevoirTir(int x, int y) {
+        return recevoirTir(index(x, y));
+    }
+
+    /**
+     * Applique un tir sur une cellule de cette grille, sans aucun affichage.
+     * Le tir est résolu sur les masques ; si la grille a des cellules, la cellule passe à l'état TOUCHE ou RATE
+     * et un bateau coulé devient visible et est marqué comme détruit.
+     * Les écouteurs de la grille reçoivent {@link Evenement#GRILLE_MODIFIEE}.
+     * @param index Indice compacté (x * colonnes + y) de la cellule visée.
+     * @return Le résultat du tir (DEJA_TIRE si la cellule avait déjà été visée).
+     */
+    public ResultatTir recevoirTir(int index) {
+        ResultatTir resultat = bits.tirer(index);
+        Metriques.tir(resultat);
+        if (resultat == ResultatTir.DEJA_TIRE) {
+            return resultat;
+        }
+
+        // Dans une grille creuse, une cellule non créée garde son état dans les seuls masques
+        Cellule cellule = (tab != null) ? this.tab[index / colonnes][index % colonnes] : (creuses != null) ? creuses.get(index) : null;
+        if (cellule != null) {
+            if (resultat == ResultatTir.RATE) {
+                cellule.setEtat(EtatCellule.RATE);
+            } else {
+                cellule.setEtat(EtatCellule.TOUCHE);
+                Bateau bateau = cellule.getBateauCellule();
+                bateau.enregistrerTouche();
+                if (resultat == ResultatTir.COULE) {
+                    bateau.setVisible(true);
+                    bateau.setDetruit(true);
+                }
+            }
+        }
+
+        // Notifié une fois la cellule et le bateau à jour : un écouteur hors lot y lit le nouvel état
+        this.publier();
+        return resultat;
     }
 
     /**
@@ -124,10 +374,11 @@ public class Grille extends AbstractModelEcoutable {
         for (int i = 0; i < lignes; i++) {
             System.out.print((char) ('A' + i) + " ");  // Affiche l'indice de ligne (A, B, C, ...)
             for (int j = 0; j < colonnes; j++) {
-                // Affichage de l'état des cellules
-                if (this.tab[i][j].getEtat() == EtatCellule.TOUCHE) {
+                // Affichage de l'état des cellules, lu dans les masques
+                int index = bits.index(i, j);
+                if (bits.estTouchee(index)) {
                     System.out.print("X ");  // Affiche "X" pour une cellule touchée
-                } else if (this.tab[i][j].getEtat() == EtatCellule.RATE) {
+                } else if (bits.estTiree(index)) {
                     System.out.print("! ");  // Affiche "!" pour une cellule ratée
                 } else {
                     System.out.print("  ");  // Affiche un espace pour une cellule vide
@@ -137,14 +388,29 @@ public class Grille extends AbstractModelEcoutable {
         }
     }
 
+    /**
+     * Retourne l'ensemble de toutes les cases de la grille, désignées par leur indice compacté.
+     * @return Un nouvel ensemble plein.
+     */
+    public EnsembleCases getToutesCases() {
+        return EnsembleCases.pleine(lignes * colonnes);
+    }
+
     /**
      * Cette méthode retourne une liste aléatoire de toutes les positions de la grille de jeu.
      * Elle mélange les positions possibles (x, y) de manière aléatoire.
+     * Adaptateur de {@link #getToutesCases()} et {@link EnsembleCases#melanger} : préférer ces derniers,
+     * qui n'allouent pas un tableau par position.
      * @return Une liste aléatoire de positions de la grille.
      */
     public List<int[]> grillePosition() {
-        List<int[]> positions = new ArrayList<>(toutesPositions);  // Crée une copie de la liste des positions
-        Collections.shuffle(positions);  // Mélange la liste des positions de manière aléatoire
+        EnsembleCases cases = getToutesCases();
+        cases.melanger(ThreadLocalRandom.current());  // Mélange les positions de manière aléatoire
+        List<int[]> positions = new ArrayList<>(cases.taille());
+        for (int i = 0; i < cases.taille(); i++) {
+            int index = cases.get(i);
+            positions.add(new int[]{index / colonnes, index % colonnes});
+        }
         return positions;  // Retourne la liste mélangée des positions
     }
 }
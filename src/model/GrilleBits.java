@@ -0,0 +1,427 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Représentation compacte d'une grille sous forme de masques de bits.
+ * La cellule (x, y) correspond au bit d'indice {@code x * colonnes + y} ; chaque masque tient
+ * dans {@code ceil(lignes * colonnes / 64)} mots de 64 bits, soit deux longs pour une grille 10x10.
+ * Trois masques décrivent la grille (occupation par un bateau, tirs reçus, tirs touchés),
+ * et chaque bateau posé n'est décrit que par sa première cellule, son orientation et son compteur de touches.
+ * Un index associe chaque cellule occupée à son bateau : un tableau de deux octets par cellule jusqu'à
+ * {@value #CELLULES_INDEX_MAX} cellules, une {@link TableCellules} limitée aux cellules occupées au-delà,
+ * pour que la mémoire d'une très grande grille reste proportionnelle à sa flotte.
+ * Les vérifications de placement, de tir et de fin de partie se réduisent ainsi à quelques opérations sur les masques
+ * et à une lecture de l'index.
+ * <p>
+ * La grille tient aussi à jour, tir après tir, la clé de Zobrist de ce que l'adversaire en sait et celle
+ * de la position de sa flotte (voir {@link TableZobrist}) : un cache ou une recherche sur les situations
+ * y trouve une clé prête, sans parcourir les masques. Leurs formes canoniques, communes aux images
+ * de la grille par ses symétries, sont calculées à la demande et mémorisées jusqu'au tir suivant.
+ */
+public class GrilleBits {
+
+    /** Nombre maximal de cellules pour que l'index des bateaux soit un tableau dense */
+    public static final int CELLULES_INDEX_MAX = 4096;
+
+    private final int lignes;
+    private final int colonnes;
+    private final int nbMots;           // Nombre de longs par masque
+
+    private final long[] occupation;    // Cellules contenant un bateau
+    private final long[] tirs;          // Cellules déjà visées
+    private final long[] touches;       // Cellules visées contenant un bateau
+    private final long[] coules;        // Cellules des bateaux coulés (révélés à l'adversaire)
+
+    private int[] originesBateaux;      // Première cellule de chaque bateau posé << 1 | 1 si vertical
+    private int[] taillesBateaux;       // Taille de chaque bateau posé
+    private int[] touchesBateaux;       // Nombre de cellules touchées de chaque bateau
+    private int nbBateaux;              // Nombre de bateaux posés
+    private int bateauxRestants;        // Nombre de bateaux posés et pas encore coulés
+    private final short[] bateauxCellules;                  // Identifiant + 1 du bateau de chaque cellule, 0 si vide
+    private final TableCellules<Integer> bateauxCreux;      // Même index sur une grande grille, cellules occupées seules
+
+    private final TableZobrist zobrist;
+    private long cle;                   // Clé de la situation vue par l'adversaire
+    private long cleFlotte;             // Clé de la position des bateaux
+    private long cleCanonique;          // Forme canonique de la situation, valide si symetrieCanonique >= 0
+    private int symetrieCanonique = -1;
+
+    /**
+     * Constructeur d'une grille de bits vide.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     */
+    public GrilleBits(int lignes, int colonnes) {
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.nbMots = (lignes * colonnes + 63) >>> 6;
+        this.occupation = new long[nbMots];
+        this.tirs = new long[nbMots];
+        this.touches = new long[nbMots];
+        this.coules = new long[nbMots];
+        this.originesBateaux = new int[5];
+        this.taillesBateaux = new int[5];
+        this.touchesBateaux = new int[5];
+        boolean dense = lignes * colonnes <= CELLULES_INDEX_MAX;
+        this.bateauxCellules = dense ? new short[lignes * colonnes] : null;
+        this.bateauxCreux = dense ? null : new TableCellules<>();
+        this.zobrist = TableZobrist.pour(lignes, colonnes);
+    }
+
+    // --------------------- GETTERS ---------------------
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+
+    public int getNbMots() {
+        return nbMots;
+    }
+
+    /**
+     * Retourne le masque des cellules occupées par un bateau (à ne pas modifier).
+     * @return Le masque d'occupation.
+     */
+    public long[] getOccupation() {
+        return occupation;
+    }
+
+    /**
+     * Retourne le masque des cellules déjà visées (à ne pas modifier).
+     * @return Le masque des tirs.
+     */
+    public long[] getTirs() {
+        return tirs;
+    }
+
+    /**
+     * Retourne le masque des cellules touchées (à ne pas modifier).
+     * @return Le masque des touches.
+     */
+    public long[] getTouches() {
+        return touches;
+    }
+
+    /**
+     * Retourne le masque des cellules appartenant à un bateau coulé (à ne pas modifier).
+     * Un bateau coulé étant révélé, ce masque fait partie de ce que l'adversaire sait de la grille.
+     * @return Le masque des cellules coulées.
+     */
+    public long[] getCoules() {
+        return coules;
+    }
+
+    public int getNbBateaux() {
+        return nbBateaux;
+    }
+
+    /**
+     * Retourne la position d'un bateau posé.
+     * @param bateau Identifiant du bateau (rang de pose).
+     * @return L'indice de sa première cellule décalé d'un bit, avec 1 dans le bit de poids faible s'il est vertical.
+     */
+    public int getOrigineBateau(int bateau) {
+        return originesBateaux[bateau];
+    }
+
+    public int getTailleBateau(int bateau) {
+        return taillesBateaux[bateau];
+    }
+
+    public int getBateauxRestants() {
+        return bateauxRestants;
+    }
+
+    public TableZobrist getZobrist() {
+        return zobrist;
+    }
+
+    /**
+     * Retourne la clé de Zobrist de la situation vue par l'adversaire : cases visées, touchées et coulées.
+     * @return La clé, indépendante de l'ordre des tirs.
+     */
+    public long getCleSituation() {
+        return cle;
+    }
+
+    /**
+     * Retourne la clé de l'image de la situation par une symétrie de la grille.
+     * @param symetrie La symétrie, de 0 (l'identité) à {@link TableZobrist#getNbSymetries()} - 1.
+     * @return La clé de l'image.
+     */
+    public long getCleSituation(int symetrie) {
+        return (symetrie == 0) ? cle : zobrist.cle(symetrie, this);
+    }
+
+    /**
+     * Retourne la clé canonique de la situation : la plus petite des clés de ses images par les symétries
+     * de la grille. Deux situations images l'une de l'autre ont la même clé canonique.
+     * @return La clé canonique.
+     */
+    public long getCleSituationCanonique() {
+        canoniser();
+        return cleCanonique;
+    }
+
+    /**
+     * Retourne la symétrie qui amène la situation sur sa forme canonique ; une case de la forme canonique
+     * se ramène à la grille par {@link TableZobrist#antecedent(int, int)}.
+     * @return La symétrie de plus petite clé (la première en cas d'égalité).
+     */
+    public int getSymetrieCanonique() {
+        canoniser();
+        return symetrieCanonique;
+    }
+
+    private void canoniser() {
+        if (symetrieCanonique >= 0) return;
+        int meilleure = 0;
+        long min = cle;
+        for (int s = 1; s < zobrist.getNbSymetries(); s++) {
+            long image = zobrist.cle(s, this);
+            if (image < min) {
+                min = image;
+                meilleure = s;
+            }
+        }
+        cleCanonique = min;
+        symetrieCanonique = meilleure;
+    }
+
+    /**
+     * Retourne la clé de Zobrist de la position des bateaux posés.
+     * @return La clé, indépendante de l'ordre de pose.
+     */
+    public long getCleFlotte() {
+        return cleFlotte;
+    }
+
+    /**
+     * Retourne la clé canonique de la position des bateaux, commune à toutes ses images par symétrie.
+     * @return La plus petite des clés des images de la flotte.
+     */
+    public long getCleFlotteCanonique() {
+        long min = cleFlotte;
+        for (int s = 1; s < zobrist.getNbSymetries(); s++) {
+            long image = 0;
+            for (int b = 0; b < nbBateaux; b++) {
+                int origine = originesBateaux[b];
+                image ^= zobrist.termeBateau(s, origine >>> 1, taillesBateaux[b], (origine & 1) != 0);
+            }
+            min = Math.min(min, image);
+        }
+        return min;
+    }
+
+    // --------------------- CELLULES ---------------------
+
+    /**
+     * Retourne l'indice du bit correspondant à une cellule.
+     * @param x Coordonnée X (ligne) de la cellule.
+     * @param y Coordonnée Y (colonne) de la cellule.
+     * @return L'indice de la cellule dans les masques.
+     */
+    public int index(int x, int y) {
+        return x * colonnes + y;
+    }
+
+    public boolean estOccupee(int index) {
+        return bit(occupation, index);
+    }
+
+    public boolean estTiree(int index) {
+        return bit(tirs, index);
+    }
+
+    public boolean estTouchee(int index) {
+        return bit(touches, index);
+    }
+
+    // --------------------- PLACEMENT ---------------------
+
+    /**
+     * Vérifie qu'un bateau tient dans la grille et ne chevauche aucun bateau déjà posé.
+     * @param x Coordonnée X de la première cellule.
+     * @param y Coordonnée Y de la première cellule.
+     * @param taille Taille du bateau.
+     * @param estVertical Orientation du bateau.
+     * @return true si l'emplacement est libre, sinon false.
+     */
+    public boolean placeLibre(int x, int y, int taille, boolean estVertical) {
+        if (x < 0 || y < 0) return false;
+        if (!estVertical) {
+            if (x >= lignes || y + taille > colonnes) return false;
+            return plageVide(occupation, index(x, y), taille);
+        }
+        if (y >= colonnes || x + taille > lignes) return false;
+        for (int i = index(x, y), fin = i + taille * colonnes; i < fin; i += colonnes) {
+            if (bit(occupation, i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Pose un bateau si l'emplacement est libre.
+     * @param x Coordonnée X de la première cellule.
+     * @param y Coordonnée Y de la première cellule.
+     * @param taille Taille du bateau.
+     * @param estVertical Orientation du bateau.
+     * @return L'identifiant du bateau posé, ou -1 si l'emplacement n'est pas libre.
+     */
+    public int placer(int x, int y, int taille, boolean estVertical) {
+        if (!placeLibre(x, y, taille, estVertical)) return -1;
+
+        if (nbBateaux == taillesBateaux.length) {
+            originesBateaux = Arrays.copyOf(originesBateaux, 2 * originesBateaux.length);
+            taillesBateaux = Arrays.copyOf(taillesBateaux, 2 * taillesBateaux.length);
+            touchesBateaux = Arrays.copyOf(touchesBateaux, 2 * touchesBateaux.length);
+        }
+        int pas = estVertical ? colonnes : 1;
+        for (int k = 0, i = index(x, y); k < taille; k++, i += pas) {
+            occupation[i >>> 6] |= 1L << i;
+            if (bateauxCellules != null) {
+                bateauxCellules[i] = (short) (nbBateaux + 1);
+            } else {
+                bateauxCreux.put(i, nbBateaux);
+            }
+            if (bit(touches, i)) touchesBateaux[nbBateaux]++;
+        }
+        taillesBateaux[nbBateaux] = taille;
+        originesBateaux[nbBateaux] = (index(x, y) << 1) | (estVertical ? 1 : 0);
+        cleFlotte ^= zobrist.termeBateau(0, index(x, y), taille, estVertical);
+        if (touchesBateaux[nbBateaux] < taille) bateauxRestants++;
+        return nbBateaux++;
+    }
+
+    /**
+     * Retire tous les bateaux de la grille (les tirs sont conservés).
+     */
+    public void viderBateaux() {
+        // Les cases coulées redeviennent de simples touches
+        for (int m = 0; m < nbMots; m++) {
+            for (long c = coules[m]; c != 0; c &= c - 1) {
+                noter(TableZobrist.COULE, (m << 6) + Long.numberOfTrailingZeros(c));
+            }
+        }
+        Arrays.fill(occupation, 0L);
+        Arrays.fill(coules, 0L);
+        Arrays.fill(touchesBateaux, 0, nbBateaux, 0);
+        if (bateauxCellules != null) {
+            Arrays.fill(bateauxCellules, (short) 0);
+        } else {
+            bateauxCreux.retirerSi(bateau -> true);
+        }
+        nbBateaux = 0;
+        bateauxRestants = 0;
+        cleFlotte = 0;
+    }
+
+    /**
+     * Efface tous les tirs reçus (les bateaux sont conservés).
+     */
+    public void viderTirs() {
+        Arrays.fill(tirs, 0L);
+        Arrays.fill(touches, 0L);
+        Arrays.fill(coules, 0L);
+        Arrays.fill(touchesBateaux, 0, nbBateaux, 0);
+        bateauxRestants = nbBateaux;
+        cle = 0;
+        symetrieCanonique = -1;
+    }
+
+    // --------------------- TIRS ---------------------
+
+    /**
+     * Applique un tir sur une cellule.
+     * Le bateau visé est lu dans l'index des cellules ; son compteur de touches et le nombre de bateaux restants
+     * sont mis à jour au fil des tirs, ce qui rend la détection d'un bateau coulé et de la fin de partie immédiate.
+     * @param index Indice de la cellule visée.
+     * @return Le résultat du tir.
+     */
+    public ResultatTir tirer(int index) {
+        int mot = index >>> 6;
+        long masque = 1L << index;
+        if ((tirs[mot] & masque) != 0) return ResultatTir.DEJA_TIRE;
+
+        tirs[mot] |= masque;
+        if ((occupation[mot] & masque) == 0) {
+            noter(TableZobrist.RATE, index);
+            return ResultatTir.RATE;
+        }
+
+        touches[mot] |= masque;
+        noter(TableZobrist.TOUCHE, index);
+        int bateau = bateauEn(index);
+        if (++touchesBateaux[bateau] < taillesBateaux[bateau]) return ResultatTir.TOUCHE;
+        bateauxRestants--;
+        int origine = originesBateaux[bateau];
+        int pas = ((origine & 1) != 0) ? colonnes : 1;
+        for (int k = 0, i = origine >>> 1; k < taillesBateaux[bateau]; k++, i += pas) {
+            coules[i >>> 6] |= 1L << i;
+            noter(TableZobrist.COULE, i);
+        }
+        return ResultatTir.COULE;
+    }
+
+    /**
+     * Ajoute le terme d'une case à la clé de la situation.
+     */
+    private void noter(int etat, int index) {
+        cle ^= zobrist.terme(0, etat, index);
+        symetrieCanonique = -1;
+    }
+
+    /**
+     * Retourne l'identifiant du bateau occupant une cellule.
+     * @param index Indice de la cellule.
+     * @return L'identifiant du bateau, ou -1 si la cellule est vide.
+     */
+    public int bateauEn(int index) {
+        if (bateauxCellules != null) return bateauxCellules[index] - 1;
+        Integer bateau = bateauxCreux.get(index);
+        return (bateau != null) ? bateau : -1;
+    }
+
+    /**
+     * Vérifie si toutes les cellules d'un bateau ont été touchées.
+     * @param bateau Identifiant du bateau.
+     * @return true si le bateau est coulé, sinon false.
+     */
+    public boolean estCoule(int bateau) {
+        return touchesBateaux[bateau] >= taillesBateaux[bateau];
+    }
+
+    /**
+     * Vérifie si toute la flotte a été coulée.
+     * @return true si aucun bateau ne reste à flot (ou si la grille est vide), sinon false.
+     */
+    public boolean flotteCoulee() {
+        return bateauxRestants == 0;
+    }
+
+    // --------------------- OUTILS ---------------------
+
+    private static boolean bit(long[] masque, int index) {
+        return (masque[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Vérifie qu'une plage de bits consécutifs est entièrement à zéro, même à cheval sur deux mots.
+     */
+    private static boolean plageVide(long[] masque, int debut, int longueur) {
+        while (longueur > 0) {
+            int decalage = debut & 63;
+            int n = Math.min(longueur, 64 - decalage);
+            long plage = (n == 64) ? -1L : ((1L << n) - 1) << decalage;
+            if ((masque[debut >>> 6] & plage) != 0) return false;
+            debut += n;
+            longueur -= n;
+        }
+        return true;
+    }
+}
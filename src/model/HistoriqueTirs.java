@@ -0,0 +1,79 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Historique des tirs d'une partie, dans l'ordre où ils ont été joués.
+ * Chaque tir tient dans un entier : l'indice compacté de la case visée ({@code x * colonnes + y})
+ * décalé d'un bit, et le numéro du tireur (0 ou 1) dans le bit de poids faible.
+ * L'ajout d'un tir n'alloue rien tant que la capacité suffit.
+ */
+public final class HistoriqueTirs {
+
+    private int[] tirs;
+    private int taille;
+
+    /**
+     * Constructeur d'un historique vide.
+     */
+    public HistoriqueTirs() {
+        this(64);
+    }
+
+    /**
+     * Constructeur d'un historique vide de capacité initiale donnée.
+     * @param capacite Nombre de tirs prévus.
+     */
+    public HistoriqueTirs(int capacite) {
+        this.tirs = new int[Math.max(1, capacite)];
+    }
+
+    /**
+     * Ajoute un tir à la fin de l'historique.
+     * @param index Indice de la case visée.
+     * @param tireur Numéro du joueur qui tire (0 ou 1).
+     */
+    public void ajouter(int index, int tireur) {
+        if (taille == tirs.length) {
+            tirs = Arrays.copyOf(tirs, 2 * tirs.length);
+        }
+        tirs[taille++] = (index << 1) | tireur;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Retourne le i-ème tir sous sa forme compacte ({@code index << 1 | tireur}).
+     * @param i Rang du tir.
+     * @return Le tir compacté.
+     */
+    public int get(int i) {
+        if (i >= taille) throw new IndexOutOfBoundsException("Tir " + i + " sur " + taille);
+        return tirs[i];
+    }
+
+    public int getCase(int i) {
+        return get(i) >>> 1;
+    }
+
+    public int getTireur(int i) {
+        return get(i) & 1;
+    }
+
+    /**
+     * Oublie les tirs au-delà d'un rang donné.
+     * @param taille Nombre de tirs à conserver.
+     */
+    public void tronquer(int taille) {
+        if (taille < this.taille) this.taille = Math.max(0, taille);
+    }
+
+    /**
+     * Vide l'historique en conservant sa capacité.
+     */
+    public void vider() {
+        taille = 0;
+    }
+}
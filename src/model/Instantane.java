@@ -0,0 +1,368 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Instantané binaire compact d'une partie : dimensions, flottes, historique des tirs,
+ * joueur actuel et état des générateurs aléatoires.
+ *
+ * Le format n'enregistre que ce qui ne se déduit pas du reste : la position de chaque bateau et la suite des tirs.
+ * L'état des grilles, des cellules, des bateaux touchés ou coulés et des tirs encore possibles est reconstruit
+ * en rejouant les tirs. Les entiers sont écrits en longueur variable (7 bits par octet) : une partie 10x10
+ * complète tient en quelques centaines d'octets, une partie qui commence en quelques dizaines.
+ *
+ * Disposition : en-tête {@code 'B' 'N' version}, lignes, colonnes, drapeaux (partie commencée, joueur actuel),
+ * puis pour chaque joueur son nom, la composition de sa flotte, ses bateaux posés ({@code origine << 1 | visible}, taille)
+ * et son générateur, et enfin le nombre de tirs suivi des tirs ({@code index << 1 | tireur}).
+ */
+public final class Instantane {
+
+    private static final byte[] ENTETE = {'B', 'N'};
+    private static final int VERSION = 1;
+
+    private static final int GENERATEUR_AUCUN = 0;      // Générateur non enregistrable : la reprise tire au hasard
+    private static final int GENERATEUR_SPLITMIX = 1;   // État d'un GenerateurSplitMix, sur 8 octets
+
+    private final int lignes;
+    private final int colonnes;
+    private final boolean debut;
+    private final int actuel;
+    private final DonneesJoueur[] joueurs = new DonneesJoueur[2];
+    private final int[] tirs;
+
+    /** Ce que l'instantané retient d'un joueur */
+    private static final class DonneesJoueur {
+        String nom;
+        int[] tailleBateau;
+        int[] bateaux;              // origine << 1 | visible, origine étant index << 1 | vertical
+        int[] taillesPosees;
+        boolean generateurEnregistre;
+        long etatGenerateur;
+    }
+
+    private Instantane(Lecteur lecteur) {
+        if (lecteur.octet() != ENTETE[0] || lecteur.octet() != ENTETE[1]) {
+            throw new IllegalArgumentException("Ce n'est pas un instantané de partie.");
+        }
+        int version = lecteur.octet();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version d'instantané non prise en charge : " + version);
+        }
+        this.lignes = lecteur.entier();
+        this.colonnes = lecteur.entier();
+        if (lignes <= 0 || colonnes <= 0 || (long) lignes * colonnes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dimensions invalides : " + lignes + "x" + colonnes);
+        }
+        int drapeaux = lecteur.entier();
+        this.debut = (drapeaux & 1) != 0;
+        this.actuel = (drapeaux >>> 1) & 1;
+        for (int j = 0; j < 2; j++) {
+            DonneesJoueur joueur = new DonneesJoueur();
+            joueur.nom = lecteur.texte();
+            joueur.tailleBateau = new int[lecteur.longueur(1)];
+            for (int i = 0; i < joueur.tailleBateau.length; i++) joueur.tailleBateau[i] = lecteur.entier();
+            int nbBateaux = lecteur.longueur(2);
+            joueur.bateaux = new int[nbBateaux];
+            joueur.taillesPosees = new int[nbBateaux];
+            for (int b = 0; b < nbBateaux; b++) {
+                joueur.bateaux[b] = lecteur.entier();
+                joueur.taillesPosees[b] = lecteur.entier();
+            }
+            int generateur = lecteur.octet();
+            if (generateur == GENERATEUR_SPLITMIX) {
+                joueur.generateurEnregistre = true;
+                joueur.etatGenerateur = lecteur.long64();
+            } else if (generateur != GENERATEUR_AUCUN) {
+                throw new IllegalArgumentException("Générateur inconnu : " + generateur);
+            }
+            joueurs[j] = joueur;
+        }
+        this.tirs = new int[lecteur.longueur(1)];
+        for (int i = 0; i < tirs.length; i++) tirs[i] = lecteur.entier();
+    }
+
+    // --------------------- CAPTURE ---------------------
+
+    /**
+     * Capture l'état d'une partie (joueur 0 : humain, joueur 1 : aléatoire).
+     * @param jeu La partie.
+     * @return L'instantané encodé.
+     */
+    public static byte[] capturer(Jeu jeu) {
+        int actuel = (jeu.getJoueurActuel() == jeu.getJoueurAleatoire()) ? 1 : 0;
+        return capturer(jeu.getJoueurHumain(), jeu.getJoueurAleatoire(), actuel, jeu.debutJeu(), jeu.getHistorique());
+    }
+
+    /**
+     * Capture l'état d'une partie entre deux joueurs quelconques.
+     * @param joueur0 Le joueur 0 (tireur 0 de l'historique).
+     * @param joueur1 Le joueur 1.
+     * @param actuel Le joueur dont c'est le tour (0 ou 1).
+     * @param debut true si la partie a commencé.
+     * @param historique Les tirs joués.
+     * @return L'instantané encodé.
+     */
+    public static byte[] capturer(AbstractJoueur joueur0, AbstractJoueur joueur1, int actuel, boolean debut,
+            HistoriqueTirs historique) {
+        Grille grille = joueur0.getGrille();
+        Ecrivain ecrivain = new Ecrivain(64 + 2 * historique.taille());
+        ecrivain.octet(ENTETE[0]);
+        ecrivain.octet(ENTETE[1]);
+        ecrivain.octet(VERSION);
+        ecrivain.entier(grille.getLignes());
+        ecrivain.entier(grille.getColonnes());
+        ecrivain.entier((debut ? 1 : 0) | (actuel << 1));
+        ecrireJoueur(ecrivain, joueur0);
+        ecrireJoueur(ecrivain, joueur1);
+        ecrivain.entier(historique.taille());
+        for (int i = 0; i < historique.taille(); i++) ecrivain.entier(historique.get(i));
+        return ecrivain.octets();
+    }
+
+    private static void ecrireJoueur(Ecrivain ecrivain, AbstractJoueur joueur) {
+        ecrivain.texte(joueur.getNom());
+        int[] tailleBateau = joueur.getTailleBateau();
+        ecrivain.entier(tailleBateau.length);
+        for (int taille : tailleBateau) ecrivain.entier(taille);
+
+        // Les bateaux de la flotte sont posés dans le même ordre que dans les masques de la grille
+        GrilleBits bits = joueur.getGrille().getBits();
+        List<Bateau> flotte = joueur.getFlotte();
+        ecrivain.entier(bits.getNbBateaux());
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            boolean visible = b < flotte.size() && flotte.get(b).estVisible();
+            ecrivain.entier((bits.getOrigineBateau(b) << 1) | (visible ? 1 : 0));
+            ecrivain.entier(bits.getTailleBateau(b));
+        }
+
+        RandomGenerator generateur = joueur.getGenerateur();
+        if (generateur instanceof GenerateurSplitMix) {
+            ecrivain.octet(GENERATEUR_SPLITMIX);
+            ecrivain.long64(((GenerateurSplitMix) generateur).getEtat());
+        } else {
+            ecrivain.octet(GENERATEUR_AUCUN);
+        }
+    }
+
+    // --------------------- RESTAURATION ---------------------
+
+    /**
+     * Décode un instantané.
+     * @param donnees L'instantané encodé.
+     * @return L'instantané décodé, prêt à être appliqué.
+     * @throws IllegalArgumentException si les données ne sont pas un instantané valide.
+     */
+    public static Instantane lire(byte[] donnees) {
+        try {
+            return new Instantane(new Lecteur(donnees));
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Instantané tronqué.", e);
+        }
+    }
+
+    /**
+     * Restaure une partie jouable avec ses cellules, prête à être affichée.
+     * @param donnees L'instantané encodé.
+     * @return La partie restaurée.
+     */
+    public static Jeu restaurer(byte[] donnees) {
+        return restaurer(donnees, true);
+    }
+
+    /**
+     * Restaure une partie jouable.
+     * @param donnees L'instantané encodé.
+     * @param avecCellules false pour des grilles sans cellules (parties sans interface), plus rapides à restaurer.
+     * @return La partie restaurée.
+     */
+    public static Jeu restaurer(byte[] donnees, boolean avecCellules) {
+        Instantane instantane = lire(donnees);
+        Grille grille = new Grille(instantane.lignes, instantane.colonnes, avecCellules);
+        Grille grilleAleatoire = new Grille(instantane.lignes, instantane.colonnes, avecCellules);
+        JoueurHumain humain = new JoueurHumain(grille, instantane.joueurs[0].nom);
+        JoueurAleatoire aleatoire = new JoueurAleatoire(grilleAleatoire, grille);
+        aleatoire.setNom(instantane.joueurs[1].nom);
+
+        Jeu jeu = new Jeu(humain, aleatoire);
+        instantane.appliquer(humain, aleatoire, jeu.getHistorique());
+        jeu.setJoueurActuel(instantane.actuel == 0 ? humain : aleatoire);
+        jeu.setDebut(instantane.debut);
+        return jeu;
+    }
+
+    /**
+     * Applique l'instantané à deux joueurs neufs dont les grilles sont vides :
+     * flottes, générateurs aléatoires, puis tirs rejoués dans l'ordre.
+     * @param joueur0 Le joueur 0.
+     * @param joueur1 Le joueur 1.
+     * @param historique Historique qui reçoit les tirs rejoués (peut être null).
+     */
+    public void appliquer(AbstractJoueur joueur0, AbstractJoueur joueur1, HistoriqueTirs historique) {
+        AbstractJoueur[] cibles = {joueur0, joueur1};
+        for (int j = 0; j < 2; j++) {
+            DonneesJoueur donnees = joueurs[j];
+            AbstractJoueur joueur = cibles[j];
+            joueur.setTailleBateau(donnees.tailleBateau.clone());
+            for (int b = 0; b < donnees.bateaux.length; b++) {
+                int origine = donnees.bateaux[b] >>> 1;
+                int index = origine >>> 1;
+                boolean vertical = (origine & 1) != 0;
+                if (!joueur.ajoutBateau(index / colonnes, index % colonnes, new Bateau(donnees.taillesPosees[b]), vertical)) {
+                    throw new IllegalArgumentException("Flotte incohérente dans l'instantané.");
+                }
+            }
+            if (donnees.generateurEnregistre) {
+                joueur.setGenerateur(new GenerateurSplitMix(donnees.etatGenerateur));
+            }
+        }
+
+        for (int tir : tirs) {
+            int index = tir >>> 1;
+            int tireur = tir & 1;
+            cibles[1 - tireur].getGrille().recevoirTir(index);
+            cibles[tireur].noterTir(index);
+            if (historique != null) historique.ajouter(index, tireur);
+        }
+
+        // La visibilité enregistrée s'applique après les tirs, qui révèlent déjà les bateaux coulés
+        for (int j = 0; j < 2; j++) {
+            List<Bateau> flotte = cibles[j].getFlotte();
+            for (int b = 0; b < flotte.size(); b++) {
+                if ((joueurs[j].bateaux[b] & 1) != 0) flotte.get(b).setVisible(true);
+            }
+        }
+    }
+
+    // --------------------- GETTERS ---------------------
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+
+    public boolean estCommencee() {
+        return debut;
+    }
+
+    /**
+     * Retourne le joueur dont c'est le tour.
+     * @return 0 ou 1.
+     */
+    public int getActuel() {
+        return actuel;
+    }
+
+    public int getNombreTirs() {
+        return tirs.length;
+    }
+
+    /**
+     * Retourne le i-ème tir sous sa forme compacte ({@code index << 1 | tireur}).
+     * @param i Rang du tir.
+     * @return Le tir compacté.
+     */
+    public int getTir(int i) {
+        return tirs[i];
+    }
+
+    @Override
+    public String toString() {
+        return "Instantane [" + lignes + "x" + colonnes + ", tirs : " + tirs.length
+                + ", flottes : " + Arrays.toString(joueurs[0].taillesPosees) + " / " + Arrays.toString(joueurs[1].taillesPosees) + "]";
+    }
+
+    // --------------------- ENCODAGE ---------------------
+
+    /** Écriture des entiers en longueur variable dans un tableau d'octets extensible */
+    private static final class Ecrivain {
+        private byte[] octets;
+        private int taille;
+
+        Ecrivain(int capacite) {
+            this.octets = new byte[capacite];
+        }
+
+        void octet(int valeur) {
+            if (taille == octets.length) octets = Arrays.copyOf(octets, 2 * octets.length);
+            octets[taille++] = (byte) valeur;
+        }
+
+        void entier(int valeur) {
+            while ((valeur & ~0x7F) != 0) {
+                octet((valeur & 0x7F) | 0x80);
+                valeur >>>= 7;
+            }
+            octet(valeur);
+        }
+
+        void long64(long valeur) {
+            for (int i = 0; i < 8; i++) octet((int) (valeur >>> (8 * i)));
+        }
+
+        void texte(String valeur) {
+            byte[] utf8 = (valeur != null ? valeur : "").getBytes(StandardCharsets.UTF_8);
+            entier(utf8.length);
+            for (byte b : utf8) octet(b);
+        }
+
+        byte[] octets() {
+            return Arrays.copyOf(octets, taille);
+        }
+    }
+
+    /** Lecture symétrique de {@link Ecrivain} */
+    private static final class Lecteur {
+        private final byte[] octets;
+        private int position;
+
+        Lecteur(byte[] octets) {
+            this.octets = octets;
+        }
+
+        int octet() {
+            return octets[position++] & 0xFF;
+        }
+
+        int entier() {
+            int valeur = 0;
+            for (int decalage = 0; ; decalage += 7) {
+                int b = octet();
+                valeur |= (b & 0x7F) << decalage;
+                if ((b & 0x80) == 0) return valeur;
+                if (decalage > 28) throw new IllegalArgumentException("Entier mal encodé.");
+            }
+        }
+
+        /**
+         * Lit une longueur et vérifie, avant toute allocation, que les octets restants peuvent la contenir :
+         * une longueur corrompue, négative ou démesurée, est rejetée au lieu d'être allouée.
+         * @param octetsMin Nombre minimal d'octets encodant chaque élément.
+         */
+        int longueur(int octetsMin) {
+            int longueur = entier();
+            if (longueur < 0 || (long) longueur * octetsMin > octets.length - position) {
+                throw new IllegalArgumentException("Longueur invalide : " + longueur);
+            }
+            return longueur;
+        }
+
+        long long64() {
+            long valeur = 0;
+            for (int i = 0; i < 8; i++) valeur |= (long) octet() << (8 * i);
+            return valeur;
+        }
+
+        String texte() {
+            int longueur = longueur(1);
+            String valeur = new String(octets, position, longueur, StandardCharsets.UTF_8);
+            position += longueur;
+            return valeur;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package model;
 
 import ecoute.AbstractModelEcoutable;
-import ecoute.notifications.JeuNotification;
+import ecoute.BusEvenements;
+import ecoute.Evenement;
 import java.util.Iterator;
+import journal.EnregistrementPartie;
+import journal.JournalTirs;
+import metrique.Metriques;
 /**
  * Cette classe représente le jeu de bataille navale.
  * Elle contient toutes les méthodes nécessaires pour gérer la logique du jeu et faire tourner les différentes étapes de la partie.
@@ -12,6 +16,10 @@ public class Jeu extends AbstractModelEcoutable{
  private JoueurAleatoire joueurAleatoire;
  private AbstractJoueur joueurActuel;
  private boolean debut = false;
+ private final HistoriqueTirs historique = new HistoriqueTirs(); // Tirs joués, dans l'ordre
+ private JournalTirs journal;                 // Journal optionnel des parties
+ private EnregistrementPartie enregistrement; // Partie en cours d'enregistrement, null sans journal
+ private boolean verbeux = true;              // Annonce les tirs refusés et les bateaux coulés sur la console
 
  /**
   * Constructeur de la classe Jeu.
@@ -59,9 +67,38 @@ public class Jeu extends AbstractModelEcoutable{
      this.debut = debut;
  }
 
+ /**
+  * Retourne l'historique des tirs de la partie (tireur 0 : joueur humain, 1 : joueur aléatoire).
+  * @return L'historique, dans l'ordre des tirs.
+  */
+ public HistoriqueTirs getHistorique() {
+     return historique;
+ }
+
+ public boolean estVerbeux() {
+     return verbeux;
+ }
+
+ /**
+  * Active ou coupe les messages de la console ; un serveur qui héberge de nombreuses parties les coupe.
+  * @param verbeux true pour annoncer les tirs refusés et les bateaux coulés.
+  */
+ public void setVerbeux(boolean verbeux) {
+     this.verbeux = verbeux;
+ }
+
+ /**
+  * Active l'enregistrement des parties dans un journal ; la partie y est notée à partir de son début.
+  * @param journal Le journal, ou null pour ne plus rien enregistrer.
+  */
+ public void setJournal(JournalTirs journal) {
+     this.journal = journal;
+ }
+
  /**
   * Cette méthode détermine le gagnant du jeu en vérifiant si l'un des joueurs a perdu.
   * Si un joueur a perdu, l'autre est le gagnant.
+  * Le test repose sur le compteur de bateaux restants de chaque joueur : il est immédiat et sans effet de bord.
   * @return Le joueur gagnant, soit le joueur humain, soit le joueur aléatoire.
   */
  public AbstractJoueur getVainqueur() {
@@ -91,44 +128,62 @@ public class Jeu extends AbstractModelEcoutable{
   * Ensuite, le tour du joueur est passé à l'adversaire.
   * @param x La coordonnée x de la cellule visée
   * @param y La coordonnée y de la cellule visée
+  * @return Le résultat du tir ; DEJA_TIRE si la case avait déjà été visée, le tour n'étant alors pas passé
   */
-  public void tireGrilleAdversaire(int x, int y) {
+  public ResultatTir tireGrilleAdversaire(int x, int y) {
+    AbstractJoueur adversaire = (this.joueurActuel == this.joueurHumain) ? this.joueurAleatoire : this.joueurHumain;
+    return this.tireCaseAdversaire(adversaire.getGrille().index(x, y));
+  }
+
+ /**
+  * Même tir que {@link #tireGrilleAdversaire(int, int)}, la case étant désignée par son indice compacté.
+  * @param index L'indice (x * colonnes + y) de la cellule visée sur la grille de l'adversaire
+  * @return Le résultat du tir ; DEJA_TIRE si la case avait déjà été visée, le tour n'étant alors pas passé
+  */
+  public ResultatTir tireCaseAdversaire(int index) {
+    long debutMesure = Metriques.debutEchantillon();
     // Déterminer l'adversaire en fonction du joueur actuel
     AbstractJoueur adversaire = (this.joueurActuel == this.joueurHumain) ? this.joueurAleatoire : this.joueurHumain;
     
-    // Récupérer la cellule de l'adversaire à la position donnée
-    Cellule celluleAdversaire = adversaire.getGrille().getCellulePosition(x, y);
+    // Appliquer le tir sur la grille de l'adversaire (TOUCHE / RATE, bateau coulé rendu visible) ;
+    // les mises à jour de la cellule et du bateau sont diffusées en un seul lot
+    ResultatTir resultat;
+    BusEvenements.debutLot();
+    try {
+        resultat = adversaire.getGrille().recevoirTir(index);
+    } finally {
+        BusEvenements.finLot();
+    }
 
     // Vérifier si la case a déjà été touchée ou ratée
-    if (celluleAdversaire.getEtat() == EtatCellule.TOUCHE || celluleAdversaire.getEtat() == EtatCellule.RATE) {
-        System.out.println("Erreur : Cette case a déjà été sélectionnée. Veuillez choisir une autre case.");
-        return;  // On sort de la méthode si la case a déjà été touchée ou ratée
+    if (resultat == ResultatTir.DEJA_TIRE) {
+        if (this.verbeux) System.out.println("Erreur : Cette case a déjà été sélectionnée. Veuillez choisir une autre case.");
+        Metriques.TIRS_JEU.fin(debutMesure);
+        return resultat;  // On sort de la méthode si la case a déjà été touchée ou ratée
     }
 
-    // Si la cellule contient un bateau, elle est marquée comme "touchée", sinon "ratée"
-    if (celluleAdversaire.aUnBateau()) {
-        celluleAdversaire.setEtat(EtatCellule.TOUCHE);
-        
-    } else {
-        celluleAdversaire.setEtat(EtatCellule.RATE);
-        
+    if (resultat == ResultatTir.COULE && this.verbeux) {
+        int colonnes = adversaire.getGrille().getColonnes();
+        Bateau bat = adversaire.getGrille().getCellulePosition(index / colonnes, index % colonnes).getBateauCellule();
+        System.out.println("🚢 Le bateau de taille " + bat.getTaille() + " a été coulé !");
+        System.out.println("🔎 Le bateau est maintenant visible.");
     }
 
-    // Vérifier si le bateau est détruit et le rendre visible
-    if (celluleAdversaire.aUnBateau()) {
-        Bateau bat = celluleAdversaire.getBateauCellule();
-        if (bat.toucheCellules()) {  
-            System.out.println("🚢 Le bateau de taille " + bat.getTaille() + " a été coulé !");
-            
-            bat.setVisible(true);  
-            bat.setDetruit(true);  
-            
-            System.out.println("🔎 Le bateau est maintenant visible.");
+    // Enregistrer le tir, puis passer le tour à l'adversaire
+    int tireur = (this.joueurActuel == this.joueurHumain) ? 0 : 1;
+    this.historique.ajouter(index, tireur);
+    boolean termine = resultat == ResultatTir.COULE && adversaire.aPerdu();
+    if (this.enregistrement != null) {
+        this.enregistrement.tir(tireur, index, resultat.ordinal());
+        if (termine) {
+            this.enregistrement.terminer(tireur);
+            this.enregistrement = null;
         }
     }
-
-    // Passer le tour à l'adversaire
+    if (termine) Metriques.partieTerminee();
     this.joueurActuel = adversaire;
+    Metriques.TIRS_JEU.fin(debutMesure);
+    return resultat;
 }
 
 
@@ -137,9 +192,15 @@ public class Jeu extends AbstractModelEcoutable{
   * Ajoute des bateaux à la grille du joueur humain et les rend visibles.
   */
  public void humainAjoutBateauAleatoire() {
-     this.joueurHumain.ajoutBateauAleatoire();
-     this.joueurHumain.BateauVisible();
-     this.fireChangement(JeuNotification.HUMAIN_FLOTTE_CREE); // Notification pour l'ajout des bateaux
+     // Un seul lot : destruction de l'ancienne flotte, visibilité des nouveaux bateaux et création de la flotte
+     BusEvenements.debutLot();
+     try {
+         this.joueurHumain.ajoutBateauAleatoire();
+         this.joueurHumain.BateauVisible();
+         this.fireChangement(Evenement.HUMAIN_FLOTTE_CREE); // Notification pour l'ajout des bateaux
+     } finally {
+         BusEvenements.finLot();
+     }
  }
 
  /**
@@ -148,7 +209,7 @@ public class Jeu extends AbstractModelEcoutable{
   */
  public void aleatoireAjoutBateau() {
      this.joueurAleatoire.ajoutBateauAleatoire();
-     this.fireChangement(JeuNotification.ALEATOIRE_FLOTTE_CREE); // Notification pour l'ajout des bateaux
+     this.fireChangement(Evenement.ALEATOIRE_FLOTTE_CREE); // Notification pour l'ajout des bateaux
  }
 
  /**
@@ -158,7 +219,13 @@ public class Jeu extends AbstractModelEcoutable{
  public void debutPartie() {
      this.aleatoireAjoutBateau(); // Crée la flotte du joueur aléatoire
      this.setDebut(true); // Le jeu commence
-     this.fireChangement(JeuNotification.PARTIE_COMMENCEE); // Notification pour le début de la partie
+     if (this.journal != null) {
+         Grille grille = this.joueurHumain.getGrille();
+         this.enregistrement = this.journal.nouvellePartie(grille.getLignes(), grille.getColonnes());
+         this.joueurHumain.journaliserFlotte(this.enregistrement, 0);
+         this.joueurAleatoire.journaliserFlotte(this.enregistrement, 1);
+     }
+     this.fireChangement(Evenement.PARTIE_COMMENCEE); // Notification pour le début de la partie
  }
 
  /**
@@ -178,10 +245,10 @@ public class Jeu extends AbstractModelEcoutable{
          adversaire.grille.afficher();
          
          // Demander au joueur actuel de tirer
-         int[] pos = joueurActuel.tire();
+         int index = joueurActuel.tireCase();
          
          // Appliquer le tir sur la grille de l'adversaire
-         this.tireGrilleAdversaire(pos[0], pos[1]);
+         this.tireCaseAdversaire(index);
          
          // Vérifier le vainqueur après chaque tir
          this.getVainqueur();
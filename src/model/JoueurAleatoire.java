@@ -1,8 +1,6 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.Iterator;
+import java.util.random.RandomGenerator;
 
 /**
  * Classe représentant un joueur qui effectue des tirs de manière aléatoire dans le jeu de bataille navale.
@@ -11,8 +9,8 @@ import java.util.Iterator;
  */
 public class JoueurAleatoire extends AbstractJoueur {
 
-    private Random aleatoire;  // Générateur de nombres aléatoires
-    private ArrayList<int[]> positionsNonTirees;  // Liste des cases où l'IA peut encore tirer
+    private int colonnes;           // Nombre de colonnes de la grille visée, pour décoder les indices
+    private EnsembleCases nonTirees; // Cases (x * colonnes + y) de la grille visée pas encore visées
 
     /**
      * Constructeur de la classe JoueurAleatoire.
@@ -22,8 +20,22 @@ public class JoueurAleatoire extends AbstractJoueur {
      */
     public JoueurAleatoire(Grille grille, Grille grilleAdversaire) {
         super(grille, "Aleatoire");  
-        this.aleatoire = new Random();  
-        this.positionsNonTirees = (grille != null) ? grille.getToutesPositions() : new ArrayList<>(); // Récupère toutes les positions possibles
+        // Les deux grilles ont les mêmes dimensions ; à défaut de grille adverse, on se règle sur la sienne
+        Grille cible = (grilleAdversaire != null) ? grilleAdversaire : grille;
+        int lignes = (cible != null) ? cible.getLignes() : 0;
+        this.colonnes = (cible != null) ? cible.getColonnes() : 0;
+        this.nonTirees = EnsembleCases.pleine(lignes * colonnes);
+    }
+
+    /**
+     * Constructeur avec un générateur aléatoire donné (par exemple initialisé avec une graine).
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     * @param generateur Le générateur utilisé pour le placement et les tirs.
+     */
+    public JoueurAleatoire(Grille grille, Grille grilleAdversaire, RandomGenerator generateur) {
+        this(grille, grilleAdversaire);
+        this.generateur = generateur;
     }
 
     /**
@@ -38,7 +50,7 @@ public class JoueurAleatoire extends AbstractJoueur {
 public void BateauVisible() {
     // Parcours chaque bateau de la flotte et le rend visible s'il est coulé
     for (Bateau bateau : this.flotte) {
-        if (bateau.toucheCellules()) {
+        if (bateau.estCoule()) {
             bateau.setVisible(true);
         }
     }
@@ -49,37 +61,50 @@ public void BateauVisible() {
     
     
     /**
-     * Méthode permettant à l'IA de tirer sur une case aléatoire encore disponible.
-     * @return Un tableau contenant les coordonnées [x, y] de la case ciblée.
+     * Tire une case au hasard parmi celles qui n'ont pas encore été visées, en temps constant et sans allocation.
+     * @return L'indice (x * colonnes + y) de la case ciblée.
      */
-    
-     @Override
-    public int[] tire() {
+    @Override
+    public int tireCase() {
         // Vérifier si des positions sont encore disponibles
-        if (positionsNonTirees.isEmpty()) {
+        if (nonTirees.estVide()) {
             throw new IllegalStateException("Aucune case disponible pour tirer.");
         }
 
-        // Sélection aléatoire d'une case parmi celles disponibles
-        int index = aleatoire.nextInt(positionsNonTirees.size());
-        int[] positionTir = positionsNonTirees.get(index);
+        int index = nonTirees.retirerAuHasard(generateur());
+        if (verbeux) System.out.println("🎯 Le JoueurAleatoire tire sur la case : (" + index / colonnes + ", " + index % colonnes + ")");
+        return index;
+    }
 
-        // Supprimer la position jouée de la liste des positions disponibles
-        positionsNonTirees.remove(index);
+    @Override
+    public int getColonnesCible() {
+        return colonnes;
+    }
 
-        System.out.println("🎯 Le JoueurAleatoire tire sur la case : (" + positionTir[0] + ", " + positionTir[1] + ")");
-        return positionTir;
+    /**
+     * Retire des cases disponibles une case visée hors de {@link #tireCase()}.
+     * Rejouer les tirs dans l'ordre reconstitue exactement l'ordre interne des cases restantes,
+     * car un tirage retire sa case de la même manière.
+     * @param index L'indice de la case visée.
+     */
+    @Override
+    public void noterTir(int index) {
+        nonTirees.retirer(index);
     }
 
     /**
-     * Réinitialise la liste des positions disponibles pour tirer.
+     * Retourne le nombre de cases sur lesquelles le joueur n'a pas encore tiré.
+     * @return Le nombre de cases disponibles.
+     */
+    public int getNombreNonTirees() {
+        return nonTirees.taille();
+    }
+
+    /**
+     * Réinitialise la liste des positions disponibles pour tirer, en temps constant.
      * Utile lorsqu'une nouvelle partie commence.
      */
     public void reinitialiserPositionsNonTirees() {
-        if (this.getGrille() != null) {
-            this.positionsNonTirees = this.getGrille().getToutesPositions();
-        } else {
-            this.positionsNonTirees = new ArrayList<>();
-        }
+        this.nonTirees.remplir();
     }
 }
@@ -0,0 +1,355 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Joueur automatique qui tire selon une carte de densité de probabilité.
+ * Pour chaque cellule, la carte compte combien de placements encore possibles des bateaux restants la couvrent.
+ * En mode chasse, le joueur tire sur la cellule la plus couverte ; dès qu'un bateau est touché sans être coulé,
+ * il passe en mode cible et ne considère plus que les placements passant par les cellules touchées.
+ *
+ * La carte est tenue à jour de manière incrémentale : un tir raté ou un bateau coulé ne fait que retirer
+ * les placements qui passaient par les cellules concernées, grâce aux {@link TablePlacements}.
+ * Le joueur ne lit de la grille adverse que ce qu'un joueur sait réellement : les tirs, les touches
+ * et les bateaux coulés (qui sont révélés).
+ */
+public class JoueurDensite extends AbstractJoueur {
+
+    /** Poids d'un placement en mode cible, multiplié pour chaque cellule touchée qu'il couvre */
+    private static final int POIDS_CIBLE = 64;
+
+    private Grille grilleAdversaire;      // Grille sur laquelle le joueur tire
+
+    private boolean initialise = false;   // La carte est construite au premier tir
+    private int[] tailles;                // Tailles distinctes des bateaux de la flotte adverse
+    private int[] restants;               // Nombre de bateaux non coulés pour chaque taille distincte
+    private TablePlacements[] tables;     // Table des placements pour chaque taille distincte
+    private long[][] vivants;             // Placements encore possibles, un bit par placement
+    private int[][] couverture;           // couverture[t][c] = placements vivants de taille t couvrant c
+
+    private long[] connus;                // Tirs adverses déjà pris en compte
+    private long[] bloques;               // Cellules ratées ou coulées : aucun bateau restant n'y passe
+    private long[] nonResolus;            // Cellules touchées appartenant à un bateau pas encore coulé
+    private int[] scores;                 // Tampon des scores du mode cible
+
+    /**
+     * Constructeur de la classe JoueurDensite.
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     */
+    public JoueurDensite(Grille grille, Grille grilleAdversaire) {
+        super(grille, "Densite");
+        this.grilleAdversaire = grilleAdversaire;
+    }
+
+    public Grille getGrilleAdversaire() {
+        return grilleAdversaire;
+    }
+
+    public void setGrilleAdversaire(Grille grilleAdversaire) {
+        this.grilleAdversaire = grilleAdversaire;
+        this.initialise = false;
+    }
+
+    @Override
+    public void setTailleBateau(int[] tailleBateau) {
+        super.setTailleBateau(tailleBateau);
+        this.initialise = false;
+    }
+
+    /**
+     * Oublie tout ce qui a été appris sur la grille adverse (nouvelle partie).
+     */
+    public void reinitialiser() {
+        this.initialise = false;
+    }
+
+    /**
+     * Construit la carte de densité pour une grille adverse vierge.
+     * La flotte adverse est supposée avoir la même composition que celle du joueur.
+     */
+    private void initialiser() {
+        GrilleBits bits = grilleAdversaire.getBits();
+        int cellules = bits.getLignes() * bits.getColonnes();
+
+        // Regroupement des bateaux par taille
+        int[] triees = tailleBateau.clone();
+        Arrays.sort(triees);
+        int distinctes = 0;
+        for (int i = 0; i < triees.length; i++) {
+            if (i == 0 || triees[i] != triees[i - 1]) distinctes++;
+        }
+        tailles = new int[distinctes];
+        restants = new int[distinctes];
+        for (int i = 0, t = -1; i < triees.length; i++) {
+            if (i == 0 || triees[i] != triees[i - 1]) tailles[++t] = triees[i];
+            restants[t]++;
+        }
+
+        tables = new TablePlacements[distinctes];
+        vivants = new long[distinctes][];
+        couverture = new int[distinctes][cellules];
+        for (int t = 0; t < distinctes; t++) {
+            tables[t] = TablePlacements.pour(bits.getLignes(), bits.getColonnes(), tailles[t]);
+            int n = tables[t].getNbPlacements();
+            vivants[t] = new long[(n + 63) >>> 6];
+            for (int c = 0; c < cellules; c++) {
+                couverture[t][c] = tables[t].debutCouvrants(c + 1) - tables[t].debutCouvrants(c);
+            }
+            for (int p = 0; p < n; p++) {
+                vivants[t][p >>> 6] |= 1L << p;
+            }
+        }
+
+        connus = new long[bits.getNbMots()];
+        bloques = new long[bits.getNbMots()];
+        nonResolus = new long[bits.getNbMots()];
+        scores = new int[cellules];
+        initialise = true;
+    }
+
+    /**
+     * Met la carte à jour avec les tirs apparus sur la grille adverse depuis le dernier appel.
+     */
+    private void synchroniser() {
+        GrilleBits bits = grilleAdversaire.getBits();
+        long[] tirs = bits.getTirs();
+        long[] touches = bits.getTouches();
+        long[] coules = bits.getCoules();
+
+        boolean nouveauxCoules = false;
+        for (int m = 0; m < connus.length; m++) {
+            long nouveaux = tirs[m] & ~connus[m];
+            connus[m] |= nouveaux;
+            // Tirs ratés : les placements qui y passaient disparaissent
+            for (long rates = nouveaux & ~touches[m]; rates != 0; rates &= rates - 1) {
+                bloquer((m << 6) + Long.numberOfTrailingZeros(rates));
+            }
+            nonResolus[m] |= nouveaux & touches[m];
+
+            // Bateau coulé : ses cellules deviennent bloquées pour les bateaux restants
+            long coulees = coules[m] & nonResolus[m];
+            nonResolus[m] &= ~coulees;
+            nouveauxCoules |= coulees != 0;
+            for (; coulees != 0; coulees &= coulees - 1) {
+                bloquer((m << 6) + Long.numberOfTrailingZeros(coulees));
+            }
+        }
+        if (nouveauxCoules) {
+            compterRestants(bits);
+        }
+    }
+
+    /**
+     * Retire de la carte tous les placements vivants passant par une cellule.
+     * @param index Indice de la cellule bloquée.
+     */
+    private void bloquer(int index) {
+        bloques[index >>> 6] |= 1L << index;
+        for (int t = 0; t < tables.length; t++) {
+            TablePlacements table = tables[t];
+            int[] couvrants = table.getCouvrants();
+            for (int k = table.debutCouvrants(index), fin = table.debutCouvrants(index + 1); k < fin; k++) {
+                int p = couvrants[k];
+                if ((vivants[t][p >>> 6] & (1L << p)) == 0) continue;
+                vivants[t][p >>> 6] &= ~(1L << p);
+                for (int j = 0, i = table.getIndex(p), pas = table.getPas(p); j < table.getTaille(); j++, i += pas) {
+                    couverture[t][i]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompte les bateaux restants de chaque taille à partir des bateaux coulés, qui sont révélés.
+     * Le décompte ne dépend pas du nombre de bateaux coulés depuis la dernière mise à jour
+     * (plusieurs à la fois lorsqu'une partie restaurée est rattrapée d'un coup).
+     */
+    private void compterRestants(GrilleBits bits) {
+        Arrays.fill(restants, 0);
+        for (int taille : tailleBateau) {
+            restants[Arrays.binarySearch(tailles, taille)]++;
+        }
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            if (!bits.estCoule(b)) continue;
+            int t = Arrays.binarySearch(tailles, bits.getTailleBateau(b));
+            if (t >= 0 && restants[t] > 0) restants[t]--;
+        }
+    }
+
+    /**
+     * Choisit la cellule à viser : mode cible s'il reste des touches non résolues, mode chasse sinon.
+     * @return L'indice de la cellule visée.
+     */
+    private int choisirCellule() {
+        boolean cible = false;
+        for (long m : nonResolus) {
+            if (m != 0) {
+                cible = true;
+                break;
+            }
+        }
+        int choix = cible ? choisirCible() : choisirChasse();
+        return (choix >= 0) ? choix : premiereCaseLibre();
+    }
+
+    /**
+     * Mode chasse : cellule non visée couverte par le plus de placements des bateaux restants.
+     * @return L'indice de la cellule, ou -1 si aucune cellule n'a de densité.
+     */
+    private int choisirChasse() {
+        int meilleur = -1;
+        int meilleurScore = 0;
+        int egalites = 0;
+        for (int c = 0; c < scores.length; c++) {
+            if ((connus[c >>> 6] & (1L << c)) != 0) continue;
+            int score = 0;
+            for (int t = 0; t < tailles.length; t++) {
+                score += restants[t] * couverture[t][c];
+            }
+            meilleur = garderMeilleur(c, score, meilleur, meilleurScore, egalites);
+            if (score > meilleurScore) {
+                meilleurScore = score;
+                egalites = 1;
+            } else if (score == meilleurScore && score > 0) {
+                egalites++;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Mode cible : seuls comptent les placements vivants passant par au moins une cellule touchée non résolue,
+     * pondérés selon le nombre de ces cellules qu'ils couvrent.
+     * @return L'indice de la cellule, ou -1 si aucun placement ne passe par les touches.
+     */
+    private int choisirCible() {
+        Arrays.fill(scores, 0);
+        for (int m = 0; m < nonResolus.length; m++) {
+            for (long touchees = nonResolus[m]; touchees != 0; touchees &= touchees - 1) {
+                int h = (m << 6) + Long.numberOfTrailingZeros(touchees);
+                for (int t = 0; t < tables.length; t++) {
+                    if (restants[t] == 0) continue;
+                    TablePlacements table = tables[t];
+                    int[] couvrants = table.getCouvrants();
+                    for (int k = table.debutCouvrants(h), fin = table.debutCouvrants(h + 1); k < fin; k++) {
+                        int p = couvrants[k];
+                        if ((vivants[t][p >>> 6] & (1L << p)) == 0) continue;
+                        // Chaque placement est vu une fois par touche couverte : on ne le compte que depuis la première
+                        if (premiereTouche(table, p) != h) continue;
+                        int poids = restants[t] * puissance(table.intersection(p, nonResolus));
+                        for (int j = 0, i = table.getIndex(p), pas = table.getPas(p); j < table.getTaille(); j++, i += pas) {
+                            scores[i] += poids;
+                        }
+                    }
+                }
+            }
+        }
+
+        int meilleur = -1;
+        int meilleurScore = 0;
+        int egalites = 0;
+        for (int c = 0; c < scores.length; c++) {
+            if ((connus[c >>> 6] & (1L << c)) != 0) continue;
+            int score = scores[c];
+            meilleur = garderMeilleur(c, score, meilleur, meilleurScore, egalites);
+            if (score > meilleurScore) {
+                meilleurScore = score;
+                egalites = 1;
+            } else if (score == meilleurScore && score > 0) {
+                egalites++;
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Retourne la première cellule touchée non résolue d'un placement.
+     */
+    private int premiereTouche(TablePlacements table, int p) {
+        for (int j = 0, i = table.getIndex(p), pas = table.getPas(p); j < table.getTaille(); j++, i += pas) {
+            if ((nonResolus[i >>> 6] & (1L << i)) != 0) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Poids d'un placement couvrant n touches : POIDS_CIBLE^(n-1), borné pour éviter les débordements.
+     */
+    private static int puissance(int n) {
+        int poids = 1;
+        for (int i = 1; i < n && poids < (1 << 20); i++) {
+            poids *= POIDS_CIBLE;
+        }
+        return poids;
+    }
+
+    /**
+     * Sélection du maximum avec départage aléatoire uniforme des égalités (échantillonnage par réservoir).
+     */
+    private int garderMeilleur(int c, int score, int meilleur, int meilleurScore, int egalites) {
+        if (score > meilleurScore) return c;
+        if (score == meilleurScore && score > 0 && generateur().nextInt(egalites + 1) == 0) return c;
+        return meilleur;
+    }
+
+    /**
+     * Dernier recours si la carte est vide (flotte adverse différente de celle attendue) : première case non visée.
+     */
+    private int premiereCaseLibre() {
+        for (int c = 0; c < scores.length; c++) {
+            if ((connus[c >>> 6] & (1L << c)) == 0) return c;
+        }
+        throw new IllegalStateException("Aucune case disponible pour tirer.");
+    }
+
+    /**
+     * Choisit le tir le plus probable d'après la carte de densité.
+     * @return L'indice (x * colonnes + y) de la case ciblée.
+     */
+    @Override
+    public int tireCase() {
+        if (!initialise) initialiser();
+        synchroniser();
+
+        int cellule = choisirCellule();
+        if (verbeux) {
+            int colonnes = grilleAdversaire.getColonnes();
+            System.out.println("🎯 Le JoueurDensite tire sur la case : (" + cellule / colonnes + ", " + cellule % colonnes + ")");
+        }
+        return cellule;
+    }
+
+    /**
+     * Retourne la densité de chaque cellule non visée en mode chasse, après prise en compte des derniers tirs.
+     * Sert aux tests, qui comparent la carte incrémentale à un recalcul complet.
+     * @return Pour chaque cellule, la somme des placements vivants qui la couvrent, pondérés par les bateaux restants.
+     */
+    int[] densites() {
+        if (!initialise) initialiser();
+        synchroniser();
+        int[] densites = new int[scores.length];
+        for (int c = 0; c < densites.length; c++) {
+            if ((connus[c >>> 6] & (1L << c)) != 0) continue;
+            for (int t = 0; t < tailles.length; t++) {
+                densites[c] += restants[t] * couverture[t][c];
+            }
+        }
+        return densites;
+    }
+
+    @Override
+    public int getColonnesCible() {
+        return grilleAdversaire.getColonnes();
+    }
+
+    @Override
+    public void BateauVisible() {
+        // Parcours chaque bateau de la flotte et le rend visible s'il est coulé
+        for (Bateau bateau : this.flotte) {
+            if (bateau.estCoule()) {
+                bateau.setVisible(true);
+            }
+        }
+    }
+}
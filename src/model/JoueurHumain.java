@@ -2,12 +2,30 @@ package model;
 
 import java.util.InputMismatchException;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Classe représentant un joueur humain dans le jeu de bataille navale.
  * Le joueur saisit ses coordonnées pour tirer et placer ses navires.
  */
 public class JoueurHumain extends AbstractJoueur {
+
+    // Lecteur unique de l'entrée standard, partagé par tous les joueurs et jamais fermé :
+    // fermer un Scanner sur System.in fermerait l'entrée standard elle-même
+    private static Scanner clavier;
+
+    /**
+     * Thread unique qui lit la console pour les tirs asynchrones de tous les joueurs humains.
+     */
+    private static final class Console {
+        static final ExecutorService LECTEUR = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "console");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
     
     /**
      * Constructeur de la classe JoueurHumain.
@@ -31,13 +49,14 @@ public class JoueurHumain extends AbstractJoueur {
      * Demande à l'utilisateur de choisir une case sur le plateau pour tirer.
      * Assure que l'entrée utilisateur est valide (lettre entre A-J suivie d'un chiffre entre 0-9).
      *
-     * @return Un tableau d'entiers représentant la position (x, y) du tir.
+     * @return L'indice compacté (x * colonnes + y) de la case visée.
      */
     
     
     
-    public int[] tire() {
-    Scanner scanner = new Scanner(System.in);
+    @Override
+    public int tireCase() {
+    Scanner scanner = clavier();
     int x = 0, y = 0;
     boolean entreeValide = false;
 
@@ -46,7 +65,7 @@ public class JoueurHumain extends AbstractJoueur {
             System.out.println("Choisissez une case (ex : A1) : ");
             
             if (!scanner.hasNextLine()) {
-                throw new IllegalArgumentException("Entrée invalide. Veuillez réessayer.");
+                throw new IllegalStateException("L'entrée standard est fermée.");
             }
             
             String entree = scanner.nextLine().trim(); // Supprime les espaces au début et à la fin
@@ -79,10 +98,27 @@ public class JoueurHumain extends AbstractJoueur {
         }
         }
         
-        return new int[]{x, y}; // Retourne les coordonnées sous forme de tableau
+        return x * getColonnesCible() + y; // Retourne l'indice de la case
         
     }
 
+    /**
+     * Lit le tir sur la console depuis un thread unique partagé par tous les joueurs humains,
+     * au lieu de bloquer le thread de la partie. Annuler l'étape rendue n'interrompt pas la lecture en cours.
+     * @return L'étape qui fournira l'indice de la case saisie.
+     */
+    @Override
+    public CompletableFuture<Integer> tireCaseAsync() {
+        return CompletableFuture.supplyAsync(this::tireCase, Console.LECTEUR);
+    }
+
+    private static synchronized Scanner clavier() {
+        if (clavier == null) {
+            clavier = new Scanner(System.in);
+        }
+        return clavier;
+    }
+
     
     
     
@@ -101,38 +137,37 @@ public class JoueurHumain extends AbstractJoueur {
      * Demande les coordonnées et l'orientation (verticale ou horizontale) pour chaque navire.
      */
     public void humainAjoutBateau() {
-        try (Scanner entree = new Scanner(System.in)) {
-            for (int i = 0; i < tailleBateau.length; i++) {
-                boolean ajouter = false;
-                while (!ajouter) {
-                    try {
-                        System.out.print("Choisissez une coordonnée X pour votre navire " + (i + 1) + " : ");
-                        int x = entree.nextInt();
-                        System.out.print("Choisissez une coordonnée Y pour votre navire " + (i + 1) + " : ");
-                        int y = entree.nextInt();
-                        entree.nextLine(); // Consommer la ligne vide restante
-
-                        String orientation;
-                        do {
-                            System.out.print("Votre navire est vertical ou horizontal (ve/ho) ? ");
-                            orientation = entree.nextLine().trim().toLowerCase();
-                        } while (!orientation.equals("ve") && !orientation.equals("ho"));
-
-                        boolean estVertical = orientation.equals("ve");
-                        ajouter = this.ajoutBateau(x, y, new Bateau(tailleBateau[i], true), estVertical);
-
-                        if (ajouter) {
-                            System.out.println("Navire ajouté avec succès !\n");
-                            this.grille.afficher();
-                        } else {
-                            System.out.println("Impossible d'ajouter le navire à cette position. Veuillez réessayer.\n");
-                        }
-                    } catch (InputMismatchException e) {
-                        System.out.println("Erreur : Veuillez entrer une valeur numérique pour les coordonnées.");
-                        entree.nextLine(); // Consommer la ligne erronée
-                    } catch (IllegalArgumentException e) {
-                        System.out.println("Erreur : " + e.getMessage());
+        Scanner entree = clavier();
+        for (int i = 0; i < tailleBateau.length; i++) {
+            boolean ajouter = false;
+            while (!ajouter) {
+                try {
+                    System.out.print("Choisissez une coordonnée X pour votre navire " + (i + 1) + " : ");
+                    int x = entree.nextInt();
+                    System.out.print("Choisissez une coordonnée Y pour votre navire " + (i + 1) + " : ");
+                    int y = entree.nextInt();
+                    entree.nextLine(); // Consommer la ligne vide restante
+
+                    String orientation;
+                    do {
+                        System.out.print("Votre navire est vertical ou horizontal (ve/ho) ? ");
+                        orientation = entree.nextLine().trim().toLowerCase();
+                    } while (!orientation.equals("ve") && !orientation.equals("ho"));
+
+                    boolean estVertical = orientation.equals("ve");
+                    ajouter = this.ajoutBateau(x, y, new Bateau(tailleBateau[i], true), estVertical);
+
+                    if (ajouter) {
+                        System.out.println("Navire ajouté avec succès !\n");
+                        this.grille.afficher();
+                    } else {
+                        System.out.println("Impossible d'ajouter le navire à cette position. Veuillez réessayer.\n");
                     }
+                } catch (InputMismatchException e) {
+                    System.out.println("Erreur : Veuillez entrer une valeur numérique pour les coordonnées.");
+                    entree.nextLine(); // Consommer la ligne erronée
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Erreur : " + e.getMessage());
                 }
             }
         }
@@ -0,0 +1,96 @@
+package model;
+
+/**
+ * Joueur automatique qui consulte un {@link LivreOuvertures} pour ses premiers tirs avant de s'en remettre
+ * à une stratégie. Si la situation observée est dans le livre, le tir mémorisé est joué sans calcul ;
+ * sinon la stratégie choisit le tir, qui est ajouté au livre pour les parties suivantes.
+ * <p>
+ * Le joueur partage la grille de sa stratégie. Les stratégies fournies reconstruisent ce qu'elles savent
+ * à partir des masques de la grille adverse, et les tirs joués depuis le livre leur sont signalés
+ * par {@link AbstractJoueur#noterTir(int)}.
+ */
+public class JoueurLivre extends AbstractJoueur {
+
+    private final AbstractJoueur strategie;
+    private final Grille grilleAdversaire;
+    private final LivreOuvertures livre;
+
+    /**
+     * Constructeur de la classe JoueurLivre.
+     * @param strategie Le joueur qui choisit les tirs absents du livre.
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     * @param livre Le livre d'ouvertures, qui peut être partagé entre plusieurs parties et plusieurs threads.
+     */
+    public JoueurLivre(AbstractJoueur strategie, Grille grilleAdversaire, LivreOuvertures livre) {
+        super(strategie.getGrille(), strategie.getNom() + "+livre");
+        this.strategie = strategie;
+        this.grilleAdversaire = grilleAdversaire;
+        this.livre = livre;
+        this.tailleBateau = strategie.getTailleBateau();
+    }
+
+    public AbstractJoueur getStrategie() {
+        return strategie;
+    }
+
+    public LivreOuvertures getLivre() {
+        return livre;
+    }
+
+    @Override
+    public void setTailleBateau(int[] tailleBateau) {
+        super.setTailleBateau(tailleBateau);
+        strategie.setTailleBateau(tailleBateau);
+    }
+
+    @Override
+    public void setVerbeux(boolean verbeux) {
+        super.setVerbeux(verbeux);
+        strategie.setVerbeux(verbeux);
+    }
+
+    /**
+     * Choisit la case du tir : depuis le livre tant que la partie en est à ses premiers tirs
+     * et que la situation y figure, par la stratégie sinon.
+     * @return L'indice compacté de la case visée sur la grille adverse
+     */
+    @Override
+    public int tireCase() {
+        GrilleBits bits = grilleAdversaire.getBits();
+        int rang = nombreTirs(bits);
+        if (rang >= livre.getProfondeur() || !livre.accepte(bits.getLignes(), bits.getColonnes(), tailleBateau)) {
+            return strategie.tireCase();
+        }
+        int index = livre.chercher(bits);
+        if (index >= 0 && !bits.estTiree(index)) {
+            strategie.noterTir(index);
+            return index;
+        }
+        index = strategie.tireCase();
+        livre.ajouter(bits, index, rang);
+        return index;
+    }
+
+    @Override
+    public void noterTir(int index) {
+        strategie.noterTir(index);
+    }
+
+    @Override
+    public int getColonnesCible() {
+        return grilleAdversaire.getColonnes();
+    }
+
+    @Override
+    public void BateauVisible() {
+        strategie.BateauVisible();
+    }
+
+    private static int nombreTirs(GrilleBits bits) {
+        int n = 0;
+        for (long mot : bits.getTirs()) {
+            n += Long.bitCount(mot);
+        }
+        return n;
+    }
+}
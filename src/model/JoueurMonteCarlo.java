@@ -0,0 +1,366 @@
+package model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Joueur automatique de Monte-Carlo : à chaque tir, il tire au hasard de nombreuses flottes adverses complètes
+ * compatibles avec tout ce qu'il a observé (tirs ratés, touches, bateaux coulés et révélés), compte combien
+ * de ces flottes occupent chaque case encore libre, et vise la plus fréquente.
+ * <p>
+ * Les tirages sont répartis sur les threads d'un {@link ForkJoinPool} et s'arrêtent à l'échéance fixée
+ * par le budget de temps du tir : le joueur répond alors avec la meilleure case trouvée jusque-là.
+ * Sa force croît donc avec le nombre de cœurs et le budget qu'on lui accorde, sans que la latence d'un tir
+ * dépasse ce budget. Un nombre maximal de tirages peut aussi être fixé, pour des parties reproductibles en durée.
+ */
+public class JoueurMonteCarlo extends AbstractJoueur {
+
+    /** Budget par défaut d'un tir */
+    public static final Duration BUDGET_DEFAUT = Duration.ofMillis(20);
+    /** Nombre de tirages entre deux consultations de l'horloge */
+    private static final int LOT_TIRAGES = 32;
+
+    private Grille grilleAdversaire;       // Grille sur laquelle le joueur tire
+    private final long budgetNanos;        // Temps accordé à chaque tir
+    private final ForkJoinPool pool;       // null : tirages sur le thread appelant
+    private final int tiragesMax;          // 0 : pas de limite autre que le budget
+    private long derniersTirages;          // Flottes compatibles tirées pour le dernier tir
+
+    /**
+     * Constructeur avec le budget par défaut, sur tous les cœurs.
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     */
+    public JoueurMonteCarlo(Grille grille, Grille grilleAdversaire) {
+        this(grille, grilleAdversaire, BUDGET_DEFAUT, ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * Constructeur complet.
+     * @param grille La grille du joueur.
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     * @param budget Le temps accordé à chaque tir.
+     * @param pool Les threads des tirages, ou null pour tirer sur le thread appelant.
+     * @param tiragesMax Nombre de flottes au-delà duquel le tir est décidé avant l'échéance, 0 pour aucun.
+     */
+    public JoueurMonteCarlo(Grille grille, Grille grilleAdversaire, Duration budget, ForkJoinPool pool, int tiragesMax) {
+        super(grille, "MonteCarlo");
+        this.grilleAdversaire = grilleAdversaire;
+        this.budgetNanos = budget.toNanos();
+        this.pool = pool;
+        this.tiragesMax = tiragesMax;
+    }
+
+    public Grille getGrilleAdversaire() {
+        return grilleAdversaire;
+    }
+
+    public void setGrilleAdversaire(Grille grilleAdversaire) {
+        this.grilleAdversaire = grilleAdversaire;
+    }
+
+    /**
+     * Retourne le nombre de flottes compatibles tirées pour décider du dernier tir.
+     * @return Le nombre de tirages réussis.
+     */
+    public long getDerniersTirages() {
+        return derniersTirages;
+    }
+
+    /**
+     * Vise la case libre la plus souvent occupée dans les flottes tirées avant l'échéance.
+     * @return L'indice (x * colonnes + y) de la case ciblée.
+     */
+    @Override
+    public int tireCase() {
+        long echeance = System.nanoTime() + budgetNanos;
+        Observation observation = new Observation(grilleAdversaire.getBits(), tailleBateau);
+
+        double[] comptes;
+        if (observation.restants.length == 0) {
+            comptes = new double[observation.cellules + 1];
+        } else if (pool == null) {
+            comptes = new Echantillonneur(observation, echeance, tiragesMax).call();
+        } else {
+            int taches = pool.getParallelism();
+            int parTache = (tiragesMax == 0) ? 0 : Math.max(1, tiragesMax / taches);
+            List<ForkJoinTask<double[]>> lancees = new ArrayList<>(taches);
+            for (int t = 0; t < taches; t++) {
+                lancees.add(pool.submit(new Echantillonneur(observation, echeance, parTache)::call));
+            }
+            comptes = new double[observation.cellules + 1];
+            for (ForkJoinTask<double[]> tache : lancees) {
+                double[] partiel = tache.join();
+                for (int c = 0; c < comptes.length; c++) comptes[c] += partiel[c];
+            }
+        }
+        derniersTirages = (long) comptes[observation.cellules];
+
+        int cellule = choisir(observation, comptes);
+        if (verbeux) {
+            int colonnes = grilleAdversaire.getColonnes();
+            System.out.println("🎲 Le JoueurMonteCarlo tire sur la case : (" + cellule / colonnes + ", " + cellule % colonnes
+                    + ") après " + derniersTirages + " flottes tirées");
+        }
+        return cellule;
+    }
+
+    /**
+     * Case libre la plus souvent occupée, égalités départagées au hasard. Sans aucun tirage réussi
+     * (budget trop court), une case voisine d'une touche non résolue, à défaut une case libre au hasard.
+     */
+    private int choisir(Observation observation, double[] comptes) {
+        RandomGenerator hasard = generateur();
+        int meilleur = -1;
+        double meilleurCompte = 0;
+        int egalites = 0;
+        for (int c = 0; c < observation.cellules; c++) {
+            if (observation.estTiree(c)) continue;
+            double compte = comptes[c];
+            if (compte > meilleurCompte) {
+                meilleur = c;
+                meilleurCompte = compte;
+                egalites = 1;
+            } else if (compte == meilleurCompte && compte > 0 && hasard.nextInt(++egalites) == 0) {
+                meilleur = c;
+            }
+        }
+        if (meilleur >= 0) return meilleur;
+
+        int colonnes = observation.colonnes;
+        for (int c = 0; c < observation.cellules; c++) {
+            if (!observation.estNonResolue(c)) continue;
+            int x = c / colonnes;
+            int y = c % colonnes;
+            int[][] voisins = {{x - 1, y}, {x + 1, y}, {x, y - 1}, {x, y + 1}};
+            for (int[] v : voisins) {
+                if (v[0] >= 0 && v[1] >= 0 && v[0] < observation.lignes && v[1] < colonnes && !observation.estTiree(v[0] * colonnes + v[1])) {
+                    return v[0] * colonnes + v[1];
+                }
+            }
+        }
+        EnsembleCases libres = new EnsembleCases(observation.cellules);
+        for (int c = 0; c < observation.cellules; c++) {
+            if (!observation.estTiree(c)) libres.ajouter(c);
+        }
+        return libres.retirerAuHasard(hasard);
+    }
+
+    @Override
+    public int getColonnesCible() {
+        return grilleAdversaire.getColonnes();
+    }
+
+    @Override
+    public void BateauVisible() {
+        for (Bateau bateau : this.flotte) {
+            if (bateau.estCoule()) {
+                bateau.setVisible(true);
+            }
+        }
+    }
+
+    /**
+     * Ce que le joueur sait de la grille adverse au moment du tir, figé et partagé en lecture par les tirages.
+     */
+    private static final class Observation {
+        final int lignes;
+        final int colonnes;
+        final int cellules;
+        final long[] tirs;
+        final long[] bloquees;      // Tirs ratés et bateaux coulés : aucun bateau restant n'y passe
+        final long[] nonResolues;   // Touches d'un bateau pas encore coulé : un bateau restant doit y passer
+        final TablePlacements[] restants;   // Table des placements de chaque bateau restant
+
+        Observation(GrilleBits bits, int[] tailleBateau) {
+            lignes = bits.getLignes();
+            colonnes = bits.getColonnes();
+            cellules = lignes * colonnes;
+            tirs = bits.getTirs().clone();
+            long[] touches = bits.getTouches();
+            long[] coules = bits.getCoules();
+            bloquees = new long[tirs.length];
+            nonResolues = new long[tirs.length];
+            for (int m = 0; m < tirs.length; m++) {
+                bloquees[m] = (tirs[m] & ~touches[m]) | coules[m];
+                nonResolues[m] = touches[m] & ~coules[m];
+            }
+
+            // Les bateaux coulés sont révélés : on retire leurs tailles de la flotte attendue
+            int[] tailles = tailleBateau.clone();
+            int nombre = tailles.length;
+            for (int b = 0; b < bits.getNbBateaux(); b++) {
+                if (!bits.estCoule(b)) continue;
+                for (int i = 0; i < nombre; i++) {
+                    if (tailles[i] == bits.getTailleBateau(b)) {
+                        tailles[i] = tailles[--nombre];
+                        break;
+                    }
+                }
+            }
+            restants = new TablePlacements[nombre];
+            for (int i = 0; i < nombre; i++) {
+                restants[i] = TablePlacements.pour(lignes, colonnes, tailles[i]);
+            }
+        }
+
+        boolean estTiree(int c) {
+            return (tirs[c >>> 6] & (1L << c)) != 0;
+        }
+
+        boolean estNonResolue(int c) {
+            return (nonResolues[c >>> 6] & (1L << c)) != 0;
+        }
+    }
+
+    /**
+     * Tire des flottes compatibles jusqu'à l'échéance, sur un seul thread, avec ses propres tampons.
+     * Les touches non résolues sont d'abord couvertes une à une par un bateau restant choisi au hasard,
+     * puis les autres bateaux sont placés au hasard sur les cases encore libres ; un tirage bloqué est abandonné.
+     * Cette construction pas à pas ne rend pas toutes les flottes compatibles équiprobables : chaque flotte
+     * est donc pondérée par le produit des nombres de choix offerts à chaque pas (échantillonnage
+     * d'importance séquentiel), ce qui corrige le biais.
+     */
+    private static final class Echantillonneur {
+        private final Observation observation;
+        private final long echeance;
+        private final int maximum;
+        private final long[] occupees;
+        private final long[] aCouvrir;
+        private final boolean[] places;
+        private final int[] ordre;
+        private final int[] candidats;
+        private final int[] choixBateaux;
+        private final int[] placements;     // Placement retenu pour chaque bateau restant
+        private final double[] comptes;     // Occupation pondérée de chaque case, puis le nombre de tirages réussis
+        private double poids;               // Poids du tirage en cours
+
+        Echantillonneur(Observation observation, long echeance, int maximum) {
+            this.observation = observation;
+            this.echeance = echeance;
+            this.maximum = maximum;
+            int bateaux = observation.restants.length;
+            int nbPlacementsMax = 0;
+            int couvrantsMax = 0;
+            for (TablePlacements table : observation.restants) {
+                nbPlacementsMax = Math.max(nbPlacementsMax, table.getNbPlacements());
+                couvrantsMax += 2 * table.getTaille();
+            }
+            this.occupees = new long[observation.tirs.length];
+            this.aCouvrir = new long[observation.tirs.length];
+            this.places = new boolean[bateaux];
+            this.ordre = new int[bateaux];
+            this.candidats = new int[Math.max(nbPlacementsMax, couvrantsMax)];
+            this.choixBateaux = new int[couvrantsMax];
+            this.placements = new int[bateaux];
+            this.comptes = new double[observation.cellules + 1];
+        }
+
+        double[] call() {
+            RandomGenerator hasard = ThreadLocalRandom.current();
+            int reussis = 0;
+            while (maximum == 0 || reussis < maximum) {
+                if (System.nanoTime() >= echeance) break;
+                for (int i = 0; i < LOT_TIRAGES && (maximum == 0 || reussis < maximum); i++) {
+                    if (tirer(hasard)) {
+                        compter();
+                        reussis++;
+                    }
+                }
+            }
+            comptes[observation.cellules] = reussis;
+            return comptes;
+        }
+
+        private boolean tirer(RandomGenerator hasard) {
+            TablePlacements[] tables = observation.restants;
+            System.arraycopy(observation.bloquees, 0, occupees, 0, occupees.length);
+            System.arraycopy(observation.nonResolues, 0, aCouvrir, 0, aCouvrir.length);
+            for (int m = 0; m < occupees.length; m++) occupees[m] |= aCouvrir[m];
+            Arrays.fill(places, false);
+            poids = 1;
+
+            // Couverture des touches non résolues : un placement tiré parmi tous ceux des bateaux restants qui y passent
+            for (int m = 0; m < aCouvrir.length; m++) {
+                while (aCouvrir[m] != 0) {
+                    int h = (m << 6) + Long.numberOfTrailingZeros(aCouvrir[m]);
+                    int n = 0;
+                    for (int b = 0; b < tables.length; b++) {
+                        if (places[b]) continue;
+                        TablePlacements table = tables[b];
+                        int[] couvrants = table.getCouvrants();
+                        for (int k = table.debutCouvrants(h), fin = table.debutCouvrants(h + 1); k < fin; k++) {
+                            if (estLibre(table, couvrants[k])) {
+                                candidats[n] = couvrants[k];
+                                choixBateaux[n++] = b;
+                            }
+                        }
+                    }
+                    if (n == 0) return false;
+                    int choix = hasard.nextInt(n);
+                    poids *= n;
+                    poser(choixBateaux[choix], candidats[choix]);
+                }
+            }
+
+            // Les autres bateaux, dans un ordre aléatoire, sur les cases encore libres
+            int libres = 0;
+            for (int b = 0; b < tables.length; b++) {
+                if (!places[b]) ordre[libres++] = b;
+            }
+            for (int i = libres - 1; i >= 0; i--) {
+                int j = hasard.nextInt(i + 1);
+                int b = ordre[j];
+                ordre[j] = ordre[i];
+                int n = tables[b].compatibles(occupees, candidats);
+                if (n == 0) return false;
+                poids *= n;
+                poser(b, candidats[hasard.nextInt(n)]);
+            }
+            return true;
+        }
+
+        /**
+         * Un placement qui couvre une touche à couvrir ne doit chevaucher que des touches, jamais une case bloquée
+         * ou déjà prise, et doit garder au moins une case intacte : sinon le bateau aurait déjà été coulé.
+         */
+        private boolean estLibre(TablePlacements table, int p) {
+            boolean intact = false;
+            for (int k = 0, i = table.getIndex(p), pas = table.getPas(p); k < table.getTaille(); k++, i += pas) {
+                long bit = 1L << i;
+                if ((occupees[i >>> 6] & bit) == 0) {
+                    intact = true;
+                } else if ((aCouvrir[i >>> 6] & bit) == 0) {
+                    return false;
+                }
+            }
+            return intact;
+        }
+
+        private void poser(int b, int p) {
+            TablePlacements table = observation.restants[b];
+            for (int k = 0, i = table.getIndex(p), pas = table.getPas(p); k < table.getTaille(); k++, i += pas) {
+                occupees[i >>> 6] |= 1L << i;
+                aCouvrir[i >>> 6] &= ~(1L << i);
+            }
+            places[b] = true;
+            placements[b] = p;
+        }
+
+        private void compter() {
+            TablePlacements[] tables = observation.restants;
+            for (int b = 0; b < tables.length; b++) {
+                TablePlacements table = tables[b];
+                for (int k = 0, i = table.getIndex(placements[b]), pas = table.getPas(placements[b]); k < table.getTaille(); k++, i += pas) {
+                    comptes[i] += poids;
+                }
+            }
+        }
+    }
+}
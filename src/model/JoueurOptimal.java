@@ -0,0 +1,77 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Joueur automatique optimal des petites grilles : chaque tir est celui qui minimise l'espérance du nombre
+ * de tirs restants, d'après le {@link SolveurExact} de la grille et de la flotte adverse.
+ * Une fois la table du solveur remplie (ou chargée depuis le disque), un tir ne coûte qu'une lecture de la table.
+ * Comme {@link JoueurDensite}, le joueur ne lit de la grille adverse que les tirs, les touches et les bateaux coulés,
+ * et suppose que la flotte adverse a la même composition que la sienne.
+ */
+public class JoueurOptimal extends AbstractJoueur {
+
+    private final Grille grilleAdversaire; // Grille sur laquelle le joueur tire
+    private SolveurExact solveur;          // Solveur partagé, retrouvé au premier tir
+
+    /**
+     * Constructeur de la classe JoueurOptimal.
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire ({@value SolveurExact#CASES_MAX} cases au plus).
+     * @throws IllegalArgumentException Si la grille adverse est trop grande pour le solveur exact.
+     */
+    public JoueurOptimal(Grille grille, Grille grilleAdversaire) {
+        super(grille, "Optimal");
+        if (grilleAdversaire.getLignes() * grilleAdversaire.getColonnes() > SolveurExact.CASES_MAX) {
+            throw new IllegalArgumentException("Grille trop grande pour le joueur optimal : "
+                    + grilleAdversaire.getLignes() + "x" + grilleAdversaire.getColonnes());
+        }
+        this.grilleAdversaire = grilleAdversaire;
+    }
+
+    /**
+     * Constructeur avec un solveur donné, par exemple chargé depuis le disque.
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     * @param solveur Le solveur de la grille adverse et de sa flotte.
+     */
+    public JoueurOptimal(Grille grille, Grille grilleAdversaire, SolveurExact solveur) {
+        this(grille, grilleAdversaire);
+        this.solveur = solveur;
+        setTailleBateau(solveur.getTailleBateau());
+    }
+
+    @Override
+    public void setTailleBateau(int[] tailleBateau) {
+        super.setTailleBateau(tailleBateau);
+        if (solveur != null && !Arrays.equals(solveur.getTailleBateau(), tailleBateau)) solveur = null;
+    }
+
+    @Override
+    public int tireCase() {
+        if (solveur == null) {
+            solveur = SolveurExact.pour(grilleAdversaire.getLignes(), grilleAdversaire.getColonnes(), tailleBateau);
+        }
+        int cellule = solveur.meilleurTir(grilleAdversaire.getBits());
+        if (verbeux) {
+            int colonnes = grilleAdversaire.getColonnes();
+            System.out.println("🎯 Le JoueurOptimal tire sur la case : (" + cellule / colonnes + ", " + cellule % colonnes + ")");
+        }
+        return cellule;
+    }
+
+    @Override
+    public int getColonnesCible() {
+        return grilleAdversaire.getColonnes();
+    }
+
+    @Override
+    public void BateauVisible() {
+        // Parcours chaque bateau de la flotte et le rend visible s'il est coulé
+        for (Bateau bateau : this.flotte) {
+            if (bateau.estCoule()) {
+                bateau.setVisible(true);
+            }
+        }
+    }
+}
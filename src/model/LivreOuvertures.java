@@ -0,0 +1,309 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Livre d'ouvertures : mémoire des tirs choisis dans les premières situations d'une partie.
+ * Une situation est ce que le tireur a observé sur la grille adverse (chaque case visée et son résultat :
+ * raté, touché ou coulé), quel que soit l'ordre des tirs ; elle est résumée par une clé de 64 bits qui dépend
+ * aussi des dimensions de la grille et de la composition de la flotte ({@code tailleBateau}).
+ * La clé est la clé canonique de Zobrist que la grille tient à jour ({@link GrilleBits#getCleSituationCanonique()}) :
+ * les images d'une situation par les symétries de la grille partagent une entrée, dont la case est notée
+ * dans le repère de la forme canonique.
+ * <p>
+ * En mémoire, le livre est un cache borné, associatif par ensembles de {@value #VOIES} voies : chaque clé ne peut
+ * occuper que l'une des voies de son ensemble et, quand elles sont toutes prises, l'algorithme de l'horloge
+ * (seconde chance) évince une entrée qui n'a pas servi depuis son dernier passage. Clé et tir tiennent dans un
+ * seul long, lu et écrit atomiquement : les lectures et les ajouts concurrents ne prennent aucun verrou.
+ * <p>
+ * Sur disque, le livre est une suite d'entrées de 13 octets (clé, case, rang du tir), des plus précoces aux
+ * plus tardives, précédée d'un en-tête qui décrit la grille et la flotte.
+ */
+public final class LivreOuvertures {
+
+    /** Nombre de voies d'un ensemble */
+    public static final int VOIES = 8;
+    /** Bits de l'entrée réservés à la case (plus un, 0 marquant une voie vide) */
+    private static final int BITS_CASE = 20;
+    private static final long MASQUE_CASE = (1L << BITS_CASE) - 1;
+    private static final int SIGNATURE = 0x4C4F5556; // "LOUV"
+    private static final int VERSION = 2;
+
+    private final int lignes;
+    private final int colonnes;
+    private final int[] tailleBateau;       // Composition de la flotte, triée
+    private final int profondeur;           // Nombre de premiers tirs couverts par le livre
+    private final long graine;              // Clé de la situation vide, propre à la grille et à la flotte
+
+    private final int masqueEnsembles;
+    private final AtomicLongArray entrees;  // (clé sans ses bits bas) | (case + 1), 0 pour une voie vide
+    private final byte[] rangs;             // Rang du tir de chaque entrée (nombre de tirs déjà observés)
+    private final byte[] references;        // Bit de seconde chance de chaque entrée
+    private final byte[] aiguilles;         // Position de l'horloge dans chaque ensemble
+
+    private final LongAdder trouves = new LongAdder();
+    private final LongAdder manques = new LongAdder();
+
+    /**
+     * Crée un livre vide.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param tailleBateau Composition de la flotte adverse.
+     * @param profondeur Nombre de premiers tirs couverts par le livre.
+     * @param capacite Nombre maximal d'entrées en mémoire (arrondi à une puissance de deux, au moins {@value #VOIES}).
+     */
+    public LivreOuvertures(int lignes, int colonnes, int[] tailleBateau, int profondeur, int capacite) {
+        if ((long) lignes * colonnes >= MASQUE_CASE) {
+            throw new IllegalArgumentException("Grille trop grande pour un livre d'ouvertures : " + lignes + "x" + colonnes);
+        }
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.tailleBateau = tailleBateau.clone();
+        Arrays.sort(this.tailleBateau);
+        this.profondeur = Math.min(profondeur, Byte.MAX_VALUE);
+
+        long g = GenerateurSplitMix.melanger(((long) lignes << 32) | colonnes);
+        for (int taille : this.tailleBateau) {
+            g = GenerateurSplitMix.melanger(g ^ taille);
+        }
+        this.graine = g;
+
+        int ensembles = Integer.highestOneBit(Math.max(1, capacite / VOIES));
+        this.masqueEnsembles = ensembles - 1;
+        this.entrees = new AtomicLongArray(ensembles * VOIES);
+        this.rangs = new byte[ensembles * VOIES];
+        this.references = new byte[ensembles * VOIES];
+        this.aiguilles = new byte[ensembles];
+    }
+
+    // --------------------- CLÉS ---------------------
+
+    /**
+     * Retourne la clé de la situation observée sur une grille adverse, tenue à jour par la grille :
+     * elle ne dépend ni de l'ordre des tirs, ni de la symétrie de la grille sous laquelle la situation est vue.
+     * @param bits Les masques de la grille adverse.
+     * @return La clé de la situation.
+     */
+    public long cle(GrilleBits bits) {
+        return graine ^ bits.getCleSituationCanonique();
+    }
+
+    /**
+     * Vérifie que le livre a été construit pour une grille et une flotte données.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param tailleBateau Composition de la flotte.
+     * @return true si les entrées du livre s'appliquent à cette partie.
+     */
+    public boolean accepte(int lignes, int colonnes, int[] tailleBateau) {
+        if (lignes != this.lignes || colonnes != this.colonnes || tailleBateau.length != this.tailleBateau.length) return false;
+        int[] triees = tailleBateau.clone();
+        Arrays.sort(triees);
+        return Arrays.equals(triees, this.tailleBateau);
+    }
+
+    // --------------------- CACHE ---------------------
+
+    /**
+     * Cherche le tir mémorisé pour la situation d'une grille adverse, ramené de la forme canonique à la grille.
+     * @param bits Les masques de la grille adverse.
+     * @return L'indice de la case à viser, ou -1 si la situation n'est pas dans le livre.
+     */
+    public int chercher(GrilleBits bits) {
+        int index = chercher(cle(bits));
+        return (index < 0) ? index : bits.getZobrist().antecedent(bits.getSymetrieCanonique(), index);
+    }
+
+    /**
+     * Mémorise le tir choisi dans la situation d'une grille adverse, noté dans le repère de la forme canonique.
+     * @param bits Les masques de la grille adverse.
+     * @param index L'indice de la case visée sur la grille.
+     * @param rang Nombre de tirs déjà observés dans cette situation.
+     */
+    public void ajouter(GrilleBits bits, int index, int rang) {
+        ajouter(cle(bits), bits.getZobrist().image(bits.getSymetrieCanonique(), index), rang);
+    }
+
+    /**
+     * Cherche le tir mémorisé pour une situation.
+     * @param cle La clé de la situation.
+     * @return L'indice de la case à viser, ou -1 si la situation n'est pas dans le livre.
+     */
+    public int chercher(long cle) {
+        int debut = ensemble(cle) * VOIES;
+        long attendu = cle & ~MASQUE_CASE;
+        for (int v = debut; v < debut + VOIES; v++) {
+            long entree = entrees.get(v);
+            if (entree != 0 && (entree & ~MASQUE_CASE) == attendu) {
+                references[v] = 1;
+                trouves.increment();
+                return (int) (entree & MASQUE_CASE) - 1;
+            }
+        }
+        manques.increment();
+        return -1;
+    }
+
+    /**
+     * Mémorise le tir choisi dans une situation, en évinçant au besoin une entrée de son ensemble.
+     * @param cle La clé de la situation.
+     * @param index L'indice de la case visée.
+     * @param rang Nombre de tirs déjà observés dans cette situation.
+     */
+    public void ajouter(long cle, int index, int rang) {
+        int e = ensemble(cle);
+        int debut = e * VOIES;
+        long entree = (cle & ~MASQUE_CASE) | (index + 1);
+        int libre = -1;
+        for (int v = debut; v < debut + VOIES; v++) {
+            long actuelle = entrees.get(v);
+            if (actuelle != 0 && (actuelle & ~MASQUE_CASE) == (cle & ~MASQUE_CASE)) {
+                libre = v;   // Situation déjà connue : le tir est remplacé
+                break;
+            }
+            if (actuelle == 0 && libre < 0) libre = v;
+        }
+        if (libre < 0) {
+            // Horloge : on passe les entrées marquées en effaçant leur marque, jusqu'à une entrée non marquée
+            int aiguille = aiguilles[e];
+            while (references[debut + aiguille] != 0) {
+                references[debut + aiguille] = 0;
+                aiguille = (aiguille + 1) % VOIES;
+            }
+            libre = debut + aiguille;
+            aiguilles[e] = (byte) ((aiguille + 1) % VOIES);
+        }
+        rangs[libre] = (byte) rang;
+        references[libre] = 0;
+        entrees.set(libre, entree);
+    }
+
+    private int ensemble(long cle) {
+        return (int) (cle >>> 40) & masqueEnsembles;
+    }
+
+    // --------------------- CONSULTATION ---------------------
+
+    public int getProfondeur() {
+        return profondeur;
+    }
+
+    /**
+     * Retourne le nombre maximal d'entrées en mémoire.
+     * @return La capacité du cache.
+     */
+    public int getCapacite() {
+        return entrees.length();
+    }
+
+    /**
+     * Compte les entrées présentes.
+     * @return Le nombre de situations mémorisées.
+     */
+    public int taille() {
+        int n = 0;
+        for (int v = 0; v < entrees.length(); v++) {
+            if (entrees.get(v) != 0) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Retourne la part des recherches qui ont trouvé leur situation.
+     * @return Le taux de succès, entre 0 et 1.
+     */
+    public double tauxSucces() {
+        long t = trouves.sum();
+        long total = t + manques.sum();
+        return (total == 0) ? 0 : (double) t / total;
+    }
+
+    // --------------------- FICHIER ---------------------
+
+    /**
+     * Enregistre le livre, des situations les plus précoces aux plus tardives.
+     * @param fichier Le chemin du fichier.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void enregistrer(Path fichier) throws IOException {
+        int n = 0;
+        long[] triees = new long[entrees.length()];
+        for (int v = 0; v < entrees.length(); v++) {
+            if (entrees.get(v) != 0) triees[n++] = ((long) rangs[v] << 32) | v;
+        }
+        Arrays.sort(triees, 0, n);
+
+        try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier)))) {
+            sortie.writeInt(SIGNATURE);
+            sortie.writeByte(VERSION);
+            sortie.writeShort(lignes);
+            sortie.writeShort(colonnes);
+            sortie.writeByte(tailleBateau.length);
+            for (int taille : tailleBateau) sortie.writeByte(taille);
+            sortie.writeByte(profondeur);
+            sortie.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                int v = (int) triees[i];
+                long entree = entrees.get(v);
+                // La clé complète n'est pas conservée : ses bits bas, remplacés par la case, ne servent pas au cache
+                sortie.writeLong(entree & ~MASQUE_CASE);
+                sortie.writeInt((int) (entree & MASQUE_CASE) - 1);
+                sortie.writeByte(rangs[v]);
+            }
+        }
+    }
+
+    /**
+     * Charge un livre enregistré. Si le fichier compte plus d'entrées que la capacité, les situations
+     * les plus précoces, rangées en tête du fichier, sont gardées de préférence.
+     * @param fichier Le chemin du fichier.
+     * @param capacite Nombre maximal d'entrées en mémoire.
+     * @return Le livre chargé.
+     * @throws IOException Si le fichier ne peut être lu ou n'est pas un livre d'ouvertures.
+     */
+    public static LivreOuvertures charger(Path fichier, int capacite) throws IOException {
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (entree.readInt() != SIGNATURE || entree.readByte() != VERSION) {
+                throw new IOException("Ce fichier n'est pas un livre d'ouvertures.");
+            }
+            int lignes = entree.readUnsignedShort();
+            int colonnes = entree.readUnsignedShort();
+            int[] tailleBateau = new int[entree.readUnsignedByte()];
+            for (int i = 0; i < tailleBateau.length; i++) tailleBateau[i] = entree.readUnsignedByte();
+            int profondeur = entree.readUnsignedByte();
+            LivreOuvertures livre = new LivreOuvertures(lignes, colonnes, tailleBateau, profondeur, capacite);
+
+            int n = entree.readInt();
+            for (int i = 0; i < n; i++) {
+                long cle = entree.readLong();
+                int index = entree.readInt();
+                int rang = entree.readUnsignedByte();
+                livre.ajouterSiPlace(cle, index, rang);
+            }
+            return livre;
+        }
+    }
+
+    /**
+     * Ajout au chargement : une entrée n'en évince jamais une autre, plus précoce, déjà chargée.
+     */
+    private void ajouterSiPlace(long cle, int index, int rang) {
+        int debut = ensemble(cle) * VOIES;
+        for (int v = debut; v < debut + VOIES; v++) {
+            if (entrees.get(v) == 0) {
+                rangs[v] = (byte) rang;
+                entrees.set(v, (cle & ~MASQUE_CASE) | (index + 1));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Enumération représentant le résultat d'un tir sur la grille d'un joueur.
+ */
+
+public enum ResultatTir {
+    DEJA_TIRE, // La cellule avait déjà été visée, le tir est ignoré
+    RATE,      // Le tir est tombé dans l'eau
+    TOUCHE,    // Le tir a touché un bateau sans le couler
+    COULE      // Le tir a touché la dernière cellule intacte d'un bateau
+}
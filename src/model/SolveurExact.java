@@ -0,0 +1,744 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solveur exact des petites grilles : la politique de tir qui minimise l'espérance du nombre de tirs
+ * nécessaires pour couler toute la flotte adverse, et cette espérance.
+ * <p>
+ * La flotte adverse est supposée tirée comme le fait {@link AbstractJoueur#ajoutBateauAleatoire()} : chaque bateau,
+ * dans l'ordre de {@code tailleBateau}, prend un placement uniforme parmi ceux qui restent libres. Toutes les flottes
+ * possibles sont énumérées une fois, avec leur probabilité. Une situation est ce que le tireur a observé (chaque case
+ * visée : ratée, touchée, ou coulée, un bateau coulé révélant toutes ses cases) ; les flottes qui lui restent
+ * compatibles suffisent à calculer, par programmation dynamique, l'espérance de chaque tir possible :
+ * un tir plus la moyenne, pondérée par la probabilité de chaque observation, des espérances des situations suivantes.
+ * Un tir est abandonné dès que sa valeur, complétée par un minorant des situations restant à explorer
+ * (le nombre de cases de bateaux encore à toucher), ne peut plus battre le meilleur tir déjà trouvé.
+ * <p>
+ * Les situations résolues sont mémorisées dans une table de transposition bornée, associative par ensembles de
+ * {@value #VOIES} voies : quand un ensemble est plein, l'entrée la moins coûteuse à recalculer (celle qui comptait
+ * le moins de flottes compatibles) est évincée. Chaque entrée tient dans trois longs écrits sans verrou, chacun des
+ * deux longs de la clé étant mêlé à la valeur par un ou exclusif : une entrée déchirée par deux écritures concurrentes
+ * ne se relit pas.
+ * Les premiers niveaux de la recherche sont répartis sur les cœurs ; la table peut être enregistrée sur disque
+ * puis rechargée, pour ne pas recalculer les premiers tirs.
+ * <p>
+ * Une situation tient dans deux longs : les observations (deux plans de 32 bits : cases ratées ou coulées, cases
+ * touchées) et la découpe des cases coulées en bateaux (deux plans : première case de chaque bateau coulé, cases des
+ * bateaux coulés verticaux). Sans la découpe, deux bateaux coulés bout à bout ne se distingueraient ni de la découpe
+ * inverse ni d'un seul bateau plus long, alors qu'il ne reste pas les mêmes bateaux à trouver. Elle se relit sans
+ * ambiguïté : une case coulée qui n'est pas une première case prolonge le bateau de la case à sa gauche, ou de celle
+ * du dessus si elle est marquée verticale. Le solveur couvre les grilles de 32 cases au plus.
+ */
+public final class SolveurExact {
+
+    /** Nombre maximal de cases d'une grille résolue */
+    public static final int CASES_MAX = 32;
+    /** Nombre maximal de flottes possibles énumérées */
+    public static final int FLOTTES_MAX = 1 << 22;
+    /** Nombre de voies d'un ensemble de la table */
+    public static final int VOIES = 4;
+    /** Capacité par défaut de la table, en entrées */
+    public static final int CAPACITE_DEFAUT = 1 << 20;
+
+    /** Profondeur jusqu'à laquelle les tirs candidats sont évalués en parallèle */
+    private static final int PROFONDEUR_PARALLELE = 2;
+
+    // Valeur d'une entrée : case du meilleur tir (6 bits), coût (6 bits), espérance en virgule fixe (52 bits)
+    private static final int BITS_CASE = 6;
+    private static final int BITS_COUT = 6;
+    private static final int DECALAGE_ESPERANCE = BITS_CASE + BITS_COUT;
+    private static final double UNITE = 0x1p44;
+
+    private static final int SIGNATURE = 0x534F4C58; // "SOLX"
+    private static final int VERSION = 2;
+
+    /** Solveurs déjà construits, indexés par grille et flotte */
+    private static final Map<String, SolveurExact> SOLVEURS = new ConcurrentHashMap<>();
+
+    private final int lignes;
+    private final int colonnes;
+    private final int[] tailleBateau;      // Dans l'ordre de pose, dont dépend la probabilité des flottes
+    private final int nbNavires;
+    private final int casesBateaux;         // Nombre total de cases de la flotte
+
+    // Flottes possibles : occupation, masque de chaque bateau (à plat) et probabilité
+    private final int nbFlottes;
+    private final long[] occupations;
+    private final long[] navires;
+    private final double[] probabilites;
+
+    // Table de transposition
+    private final int masqueEnsembles;
+    private final AtomicLongArray cles;     // situation ^ valeur
+    private final AtomicLongArray decoupes; // decoupe ^ valeur
+    private final AtomicLongArray valeurs;  // 0 pour une voie vide
+
+    private final LongAdder situations = new LongAdder();
+    private final LongAdder trouvees = new LongAdder();
+
+    /**
+     * Énumère les flottes possibles et crée une table vide.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param tailleBateau Composition de la flotte adverse, dans l'ordre de pose.
+     * @param capacite Nombre maximal de situations mémorisées (arrondi à une puissance de deux, au moins {@value #VOIES}).
+     */
+    public SolveurExact(int lignes, int colonnes, int[] tailleBateau, int capacite) {
+        if (lignes * colonnes > CASES_MAX) {
+            throw new IllegalArgumentException("Grille trop grande pour le solveur exact : " + lignes + "x" + colonnes);
+        }
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.tailleBateau = tailleBateau.clone();
+        this.nbNavires = tailleBateau.length;
+        int total = 0;
+        for (int taille : tailleBateau) total += taille;
+        this.casesBateaux = total;
+
+        // Placements de chaque bateau sous forme de masques
+        long[][] placements = new long[nbNavires][];
+        for (int i = 0; i < nbNavires; i++) {
+            TablePlacements table = TablePlacements.pour(lignes, colonnes, tailleBateau[i]);
+            placements[i] = new long[table.getNbPlacements()];
+            for (int p = 0; p < placements[i].length; p++) {
+                for (int k = 0, c = table.getIndex(p); k < tailleBateau[i]; k++, c += table.getPas(p)) {
+                    placements[i][p] |= 1L << c;
+                }
+            }
+        }
+        Enumeration enumeration = new Enumeration(placements);
+        enumeration.poser(0, 0L, 1.0);
+        if (enumeration.n == 0) {
+            throw new IllegalArgumentException("La flotte " + Arrays.toString(tailleBateau) + " ne tient pas sur la grille.");
+        }
+        this.nbFlottes = enumeration.n;
+        this.occupations = Arrays.copyOf(enumeration.occupations, nbFlottes);
+        this.navires = Arrays.copyOf(enumeration.navires, nbFlottes * nbNavires);
+        // Les flottes sans issue sont retirées par ajoutBateauAleatoire, qui recommence : on normalise
+        this.probabilites = Arrays.copyOf(enumeration.probabilites, nbFlottes);
+        for (int f = 0; f < nbFlottes; f++) probabilites[f] /= enumeration.somme;
+
+        int entrees = Integer.highestOneBit(Math.max(VOIES, capacite));
+        this.masqueEnsembles = entrees / VOIES - 1;
+        this.cles = new AtomicLongArray(entrees);
+        this.decoupes = new AtomicLongArray(entrees);
+        this.valeurs = new AtomicLongArray(entrees);
+    }
+
+    /**
+     * Retourne le solveur partagé d'une grille et d'une flotte, créé au premier appel avec la capacité par défaut.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param tailleBateau Composition de la flotte adverse, dans l'ordre de pose.
+     * @return Le solveur.
+     */
+    public static SolveurExact pour(int lignes, int colonnes, int[] tailleBateau) {
+        return SOLVEURS.computeIfAbsent(lignes + "x" + colonnes + Arrays.toString(tailleBateau),
+                cle -> new SolveurExact(lignes, colonnes, tailleBateau, CAPACITE_DEFAUT));
+    }
+
+    /**
+     * Énumération récursive des flottes, dans l'ordre de pose, avec leur probabilité.
+     */
+    private final class Enumeration {
+        private final long[][] placements;
+        private final long[] courant = new long[nbNavires];
+        private long[] occupations = new long[1024];
+        private long[] navires = new long[1024 * nbNavires];
+        private double[] probabilites = new double[1024];
+        private int n;
+        private double somme;
+
+        Enumeration(long[][] placements) {
+            this.placements = placements;
+        }
+
+        void poser(int i, long occupation, double probabilite) {
+            if (i == nbNavires) {
+                if (n == FLOTTES_MAX) {
+                    throw new IllegalArgumentException("Trop de flottes possibles pour le solveur exact.");
+                }
+                if (n == occupations.length) {
+                    occupations = Arrays.copyOf(occupations, 2 * n);
+                    navires = Arrays.copyOf(navires, 2 * n * nbNavires);
+                    probabilites = Arrays.copyOf(probabilites, 2 * n);
+                }
+                occupations[n] = occupation;
+                System.arraycopy(courant, 0, navires, n * nbNavires, nbNavires);
+                probabilites[n++] = probabilite;
+                somme += probabilite;
+                return;
+            }
+            int libres = 0;
+            for (long m : placements[i]) {
+                if ((m & occupation) == 0) libres++;
+            }
+            for (long m : placements[i]) {
+                if ((m & occupation) != 0) continue;
+                courant[i] = m;
+                poser(i + 1, occupation | m, probabilite / libres);
+            }
+        }
+    }
+
+    // --------------------- SITUATIONS ---------------------
+
+    /**
+     * Observations d'une grille : plan bas (cases ratées ou coulées), plan haut (cases touchées).
+     * Avec plusieurs bateaux coulés, la situation n'est complète qu'avec sa découpe.
+     * @param bits La grille adverse.
+     * @return Les observations.
+     */
+    public long situation(GrilleBits bits) {
+        verifierGrille(bits);
+        long tirs = bits.getTirs()[0];
+        long touches = bits.getTouches()[0];
+        long coules = bits.getCoules()[0];
+        return situation(tirs, touches, coules);
+    }
+
+    private static long situation(long tirs, long touches, long coules) {
+        return ((tirs & ~touches) | coules) | (touches << 32);
+    }
+
+    /**
+     * Découpe des cases coulées d'une grille en bateaux.
+     */
+    private long decoupe(GrilleBits bits) {
+        long decoupe = 0;
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            if (!bits.estCoule(b)) continue;
+            int origine = bits.getOrigineBateau(b);
+            int pas = ((origine & 1) != 0) ? colonnes : 1;
+            long navire = 0;
+            for (int k = 0, c = origine >>> 1; k < bits.getTailleBateau(b); k++, c += pas) navire |= 1L << c;
+            decoupe |= marque(navire);
+        }
+        return decoupe;
+    }
+
+    /**
+     * Part d'un bateau coulé dans la découpe : sa première case (plan bas) et, s'il est vertical, ses cases (plan haut).
+     * Sur une grille d'une colonne, un bateau vertical a ses cases consécutives et se lit comme horizontal.
+     */
+    private static long marque(long navire) {
+        boolean vertical = (navire & (navire >>> 1)) == 0 && (navire & (navire - 1)) != 0;
+        return Long.lowestOneBit(navire) | (vertical ? navire << 32 : 0);
+    }
+
+    private static long touches(long situation) {
+        return situation >>> 32;
+    }
+
+    private static long coules(long situation) {
+        return situation & (situation >>> 32);
+    }
+
+    private static long tirs(long situation) {
+        return (situation & 0xFFFFFFFFL) | (situation >>> 32);
+    }
+
+    private void verifierGrille(GrilleBits bits) {
+        if (bits.getLignes() != lignes || bits.getColonnes() != colonnes) {
+            throw new IllegalArgumentException("Le solveur couvre les grilles " + lignes + "x" + colonnes + ".");
+        }
+    }
+
+    /**
+     * Flottes compatibles avec une situation : pas de bateau sur une case ratée, un bateau sur chaque case touchée,
+     * et les bateaux entièrement touchés sont exactement ceux qui ont été annoncés coulés, selon la même découpe.
+     */
+    private int[] compatibles(long situation, long decoupe) {
+        long touches = touches(situation);
+        long rates = tirs(situation) & ~touches;
+        long coules = coules(situation);
+        int[] resultat = new int[nbFlottes];
+        int n = 0;
+        for (int f = 0; f < nbFlottes; f++) {
+            long occupation = occupations[f];
+            if ((occupation & rates) != 0 || (touches & ~occupation) != 0) continue;
+            long entierementTouches = 0;
+            long marques = 0;
+            for (int s = f * nbNavires; s < (f + 1) * nbNavires; s++) {
+                if ((navires[s] & ~touches) == 0) {
+                    entierementTouches |= navires[s];
+                    marques |= marque(navires[s]);
+                }
+            }
+            if (entierementTouches == coules && marques == decoupe) resultat[n++] = f;
+        }
+        return Arrays.copyOf(resultat, n);
+    }
+
+    // --------------------- RÉSOLUTION ---------------------
+
+    /**
+     * Espérance optimale du nombre de tirs pour couler toute la flotte, depuis une grille vierge.
+     * Le premier appel résout tout l'arbre, en parallèle.
+     * @return Le nombre moyen de tirs du joueur optimal.
+     */
+    public double esperance() {
+        return esperance(0L, 0L);
+    }
+
+    /**
+     * Espérance optimale du nombre de tirs restant à jouer depuis la situation d'une grille.
+     * @param bits La grille adverse.
+     * @return Le nombre moyen de tirs restants.
+     */
+    public double esperance(GrilleBits bits) {
+        return esperance(situation(bits), decoupe(bits));
+    }
+
+    /**
+     * Meilleur tir depuis la situation d'une grille.
+     * @param bits La grille adverse, dont la flotte n'est pas entièrement coulée.
+     * @return L'indice de la case à viser.
+     */
+    public int meilleurTir(GrilleBits bits) {
+        long situation = situation(bits);
+        long decoupe = decoupe(bits);
+        long valeur = chercher(situation, decoupe);
+        if (valeur == 0) {
+            esperance(situation, decoupe);
+            valeur = chercher(situation, decoupe);
+        }
+        if (valeur == 0) {
+            // Entrée évincée aussitôt par un autre thread : le tir est recalculé sans la table
+            return resoudre(situation, decoupe, compatibles(situation, decoupe), PROFONDEUR_PARALLELE).meilleureCase;
+        }
+        return caseDe(valeur);
+    }
+
+    private double esperance(long situation, long decoupe) {
+        long valeur = chercher(situation, decoupe);
+        if (valeur != 0) return esperanceDe(valeur);
+        int[] flottes = compatibles(situation, decoupe);
+        if (flottes.length == 0) {
+            throw new IllegalArgumentException("Aucune flotte n'est compatible avec la situation.");
+        }
+        return ForkJoinPool.commonPool().invoke(new Resolution(situation, decoupe, flottes, 0)).esperance;
+    }
+
+    /** Résultat de la résolution d'une situation */
+    private static final class Resultat {
+        final double esperance;
+        final int meilleureCase;
+
+        Resultat(double esperance, int meilleureCase) {
+            this.esperance = esperance;
+            this.meilleureCase = meilleureCase;
+        }
+    }
+
+    /**
+     * Résolution d'une situation, dont les premiers niveaux se répartissent sur le pool.
+     */
+    private final class Resolution extends RecursiveTask<Resultat> {
+        private static final long serialVersionUID = 1L;
+        private final long situation;
+        private final long decoupe;
+        private final int[] flottes;
+        private final int profondeur;
+
+        Resolution(long situation, long decoupe, int[] flottes, int profondeur) {
+            this.situation = situation;
+            this.decoupe = decoupe;
+            this.flottes = flottes;
+            this.profondeur = profondeur;
+        }
+
+        @Override
+        protected Resultat compute() {
+            return resoudre(situation, decoupe, flottes, profondeur);
+        }
+    }
+
+    /**
+     * Évaluation d'un tir candidat sur un autre thread, bornée par le meilleur tir connu au lancement.
+     */
+    private final class EvaluationTir extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        private final long situation;
+        private final long decoupe;
+        private final int[] flottes;
+        private final int cellule;
+        private final double borne;
+        private final int profondeur;
+
+        EvaluationTir(long situation, long decoupe, int[] flottes, int cellule, double borne, int profondeur) {
+            this.situation = situation;
+            this.decoupe = decoupe;
+            this.flottes = flottes;
+            this.cellule = cellule;
+            this.borne = borne;
+            this.profondeur = profondeur;
+        }
+
+        @Override
+        protected Double compute() {
+            return evaluer(situation, decoupe, flottes, cellule, borne, profondeur);
+        }
+    }
+
+    /**
+     * Espérance et meilleur tir d'une situation dont les flottes compatibles sont données.
+     */
+    private Resultat resoudre(long situation, long decoupe, int[] flottes, int profondeur) {
+        int restantes = casesBateaux - Long.bitCount(touches(situation));
+        if (restantes == 0) return new Resultat(0, -1);
+        long valeur = chercher(situation, decoupe);
+        if (valeur != 0) return new Resultat(esperanceDe(valeur), caseDe(valeur));
+        situations.increment();
+
+        // Probabilité d'occupation de chaque case inconnue ; une case sûrement vide n'apprend rien et n'est pas tirée
+        long inconnues = ~tirs(situation) & ((1L << (lignes * colonnes)) - 1);
+        double[] occupation = new double[lignes * colonnes];
+        for (int f : flottes) {
+            long occupees = occupations[f] & inconnues;
+            while (occupees != 0) {
+                occupation[Long.numberOfTrailingZeros(occupees)] += probabilites[f];
+                occupees &= occupees - 1;
+            }
+        }
+        // Candidats des plus probables aux moins probables : le premier donne vite une bonne borne
+        Integer[] candidats = new Integer[Long.bitCount(inconnues)];
+        int n = 0;
+        for (long m = inconnues; m != 0; m &= m - 1) {
+            int c = Long.numberOfTrailingZeros(m);
+            if (occupation[c] > 0) candidats[n++] = c;
+        }
+        Integer[] tries = Arrays.copyOf(candidats, n);
+        Arrays.sort(tries, (a, b) -> Double.compare(occupation[b], occupation[a]));
+
+        double meilleur = Double.POSITIVE_INFINITY;
+        int meilleureCase = -1;
+        if (profondeur < PROFONDEUR_PARALLELE && n > 1) {
+            // Le premier candidat fixe la borne, les autres sont évalués en parallèle
+            meilleur = evaluer(situation, decoupe, flottes, tries[0], meilleur, profondeur);
+            meilleureCase = tries[0];
+            List<EvaluationTir> taches = new ArrayList<>();
+            for (int i = 1; i < n; i++) {
+                taches.add(new EvaluationTir(situation, decoupe, flottes, tries[i], meilleur, profondeur));
+            }
+            for (EvaluationTir tache : RecursiveTask.invokeAll(taches)) {
+                double v = tache.join();
+                if (v < meilleur) {
+                    meilleur = v;
+                    meilleureCase = tache.cellule;
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                double v = evaluer(situation, decoupe, flottes, tries[i], meilleur, profondeur);
+                if (v < meilleur) {
+                    meilleur = v;
+                    meilleureCase = tries[i];
+                }
+            }
+        }
+        memoriser(situation, decoupe, meilleur, meilleureCase, flottes.length);
+        return new Resultat(meilleur, meilleureCase);
+    }
+
+    /**
+     * Espérance d'un tir : un tir, plus la moyenne des espérances des situations qu'il peut produire.
+     * @return L'espérance, ou l'infini si elle ne peut pas descendre sous la borne.
+     */
+    private double evaluer(long situation, long decoupe, int[] flottes, int cellule, double borne, int profondeur) {
+        long bit = 1L << cellule;
+        long touches = touches(situation);
+        long coules = coules(situation);
+
+        // Répartition des flottes selon l'observation : raté, touché, ou coulé (un groupe par bateau révélé)
+        int[] groupeDe = new int[flottes.length];
+        long[] observations = new long[8];      // 0 : raté, 1 : touché, sinon le masque du bateau coulé
+        double[] poids = new double[8];
+        int[] effectifs = new int[8];
+        int nbGroupes = 0;
+        for (int i = 0; i < flottes.length; i++) {
+            int f = flottes[i];
+            long observation = 0;
+            if ((occupations[f] & bit) != 0) {
+                observation = 1;
+                for (int s = f * nbNavires; s < (f + 1) * nbNavires; s++) {
+                    if ((navires[s] & bit) != 0) {
+                        if ((navires[s] & ~(touches | bit)) == 0) observation = navires[s];
+                        break;
+                    }
+                }
+            }
+            int g = 0;
+            while (g < nbGroupes && observations[g] != observation) g++;
+            if (g == nbGroupes) {
+                if (nbGroupes == observations.length) {
+                    observations = Arrays.copyOf(observations, 2 * nbGroupes);
+                    poids = Arrays.copyOf(poids, 2 * nbGroupes);
+                    effectifs = Arrays.copyOf(effectifs, 2 * nbGroupes);
+                }
+                observations[g] = observation;
+                nbGroupes++;
+            }
+            groupeDe[i] = g;
+            poids[g] += probabilites[f];
+            effectifs[g]++;
+        }
+
+        // Situation suivante et minorant de chaque groupe
+        double total = 0;
+        for (int g = 0; g < nbGroupes; g++) total += poids[g];
+        long restantes = casesBateaux - Long.bitCount(touches);
+        long[] suivantes = new long[nbGroupes];
+        long[] decoupesSuivantes = new long[nbGroupes];
+        double minorant = 1;
+        for (int g = 0; g < nbGroupes; g++) {
+            long observation = observations[g];
+            long tirs = tirs(situation) | bit;
+            suivantes[g] = (observation == 0) ? situation(tirs, touches, coules)
+                    : situation(tirs, touches | bit, (observation == 1) ? coules : coules | observation);
+            decoupesSuivantes[g] = (observation > 1) ? decoupe | marque(observation) : decoupe;
+            minorant += poids[g] / total * (restantes - ((observation == 0) ? 0 : 1));
+        }
+        if (minorant >= borne) return Double.POSITIVE_INFINITY;
+
+        // Groupes des plus probables aux moins probables
+        Integer[] ordre = new Integer[nbGroupes];
+        for (int g = 0; g < nbGroupes; g++) ordre[g] = g;
+        double[] poidsGroupes = poids;
+        Arrays.sort(ordre, (a, b) -> Double.compare(poidsGroupes[b], poidsGroupes[a]));
+        int[][] membres = new int[nbGroupes][];
+        for (int g = 0; g < nbGroupes; g++) membres[g] = new int[effectifs[g]];
+        int[] remplis = new int[nbGroupes];
+        for (int i = 0; i < flottes.length; i++) {
+            membres[groupeDe[i]][remplis[groupeDe[i]]++] = flottes[i];
+        }
+
+        double somme = minorant;
+        for (int g : ordre) {
+            double p = poids[g] / total;
+            double minorantGroupe = restantes - ((observations[g] == 0) ? 0 : 1);
+            somme += p * (resoudre(suivantes[g], decoupesSuivantes[g], membres[g], profondeur + 1).esperance - minorantGroupe);
+            if (somme >= borne) return Double.POSITIVE_INFINITY;
+        }
+        return somme;
+    }
+
+    // --------------------- TABLE DE TRANSPOSITION ---------------------
+
+    private int ensemble(long situation, long decoupe) {
+        long z = situation * 0x9E3779B97F4A7C15L + decoupe * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 32)) * 0xBF58476D1CE4E5B9L;
+        return (int) (z >>> 40) & masqueEnsembles;
+    }
+
+    /**
+     * Cherche une situation dans la table.
+     * @return La valeur de l'entrée, ou 0 si la situation n'y est pas.
+     */
+    private long chercher(long situation, long decoupe) {
+        int debut = ensemble(situation, decoupe) * VOIES;
+        for (int v = debut; v < debut + VOIES; v++) {
+            long valeur = valeurs.getOpaque(v);
+            if (valeur != 0 && (cles.getOpaque(v) ^ valeur) == situation && (decoupes.getOpaque(v) ^ valeur) == decoupe) {
+                trouvees.increment();
+                return valeur;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Mémorise une situation résolue, à la place de la même situation, d'une voie vide,
+     * ou à défaut de l'entrée la moins coûteuse de l'ensemble.
+     */
+    private void memoriser(long situation, long decoupe, double esperance, int meilleureCase, int flottes) {
+        int cout = Math.min((1 << BITS_COUT) - 1, 64 - Long.numberOfLeadingZeros(flottes));
+        long valeur = (Math.round(esperance * UNITE) << DECALAGE_ESPERANCE) | ((long) cout << BITS_CASE) | meilleureCase;
+        int debut = ensemble(situation, decoupe) * VOIES;
+        int cible = -1;
+        int coutCible = Integer.MAX_VALUE;
+        for (int v = debut; v < debut + VOIES; v++) {
+            long existante = valeurs.getOpaque(v);
+            if (existante == 0
+                    || (cles.getOpaque(v) ^ existante) == situation && (decoupes.getOpaque(v) ^ existante) == decoupe) {
+                cible = v;
+                break;
+            }
+            int c = coutDe(existante);
+            if (c < coutCible) {
+                coutCible = c;
+                cible = v;
+            }
+        }
+        if (cible < 0 || coutCible > cout && coutCible != Integer.MAX_VALUE) return;
+        ecrire(cible, situation, decoupe, valeur);
+    }
+
+    private void ecrire(int voie, long situation, long decoupe, long valeur) {
+        valeurs.setOpaque(voie, valeur);
+        cles.setOpaque(voie, situation ^ valeur);
+        decoupes.setOpaque(voie, decoupe ^ valeur);
+    }
+
+    private static double esperanceDe(long valeur) {
+        return (valeur >>> DECALAGE_ESPERANCE) / UNITE;
+    }
+
+    private static int coutDe(long valeur) {
+        return (int) (valeur >>> BITS_CASE) & ((1 << BITS_COUT) - 1);
+    }
+
+    private static int caseDe(long valeur) {
+        return (int) valeur & ((1 << BITS_CASE) - 1);
+    }
+
+    // --------------------- PERSISTANCE ---------------------
+
+    /**
+     * Enregistre la table sur disque, des situations les plus coûteuses aux moins coûteuses.
+     * @param fichier Le chemin du fichier.
+     * @throws IOException Si le fichier ne peut être écrit.
+     */
+    public void enregistrer(Path fichier) throws IOException {
+        int n = 0;
+        long[] triees = new long[valeurs.length()];
+        for (int v = 0; v < valeurs.length(); v++) {
+            long valeur = valeurs.get(v);
+            if (valeur != 0) triees[n++] = ((long) ((1 << BITS_COUT) - coutDe(valeur)) << 32) | v;
+        }
+        Arrays.sort(triees, 0, n);
+
+        try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier)))) {
+            sortie.writeInt(SIGNATURE);
+            sortie.writeByte(VERSION);
+            sortie.writeByte(lignes);
+            sortie.writeByte(colonnes);
+            sortie.writeByte(nbNavires);
+            for (int taille : tailleBateau) sortie.writeByte(taille);
+            sortie.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                int v = (int) triees[i];
+                long valeur = valeurs.get(v);
+                sortie.writeLong(cles.get(v) ^ valeur);
+                sortie.writeLong(decoupes.get(v) ^ valeur);
+                sortie.writeLong(valeur);
+            }
+        }
+    }
+
+    /**
+     * Charge une table enregistrée. Si le fichier compte plus d'entrées que la capacité, les situations
+     * les plus coûteuses, rangées en tête du fichier, sont gardées de préférence.
+     * @param fichier Le chemin du fichier.
+     * @param capacite Nombre maximal de situations en mémoire.
+     * @return Le solveur, dont la table est préremplie.
+     * @throws IOException Si le fichier ne peut être lu ou n'est pas une table du solveur.
+     */
+    public static SolveurExact charger(Path fichier, int capacite) throws IOException {
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (entree.readInt() != SIGNATURE) {
+                throw new IOException("Ce fichier n'est pas une table du solveur exact.");
+            }
+            if (entree.readByte() != VERSION) {
+                throw new IOException("Table du solveur exact d'une version antérieure : supprimez-la pour la recalculer.");
+            }
+            int lignes = entree.readUnsignedByte();
+            int colonnes = entree.readUnsignedByte();
+            int[] tailleBateau = new int[entree.readUnsignedByte()];
+            for (int i = 0; i < tailleBateau.length; i++) tailleBateau[i] = entree.readUnsignedByte();
+            SolveurExact solveur = new SolveurExact(lignes, colonnes, tailleBateau, capacite);
+
+            int n = entree.readInt();
+            for (int i = 0; i < n; i++) {
+                long situation = entree.readLong();
+                long decoupe = entree.readLong();
+                long valeur = entree.readLong();
+                solveur.ajouterSiPlace(situation, decoupe, valeur);
+            }
+            return solveur;
+        }
+    }
+
+    /**
+     * Ajout au chargement : une entrée n'en évince jamais une autre, plus coûteuse, déjà chargée.
+     */
+    private void ajouterSiPlace(long situation, long decoupe, long valeur) {
+        int debut = ensemble(situation, decoupe) * VOIES;
+        for (int v = debut; v < debut + VOIES; v++) {
+            if (valeurs.get(v) == 0) {
+                ecrire(v, situation, decoupe, valeur);
+                return;
+            }
+        }
+    }
+
+    // --------------------- GETTERS ---------------------
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+
+    public int[] getTailleBateau() {
+        return tailleBateau.clone();
+    }
+
+    /**
+     * Retourne le nombre de flottes possibles.
+     * @return Le nombre de flottes énumérées.
+     */
+    public int getNombreFlottes() {
+        return nbFlottes;
+    }
+
+    public int getCapacite() {
+        return valeurs.length();
+    }
+
+    /**
+     * Retourne le nombre de situations mémorisées.
+     * @return Le nombre d'entrées occupées de la table.
+     */
+    public int taille() {
+        int n = 0;
+        for (int v = 0; v < valeurs.length(); v++) {
+            if (valeurs.get(v) != 0) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Retourne le nombre de situations résolues (hors table) depuis la création du solveur.
+     * @return Le nombre de situations calculées.
+     */
+    public long getSituationsResolues() {
+        return situations.sum();
+    }
+
+    /**
+     * Retourne le nombre de situations retrouvées dans la table.
+     * @return Le nombre de succès de la table.
+     */
+    public long getSituationsTrouvees() {
+        return trouvees.sum();
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Table de hachage à adressage ouvert associant un indice de cellule ({@code x * colonnes + y}) à une valeur.
+ * Les clés sont des entiers primitifs rangés dans un simple tableau, sondés linéairement :
+ * aucune clé n'est emballée et aucune entrée n'est allouée.
+ * C'est le stockage des grilles creuses, qui ne matérialisent que les cellules réellement utilisées
+ * ({@link Cellule}), et l'index des bateaux des grandes grilles de bits (identifiant du bateau de chaque cellule).
+ * @param <V> Type des valeurs.
+ */
+public final class TableCellules<V> {
+
+    private static final int VIDE = -1;            // Clé d'une case libre (les indices de cellule sont positifs)
+    private static final int CAPACITE_INITIALE = 16;
+
+    private int[] cles;
+    private V[] valeurs;
+    private int taille;                              // Nombre d'entrées
+    private int masque;                              // Capacité - 1 (la capacité est une puissance de 2)
+
+    /**
+     * Constructeur d'une table vide.
+     */
+    public TableCellules() {
+        allouer(CAPACITE_INITIALE);
+    }
+
+    private void allouer(int capacite) {
+        this.cles = new int[capacite];
+        Arrays.fill(cles, VIDE);
+        @SuppressWarnings("unchecked")
+        V[] tableau = (V[]) new Object[capacite];
+        this.valeurs = tableau;
+        this.masque = capacite - 1;
+        this.taille = 0;
+    }
+
+    /**
+     * Mélange l'indice pour répartir les lignes et colonnes voisines dans toute la table.
+     */
+    private int position(int index) {
+        int h = index * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & masque;
+    }
+
+    /**
+     * Retourne le nombre d'entrées de la table.
+     * @return Le nombre d'entrées.
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Retourne la valeur associée à un indice.
+     * @param index Indice de la cellule.
+     * @return La valeur, ou null si l'indice est absent.
+     */
+    public V get(int index) {
+        for (int i = position(index); ; i = (i + 1) & masque) {
+            int cle = cles[i];
+            if (cle == index) return valeurs[i];
+            if (cle == VIDE) return null;
+        }
+    }
+
+    /**
+     * Associe une valeur à un indice, en remplaçant la précédente s'il y en avait une.
+     * @param index Indice de la cellule.
+     * @param valeur La valeur à ranger.
+     */
+    public void put(int index, V valeur) {
+        // Facteur de charge maximal 1/2 : les sondages restent courts
+        if (2 * (taille + 1) > cles.length) {
+            redimensionner(2 * cles.length);
+        }
+        for (int i = position(index); ; i = (i + 1) & masque) {
+            int cle = cles[i];
+            if (cle == index) {
+                valeurs[i] = valeur;
+                return;
+            }
+            if (cle == VIDE) {
+                cles[i] = index;
+                valeurs[i] = valeur;
+                taille++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retire toutes les valeurs qui vérifient une condition.
+     * La table est reconstruite avec les valeurs conservées, ce qui évite les marqueurs de suppression.
+     * @param condition Condition de retrait.
+     */
+    public void retirerSi(Predicate<? super V> condition) {
+        int[] anciennesCles = cles;
+        V[] anciennesValeurs = valeurs;
+        int conservees = 0;
+        for (int i = 0; i < anciennesCles.length; i++) {
+            if (anciennesCles[i] != VIDE && !condition.test(anciennesValeurs[i])) conservees++;
+        }
+        if (conservees == taille) return;
+
+        int capacite = CAPACITE_INITIALE;
+        while (capacite < 2 * conservees) capacite <<= 1;
+        allouer(capacite);
+        for (int i = 0; i < anciennesCles.length; i++) {
+            if (anciennesCles[i] != VIDE && !condition.test(anciennesValeurs[i])) {
+                put(anciennesCles[i], anciennesValeurs[i]);
+            }
+        }
+    }
+
+    private void redimensionner(int capacite) {
+        int[] anciennesCles = cles;
+        V[] anciennesValeurs = valeurs;
+        allouer(capacite);
+        for (int i = 0; i < anciennesCles.length; i++) {
+            if (anciennesCles[i] != VIDE) {
+                put(anciennesCles[i], anciennesValeurs[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table précalculée de tous les placements possibles d'un bateau d'une taille donnée sur une grille vide.
+ * Sur les petites grilles, chaque placement est aussi stocké sous forme de masque de bits (même découpage que {@link GrilleBits}),
+ * ce qui permet de savoir en une ou deux opérations s'il chevauche les bateaux déjà posés ; au-delà,
+ * un masque par placement coûterait une place proportionnelle au carré de la surface, et les cellules
+ * du placement sont testées une à une.
+ * Les tables ne dépendent que des dimensions et de la taille du bateau : elles sont calculées une seule fois
+ * et partagées entre tous les joueurs et tous les threads.
+ */
+public final class TablePlacements {
+
+    /** Tables déjà calculées, indexées par (lignes, colonnes, taille) */
+    private static final ConcurrentHashMap<Long, TablePlacements> TABLES = new ConcurrentHashMap<>();
+
+    /** Nombre maximal de longs par masque pour que les masques des placements soient conservés */
+    private static final int MOTS_MASQUES_MAX = 8;
+
+    private final int colonnes;
+    private final int taille;
+    private final int nbMots;          // Nombre de longs par masque
+    private final int nbPlacements;    // Nombre de placements possibles
+    private final long[] masques;      // Masques des placements, mis bout à bout (null sur une grande grille)
+    private final int[] origines;      // Indice de la première cellule << 1 | 1 si vertical
+    private final int[] debutCouvrants; // Pour chaque cellule, début de sa liste dans couvrants
+    private final int[] couvrants;      // Placements couvrant chaque cellule, cellule après cellule
+
+    private TablePlacements(int lignes, int colonnes, int taille) {
+        this.colonnes = colonnes;
+        this.taille = taille;
+        this.nbMots = (lignes * colonnes + 63) >>> 6;
+
+        int horizontaux = (taille <= colonnes) ? lignes * (colonnes - taille + 1) : 0;
+        int verticaux = (taille <= lignes) ? (lignes - taille + 1) * colonnes : 0;
+        // Un bateau de taille 1 a le même masque dans les deux orientations : on ne le compte qu'une fois
+        if (taille == 1) verticaux = 0;
+        this.nbPlacements = horizontaux + verticaux;
+        this.masques = (nbMots <= MOTS_MASQUES_MAX) ? new long[nbPlacements * nbMots] : null;
+        this.origines = new int[nbPlacements];
+
+        int p = 0;
+        for (int x = 0; x < lignes; x++) {
+            for (int y = 0; y < colonnes; y++) {
+                if (y + taille <= colonnes) {
+                    ajouter(p++, x * colonnes + y, false);
+                }
+                if (taille > 1 && x + taille <= lignes) {
+                    ajouter(p++, x * colonnes + y, true);
+                }
+            }
+        }
+
+        // Index inverse : pour chaque cellule, les placements qui la couvrent
+        int cellules = lignes * colonnes;
+        this.debutCouvrants = new int[cellules + 1];
+        for (p = 0; p < nbPlacements; p++) {
+            for (int k = 0, i = getIndex(p); k < taille; k++, i += getPas(p)) {
+                debutCouvrants[i + 1]++;
+            }
+        }
+        for (int i = 0; i < cellules; i++) {
+            debutCouvrants[i + 1] += debutCouvrants[i];
+        }
+        this.couvrants = new int[nbPlacements * taille];
+        int[] remplis = debutCouvrants.clone();
+        for (p = 0; p < nbPlacements; p++) {
+            for (int k = 0, i = getIndex(p); k < taille; k++, i += getPas(p)) {
+                couvrants[remplis[i]++] = p;
+            }
+        }
+    }
+
+    /**
+     * Inscrit un placement dans la table.
+     */
+    private void ajouter(int p, int index, boolean estVertical) {
+        origines[p] = (index << 1) | (estVertical ? 1 : 0);
+        if (masques == null) return;
+        int pas = estVertical ? colonnes : 1;
+        for (int k = 0, i = index; k < taille; k++, i += pas) {
+            masques[p * nbMots + (i >>> 6)] |= 1L << i;
+        }
+    }
+
+    /**
+     * Retourne la table des placements pour une grille et une taille de bateau, en la calculant au premier appel.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param taille Taille du bateau.
+     * @return La table partagée correspondante.
+     */
+    public static TablePlacements pour(int lignes, int colonnes, int taille) {
+        long cle = ((long) lignes << 40) | ((long) colonnes << 20) | taille;
+        TablePlacements table = TABLES.get(cle);
+        if (table == null) {
+            table = TABLES.computeIfAbsent(cle, c -> new TablePlacements(lignes, colonnes, taille));
+        }
+        return table;
+    }
+
+    // --------------------- GETTERS ---------------------
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public int getNbPlacements() {
+        return nbPlacements;
+    }
+
+    /**
+     * Retourne l'indice (dans les masques) de la première cellule d'un placement.
+     * @param p Numéro du placement.
+     * @return L'indice de la première cellule.
+     */
+    public int getIndex(int p) {
+        return origines[p] >>> 1;
+    }
+
+    public int getX(int p) {
+        return getIndex(p) / colonnes;
+    }
+
+    public int getY(int p) {
+        return getIndex(p) % colonnes;
+    }
+
+    public boolean estVertical(int p) {
+        return (origines[p] & 1) != 0;
+    }
+
+    /**
+     * Retourne l'écart d'indice entre deux cellules consécutives d'un placement.
+     * @param p Numéro du placement.
+     * @return 1 pour un placement horizontal, le nombre de colonnes pour un placement vertical.
+     */
+    public int getPas(int p) {
+        return estVertical(p) ? colonnes : 1;
+    }
+
+    /**
+     * Retourne le début, dans {@link #getCouvrants()}, de la liste des placements couvrant une cellule.
+     * La liste s'arrête à {@code debutCouvrants(index + 1)}.
+     * @param index Indice de la cellule.
+     * @return La position du premier placement couvrant la cellule.
+     */
+    public int debutCouvrants(int index) {
+        return debutCouvrants[index];
+    }
+
+    /**
+     * Retourne les numéros des placements couvrant chaque cellule, rangés cellule par cellule (à ne pas modifier).
+     * @return Le tableau des placements couvrants.
+     */
+    public int[] getCouvrants() {
+        return couvrants;
+    }
+
+    /**
+     * Compte les cellules d'un placement présentes dans un masque.
+     * @param p Numéro du placement.
+     * @param masque Le masque à intersecter.
+     * @return Le nombre de cellules communes.
+     */
+    public int intersection(int p, long[] masque) {
+        int n = 0;
+        if (masques == null) {
+            for (int k = 0, i = getIndex(p), pas = getPas(p); k < taille; k++, i += pas) {
+                if ((masque[i >>> 6] & (1L << i)) != 0) n++;
+            }
+            return n;
+        }
+        int base = p * nbMots;
+        for (int m = 0; m < nbMots; m++) {
+            n += Long.bitCount(masques[base + m] & masque[m]);
+        }
+        return n;
+    }
+
+    // --------------------- COMPATIBILITÉ ---------------------
+
+    /**
+     * Vérifie qu'un placement ne chevauche aucune cellule d'un masque.
+     * @param p Numéro du placement.
+     * @param masque Masque des cellules interdites (par exemple l'occupation de la grille).
+     * @return true si le placement est compatible, sinon false.
+     */
+    public boolean estCompatible(int p, long[] masque) {
+        if (masques == null) {
+            for (int k = 0, i = getIndex(p), pas = getPas(p); k < taille; k++, i += pas) {
+                if ((masque[i >>> 6] & (1L << i)) != 0) return false;
+            }
+            return true;
+        }
+        int base = p * nbMots;
+        for (int m = 0; m < nbMots; m++) {
+            if ((masques[base + m] & masque[m]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Liste les placements qui ne chevauchent aucune cellule d'un masque.
+     * @param masque Masque des cellules interdites.
+     * @param resultat Tableau recevant les numéros des placements compatibles (au moins {@link #getNbPlacements()} cases).
+     * @return Le nombre de placements compatibles écrits dans le tableau.
+     */
+    public int compatibles(long[] masque, int[] resultat) {
+        int n = 0;
+        for (int p = 0; p < nbPlacements; p++) {
+            if (estCompatible(p, masque)) {
+                resultat[n++] = p;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,204 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Termes de Zobrist des grilles d'une dimension donnée, pour résumer une situation par une clé de 64 bits.
+ * La clé d'une situation est le ou exclusif des termes de ses cases visées, chacune selon son état (raté, touché
+ * ou coulé) : elle ne dépend pas de l'ordre des tirs et se met à jour en une opération par tir, ce que fait
+ * {@link GrilleBits#tirer(int)}. La position d'une flotte a de même sa clé, un terme par bateau posé.
+ * <p>
+ * Une grille a aussi ses symétries : les quatre symétries d'un rectangle (identité, miroirs, demi-tour),
+ * et les huit du carré, qui ajoute les quarts de tour et les diagonales. Deux situations images l'une de l'autre
+ * se valent, et la clé canonique d'une situation est la plus petite des clés de ses images. Seule la clé de
+ * l'identité est tenue à jour à chaque tir : suivre aussi les huit images coûterait plus d'un dixième du débit
+ * d'une simulation, alors que la forme canonique n'est demandée qu'en quelques situations (celles d'un livre
+ * d'ouvertures). Les clés des images sont donc calculées à la demande, en un parcours des cases visées.
+ * Au-delà de {@value #CELLULES_SYMETRIES_MAX} cellules, seule l'identité est suivie et les termes
+ * sont calculés à la demande plutôt que tabulés.
+ * <p>
+ * Les tables ne dépendent que des dimensions : elles sont calculées une seule fois et partagées entre
+ * toutes les grilles et tous les threads.
+ */
+public final class TableZobrist {
+
+    /** États d'une case visée ; sur une case coulée, {@link #COULE} s'ajoute au terme {@link #TOUCHE} */
+    public static final int RATE = 0;
+    public static final int TOUCHE = 1;
+    public static final int COULE = 2;
+    private static final int ETATS = 3;
+
+    /** Nombre maximal de cellules pour que les symétries soient suivies et les termes tabulés */
+    public static final int CELLULES_SYMETRIES_MAX = 1024;
+
+    /** Tables déjà calculées, indexées par (lignes, colonnes) */
+    private static final ConcurrentHashMap<Long, TableZobrist> TABLES = new ConcurrentHashMap<>();
+
+    private final int lignes;
+    private final int colonnes;
+    private final int cellules;
+    private final int nbSymetries;
+    private final long graine;          // Propre aux dimensions : deux grilles différentes n'ont pas les mêmes termes
+    private final long graineFlotte;
+    private final int[] images;         // Image de chaque cellule par chaque symétrie, symétrie après symétrie
+    private final int[] antecedents;    // Antécédent de chaque cellule par chaque symétrie
+    private final long[] termes;        // Terme de chaque (symétrie, état, cellule), null sur une grande grille
+
+    private TableZobrist(int lignes, int colonnes) {
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.cellules = lignes * colonnes;
+        this.graine = GenerateurSplitMix.melanger(((long) lignes << 32) | colonnes);
+        this.graineFlotte = GenerateurSplitMix.melanger(graine ^ 0x464C4F54L);   // "FLOT"
+        if (cellules > CELLULES_SYMETRIES_MAX) {
+            this.nbSymetries = 1;
+            this.images = null;
+            this.antecedents = null;
+            this.termes = null;
+            return;
+        }
+
+        this.nbSymetries = (lignes == colonnes) ? 8 : 4;
+        this.images = new int[nbSymetries * cellules];
+        this.antecedents = new int[nbSymetries * cellules];
+        this.termes = new long[nbSymetries * ETATS * cellules];
+        for (int s = 0; s < nbSymetries; s++) {
+            for (int x = 0; x < lignes; x++) {
+                for (int y = 0; y < colonnes; y++) {
+                    int i = x * colonnes + y;
+                    int j = transformer(s, x, y);
+                    images[s * cellules + i] = j;
+                    antecedents[s * cellules + j] = i;
+                    for (int etat = 0; etat < ETATS; etat++) {
+                        termes[(s * ETATS + etat) * cellules + i] = base(etat, j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retourne la table d'une dimension de grille, calculée au premier appel.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @return La table partagée.
+     */
+    public static TableZobrist pour(int lignes, int colonnes) {
+        long cle = ((long) lignes << 32) | colonnes;
+        TableZobrist table = TABLES.get(cle);
+        return (table != null) ? table : TABLES.computeIfAbsent(cle, c -> new TableZobrist(lignes, colonnes));
+    }
+
+    /**
+     * Indice de l'image d'une cellule (x, y) par une symétrie.
+     */
+    private int transformer(int s, int x, int y) {
+        int dx = lignes - 1 - x;
+        int dy = colonnes - 1 - y;
+        switch (s) {
+            case 0: return x * colonnes + y;
+            case 1: return x * colonnes + dy;     // Miroir gauche-droite
+            case 2: return dx * colonnes + y;     // Miroir haut-bas
+            case 3: return dx * colonnes + dy;    // Demi-tour
+            // Symétries propres au carré (colonnes == lignes)
+            case 4: return y * colonnes + x;      // Diagonale
+            case 5: return y * colonnes + dx;     // Quart de tour
+            case 6: return dy * colonnes + x;     // Quart de tour inverse
+            default: return dy * colonnes + dx;   // Anti-diagonale
+        }
+    }
+
+    // --------------------- TERMES ---------------------
+
+    public int getLignes() {
+        return lignes;
+    }
+
+    public int getColonnes() {
+        return colonnes;
+    }
+
+    /**
+     * Retourne le nombre de symétries suivies ; la symétrie 0 est l'identité.
+     * @return 8 pour une grille carrée, 4 pour une grille rectangulaire, 1 pour une grande grille.
+     */
+    public int getNbSymetries() {
+        return nbSymetries;
+    }
+
+    /**
+     * Retourne l'image d'une cellule par une symétrie.
+     * @param symetrie La symétrie, de 0 à {@link #getNbSymetries()} - 1.
+     * @param index Indice de la cellule.
+     * @return Indice de la cellule image.
+     */
+    public int image(int symetrie, int index) {
+        return (images == null) ? index : images[symetrie * cellules + index];
+    }
+
+    /**
+     * Retourne la cellule dont une cellule est l'image par une symétrie.
+     * @param symetrie La symétrie, de 0 à {@link #getNbSymetries()} - 1.
+     * @param index Indice de la cellule image.
+     * @return Indice de la cellule d'origine.
+     */
+    public int antecedent(int symetrie, int index) {
+        return (antecedents == null) ? index : antecedents[symetrie * cellules + index];
+    }
+
+    /**
+     * Retourne le terme d'une case visée dans la clé de l'image de la situation par une symétrie.
+     * @param symetrie La symétrie.
+     * @param etat {@link #RATE}, {@link #TOUCHE} ou {@link #COULE}.
+     * @param index Indice de la case.
+     * @return Le terme, à combiner par ou exclusif.
+     */
+    public long terme(int symetrie, int etat, int index) {
+        return (termes != null) ? termes[(symetrie * ETATS + etat) * cellules + index] : base(etat, index);
+    }
+
+    /**
+     * Retourne le terme d'un bateau posé dans la clé de l'image de la flotte par une symétrie.
+     * Un bateau est repéré par ses deux extrémités, que la symétrie peut échanger.
+     * @param symetrie La symétrie.
+     * @param origine Indice de la première cellule du bateau.
+     * @param taille Taille du bateau.
+     * @param vertical true si le bateau est vertical.
+     * @return Le terme, à combiner par ou exclusif.
+     */
+    public long termeBateau(int symetrie, int origine, int taille, boolean vertical) {
+        int a = image(symetrie, origine);
+        int b = image(symetrie, origine + (taille - 1) * (vertical ? colonnes : 1));
+        return GenerateurSplitMix.melanger(graineFlotte + (long) Math.min(a, b) * cellules + Math.max(a, b));
+    }
+
+    /**
+     * Calcule à partir des masques la clé de l'image par une symétrie de la situation d'une grille.
+     * @param symetrie La symétrie.
+     * @param bits Les masques de la grille, aux dimensions de la table.
+     * @return La clé ; pour l'identité, égale à celle que la grille tient à jour.
+     */
+    public long cle(int symetrie, GrilleBits bits) {
+        long[] tirs = bits.getTirs();
+        long[] touches = bits.getTouches();
+        long[] coules = bits.getCoules();
+        long h = 0;
+        for (int m = 0; m < tirs.length; m++) {
+            for (long t = tirs[m]; t != 0; t &= t - 1) {
+                long bit = t & -t;
+                int i = (m << 6) + Long.numberOfTrailingZeros(t);
+                if ((touches[m] & bit) == 0) {
+                    h ^= terme(symetrie, RATE, i);
+                } else {
+                    h ^= terme(symetrie, TOUCHE, i);
+                    if ((coules[m] & bit) != 0) h ^= terme(symetrie, COULE, i);
+                }
+            }
+        }
+        return h;
+    }
+
+    private long base(int etat, int index) {
+        return GenerateurSplitMix.melanger(graine + (long) ETATS * index + etat);
+    }
+}
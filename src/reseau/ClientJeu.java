@@ -0,0 +1,186 @@
+package reseau;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import model.EnsembleCases;
+
+/**
+ * Client scripté du {@link ServeurJeu} : il joue des parties en tirant au hasard sur les cases pas encore visées.
+ * Il sert aux tests de bout en bout et, lancé en ligne de commande, de générateur de charge qui garde
+ * de nombreuses parties ouvertes en même temps et mesure la latence de chaque tir.
+ */
+public class ClientJeu implements AutoCloseable {
+
+    private final Socket socket;
+    private final BufferedReader entree;
+    private final OutputStream sortie;
+    private EnsembleCases restantes;   // Cases de la grille adverse pas encore visées
+    private int colonnes;
+    private String derniereReponse;
+
+    /**
+     * Se connecte au serveur et lit son message d'accueil.
+     * @param hote Le nom de l'hôte.
+     * @param port Le port du serveur.
+     * @throws IOException Si la connexion échoue ou si le serveur ne répond pas par l'accueil attendu.
+     */
+    public ClientJeu(String hote, int port) throws IOException {
+        this.socket = new Socket(hote, port);
+        this.socket.setTcpNoDelay(true);
+        this.entree = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        this.sortie = socket.getOutputStream();
+        String accueil = entree.readLine();
+        if (!SessionJeu.ACCUEIL.equals(accueil)) {
+            socket.close();
+            throw new IOException("Accueil inattendu : " + accueil);
+        }
+    }
+
+    /**
+     * Envoie une commande et attend sa ligne de réponse.
+     * @param ligne La commande.
+     * @return La réponse du serveur.
+     * @throws IOException Si la connexion est perdue.
+     */
+    public String commande(String ligne) throws IOException {
+        sortie.write((ligne + "\n").getBytes(StandardCharsets.US_ASCII));
+        sortie.flush();
+        String reponse = entree.readLine();
+        if (reponse == null) {
+            throw new IOException("Connexion fermée par le serveur.");
+        }
+        return derniereReponse = reponse;
+    }
+
+    /**
+     * Commence une nouvelle partie sur une grille de taille donnée.
+     * @param lignes Nombre de lignes.
+     * @param colonnes Nombre de colonnes.
+     * @throws IOException Si la connexion est perdue ou si le serveur refuse la partie.
+     */
+    public void commencer(int lignes, int colonnes) throws IOException {
+        String reponse = commande("NOUVELLE " + lignes + " " + colonnes);
+        if (!reponse.startsWith("PARTIE ")) {
+            throw new IOException("Partie refusée : " + reponse);
+        }
+        this.colonnes = colonnes;
+        this.restantes = EnsembleCases.pleine(lignes * colonnes);
+    }
+
+    /**
+     * Tire sur une case encore jamais visée, tirée au hasard.
+     * @return true si la partie est terminée après ce tir.
+     * @throws IOException Si la connexion est perdue ou si le serveur répond par une erreur.
+     */
+    public boolean tirer() throws IOException {
+        int index = restantes.retirerAuHasard(ThreadLocalRandom.current());
+        String reponse = commande("TIR " + index / colonnes + " " + index % colonnes);
+        if (reponse.startsWith("ERREUR") || reponse.startsWith("DEJA_TIRE")) {
+            throw new IOException("Tir refusé : " + reponse);
+        }
+        return reponse.contains(" FIN ");
+    }
+
+    /**
+     * Joue une partie complète.
+     * @param lignes Nombre de lignes.
+     * @param colonnes Nombre de colonnes.
+     * @return true si le client a gagné.
+     * @throws IOException Si la connexion est perdue.
+     */
+    public boolean jouerPartie(int lignes, int colonnes) throws IOException {
+        commencer(lignes, colonnes);
+        while (!tirer()) {
+            // La partie continue
+        }
+        return derniereReponse.endsWith("GAGNE");
+    }
+
+    public String getDerniereReponse() {
+        return derniereReponse;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Générateur de charge : ouvre toutes les connexions, puis chaque thread fait jouer les siennes à tour de rôle,
+     * un tir par connexion et par tour, pour que toutes les parties soient en cours en même temps.
+     * @param args Hôte, port, nombre de connexions (1000), parties par connexion (10), threads clients (4).
+     * @throws Exception En cas d'erreur de connexion.
+     */
+    public static void main(String[] args) throws Exception {
+        String hote = (args.length > 0) ? args[0] : "localhost";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : 4242;
+        int connexions = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+        int parties = (args.length > 3) ? Integer.parseInt(args[3]) : 10;
+        int nombreThreads = (args.length > 4) ? Integer.parseInt(args[4]) : 4;
+
+        List<ClientJeu> clients = new ArrayList<>();
+        for (int i = 0; i < connexions; i++) {
+            clients.add(new ClientJeu(hote, port));
+        }
+        System.out.println(connexions + " connexions ouvertes");
+
+        AtomicLongArray latences = new AtomicLongArray(10_001);   // Par microseconde, la dernière case au-delà de 10 ms
+        AtomicLong tirs = new AtomicLong();
+        long debut = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < nombreThreads; t++) {
+            List<ClientJeu> tranche = clients.subList(t * connexions / nombreThreads, (t + 1) * connexions / nombreThreads);
+            Thread thread = new Thread(() -> {
+                try {
+                    int[] jouees = new int[tranche.size()];
+                    for (ClientJeu client : tranche) client.commencer(10, 10);
+                    boolean encore = true;
+                    while (encore) {
+                        encore = false;
+                        for (int c = 0; c < tranche.size(); c++) {
+                            if (jouees[c] == parties) continue;
+                            encore = true;
+                            ClientJeu client = tranche.get(c);
+                            long t0 = System.nanoTime();
+                            boolean fin = client.tirer();
+                            latences.incrementAndGet((int) Math.min(10_000, (System.nanoTime() - t0) / 1000));
+                            tirs.incrementAndGet();
+                            if (fin && ++jouees[c] < parties) client.commencer(10, 10);
+                        }
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) thread.join();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        for (ClientJeu client : clients) client.close();
+
+        long total = tirs.get();
+        System.out.printf("%d parties, %d tirs en %.2f s : %.0f tirs/s%n", (long) connexions * parties, total, secondes, total / secondes);
+        System.out.printf("Latence par tir : p50 %d µs, p99 %d µs, p99.9 %d µs%n",
+                quantile(latences, total, 0.50), quantile(latences, total, 0.99), quantile(latences, total, 0.999));
+    }
+
+    private static int quantile(AtomicLongArray latences, long total, double q) {
+        long cumul = 0;
+        for (int i = 0; i < latences.length(); i++) {
+            cumul += latences.get(i);
+            if (cumul >= q * total) return i;
+        }
+        return latences.length() - 1;
+    }
+}
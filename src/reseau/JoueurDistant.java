@@ -0,0 +1,60 @@
+package reseau;
+
+import java.util.concurrent.CompletableFuture;
+
+import model.Grille;
+import model.JoueurHumain;
+
+/**
+ * Joueur humain qui joue à distance : ses tirs n'arrivent pas de la console mais du réseau.
+ * La session transmet le tir reçu par {@link #jouer(int)} juste avant de faire jouer la partie,
+ * qui le récupère comme pour n'importe quel joueur par {@link #tireCase()}.
+ * Une partie asynchrone peut aussi demander le tir d'avance par {@link #tireCaseAsync()} :
+ * l'étape rendue est complétée à l'arrivée du tir, sans qu'aucun thread ne l'attende.
+ */
+public class JoueurDistant extends JoueurHumain {
+
+    private int prochainTir = -1;
+    private CompletableFuture<Integer> attente;   // Tir demandé d'avance et pas encore reçu
+
+    /**
+     * Constructeur du joueur distant.
+     * @param grille La grille du joueur.
+     * @param nom Le nom du joueur.
+     */
+    public JoueurDistant(Grille grille, String nom) {
+        super(grille, nom);
+        setVerbeux(false);
+    }
+
+    /**
+     * Retient le tir demandé par le client ; peut être appelé depuis le thread réseau.
+     * @param index L'indice (x * colonnes + y) de la case visée sur la grille adverse.
+     */
+    public synchronized void jouer(int index) {
+        CompletableFuture<Integer> demande = attente;
+        attente = null;
+        if (demande == null || !demande.complete(index)) {
+            this.prochainTir = index;
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> tireCaseAsync() {
+        if (prochainTir >= 0) {
+            return CompletableFuture.completedFuture(tireCase());
+        }
+        attente = new CompletableFuture<>();
+        return attente;
+    }
+
+    @Override
+    public synchronized int tireCase() {
+        if (prochainTir < 0) {
+            throw new IllegalStateException("Aucun tir reçu du joueur distant.");
+        }
+        int index = prochainTir;
+        prochainTir = -1;
+        return index;
+    }
+}
@@ -0,0 +1,345 @@
+package reseau;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metrique.Metriques;
+
+/**
+ * Serveur de parties en réseau : chaque connexion héberge une {@link SessionJeu} contre le joueur aléatoire.
+ * Les connexions sont réparties sur quelques boucles d'événements NIO, une par thread, chacune avec son
+ * {@link Selector} : une boucle traite tour à tour toutes ses connexions sans jamais bloquer, si bien que des
+ * milliers de parties simultanées ne coûtent que quelques threads. Une session n'est touchée que par le thread
+ * de sa boucle ; les tirs, de l'ordre de la microseconde, sont joués directement dans la boucle.
+ */
+public class ServeurJeu implements AutoCloseable {
+
+    /** Longueur maximale d'une commande */
+    private static final int TAILLE_ENTREE = 512;
+    /** Au-delà de ce volume de réponses en attente, la connexion n'est plus lue tant que le client ne les a pas lues */
+    private static final int LIMITE_SORTIE = 64 * 1024;
+
+    private final ServerSocketChannel serveur;
+    private final Boucle[] boucles;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private int prochaineBoucle;   // Boucle qui recevra la prochaine connexion (thread de la boucle 0 seulement)
+    private volatile boolean actif = true;
+
+    /**
+     * Ouvre le serveur et démarre ses boucles.
+     * @param port Le port d'écoute, ou 0 pour un port libre choisi par le système.
+     * @param nombreBoucles Nombre de threads de boucle d'événements.
+     * @throws IOException Si le port ne peut être ouvert.
+     */
+    public ServeurJeu(int port, int nombreBoucles) throws IOException {
+        this.serveur = ServerSocketChannel.open();
+        this.boucles = new Boucle[nombreBoucles];
+        try {
+            serveur.bind(new InetSocketAddress(port), 1024);
+            serveur.configureBlocking(false);
+            for (int i = 0; i < nombreBoucles; i++) {
+                boucles[i] = new Boucle(i);
+            }
+            serveur.register(boucles[0].selecteur, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        for (Boucle boucle : boucles) {
+            boucle.thread.start();
+        }
+    }
+
+    /**
+     * Retourne le port d'écoute effectif.
+     * @return Le port.
+     */
+    public int getPort() {
+        return serveur.socket().getLocalPort();
+    }
+
+    /**
+     * Retourne le nombre de connexions ouvertes.
+     * @return Le nombre de sessions.
+     */
+    public int getNombreSessions() {
+        return sessions.get();
+    }
+
+    /**
+     * Arrête les boucles et ferme toutes les connexions.
+     */
+    @Override
+    public void close() throws IOException {
+        actif = false;
+        for (Boucle boucle : boucles) {
+            if (boucle != null) {
+                boucle.selecteur.wakeup();
+                try {
+                    boucle.thread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        serveur.close();
+    }
+
+    /**
+     * Une boucle d'événements : un thread, un sélecteur, et les connexions qui lui ont été confiées.
+     */
+    private final class Boucle implements Runnable {
+        private final Selector selecteur;
+        private final Queue<SocketChannel> nouvelles = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        private final StringBuilder reponses = new StringBuilder(256);   // Réutilisé par toutes les connexions
+        private final StringBuilder ligne = new StringBuilder(64);
+
+        Boucle(int numero) throws IOException {
+            this.selecteur = Selector.open();
+            this.thread = new Thread(this, "serveur-jeu-" + numero);
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Confie une connexion à cette boucle ; appelé depuis la boucle qui accepte les connexions.
+         */
+        void confier(SocketChannel canal) {
+            nouvelles.add(canal);
+            selecteur.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (actif) {
+                    selecteur.select();
+                    inscrireNouvelles();
+                    Iterator<SelectionKey> cles = selecteur.selectedKeys().iterator();
+                    while (cles.hasNext()) {
+                        SelectionKey cle = cles.next();
+                        cles.remove();
+                        if (!cle.isValid()) continue;
+                        if (cle.isAcceptable()) {
+                            accepter();
+                            continue;
+                        }
+                        Connexion connexion = (Connexion) cle.attachment();
+                        try {
+                            if (cle.isWritable()) connexion.ecrire();
+                            if (cle.isValid() && cle.isReadable()) connexion.lire();
+                        } catch (IOException e) {
+                            connexion.fermer();
+                        } catch (RuntimeException e) {
+                            // Une session en erreur ne ferme que sa connexion, pas la boucle et ses autres sessions
+                            e.printStackTrace();
+                            connexion.fermer();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                for (SelectionKey cle : selecteur.keys()) {
+                    if (cle.attachment() instanceof Connexion) ((Connexion) cle.attachment()).fermer();
+                }
+                try {
+                    selecteur.close();
+                } catch (IOException e) {
+                    // Rien de plus à libérer
+                }
+            }
+        }
+
+        /**
+         * Accepte les connexions en attente. Un échec (par exemple plus aucun descripteur de fichier libre)
+         * est signalé et n'arrête pas la boucle : la connexion sera de nouveau proposée au prochain tour.
+         */
+        private void accepter() {
+            SocketChannel canal;
+            while (true) {
+                try {
+                    canal = serveur.accept();
+                } catch (IOException e) {
+                    System.err.println("Connexion non acceptée : " + e.getMessage());
+                    return;
+                }
+                if (canal == null) return;
+                Boucle boucle = boucles[prochaineBoucle];
+                prochaineBoucle = (prochaineBoucle + 1) % boucles.length;
+                if (boucle == this) {
+                    inscrire(canal);
+                } else {
+                    boucle.confier(canal);
+                }
+            }
+        }
+
+        private void inscrireNouvelles() {
+            SocketChannel canal;
+            while ((canal = nouvelles.poll()) != null) {
+                inscrire(canal);
+            }
+        }
+
+        /**
+         * Inscrit une connexion acceptée auprès du sélecteur et lui envoie l'accueil ; en cas d'échec, seule cette connexion est fermée.
+         */
+        private void inscrire(SocketChannel canal) {
+            SelectionKey cle;
+            try {
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                cle = canal.register(selecteur, SelectionKey.OP_READ);
+            } catch (IOException e) {
+                try {
+                    canal.close();
+                } catch (IOException ignoree) {
+                    // Connexion déjà perdue
+                }
+                return;
+            }
+            Connexion connexion = new Connexion(this, canal, cle);
+            cle.attach(connexion);
+            sessions.incrementAndGet();
+            reponses.setLength(0);
+            reponses.append(SessionJeu.ACCUEIL).append('\n');
+            try {
+                connexion.envoyer(reponses);
+            } catch (IOException e) {
+                connexion.fermer();
+            }
+        }
+    }
+
+    /**
+     * Une connexion cliente : ses tampons et sa session de jeu.
+     */
+    private final class Connexion {
+        private final Boucle boucle;
+        private final SocketChannel canal;
+        private final SelectionKey cle;
+        private final SessionJeu session = new SessionJeu();
+        private final ByteBuffer entree = ByteBuffer.allocate(TAILLE_ENTREE);
+        private ByteBuffer sortie = ByteBuffer.allocate(256);   // En mode écriture : les réponses en attente
+        private boolean fermee;
+        private boolean aFermer;    // Plus rien à lire : la connexion sera fermée une fois les réponses envoyées
+
+        Connexion(Boucle boucle, SocketChannel canal, SelectionKey cle) {
+            this.boucle = boucle;
+            this.canal = canal;
+            this.cle = cle;
+        }
+
+        /**
+         * Lit ce qui est arrivé, traite chaque ligne complète et envoie toutes les réponses d'un coup.
+         */
+        void lire() throws IOException {
+            if (canal.read(entree) < 0) {
+                fermer();
+                return;
+            }
+            StringBuilder reponses = boucle.reponses;
+            StringBuilder ligne = boucle.ligne;
+            reponses.setLength(0);
+            entree.flip();
+            int debut = 0;
+            for (int i = 0; i < entree.limit(); i++) {
+                if (entree.get(i) != '\n') continue;
+                ligne.setLength(0);
+                for (int j = debut; j < i; j++) {
+                    byte b = entree.get(j);
+                    if (b != '\r') ligne.append((char) (b & 0xFF));
+                }
+                debut = i + 1;
+                session.traiter(ligne.toString(), reponses);
+                if (session.estFermee()) {
+                    aFermer = true;
+                    break;
+                }
+            }
+            entree.position(debut);
+            entree.compact();
+            if (!entree.hasRemaining()) {
+                reponses.append("ERREUR ligne trop longue\n");
+                aFermer = true;
+            }
+            envoyer(reponses);
+        }
+
+        /**
+         * Ajoute des réponses aux données en attente et tente de les écrire immédiatement.
+         */
+        void envoyer(CharSequence reponses) throws IOException {
+            int longueur = reponses.length();
+            if (sortie.remaining() < longueur) {
+                ByteBuffer plus = ByteBuffer.allocate(Math.max(2 * sortie.capacity(), sortie.position() + longueur));
+                sortie.flip();
+                plus.put(sortie);
+                sortie = plus;
+            }
+            for (int i = 0; i < longueur; i++) {
+                sortie.put((byte) reponses.charAt(i));
+            }
+            ecrire();
+        }
+
+        /**
+         * Écrit autant de réponses en attente que le canal en accepte, puis ajuste l'intérêt de la clé.
+         */
+        void ecrire() throws IOException {
+            sortie.flip();
+            canal.write(sortie);
+            boolean reste = sortie.hasRemaining();
+            sortie.compact();
+            if (!reste && aFermer) {
+                fermer();
+                return;
+            }
+            int interet = 0;
+            if (reste) interet |= SelectionKey.OP_WRITE;
+            if (sortie.position() < LIMITE_SORTIE && !aFermer) interet |= SelectionKey.OP_READ;
+            if (cle.interestOps() != interet) cle.interestOps(interet);
+        }
+
+        void fermer() {
+            if (fermee) return;
+            fermee = true;
+            sessions.decrementAndGet();
+            cle.cancel();
+            try {
+                canal.close();
+            } catch (IOException e) {
+                // Connexion déjà perdue
+            }
+        }
+    }
+
+    /**
+     * Point d'entrée en ligne de commande : lance le serveur jusqu'à l'arrêt du processus.
+     * @param args Le port (4242 par défaut), puis le nombre de boucles (un par cœur par défaut).
+     * @throws IOException Si le port ne peut être ouvert.
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 4242;
+        int nombreBoucles = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ServeurJeu serveurJeu = new ServeurJeu(port, nombreBoucles);
+        Metriques.publier();
+        System.out.println("Serveur de bataille navale sur le port " + serveurJeu.getPort() + " (" + nombreBoucles + " boucles)");
+        while (true) {
+            Thread.sleep(10_000);
+            System.out.println(serveurJeu.getNombreSessions() + " sessions ouvertes");
+        }
+    }
+}
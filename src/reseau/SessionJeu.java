@@ -0,0 +1,154 @@
+package reseau;
+
+import metrique.Metriques;
+import model.Grille;
+import model.GrilleBits;
+import model.Jeu;
+import model.JoueurAleatoire;
+import model.ResultatTir;
+
+/**
+ * Partie d'un client distant contre le joueur aléatoire, pilotée par un protocole texte ligne à ligne.
+ * Chaque commande reçoit exactement une ligne de réponse, ce qui permet au client d'enchaîner ses commandes
+ * sans attendre :
+ * <pre>
+ * NOUVELLE [lignes colonnes]  →  PARTIE lignes colonnes x,y,taille,H|V ...   (flotte du client)
+ * TIR x y                     →  RATE|TOUCHE|COULE [RIPOSTE x y RATE|TOUCHE|COULE] [FIN GAGNE|PERDU]
+ *                                ou DEJA_TIRE (le tour n'est pas passé)
+ * QUITTER                     →  AU REVOIR   (puis fermeture de la connexion)
+ * </pre>
+ * Toute commande invalide reçoit {@code ERREUR message}. La session ne dépend pas du réseau :
+ * le serveur lui passe les lignes reçues et renvoie ce qu'elle écrit.
+ */
+public class SessionJeu {
+
+    /** Message d'accueil envoyé à l'ouverture de la connexion */
+    public static final String ACCUEIL = "BIENVENUE BATAILLE 1";
+    /** Dimension maximale des grilles demandées par un client */
+    public static final int DIMENSION_MAX = 100;
+    /** Dimension minimale, pour que la flotte par défaut se place sans peine */
+    public static final int DIMENSION_MIN = 8;
+
+    private Jeu jeu;
+    private JoueurDistant distant;
+    private JoueurAleatoire adversaire;
+    private boolean terminee = true;
+    private boolean fermee;
+
+    /**
+     * Traite une ligne reçue du client.
+     * @param ligne La commande, sans son retour à la ligne.
+     * @param reponse Le tampon où écrire la ligne de réponse, retour à la ligne compris.
+     */
+    public void traiter(String ligne, StringBuilder reponse) {
+        String[] mots = ligne.trim().split(" +");
+        try {
+            switch (mots[0]) {
+                case "NOUVELLE":
+                    nouvelle(mots, reponse);
+                    break;
+                case "TIR":
+                    tir(mots, reponse);
+                    break;
+                case "QUITTER":
+                    fermee = true;
+                    reponse.append("AU REVOIR");
+                    break;
+                default:
+                    reponse.append("ERREUR commande inconnue");
+            }
+        } catch (NumberFormatException e) {
+            reponse.append("ERREUR nombre attendu");
+        }
+        reponse.append('\n');
+    }
+
+    /**
+     * Indique si le client a demandé la fin de la connexion.
+     * @return true après QUITTER.
+     */
+    public boolean estFermee() {
+        return fermee;
+    }
+
+    public Jeu getJeu() {
+        return jeu;
+    }
+
+    private void nouvelle(String[] mots, StringBuilder reponse) {
+        int lignes = 10;
+        int colonnes = 10;
+        if (mots.length == 3) {
+            lignes = Integer.parseInt(mots[1]);
+            colonnes = Integer.parseInt(mots[2]);
+        } else if (mots.length != 1) {
+            reponse.append("ERREUR usage : NOUVELLE [lignes colonnes]");
+            return;
+        }
+        if (lignes < DIMENSION_MIN || colonnes < DIMENSION_MIN || lignes > DIMENSION_MAX || colonnes > DIMENSION_MAX) {
+            reponse.append("ERREUR dimensions entre ").append(DIMENSION_MIN).append(" et ").append(DIMENSION_MAX);
+            return;
+        }
+
+        // Grilles sans objets cellules : seule la vue en a besoin, et le serveur n'en a pas
+        Grille grilleDistant = new Grille(lignes, colonnes, false);
+        Grille grilleAdversaire = new Grille(lignes, colonnes, false);
+        distant = new JoueurDistant(grilleDistant, "Distant");
+        adversaire = new JoueurAleatoire(grilleAdversaire, grilleDistant);
+        adversaire.setVerbeux(false);
+        jeu = new Jeu(distant, adversaire);
+        jeu.setVerbeux(false);
+        distant.ajoutBateauAleatoire();
+        jeu.debutPartie();
+        terminee = false;
+
+        reponse.append("PARTIE ").append(lignes).append(' ').append(colonnes);
+        GrilleBits bits = grilleDistant.getBits();
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            int origine = bits.getOrigineBateau(b);
+            int index = origine >>> 1;
+            reponse.append(' ').append(index / colonnes).append(',').append(index % colonnes)
+                    .append(',').append(bits.getTailleBateau(b)).append(',').append(((origine & 1) != 0) ? 'V' : 'H');
+        }
+    }
+
+    private void tir(String[] mots, StringBuilder reponse) {
+        if (mots.length != 3) {
+            reponse.append("ERREUR usage : TIR x y");
+            return;
+        }
+        if (terminee) {
+            reponse.append("ERREUR aucune partie en cours");
+            return;
+        }
+        int x = Integer.parseInt(mots[1]);
+        int y = Integer.parseInt(mots[2]);
+        Grille cible = adversaire.getGrille();
+        if (x < 0 || y < 0 || x >= cible.getLignes() || y >= cible.getColonnes()) {
+            reponse.append("ERREUR case hors de la grille");
+            return;
+        }
+
+        distant.jouer(cible.index(x, y));
+        ResultatTir resultat = jeu.tireCaseAdversaire(distant.tireCase());
+        reponse.append(resultat.name());
+        if (resultat == ResultatTir.DEJA_TIRE) return;
+        if (adversaire.aPerdu()) {
+            terminee = true;
+            reponse.append(" FIN GAGNE");
+            return;
+        }
+
+        // Riposte immédiate du joueur aléatoire
+        long debutMesure = Metriques.debutEchantillon();
+        int index = adversaire.tireCase();
+        Metriques.DECISIONS.fin(debutMesure);
+        ResultatTir riposte = jeu.tireCaseAdversaire(index);
+        int colonnes = distant.getGrille().getColonnes();
+        reponse.append(" RIPOSTE ").append(index / colonnes).append(' ').append(index % colonnes).append(' ').append(riposte.name());
+        if (distant.aPerdu()) {
+            terminee = true;
+            reponse.append(" FIN PERDU");
+        }
+    }
+}
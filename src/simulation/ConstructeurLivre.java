@@ -0,0 +1,81 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import model.AbstractJoueur;
+import model.JoueurLivre;
+import model.LivreOuvertures;
+
+/**
+ * Construction hors ligne d'un {@link LivreOuvertures} : le simulateur fait jouer à une stratégie des parties
+ * contre des flottes tirées au hasard, et chaque situation rencontrée pendant les premiers tirs est ajoutée
+ * au livre avec le tir choisi. Les parties se partagent un même livre : une situation n'est calculée
+ * qu'une fois, puis rejouée depuis le livre par toutes les parties qui la rencontrent.
+ */
+public final class ConstructeurLivre {
+
+    /** Composition de la flotte par défaut, celle des joueurs */
+    private static final int[] FLOTTE = {5, 4, 3, 3, 2};
+
+    private ConstructeurLivre() {
+    }
+
+    /**
+     * Construit un livre en jouant des parties.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param strategie Fabrique de la stratégie dont on mémorise les tirs.
+     * @param profondeur Nombre de premiers tirs couverts par le livre.
+     * @param nombreParties Nombre de parties jouées.
+     * @param capacite Nombre maximal d'entrées du livre.
+     * @return Le livre construit.
+     */
+    public static LivreOuvertures construire(int lignes, int colonnes, FabriqueJoueur strategie,
+                                             int profondeur, long nombreParties, int capacite) {
+        LivreOuvertures livre = new LivreOuvertures(lignes, colonnes, FLOTTE, profondeur, capacite);
+        // Seuls les tirs de la stratégie comptent : l'adversaire, aléatoire, ne fait que poser sa flotte
+        Simulateur simulateur = new Simulateur(lignes, colonnes, avecLivre(strategie, livre), Simulateur.fabrique("aleatoire"));
+        simulateur.simuler(nombreParties);
+        return livre;
+    }
+
+    /**
+     * Fabrique de joueurs qui consultent un livre avant de s'en remettre à une stratégie.
+     * @param strategie Fabrique de la stratégie.
+     * @param livre Le livre partagé par tous les joueurs fabriqués.
+     * @return La fabrique.
+     */
+    public static FabriqueJoueur avecLivre(FabriqueJoueur strategie, LivreOuvertures livre) {
+        return (grille, grilleAdversaire) -> {
+            AbstractJoueur joueur = strategie.creer(grille, grilleAdversaire);
+            return new JoueurLivre(joueur, grilleAdversaire, livre);
+        };
+    }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     * @param args Fichier du livre, stratégie (densite par défaut), profondeur (8 par défaut)
+     *             et nombre de parties (10 000 par défaut).
+     * @throws IOException Si le livre ne peut être écrit.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage : ConstructeurLivre <fichier> [strategie] [profondeur] [parties]");
+            System.exit(1);
+        }
+        Path fichier = Paths.get(args[0]);
+        String strategie = (args.length > 1) ? args[1] : "densite";
+        int profondeur = (args.length > 2) ? Integer.parseInt(args[2]) : 8;
+        long nombreParties = (args.length > 3) ? Long.parseLong(args[3]) : 10_000;
+
+        long debut = System.nanoTime();
+        LivreOuvertures livre = construire(10, 10, Simulateur.fabrique(strategie, 10, 10), profondeur, nombreParties, 1 << 20);
+        livre.enregistrer(fichier);
+        System.out.printf("Livre %s : %d situations sur %d tirs, %d Kio, construit en %.1f s (%.1f %% de tirs lus dans le livre)%n",
+                fichier, livre.taille(), profondeur, Files.size(fichier) / 1024,
+                (System.nanoTime() - debut) / 1e9, 100 * livre.tauxSucces());
+    }
+}
@@ -0,0 +1,99 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+import model.AbstractJoueur;
+import model.Grille;
+import model.JoueurAleatoire;
+import model.JoueurOptimal;
+import model.SolveurExact;
+
+/**
+ * Mesure l'écart des stratégies au jeu optimal sur une petite grille : le {@link SolveurExact} donne l'espérance
+ * optimale du nombre de tirs pour couler une flotte, et chaque stratégie est mesurée sur le même problème,
+ * seule face à des flottes tirées au hasard.
+ */
+public final class EcartOptimal {
+
+    private EcartOptimal() {
+    }
+
+    /**
+     * Nombre moyen de tirs d'une stratégie pour couler une flotte tirée au hasard, parties jouées en parallèle.
+     * @param lignes Nombre de lignes de la grille.
+     * @param colonnes Nombre de colonnes de la grille.
+     * @param tailleBateau Composition de la flotte.
+     * @param strategie Fabrique de la stratégie mesurée.
+     * @param nombreParties Nombre de flottes à couler.
+     * @return Le nombre moyen de tirs.
+     */
+    public static double moyenneTirs(int lignes, int colonnes, int[] tailleBateau, FabriqueJoueur strategie, long nombreParties) {
+        LongAdder tirs = new LongAdder();
+        LongStream.range(0, nombreParties).parallel().forEach(p -> {
+            Grille cible = new Grille(lignes, colonnes, false);
+            JoueurAleatoire defenseur = new JoueurAleatoire(cible, null);
+            defenseur.setTailleBateau(tailleBateau);
+            defenseur.ajoutBateauAleatoire();
+
+            AbstractJoueur tireur = strategie.creer(new Grille(lignes, colonnes, false), cible);
+            tireur.setTailleBateau(tailleBateau);
+            tireur.setVerbeux(false);
+            int n = 0;
+            while (!cible.getBits().flotteCoulee()) {
+                cible.recevoirTir(tireur.tireCase());
+                if (++n > 2 * lignes * colonnes) {
+                    throw new IllegalStateException("La stratégie ne termine pas la partie.");
+                }
+            }
+            tirs.add(n);
+        });
+        return tirs.doubleValue() / nombreParties;
+    }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     * @param args Lignes et colonnes (4 par défaut), flotte (3,2 par défaut), nombre de parties (10 000 par défaut),
+     *             stratégies (aleatoire,densite par défaut), puis un fichier facultatif pour la table du solveur :
+     *             chargée s'il existe (la grille et la flotte sont alors celles de la table), enregistrée sinon.
+     * @throws IOException Si la table ne peut être lue ou écrite.
+     */
+    public static void main(String[] args) throws IOException {
+        int lignes = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        int colonnes = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+        int[] tailleBateau = Arrays.stream(((args.length > 2) ? args[2] : "3,2").split(",")).mapToInt(Integer::parseInt).toArray();
+        long nombreParties = (args.length > 3) ? Long.parseLong(args[3]) : 10_000;
+        String[] strategies = ((args.length > 4) ? args[4] : "aleatoire,densite").split(",");
+        Path fichier = (args.length > 5) ? Paths.get(args[5]) : null;
+
+        long debut = System.nanoTime();
+        SolveurExact solveur = (fichier != null && Files.exists(fichier))
+                ? SolveurExact.charger(fichier, SolveurExact.CAPACITE_DEFAUT)
+                : new SolveurExact(lignes, colonnes, tailleBateau, SolveurExact.CAPACITE_DEFAUT);
+        // Une table chargée impose sa grille et sa flotte
+        lignes = solveur.getLignes();
+        colonnes = solveur.getColonnes();
+        tailleBateau = solveur.getTailleBateau();
+        double optimal = solveur.esperance();
+        System.out.printf("Grille %dx%d, flotte %s : %d flottes possibles, optimum %.4f tirs%n",
+                lignes, colonnes, Arrays.toString(tailleBateau), solveur.getNombreFlottes(), optimal);
+        System.out.printf("Résolu en %.1f s : %d situations calculées, %d retrouvées, %d en table%n",
+                (System.nanoTime() - debut) / 1e9, solveur.getSituationsResolues(), solveur.getSituationsTrouvees(), solveur.taille());
+        if (fichier != null && !Files.exists(fichier)) {
+            solveur.enregistrer(fichier);
+            System.out.printf("Table enregistrée dans %s (%d Kio)%n", fichier, Files.size(fichier) / 1024);
+        }
+
+        FabriqueJoueur optimale = (grille, grilleAdversaire) -> new JoueurOptimal(grille, grilleAdversaire, solveur);
+        System.out.printf("%-12s %8.4f tirs%n", "optimal", moyenneTirs(lignes, colonnes, tailleBateau, optimale, nombreParties));
+        for (String strategie : strategies) {
+            double moyenne = moyenneTirs(lignes, colonnes, tailleBateau, Simulateur.fabrique(strategie), nombreParties);
+            System.out.printf("%-12s %8.4f tirs (+%.2f %%)%n", strategie, moyenne, 100 * (moyenne / optimal - 1));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package simulation;
+
+import model.AbstractJoueur;
+import model.Grille;
+
+/**
+ * Fabrique de joueurs utilisée par le simulateur.
+ * Chaque partie simulée crée ses propres joueurs, ce qui permet de faire tourner
+ * plusieurs parties en parallèle sans partager d'état entre les threads.
+ */
+@FunctionalInterface
+public interface FabriqueJoueur {
+
+    /**
+     * Crée un joueur pour une nouvelle partie.
+     * @param grille La grille du joueur (celle où il place ses navires).
+     * @param grilleAdversaire La grille de l'adversaire sur laquelle il tire.
+     * @return Le joueur créé, prêt à placer sa flotte.
+     */
+    AbstractJoueur creer(Grille grille, Grille grilleAdversaire);
+}
@@ -0,0 +1,162 @@
+package simulation;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import model.AbstractJoueur;
+import model.Grille;
+import model.ResultatTir;
+
+/**
+ * Partie entre deux joueurs dont les tirs arrivent de façon asynchrone, par {@link AbstractJoueur#tireCaseAsync()}.
+ * Aucun thread n'attend le tir d'un joueur humain ou distant : quand le tir arrive, la suite de la partie est
+ * confiée à un ordonnanceur, qui peut ainsi faire avancer des dizaines de milliers de parties avec un seul thread.
+ * Les tirs déjà disponibles, comme ceux des joueurs automatiques, sont joués d'affilée sans repasser par lui.
+ * <p>
+ * Un joueur qui ne tire pas dans le délai imparti perd la partie par forfait. La partie peut aussi être annulée :
+ * le tir en attente est alors annulé et le résultat se termine par une {@link CancellationException}.
+ */
+public class PartieAsynchrone {
+
+    private final AbstractJoueur[] joueurs = new AbstractJoueur[2];
+    private final Executor ordonnanceur;
+    private final long delaiNanos;                 // Délai accordé pour chaque tir, 0 pour aucun
+    private final CompletableFuture<Integer> resultat = new CompletableFuture<>();
+    private final int[] tirs = new int[2];         // Nombre de tirs effectués par chaque joueur
+    private volatile CompletableFuture<Integer> tirEnAttente;
+    private int actuel;                            // Indice du joueur dont c'est le tour
+    private volatile boolean forfait;
+
+    /**
+     * Crée une partie entre deux joueurs dont les flottes sont déjà placées.
+     * @param joueur1 Le premier joueur.
+     * @param joueur2 Le second joueur, dont la grille est visée par le premier.
+     * @param ordonnanceur L'exécuteur qui fait avancer la partie quand un tir arrive.
+     * @param delaiTir Le délai accordé à chaque tir, ou null pour attendre indéfiniment.
+     */
+    public PartieAsynchrone(AbstractJoueur joueur1, AbstractJoueur joueur2, Executor ordonnanceur, Duration delaiTir) {
+        this.joueurs[0] = joueur1;
+        this.joueurs[1] = joueur2;
+        this.ordonnanceur = ordonnanceur;
+        this.delaiNanos = (delaiTir == null) ? 0 : delaiTir.toNanos();
+    }
+
+    /**
+     * Lance la partie sur l'ordonnanceur.
+     * @param premier Indice (0 ou 1) du joueur qui tire en premier.
+     * @return Le résultat : l'indice du vainqueur, une fois la partie finie.
+     */
+    public CompletableFuture<Integer> jouer(int premier) {
+        this.actuel = premier;
+        ordonnanceur.execute(this::avancer);
+        return resultat;
+    }
+
+    /**
+     * Annule la partie et le tir qu'elle attend.
+     * @return true si la partie était encore en cours.
+     */
+    public boolean annuler() {
+        boolean annulee = resultat.cancel(false);
+        CompletableFuture<Integer> tir = tirEnAttente;
+        if (tir != null) tir.cancel(false);
+        return annulee;
+    }
+
+    /**
+     * Indique si la partie s'est terminée par le forfait d'un joueur trop lent.
+     * @return true en cas de forfait.
+     */
+    public boolean estForfait() {
+        return forfait;
+    }
+
+    /**
+     * Retourne le nombre de tirs effectués par un joueur.
+     * @param joueur Indice du joueur (0 ou 1).
+     * @return Le nombre de tirs du joueur.
+     */
+    public int getTirs(int joueur) {
+        return tirs[joueur];
+    }
+
+    /**
+     * Joue les tirs disponibles jusqu'au premier qu'il faut attendre, puis rend la main à l'ordonnanceur.
+     */
+    private void avancer() {
+        while (!resultat.isDone()) {
+            CompletableFuture<Integer> tir;
+            try {
+                tir = joueurs[actuel].tireCaseAsync().toCompletableFuture();
+            } catch (RuntimeException e) {
+                resultat.completeExceptionally(e);
+                return;
+            }
+            if (!tir.isDone()) {
+                if (delaiNanos > 0) tir.orTimeout(delaiNanos, TimeUnit.NANOSECONDS);
+                tirEnAttente = tir;
+                tir.whenCompleteAsync((index, erreur) -> {
+                    tirEnAttente = null;
+                    if (appliquer(index, erreur)) avancer();
+                }, ordonnanceur);
+                return;
+            }
+            Integer index = null;
+            Throwable erreur = null;
+            try {
+                index = tir.join();
+            } catch (CompletionException | CancellationException e) {
+                erreur = e;
+            }
+            if (!appliquer(index, erreur)) return;
+        }
+    }
+
+    /**
+     * Applique le tir du joueur dont c'est le tour.
+     * @return true si la partie continue.
+     */
+    private boolean appliquer(Integer index, Throwable erreur) {
+        if (resultat.isDone()) return false;
+        if (erreur != null) {
+            Throwable cause = (erreur instanceof CompletionException && erreur.getCause() != null) ? erreur.getCause() : erreur;
+            if (cause instanceof TimeoutException) {
+                forfait = true;
+                resultat.complete(1 - actuel);
+            } else {
+                resultat.completeExceptionally(cause);
+            }
+            return false;
+        }
+
+        int adversaire = 1 - actuel;
+        Grille grilleAdversaire = joueurs[adversaire].getGrille();
+        // Garde-fou contre un joueur qui viserait indéfiniment des cases déjà jouées
+        if (tirs[actuel] >= 2 * grilleAdversaire.getLignes() * grilleAdversaire.getColonnes()) {
+            resultat.completeExceptionally(new IllegalStateException("Le joueur " + joueurs[actuel].getNom() + " ne termine pas la partie."));
+            return false;
+        }
+        ResultatTir tir;
+        try {
+            tir = grilleAdversaire.recevoirTir(index);
+        } catch (RuntimeException e) {
+            resultat.completeExceptionally(e);
+            return false;
+        }
+        tirs[actuel]++;
+        if (tir == ResultatTir.DEJA_TIRE) {
+            return true;   // Le même joueur tire à nouveau
+        }
+        if (tir == ResultatTir.COULE && joueurs[adversaire].aPerdu()) {
+            resultat.complete(actuel);
+            return false;
+        }
+        actuel = adversaire;
+        return true;
+    }
+}
@@ -0,0 +1,211 @@
+package simulation;
+
+import journal.EnregistrementPartie;
+import metrique.Metriques;
+import model.AbstractJoueur;
+import model.Grille;
+import model.HistoriqueTirs;
+import model.Instantane;
+import model.ResultatTir;
+
+/**
+ * Partie sans interface entre deux joueurs automatiques.
+ * Contrairement à {@link model.Jeu#jouer()}, aucune grille n'est affichée et rien n'est écrit sur la console :
+ * la partie est jouée jusqu'au bout et seul son résultat est conservé.
+ * Elle peut aussi être jouée tir par tir, capturée en cours de route par {@link #capturer()}
+ * et reprise plus tard par {@link #restaurer(byte[], FabriqueJoueur, FabriqueJoueur)}.
+ */
+public class PartieSimulee {
+
+    private final AbstractJoueur[] joueurs = new AbstractJoueur[2];
+    private final int[] tirs = new int[2];   // Nombre de tirs effectués par chaque joueur
+    private int vainqueur = -1;              // Indice du vainqueur, -1 tant que la partie n'est pas finie
+    private int actuel;                      // Indice du joueur dont c'est le tour
+    private final HistoriqueTirs historique; // Tirs joués, dans l'ordre
+    private EnregistrementPartie enregistrement; // Journal optionnel de la partie
+
+    /**
+     * Crée une partie entre deux joueurs fabriqués sur deux grilles neuves.
+     * Les flottes sont placées aléatoirement.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param fabrique1 Fabrique du premier joueur.
+     * @param fabrique2 Fabrique du second joueur.
+     */
+    public PartieSimulee(int lignes, int colonnes, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2) {
+        this(lignes, colonnes, null, fabrique1, fabrique2);
+    }
+
+    /**
+     * Crée une partie avec une composition de flotte donnée.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param tailleBateau Tailles des bateaux de chaque flotte, ou null pour la flotte par défaut.
+     * @param fabrique1 Fabrique du premier joueur.
+     * @param fabrique2 Fabrique du second joueur.
+     */
+    public PartieSimulee(int lignes, int colonnes, int[] tailleBateau, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2) {
+        this(new Grille(lignes, colonnes, false), new Grille(lignes, colonnes, false), fabrique1, fabrique2);
+        for (AbstractJoueur joueur : joueurs) {
+            if (tailleBateau != null) joueur.setTailleBateau(tailleBateau);
+            joueur.ajoutBateauAleatoire();
+        }
+    }
+
+    /**
+     * Crée les deux joueurs sur leurs grilles, sans placer les flottes.
+     */
+    private PartieSimulee(Grille grille1, Grille grille2, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2) {
+        this.joueurs[0] = fabrique1.creer(grille1, grille2);
+        this.joueurs[1] = fabrique2.creer(grille2, grille1);
+        for (AbstractJoueur joueur : joueurs) {
+            joueur.setVerbeux(false);
+        }
+        this.historique = new HistoriqueTirs(2 * grille1.getLignes() * grille1.getColonnes());
+    }
+
+    /**
+     * Reprend une partie capturée par {@link #capturer()}.
+     * Les joueurs sont refabriqués, leurs flottes reposées et les tirs rejoués : un joueur dont le générateur
+     * est un {@link model.GenerateurSplitMix} reprend exactement la suite de ses tirages.
+     * @param donnees L'instantané de la partie.
+     * @param fabrique1 Fabrique du premier joueur.
+     * @param fabrique2 Fabrique du second joueur.
+     * @return La partie, prête à continuer.
+     */
+    public static PartieSimulee restaurer(byte[] donnees, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2) {
+        Instantane instantane = Instantane.lire(donnees);
+        int lignes = instantane.getLignes();
+        int colonnes = instantane.getColonnes();
+        PartieSimulee partie = new PartieSimulee(new Grille(lignes, colonnes, false), new Grille(lignes, colonnes, false), fabrique1, fabrique2);
+        instantane.appliquer(partie.joueurs[0], partie.joueurs[1], partie.historique);
+        partie.actuel = instantane.getActuel();
+        for (int i = 0; i < partie.historique.taille(); i++) {
+            partie.tirs[partie.historique.getTireur(i)]++;
+        }
+        for (int j = 0; j < 2; j++) {
+            if (partie.joueurs[1 - j].aPerdu() && !partie.joueurs[1 - j].getFlotte().isEmpty()) partie.vainqueur = j;
+        }
+        return partie;
+    }
+
+    /**
+     * Fait enregistrer la partie dans un journal : les flottes y sont notées tout de suite, chaque tir ensuite,
+     * et le bloc de la partie est ajouté au journal dès qu'elle est gagnée.
+     * Doit être appelé avant le premier tir ; l'enregistrement, vidé à la fin de la partie, peut resservir.
+     * @param enregistrement Un enregistrement vide obtenu par {@link journal.JournalTirs#nouvellePartie(int, int)}.
+     */
+    public void setEnregistrement(EnregistrementPartie enregistrement) {
+        if (historique.taille() > 0) {
+            throw new IllegalStateException("La partie a déjà commencé.");
+        }
+        Grille grille = joueurs[0].getGrille();
+        enregistrement.recommencer(grille.getLignes(), grille.getColonnes());
+        for (int j = 0; j < 2; j++) {
+            joueurs[j].journaliserFlotte(enregistrement, j);
+        }
+        this.enregistrement = enregistrement;
+    }
+
+    /**
+     * Capture l'état de la partie en quelques centaines d'octets.
+     * @return L'instantané encodé.
+     */
+    public byte[] capturer() {
+        return Instantane.capturer(joueurs[0], joueurs[1], actuel, true, historique);
+    }
+
+    /**
+     * Joue la partie jusqu'à ce qu'une flotte soit entièrement coulée.
+     * @param premier Indice (0 ou 1) du joueur qui tire en premier.
+     * @return L'indice du vainqueur.
+     */
+    public int jouer(int premier) {
+        this.actuel = premier;
+        return continuer();
+    }
+
+    /**
+     * Joue la partie à partir du joueur dont c'est le tour, jusqu'à ce qu'une flotte soit entièrement coulée.
+     * @return L'indice du vainqueur.
+     */
+    public int continuer() {
+        while (!jouerTir()) {
+            // La partie continue
+        }
+        return vainqueur;
+    }
+
+    /**
+     * Joue un seul tir du joueur dont c'est le tour.
+     * @return true si la partie est terminée.
+     */
+    public boolean jouerTir() {
+        if (vainqueur >= 0) return true;
+        int adversaire = 1 - actuel;
+        // Garde-fou contre une stratégie qui viserait indéfiniment des cases déjà jouées
+        Grille grilleAdversaire = joueurs[adversaire].getGrille();
+        if (tirs[actuel] >= 2 * grilleAdversaire.getLignes() * grilleAdversaire.getColonnes()) {
+            throw new IllegalStateException("Le joueur " + joueurs[actuel].getNom() + " ne termine pas la partie.");
+        }
+
+        long debutMesure = Metriques.debutEchantillon();
+        int index = joueurs[actuel].tireCase();
+        Metriques.DECISIONS.fin(debutMesure);
+        ResultatTir resultat = grilleAdversaire.recevoirTir(index);
+        tirs[actuel]++;
+        historique.ajouter(index, actuel);
+
+        if (resultat == ResultatTir.COULE && joueurs[adversaire].aPerdu()) {
+            vainqueur = actuel;
+            Metriques.partieTerminee();
+        }
+        if (enregistrement != null) {
+            enregistrement.tir(actuel, index, resultat.ordinal());
+            if (vainqueur >= 0) {
+                enregistrement.terminer(vainqueur);
+                enregistrement = null;
+            }
+        }
+        actuel = adversaire;
+        return vainqueur >= 0;
+    }
+
+    /**
+     * Retourne l'indice du joueur dont c'est le tour.
+     * @return 0 ou 1.
+     */
+    public int getActuel() {
+        return actuel;
+    }
+
+    /**
+     * Retourne l'un des deux joueurs.
+     * @param joueur Indice du joueur (0 ou 1).
+     * @return Le joueur, dont la grille porte sa flotte.
+     */
+    public AbstractJoueur getJoueur(int joueur) {
+        return joueurs[joueur];
+    }
+
+    public HistoriqueTirs getHistorique() {
+        return historique;
+    }
+
+    /**
+     * Retourne l'indice du vainqueur.
+     * @return 0 ou 1, ou -1 si la partie n'a pas encore été jouée.
+     */
+    public int getVainqueur() {
+        return vainqueur;
+    }
+
+    /**
+     * Retourne le nombre de tirs effectués par un joueur.
+     * @param joueur Indice du joueur (0 ou 1).
+     * @return Le nombre de tirs du joueur.
+     */
+    public int getTirs(int joueur) {
+        return tirs[joueur];
+    }
+}
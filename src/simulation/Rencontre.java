@@ -0,0 +1,158 @@
+package simulation;
+
+/**
+ * Rencontre entre deux stratégies d'un {@link Tournoi} : le compte des victoires et les tests séquentiels
+ * du rapport de vraisemblance (SPRT) qui décident, après chaque lot de parties, si l'une des deux est
+ * plus forte que l'autre.
+ * <p>
+ * Une partie de bataille navale se termine toujours par une victoire : chaque partie est une épreuve de
+ * Bernoulli. Deux tests unilatéraux sont menés de front, un par stratégie : chacun oppose l'hypothèse
+ * « elle n'a aucun avantage » à l'hypothèse « elle a un avantage de δ Elo ». La rencontre s'arrête dès qu'un
+ * test accepte l'avantage, ou que les deux le rejettent (stratégies équivalentes à δ près), selon les risques
+ * d'erreur α et β ; elle est déclarée indécise si le nombre maximal de parties est atteint avant.
+ */
+public class Rencontre {
+
+    /** Issue d'une rencontre */
+    public enum Decision {
+        EN_COURS, A_PLUS_FORT, B_PLUS_FORT, EQUIVALENTES, INDECIS
+    }
+
+    private final String a;
+    private final String b;
+    private final double gainVictoire;  // ln(p1 / 0,5) : gain du rapport d'une stratégie pour chacune de ses victoires
+    private final double gainDefaite;   // ln((1 - p1) / 0,5) : gain pour chacune de ses défaites
+    private final double borneBasse;    // ln(β / (1 - α))
+    private final double borneHaute;    // ln((1 - β) / α)
+    private final long partiesMax;
+
+    private long victoiresA;
+    private long victoiresB;
+    private long tirsVainqueur;         // Somme des tirs du vainqueur, pour la moyenne
+    private long dureeNanos;
+    private Decision decision = Decision.EN_COURS;
+
+    /**
+     * Crée une rencontre.
+     * @param a Nom de la première stratégie.
+     * @param b Nom de la seconde stratégie.
+     * @param ecartElo Écart δ, en points Elo, que le test doit distinguer.
+     * @param alpha Risque d'accepter à tort l'avantage d'une stratégie.
+     * @param beta Risque de rejeter à tort un avantage de δ Elo.
+     * @param partiesMax Nombre de parties au-delà duquel la rencontre est déclarée indécise.
+     */
+    public Rencontre(String a, String b, double ecartElo, double alpha, double beta, long partiesMax) {
+        this.a = a;
+        this.b = b;
+        double p1 = scoreAttendu(ecartElo);
+        this.gainVictoire = Math.log(p1 / 0.5);
+        this.gainDefaite = Math.log((1 - p1) / 0.5);
+        this.borneBasse = Math.log(beta / (1 - alpha));
+        this.borneHaute = Math.log((1 - beta) / alpha);
+        this.partiesMax = partiesMax;
+    }
+
+    /**
+     * Ajoute un lot de parties et met la décision à jour.
+     * @param resultats Les résultats du lot, A étant le joueur 1.
+     * @return La décision après ce lot.
+     */
+    public synchronized Decision ajouter(ResultatsSimulation resultats) {
+        victoiresA += resultats.getVictoires(0);
+        victoiresB += resultats.getVictoires(1);
+        tirsVainqueur += Math.round(resultats.moyenneTirs() * resultats.getParties());
+        dureeNanos += resultats.getDureeNanos();
+        double rapportA = getRapportA();
+        double rapportB = getRapportB();
+        if (rapportA >= borneHaute) {
+            decision = Decision.A_PLUS_FORT;
+        } else if (rapportB >= borneHaute) {
+            decision = Decision.B_PLUS_FORT;
+        } else if (rapportA <= borneBasse && rapportB <= borneBasse) {
+            decision = Decision.EQUIVALENTES;
+        } else if (getParties() >= partiesMax) {
+            decision = Decision.INDECIS;
+        }
+        return decision;
+    }
+
+    /**
+     * Score attendu face à un adversaire, selon la formule d'Elo.
+     * @param ecartElo Avantage en points Elo.
+     * @return La probabilité de gagner une partie.
+     */
+    public static double scoreAttendu(double ecartElo) {
+        return 1 / (1 + Math.pow(10, -ecartElo / 400));
+    }
+
+    public String getA() {
+        return a;
+    }
+
+    public String getB() {
+        return b;
+    }
+
+    public synchronized long getVictoiresA() {
+        return victoiresA;
+    }
+
+    public synchronized long getVictoiresB() {
+        return victoiresB;
+    }
+
+    public synchronized long getParties() {
+        return victoiresA + victoiresB;
+    }
+
+    public synchronized Decision getDecision() {
+        return decision;
+    }
+
+    public synchronized long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * Retourne le logarithme du rapport de vraisemblance du test de l'avantage de A.
+     * @return Positif quand les résultats donnent un avantage à A.
+     */
+    public synchronized double getRapportA() {
+        return victoiresA * gainVictoire + victoiresB * gainDefaite;
+    }
+
+    /**
+     * Retourne le logarithme du rapport de vraisemblance du test de l'avantage de B.
+     * @return Positif quand les résultats donnent un avantage à B.
+     */
+    public synchronized double getRapportB() {
+        return victoiresB * gainVictoire + victoiresA * gainDefaite;
+    }
+
+    /**
+     * Retourne la moyenne des tirs du vainqueur.
+     * @return Le nombre moyen de tirs pour gagner, 0 si aucune partie n'a été jouée.
+     */
+    public synchronized double moyenneTirs() {
+        long parties = getParties();
+        return (parties == 0) ? 0 : (double) tirsVainqueur / parties;
+    }
+
+    /**
+     * Estime l'avantage de A en points Elo à partir de son score.
+     * @return L'écart Elo estimé, borné à ±800 quand une stratégie a gagné toutes les parties.
+     */
+    public synchronized double ecartElo() {
+        long parties = getParties();
+        if (parties == 0) return 0;
+        // Une demi-victoire de chaque côté évite un écart infini sur un score parfait
+        double score = (victoiresA + 0.5) / (parties + 1.0);
+        return Math.max(-800, Math.min(800, -400 * Math.log10(1 / score - 1)));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s - %s : %d - %d en %d parties, %+.0f Elo, %s",
+                a, b, victoiresA, victoiresB, getParties(), ecartElo(), decision);
+    }
+}
@@ -0,0 +1,132 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Résultats agrégés d'une série de parties simulées : victoires de chaque joueur,
+ * distribution du nombre de tirs nécessaires pour gagner et débit en parties par seconde.
+ * Chaque tâche du simulateur remplit sa propre instance, les instances sont ensuite fusionnées.
+ */
+public class ResultatsSimulation {
+
+    private long parties;                         // Nombre de parties jouées
+    private final long[] victoires = new long[2]; // Victoires du joueur 1 et du joueur 2
+    private long[] tirsPourGagner;                // tirsPourGagner[n] = parties gagnées en n tirs
+    private long dureeNanos;                      // Durée totale de la simulation
+
+    /**
+     * Constructeur des résultats.
+     * @param tirsMax Nombre maximal de tirs dans une partie (taille de la grille).
+     */
+    public ResultatsSimulation(int tirsMax) {
+        this.tirsPourGagner = new long[tirsMax + 1];
+    }
+
+    /**
+     * Enregistre le résultat d'une partie.
+     * @param vainqueur Indice du vainqueur (0 ou 1).
+     * @param tirs Nombre de tirs effectués par le vainqueur.
+     */
+    public void enregistrer(int vainqueur, int tirs) {
+        if (tirs >= tirsPourGagner.length) {
+            tirsPourGagner = Arrays.copyOf(tirsPourGagner, tirs + 1);
+        }
+        parties++;
+        victoires[vainqueur]++;
+        tirsPourGagner[tirs]++;
+    }
+
+    /**
+     * Ajoute les résultats d'une autre série à ceux-ci.
+     * @param autre Les résultats à fusionner.
+     * @return Cette instance, pour chaîner les fusions.
+     */
+    public ResultatsSimulation fusionner(ResultatsSimulation autre) {
+        if (autre.tirsPourGagner.length > tirsPourGagner.length) {
+            tirsPourGagner = Arrays.copyOf(tirsPourGagner, autre.tirsPourGagner.length);
+        }
+        parties += autre.parties;
+        victoires[0] += autre.victoires[0];
+        victoires[1] += autre.victoires[1];
+        for (int i = 0; i < autre.tirsPourGagner.length; i++) {
+            tirsPourGagner[i] += autre.tirsPourGagner[i];
+        }
+        return this;
+    }
+
+    // --------------------- GETTERS & SETTERS ---------------------
+
+    public long getParties() {
+        return parties;
+    }
+
+    /**
+     * Retourne le nombre de victoires d'un joueur.
+     * @param joueur Indice du joueur (0 ou 1).
+     * @return Le nombre de parties gagnées par ce joueur.
+     */
+    public long getVictoires(int joueur) {
+        return victoires[joueur];
+    }
+
+    /**
+     * Retourne la distribution du nombre de tirs du vainqueur.
+     * @return Une copie du tableau où l'indice n contient le nombre de parties gagnées en n tirs.
+     */
+    public long[] getTirsPourGagner() {
+        return tirsPourGagner.clone();
+    }
+
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    public void setDureeNanos(long dureeNanos) {
+        this.dureeNanos = dureeNanos;
+    }
+
+    // --------------------- STATISTIQUES ---------------------
+
+    /**
+     * Retourne le nombre moyen de tirs du vainqueur.
+     * @return La moyenne, ou 0 si aucune partie n'a été jouée.
+     */
+    public double moyenneTirs() {
+        if (parties == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < tirsPourGagner.length; i++) {
+            total += i * tirsPourGagner[i];
+        }
+        return (double) total / parties;
+    }
+
+    /**
+     * Retourne le nombre de tirs en dessous duquel se situe une proportion donnée des victoires.
+     * @param proportion Proportion entre 0 et 1 (0.5 pour la médiane).
+     * @return Le quantile du nombre de tirs du vainqueur.
+     */
+    public int quantileTirs(double proportion) {
+        long seuil = (long) Math.ceil(proportion * parties);
+        long cumul = 0;
+        for (int i = 0; i < tirsPourGagner.length; i++) {
+            cumul += tirsPourGagner[i];
+            if (cumul >= seuil && cumul > 0) return i;
+        }
+        return tirsPourGagner.length - 1;
+    }
+
+    /**
+     * Retourne le débit de la simulation.
+     * @return Le nombre de parties jouées par seconde.
+     */
+    public double partiesParSeconde() {
+        if (dureeNanos == 0) return 0;
+        return parties * 1e9 / dureeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Parties : %d | Victoires J1 : %d, J2 : %d | Tirs du vainqueur : moyenne %.2f, médiane %d, p90 %d | %.0f parties/s",
+                parties, victoires[0], victoires[1], moyenneTirs(), quantileTirs(0.5), quantileTirs(0.9), partiesParSeconde());
+    }
+}
@@ -0,0 +1,216 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import journal.EnregistrementPartie;
+import journal.JournalTirs;
+import metrique.Metriques;
+import model.JoueurAleatoire;
+import model.JoueurDensite;
+import model.JoueurMonteCarlo;
+import model.JoueurOptimal;
+import model.LivreOuvertures;
+import model.SolveurExact;
+
+/**
+ * Moteur de simulation sans interface de parties entre deux joueurs automatiques.
+ * Les parties sont réparties sur tous les cœurs grâce à un {@link ForkJoinPool} :
+ * la série est découpée récursivement en blocs que les threads se volent entre eux.
+ * Le moteur n'utilise ni Swing ni la console ; il ne fait que retourner des {@link ResultatsSimulation}.
+ */
+public class Simulateur {
+
+    /** Nombre de parties en dessous duquel une tâche n'est plus découpée */
+    private static final int SEUIL_DECOUPAGE = 256;
+    /** Nombre maximal de situations gardées en mémoire par livre d'ouvertures chargé */
+    private static final int CAPACITE_LIVRE = 1 << 16;
+    /** Livres d'ouvertures déjà chargés, par fichier */
+    private static final Map<String, LivreOuvertures> LIVRES = new ConcurrentHashMap<>();
+
+    private final int lignes;
+    private final int colonnes;
+    private final FabriqueJoueur fabrique1;
+    private final FabriqueJoueur fabrique2;
+    private final ForkJoinPool pool;
+    private JournalTirs journal;
+
+    /**
+     * Constructeur du simulateur utilisant le pool commun (un thread par cœur).
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param fabrique1 Fabrique du premier joueur.
+     * @param fabrique2 Fabrique du second joueur.
+     */
+    public Simulateur(int lignes, int colonnes, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2) {
+        this(lignes, colonnes, fabrique1, fabrique2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructeur du simulateur utilisant un pool donné.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param fabrique1 Fabrique du premier joueur.
+     * @param fabrique2 Fabrique du second joueur.
+     * @param pool Le pool de threads sur lequel répartir les parties.
+     */
+    public Simulateur(int lignes, int colonnes, FabriqueJoueur fabrique1, FabriqueJoueur fabrique2, ForkJoinPool pool) {
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.fabrique1 = fabrique1;
+        this.fabrique2 = fabrique2;
+        this.pool = pool;
+    }
+
+    /**
+     * Fait enregistrer toutes les parties jouées dans un journal.
+     * Chaque thread remplit son propre tampon et n'ajoute au journal qu'un bloc par partie terminée.
+     * @param journal Le journal, ou null pour ne rien enregistrer.
+     */
+    public void setJournal(JournalTirs journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Joue un nombre donné de parties en parallèle.
+     * Le joueur qui commence alterne d'une partie à l'autre pour ne favoriser aucun des deux.
+     * @param nombreParties Nombre de parties à jouer.
+     * @return Les résultats agrégés de toutes les parties.
+     */
+    public ResultatsSimulation simuler(long nombreParties) {
+        long debut = System.nanoTime();
+        ResultatsSimulation resultats = pool.invoke(new TacheSimulation(0, nombreParties));
+        resultats.setDureeNanos(System.nanoTime() - debut);
+        return resultats;
+    }
+
+    /**
+     * Joue les parties d'indices [debut, fin) sur le thread courant.
+     * @param debut Indice de la première partie.
+     * @param fin Indice suivant la dernière partie.
+     * @return Les résultats de ces parties.
+     */
+    private ResultatsSimulation jouerSequentiel(long debut, long fin) {
+        ResultatsSimulation resultats = new ResultatsSimulation(lignes * colonnes);
+        EnregistrementPartie enregistrement = (journal != null) ? journal.nouvellePartie(lignes, colonnes) : null;
+        for (long i = debut; i < fin; i++) {
+            PartieSimulee partie = new PartieSimulee(lignes, colonnes, fabrique1, fabrique2);
+            if (enregistrement != null) partie.setEnregistrement(enregistrement);
+            int vainqueur = partie.jouer((int) (i & 1));
+            resultats.enregistrer(vainqueur, partie.getTirs(vainqueur));
+        }
+        return resultats;
+    }
+
+    /**
+     * Tâche récursive : découpe l'intervalle de parties en deux tant qu'il dépasse le seuil.
+     */
+    private class TacheSimulation extends RecursiveTask<ResultatsSimulation> {
+        private static final long serialVersionUID = 1L;
+
+        private final long debut;
+        private final long fin;
+
+        TacheSimulation(long debut, long fin) {
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected ResultatsSimulation compute() {
+            if (fin - debut <= SEUIL_DECOUPAGE) {
+                return jouerSequentiel(debut, fin);
+            }
+            long milieu = (debut + fin) >>> 1;
+            TacheSimulation gauche = new TacheSimulation(debut, milieu);
+            gauche.fork();
+            ResultatsSimulation droite = new TacheSimulation(milieu, fin).compute();
+            return droite.fusionner(gauche.join());
+        }
+    }
+
+    /**
+     * Retourne la fabrique correspondant au nom d'une stratégie.
+     * @param nom "aleatoire", "densite", "optimal" (petites grilles seulement, voir {@link #fabrique(String, int, int)})
+     *            ou "montecarlo" (1000 flottes tirées par coup sur le thread de la partie,
+     *            les parties étant déjà réparties sur les cœurs), éventuellement suivi de "@fichier" pour consulter
+     *            un livre d'ouvertures construit par {@link ConstructeurLivre} (par exemple "montecarlo@livre.bin").
+     * @return La fabrique de joueurs de cette stratégie.
+     */
+    public static FabriqueJoueur fabrique(String nom) {
+        int arobase = nom.indexOf('@');
+        if (arobase >= 0) {
+            LivreOuvertures livre = LIVRES.computeIfAbsent(nom.substring(arobase + 1), fichier -> {
+                try {
+                    return LivreOuvertures.charger(Paths.get(fichier), CAPACITE_LIVRE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return ConstructeurLivre.avecLivre(fabrique(nom.substring(0, arobase)), livre);
+        }
+        switch (nom) {
+            case "aleatoire":
+                return (grille, grilleAdversaire) -> new JoueurAleatoire(grille, grilleAdversaire);
+            case "densite":
+                return (grille, grilleAdversaire) -> new JoueurDensite(grille, grilleAdversaire);
+            case "optimal":
+                return (grille, grilleAdversaire) -> new JoueurOptimal(grille, grilleAdversaire);
+            case "montecarlo":
+                return (grille, grilleAdversaire) -> new JoueurMonteCarlo(grille, grilleAdversaire, Duration.ofSeconds(1), null, 1000);
+            default:
+                throw new IllegalArgumentException("Stratégie inconnue : " + nom);
+        }
+    }
+
+    /**
+     * Retourne la fabrique d'une stratégie après avoir vérifié qu'elle peut jouer sur une grille donnée :
+     * la stratégie optimal, résolue exactement, est refusée d'emblée au-delà de {@value SolveurExact#CASES_MAX} cases
+     * plutôt qu'au premier tir d'une simulation.
+     * @param nom Le nom de la stratégie (voir {@link #fabrique(String)}).
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @return La fabrique de joueurs de cette stratégie.
+     */
+    public static FabriqueJoueur fabrique(String nom, int lignes, int colonnes) {
+        int arobase = nom.indexOf('@');
+        String strategie = (arobase >= 0) ? nom.substring(0, arobase) : nom;
+        if (strategie.equals("optimal") && lignes * colonnes > SolveurExact.CASES_MAX) {
+            throw new IllegalArgumentException("La stratégie optimal ne joue que sur les grilles de " + SolveurExact.CASES_MAX
+                    + " cases au plus, pas " + lignes + "x" + colonnes + " (voir simulation.EcartOptimal).");
+        }
+        return fabrique(nom);
+    }
+
+    /**
+     * Point d'entrée en ligne de commande : simule des parties entre deux joueurs automatiques.
+     * @param args Nombre de parties (100 000 par défaut), puis les stratégies des deux joueurs (aleatoire par défaut),
+     *             et enfin un fichier facultatif où journaliser les parties.
+     * @throws IOException Si le journal ne peut être écrit.
+     */
+    public static void main(String[] args) throws IOException {
+        long nombreParties = (args.length > 0) ? Long.parseLong(args[0]) : 100_000;
+        FabriqueJoueur joueur1 = fabrique((args.length > 1) ? args[1] : "aleatoire", 10, 10);
+        FabriqueJoueur joueur2 = fabrique((args.length > 2) ? args[2] : "aleatoire", 10, 10);
+
+        Simulateur simulateur = new Simulateur(10, 10, joueur1, joueur2);
+        System.out.println("Simulation de " + nombreParties + " parties sur " + simulateur.pool.getParallelism() + " threads...");
+        if (args.length > 3 && !args[3].isEmpty()) {
+            try (JournalTirs journal = JournalTirs.ouvrir(Paths.get(args[3]))) {
+                simulateur.setJournal(journal);
+                System.out.println(simulateur.simuler(nombreParties));
+                System.out.println("Journal " + args[3] + " : " + journal.getNombreParties() + " parties, "
+                        + journal.getTaille() / (1024 * 1024) + " Mio");
+            }
+        } else {
+            System.out.println(simulateur.simuler(nombreParties));
+        }
+        if (Metriques.actives()) System.out.println(Metriques.getInstance());
+    }
+}
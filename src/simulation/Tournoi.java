@@ -0,0 +1,304 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tournoi toutes rondes entre des stratégies de joueurs automatiques.
+ * Toutes les rencontres sont jouées en même temps sur un {@link ForkJoinPool} : chacune joue des lots de parties
+ * avec un {@link Simulateur} partageant ce pool, le premier tireur alternant d'une partie à l'autre, jusqu'à
+ * ce que son test séquentiel (voir {@link Rencontre}) rende une décision. Une rencontre déséquilibrée
+ * s'arrête ainsi après quelques centaines de parties, et le temps de calcul va aux rencontres serrées.
+ * <p>
+ * Le classement Elo est ajusté sur l'ensemble des résultats (modèle de Bradley-Terry) : il ne dépend
+ * pas de l'ordre dans lequel les parties se sont terminées.
+ */
+public class Tournoi {
+
+    private final int lignes;
+    private final int colonnes;
+    private final ForkJoinPool pool;
+    private final Map<String, FabriqueJoueur> strategies = new LinkedHashMap<>();
+    private final List<Rencontre> rencontres = new ArrayList<>();
+
+    private double ecartElo = 20;
+    private double alpha = 0.05;
+    private double beta = 0.05;
+    private long partiesMax = 20_000;
+    private int tailleLot = 200;
+
+    /**
+     * Constructeur du tournoi utilisant le pool commun (un thread par cœur).
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     */
+    public Tournoi(int lignes, int colonnes) {
+        this(lignes, colonnes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructeur du tournoi utilisant un pool donné.
+     * @param lignes Nombre de lignes des grilles.
+     * @param colonnes Nombre de colonnes des grilles.
+     * @param pool Le pool de threads sur lequel répartir les parties.
+     */
+    public Tournoi(int lignes, int colonnes, ForkJoinPool pool) {
+        this.lignes = lignes;
+        this.colonnes = colonnes;
+        this.pool = pool;
+    }
+
+    /**
+     * Inscrit une stratégie au tournoi.
+     * @param nom Le nom de la stratégie, unique.
+     * @param fabrique La fabrique de ses joueurs.
+     */
+    public void inscrire(String nom, FabriqueJoueur fabrique) {
+        if (strategies.putIfAbsent(nom, fabrique) != null) {
+            throw new IllegalArgumentException("Stratégie déjà inscrite : " + nom);
+        }
+    }
+
+    /**
+     * Règle le test séquentiel de chaque rencontre.
+     * @param ecartElo Écart, en points Elo, que le test doit distinguer.
+     * @param alpha Risque d'accepter à tort l'avantage d'une stratégie.
+     * @param beta Risque de rejeter à tort un avantage de cet écart.
+     */
+    public void setTest(double ecartElo, double alpha, double beta) {
+        this.ecartElo = ecartElo;
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    /**
+     * Fixe le nombre de parties au-delà duquel une rencontre est déclarée indécise.
+     * @param partiesMax Le nombre maximal de parties par rencontre.
+     */
+    public void setPartiesMax(long partiesMax) {
+        this.partiesMax = partiesMax;
+    }
+
+    /**
+     * Fixe le nombre de parties jouées entre deux décisions du test, arrondi au nombre pair supérieur
+     * pour que chaque stratégie commence autant de parties.
+     * @param tailleLot Le nombre de parties par lot.
+     */
+    public void setTailleLot(int tailleLot) {
+        this.tailleLot = tailleLot + (tailleLot & 1);
+    }
+
+    public List<Rencontre> getRencontres() {
+        return Collections.unmodifiableList(rencontres);
+    }
+
+    /**
+     * Joue toutes les rencontres jusqu'à leur décision.
+     * @return Les rencontres, dans l'ordre des inscriptions.
+     */
+    public List<Rencontre> jouer() {
+        rencontres.clear();
+        List<TacheRencontre> taches = new ArrayList<>();
+        List<String> noms = new ArrayList<>(strategies.keySet());
+        for (int i = 0; i < noms.size(); i++) {
+            for (int j = i + 1; j < noms.size(); j++) {
+                Rencontre rencontre = new Rencontre(noms.get(i), noms.get(j), ecartElo, alpha, beta, partiesMax);
+                rencontres.add(rencontre);
+                taches.add(new TacheRencontre(rencontre));
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(taches);
+            }
+        });
+        return getRencontres();
+    }
+
+    /**
+     * Calcule le classement Elo des stratégies à partir de toutes les rencontres jouées.
+     * Les forces du modèle de Bradley-Terry sont obtenues par l'algorithme itératif de Zermelo ; une demi-victoire
+     * est ajoutée de chaque côté de chaque rencontre pour qu'un score parfait garde un classement fini.
+     * @return Le classement Elo de chaque stratégie, de moyenne nulle, du meilleur au moins bon.
+     */
+    public Map<String, Double> classement() {
+        List<String> noms = new ArrayList<>(strategies.keySet());
+        int n = noms.size();
+        double[][] victoires = new double[n][n];
+        for (Rencontre rencontre : rencontres) {
+            int a = noms.indexOf(rencontre.getA());
+            int b = noms.indexOf(rencontre.getB());
+            victoires[a][b] = rencontre.getVictoiresA() + 0.5;
+            victoires[b][a] = rencontre.getVictoiresB() + 0.5;
+        }
+
+        double[] force = new double[n];
+        Arrays.fill(force, 1);
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            double[] suivante = new double[n];
+            double sommeLog = 0;
+            for (int i = 0; i < n; i++) {
+                double gagnees = 0;
+                double denominateur = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j == i) continue;
+                    gagnees += victoires[i][j];
+                    denominateur += (victoires[i][j] + victoires[j][i]) / (force[i] + force[j]);
+                }
+                suivante[i] = (denominateur == 0) ? 1 : gagnees / denominateur;
+                sommeLog += Math.log(suivante[i]);
+            }
+            double moyenne = Math.exp(sommeLog / n);
+            for (int i = 0; i < n; i++) force[i] = suivante[i] / moyenne;
+        }
+
+        List<Integer> ordre = new ArrayList<>();
+        for (int i = 0; i < n; i++) ordre.add(i);
+        ordre.sort((i, j) -> Double.compare(force[j], force[i]));
+        Map<String, Double> classement = new LinkedHashMap<>();
+        for (int i : ordre) {
+            classement.put(noms.get(i), 400 * Math.log10(force[i]));
+        }
+        return classement;
+    }
+
+    // --------------------- EXPORT ---------------------
+
+    /**
+     * Exporte les rencontres au format CSV, une ligne par rencontre.
+     * @param fichier Le fichier à écrire.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void exporterCsv(Path fichier) throws IOException {
+        try (PrintWriter sortie = new PrintWriter(Files.newBufferedWriter(fichier))) {
+            sortie.println("a,b,victoires_a,victoires_b,parties,ecart_elo,llr_a,llr_b,decision,tirs_moyens,duree_s");
+            for (Rencontre r : rencontres) {
+                sortie.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%.3f,%.3f,%s,%.2f,%.3f",
+                        champCsv(r.getA()), champCsv(r.getB()), r.getVictoiresA(), r.getVictoiresB(), r.getParties(),
+                        r.ecartElo(), r.getRapportA(), r.getRapportB(), r.getDecision(), r.moyenneTirs(), r.getDureeNanos() / 1e9));
+            }
+        }
+    }
+
+    /**
+     * Exporte les rencontres et le classement au format JSON.
+     * @param fichier Le fichier à écrire.
+     * @throws IOException En cas d'erreur d'écriture.
+     */
+    public void exporterJson(Path fichier) throws IOException {
+        try (PrintWriter sortie = new PrintWriter(Files.newBufferedWriter(fichier))) {
+            sortie.println("{");
+            sortie.println(String.format(Locale.ROOT, "  \"grille\": [%d, %d],", lignes, colonnes));
+            sortie.println(String.format(Locale.ROOT, "  \"sprt\": {\"ecart_elo\": %s, \"alpha\": %s, \"beta\": %s, \"parties_max\": %d},",
+                    ecartElo, alpha, beta, partiesMax));
+            sortie.println("  \"rencontres\": [");
+            for (int i = 0; i < rencontres.size(); i++) {
+                Rencontre r = rencontres.get(i);
+                sortie.print(String.format(Locale.ROOT,
+                        "    {\"a\": %s, \"b\": %s, \"victoires_a\": %d, \"victoires_b\": %d, \"parties\": %d, "
+                                + "\"ecart_elo\": %.1f, \"llr_a\": %.3f, \"llr_b\": %.3f, \"decision\": \"%s\", \"tirs_moyens\": %.2f}",
+                        chaineJson(r.getA()), chaineJson(r.getB()), r.getVictoiresA(), r.getVictoiresB(), r.getParties(),
+                        r.ecartElo(), r.getRapportA(), r.getRapportB(), r.getDecision(), r.moyenneTirs()));
+                sortie.println((i + 1 < rencontres.size()) ? "," : "");
+            }
+            sortie.println("  ],");
+            sortie.println("  \"classement\": [");
+            List<Map.Entry<String, Double>> classement = new ArrayList<>(classement().entrySet());
+            for (int i = 0; i < classement.size(); i++) {
+                sortie.print(String.format(Locale.ROOT, "    {\"strategie\": %s, \"elo\": %.1f}",
+                        chaineJson(classement.get(i).getKey()), classement.get(i).getValue()));
+                sortie.println((i + 1 < classement.size()) ? "," : "");
+            }
+            sortie.println("  ]");
+            sortie.println("}");
+        }
+    }
+
+    private static String champCsv(String valeur) {
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0) return valeur;
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    private static String chaineJson(String valeur) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : valeur.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Tâche d'une rencontre : joue des lots de parties tant que le test n'a pas décidé.
+     */
+    private class TacheRencontre extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Rencontre rencontre;
+
+        TacheRencontre(Rencontre rencontre) {
+            this.rencontre = rencontre;
+        }
+
+        @Override
+        protected void compute() {
+            Simulateur simulateur = new Simulateur(lignes, colonnes,
+                    strategies.get(rencontre.getA()), strategies.get(rencontre.getB()), pool);
+            while (rencontre.getDecision() == Rencontre.Decision.EN_COURS) {
+                long restantes = partiesMax - rencontre.getParties();
+                long lot = Math.min(tailleLot, restantes + (restantes & 1));
+                rencontre.ajouter(simulateur.simuler(lot));
+            }
+        }
+    }
+
+    /**
+     * Point d'entrée en ligne de commande : tournoi entre des stratégies du {@link Simulateur}.
+     * @param args Les stratégies séparées par des virgules (aleatoire,densite,montecarlo par défaut),
+     *             le nombre maximal de parties par rencontre (20 000 par défaut)
+     *             et le préfixe des fichiers CSV et JSON exportés (tournoi par défaut).
+     * @throws IOException Si les résultats ne peuvent être écrits.
+     */
+    public static void main(String[] args) throws IOException {
+        String[] noms = ((args.length > 0) ? args[0] : "aleatoire,densite,montecarlo").split(",");
+        long partiesMax = (args.length > 1) ? Long.parseLong(args[1]) : 20_000;
+        String prefixe = (args.length > 2) ? args[2] : "tournoi";
+
+        Tournoi tournoi = new Tournoi(10, 10);
+        for (String nom : noms) {
+            tournoi.inscrire(nom, Simulateur.fabrique(nom, 10, 10));
+        }
+        tournoi.setPartiesMax(partiesMax);
+        System.out.println("Tournoi entre " + String.join(", ", noms) + " sur " + tournoi.pool.getParallelism() + " threads...");
+
+        long debut = System.nanoTime();
+        long jouees = 0;
+        for (Rencontre rencontre : tournoi.jouer()) {
+            System.out.println(rencontre);
+            jouees += rencontre.getParties();
+        }
+        System.out.printf("%d parties jouées en %.1f s (au plus %d sans arrêt anticipé)%n",
+                jouees, (System.nanoTime() - debut) / 1e9, partiesMax * tournoi.rencontres.size());
+        tournoi.classement().forEach((nom, elo) -> System.out.printf("  %-24s %+7.1f Elo%n", nom, elo));
+
+        tournoi.exporterCsv(Paths.get(prefixe + ".csv"));
+        tournoi.exporterJson(Paths.get(prefixe + ".json"));
+        System.out.println("Résultats exportés dans " + prefixe + ".csv et " + prefixe + ".json");
+    }
+}
@@ -2,8 +2,11 @@ package vue;
 
 import java.awt.BorderLayout;
 import java.awt.Toolkit;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import controleur.ControleJeu;
+import controleur.ControleRelecture;
+import controleur.Relecture;
 import model.Jeu;
 
 /** 
@@ -26,11 +29,23 @@ public class FenetrePrincipale extends JFrame {
      */
     public FenetrePrincipale(Jeu jeu) {
         // Initialisation du contrôleur du jeu
-        ControleJeu controleJeu = new ControleJeu(jeu);
-        
+        this(new ControleJeu(jeu));
+    }
+
+    /**
+     * Constructeur de la fenêtre en mode spectateur : relecture d'une partie entre deux joueurs automatiques.
+     * 
+     * @param relecture La partie à relire
+     * @param vitesse La vitesse de départ, en tirs par seconde
+     */
+    public FenetrePrincipale(Relecture relecture, int vitesse) {
+        this(new ControleRelecture(relecture, vitesse));
+    }
+
+    private FenetrePrincipale(JComponent controle) {
         // Configuration de la fenêtre
         this.setLayout(new BorderLayout());
-        this.add(controleJeu, BorderLayout.CENTER);
+        this.add(controle, BorderLayout.CENTER);
         this.setSize(largeurEcran, hauteurEcran);
         this.setLocationRelativeTo(null);
         this.setDefaultCloseOperation(DISPOSE_ON_CLOSE);
@@ -0,0 +1,308 @@
+package vue;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import javax.swing.JComponent;
+
+import model.EtatGrille;
+import model.Grille;
+import ecoute.ModelEcoute;
+import ecoute.Evenement;
+
+/**
+ * Affichage d'une grille dessinée d'un seul bloc, sans composant par cellule.
+ * Toute la grille est peinte en une passe de {@code paintComponent}, limitée aux cellules du rectangle
+ * à repeindre, avec des couleurs et des traits créés une fois pour toutes.
+ * Le canevas ne lit de la grille que son état publié ({@link Grille#getEtatPublie()}), un instantané immuable
+ * de ses masques et de ses bateaux pris par le thread de jeu : à chaque modification, il compare le nouvel
+ * instantané à celui qu'il affiche et ne repeint que les cellules qui ont changé.
+ * C'est l'alternative à {@link GrilleVue} pour les grandes grilles (100x100 et au-delà).
+ */
+public class GrilleCanevas extends JComponent implements ModelEcoute {
+
+    /** Action déclenchée par un clic sur une cellule */
+    public interface ClicCellule {
+        void celluleCliquee(int x, int y);
+    }
+
+    /** Couleurs et traits partagés par tous les canevas */
+    private static final Color COULEUR_FOND = Color.BLACK;
+    private static final Color COULEUR_BORDURE = new Color(0, 255, 255);
+    private static final Color COULEUR_BATEAU = new Color(255, 255, 0);
+    private static final Color COULEUR_TOUCHE = Color.RED;
+    private static final Color COULEUR_RATE = Color.GREEN;
+    private static final Color COULEUR_TITRE = Color.WHITE;
+    private static final Font POLICE_TITRE = new Font("Arial", Font.BOLD, 16);
+    private static final Stroke TRAIT_FIN = new BasicStroke(1f);
+
+    /** Dimensions de l'affichage */
+    private static final int HAUTEUR_TITRE = 30;
+    private static final int TAILLE_MIN_CELLULE = 4;
+    private static final int TAILLE_MAX_CELLULE = 40;
+    private static final int LARGEUR_PREFEREE = 500;
+
+    /** Modèle affiché */
+    protected Grille grilleModel;
+    protected int lignes;
+    protected int colonnes;
+
+    /** Libellé de la grille */
+    protected String grilleLabel;
+
+    /** true pour montrer tous les bateaux (grille du joueur), false pour ne montrer que les bateaux coulés */
+    protected boolean montrerBateaux;
+
+    /** État affiché, comparé au suivant pour retrouver les cellules modifiées */
+    private EtatGrille affiche;
+
+    /** Bateau occupant chaque cellule (-1 si vide), recalculé quand l'occupation change */
+    private final int[] bateauParCellule;
+
+    /** Action associée au clic, ou null si la grille n'est pas cliquable */
+    private ClicCellule clicCellule;
+
+    /**
+     * Constructeur du canevas.
+     * @param grilleModel La grille à afficher.
+     * @param grilleLabel Le libellé affiché au-dessus de la grille.
+     * @param montrerBateaux true pour afficher tous les bateaux, false pour n'afficher que les bateaux coulés.
+     */
+    public GrilleCanevas(Grille grilleModel, String grilleLabel, boolean montrerBateaux) {
+        super();
+        this.grilleModel = grilleModel;
+        this.lignes = grilleModel.getLignes();
+        this.colonnes = grilleModel.getColonnes();
+        this.grilleLabel = grilleLabel;
+        this.montrerBateaux = montrerBateaux;
+
+        this.bateauParCellule = new int[lignes * colonnes];
+        this.affiche = grilleModel.getEtatPublie();
+        placerBateaux();
+
+        this.setOpaque(true);
+        int cellule = Math.max(TAILLE_MIN_CELLULE, Math.min(TAILLE_MAX_CELLULE, LARGEUR_PREFEREE / Math.max(lignes, colonnes)));
+        this.setPreferredSize(new Dimension(colonnes * cellule + 1, HAUTEUR_TITRE + lignes * cellule + 1));
+
+        // Un seul écouteur pour toute la grille
+        this.grilleModel.abonnerFaible(this);
+
+        this.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (clicCellule == null) return;
+                int index = celluleEn(e.getX(), e.getY());
+                if (index >= 0) clicCellule.celluleCliquee(index / colonnes, index % colonnes);
+            }
+        });
+    }
+
+    /**
+     * Définit l'action déclenchée par un clic sur une cellule.
+     * @param clicCellule L'action, ou null pour rendre la grille non cliquable.
+     */
+    public void setClicCellule(ClicCellule clicCellule) {
+        this.clicCellule = clicCellule;
+    }
+
+    /**
+     * Retourne la grille affichée.
+     * @return Le modèle de la grille.
+     */
+    public Grille getGrilleModel() {
+        return grilleModel;
+    }
+
+    // --------------------- GÉOMÉTRIE ---------------------
+
+    /**
+     * Taille en pixels d'une cellule, selon la place disponible.
+     */
+    private int tailleCellule() {
+        int largeur = (getWidth() - 1) / colonnes;
+        int hauteur = (getHeight() - HAUTEUR_TITRE - 1) / lignes;
+        return Math.max(1, Math.min(largeur, hauteur));
+    }
+
+    /**
+     * Abscisse du bord gauche de la grille (la grille est centrée horizontalement).
+     */
+    private int origineX(int taille) {
+        return (getWidth() - colonnes * taille) / 2;
+    }
+
+    /**
+     * Retourne l'indice de la cellule sous un point du composant.
+     * @return L'indice de la cellule, ou -1 si le point est hors de la grille.
+     */
+    private int celluleEn(int px, int py) {
+        int taille = tailleCellule();
+        int dx = px - origineX(taille);
+        int dy = py - HAUTEUR_TITRE;
+        if (dx < 0 || dy < 0) return -1;
+        int y = dx / taille;
+        int x = dy / taille;
+        if (x >= lignes || y >= colonnes) return -1;
+        return x * colonnes + y;
+    }
+
+    // --------------------- MISE À JOUR ---------------------
+
+    /**
+     * Compare le dernier état publié de la grille à l'état affiché et demande à repeindre les cellules modifiées.
+     * Une cellule dont l'occupation change fait aussi repeindre ses voisines, dont le contour de bateau dépend.
+     */
+    private void rafraichir() {
+        EtatGrille etat = grilleModel.getEtatPublie();
+        if (etat == affiche) return;
+        long[] occupation = etat.getOccupation();
+        long[] tirs = etat.getTirs();
+        long[] touches = etat.getTouches();
+        long[] coules = etat.getCoules();
+        long[] occupationAffichee = affiche.getOccupation();
+        long[] tirsAffiches = affiche.getTirs();
+        long[] touchesAffichees = affiche.getTouches();
+        long[] coulesAffiches = affiche.getCoules();
+        if (!etat.memeFlotte(affiche)) {
+            // Flotte replacée : les contours peuvent changer partout, même là où l'occupation est la même
+            affiche = etat;
+            placerBateaux();
+            repaint();
+            return;
+        }
+
+        int taille = tailleCellule();
+        int x0 = origineX(taille);
+        for (int m = 0; m < occupation.length; m++) {
+            long bateaux = occupation[m] ^ occupationAffichee[m];
+            long modifie = bateaux | (tirs[m] ^ tirsAffiches[m])
+                    | (touches[m] ^ touchesAffichees[m]) | (coules[m] ^ coulesAffiches[m]);
+            while (modifie != 0) {
+                int index = (m << 6) + Long.numberOfTrailingZeros(modifie);
+                modifie &= modifie - 1;
+                int x = index / colonnes;
+                int y = index % colonnes;
+                // Les contours de bateau débordent sur le voisinage immédiat
+                int marge = ((bateaux | (coules[m] ^ coulesAffiches[m])) & (1L << index)) != 0 ? taille : 0;
+                repaint(x0 + y * taille - marge, HAUTEUR_TITRE + x * taille - marge,
+                        taille + 1 + 2 * marge, taille + 1 + 2 * marge);
+            }
+        }
+        affiche = etat;
+    }
+
+    /**
+     * Recalcule le bateau de chaque cellule à partir des positions des bateaux de l'état affiché.
+     */
+    private void placerBateaux() {
+        Arrays.fill(bateauParCellule, -1);
+        for (int b = 0; b < affiche.getNbBateaux(); b++) {
+            int origine = affiche.getOrigineBateau(b);
+            int pas = ((origine & 1) != 0) ? colonnes : 1;
+            for (int k = 0, i = origine >>> 1; k < affiche.getTailleBateau(b); k++, i += pas) {
+                bateauParCellule[i] = b;
+            }
+        }
+    }
+
+    // --------------------- DESSIN ---------------------
+
+    /**
+     * Peint les cellules comprises dans le rectangle à repeindre, en une seule passe.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle zone = g2.getClipBounds();
+        if (zone == null) zone = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g2.setColor(COULEUR_FOND);
+        g2.fillRect(zone.x, zone.y, zone.width, zone.height);
+
+        int taille = tailleCellule();
+        int x0 = origineX(taille);
+
+        // Libellé de la grille
+        if (zone.y < HAUTEUR_TITRE) {
+            g2.setFont(POLICE_TITRE);
+            g2.setColor(COULEUR_TITRE);
+            FontMetrics mesure = g2.getFontMetrics();
+            g2.drawString(grilleLabel, (getWidth() - mesure.stringWidth(grilleLabel)) / 2,
+                    (HAUTEUR_TITRE + mesure.getAscent() - mesure.getDescent()) / 2);
+        }
+
+        // Cellules touchées par le rectangle à repeindre
+        int yMin = Math.max(0, (zone.x - x0) / taille);
+        int yMax = Math.min(colonnes - 1, (zone.x + zone.width - x0) / taille);
+        int xMin = Math.max(0, (zone.y - HAUTEUR_TITRE) / taille);
+        int xMax = Math.min(lignes - 1, (zone.y + zone.height - HAUTEUR_TITRE) / taille);
+        if (xMin > xMax || yMin > yMax) return;
+
+        long[] touchesAffichees = affiche.getTouches();
+        long[] tirsAffiches = affiche.getTirs();
+        g2.setStroke(TRAIT_FIN);
+        for (int x = xMin; x <= xMax; x++) {
+            int py = HAUTEUR_TITRE + x * taille;
+            for (int y = yMin; y <= yMax; y++) {
+                int index = x * colonnes + y;
+                int px = x0 + y * taille;
+                if (aBit(touchesAffichees, index)) {
+                    g2.setColor(COULEUR_TOUCHE);
+                    g2.fillRect(px, py, taille, taille);
+                } else if (aBit(tirsAffiches, index)) {
+                    g2.setColor(COULEUR_RATE);
+                    g2.fillRect(px, py, taille, taille);
+                }
+                g2.setColor(COULEUR_BORDURE);
+                g2.drawRect(px, py, taille, taille);
+            }
+        }
+
+        // Contours des bateaux visibles : un trait sur chaque côté qui ne touche pas le même bateau
+        int epaisseur = Math.max(1, taille / 10);
+        g2.setColor(COULEUR_BATEAU);
+        for (int x = xMin; x <= xMax; x++) {
+            int py = HAUTEUR_TITRE + x * taille;
+            for (int y = yMin; y <= yMax; y++) {
+                int index = x * colonnes + y;
+                if (!bateauVisible(index)) continue;
+                int bateau = bateauParCellule[index];
+                int px = x0 + y * taille;
+                if (x == 0 || bateauParCellule[index - colonnes] != bateau) g2.fillRect(px, py, taille, epaisseur);
+                if (x == lignes - 1 || bateauParCellule[index + colonnes] != bateau) g2.fillRect(px, py + taille - epaisseur, taille, epaisseur);
+                if (y == 0 || bateauParCellule[index - 1] != bateau) g2.fillRect(px, py, epaisseur, taille);
+                if (y == colonnes - 1 || bateauParCellule[index + 1] != bateau) g2.fillRect(px + taille - epaisseur, py, epaisseur, taille);
+            }
+        }
+    }
+
+    /**
+     * Un bateau est dessiné sur la grille du joueur, ou chez l'adversaire une fois coulé.
+     */
+    private boolean bateauVisible(int index) {
+        return aBit(affiche.getOccupation(), index) && (montrerBateaux || aBit(affiche.getCoules(), index));
+    }
+
+    private static boolean aBit(long[] masque, int index) {
+        return (masque[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Repeint les cellules modifiées lorsque la grille change.
+     */
+    @Override
+    public void evenement(Object source, int code) {
+        if (code == Evenement.GRILLE_MODIFIEE) {
+            this.rafraichir();
+        }
+    }
+}
@@ -4,7 +4,7 @@ import java.awt.*;
 import javax.swing.*;
 import model.Grille;
 import ecoute.ModelEcoute;
-import ecoute.notifications.GrilleNotification;
+import ecoute.Evenement;
 
 /**
  * Classe représentant l'affichage d'une grille.
@@ -29,9 +29,9 @@ public class GrilleVue extends JPanel implements ModelEcoute {
         super();
         this.setBackground(Color.BLACK);
     
-        // Initialisation du modèle et ajout du listener
+        // Initialisation du modèle et ajout du listener, qui ne retient pas la vue
         this.grilleModel = grilleModel;
-        this.grilleModel.addListening(this);
+        this.grilleModel.abonnerFaible(this);
     
         this.grilleLabel = grilleLabel;
         this.humainGrille = humainGrille;
@@ -98,7 +98,7 @@ public class GrilleVue extends JPanel implements ModelEcoute {
                 this.gbc.gridx = j;
                 this.gbc.gridy = i + 1;
 
-                this.bordureVue[i][j] = new VueCellule(this.grilleModel.getTab()[i][j]);
+                this.bordureVue[i][j] = new VueCellule(this.grilleModel.getCellulePosition(i, j));
                 this.add(this.bordureVue[i][j], this.gbc);
             }
         }
@@ -124,11 +124,9 @@ public class GrilleVue extends JPanel implements ModelEcoute {
      * Gère les mises à jour de la grille en fonction des notifications du modèle.
      */
     @Override
-    public void modelMisAJour(Object source, Object notification) {
-        if (notification instanceof GrilleNotification) {
-            System.out.println("Affichage erreurs");
-        } else {
-            System.out.println("Notification non gérée pour GrilleVue: " + notification);
-        }
+    public void evenement(Object source, int code) {
+        // Les cellules écoutent leur propre modèle : les modifications globales de la grille sont ignorées
+        if (code == Evenement.GRILLE_MODIFIEE) return;
+        System.out.println("Notification non gérée pour GrilleVue: " + Evenement.notification(code));
     }
 }
@@ -10,13 +10,21 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
+/**
+ * Écran de démarrage affiché pendant la construction du jeu.
+ * Il ne bloque pas : la barre de progression avance au rythme des étapes réellement terminées,
+ * et l'écran se ferme dès que la fenêtre principale est prête.
+ */
 public class PhotoEcran extends JFrame {
 
     private JLabel imageLabel;
     private JProgressBar progressBar;
     private int progress = 0;
+    private final AtomicInteger avancement = new AtomicInteger(); // Somme des étapes terminées
     
     public PhotoEcran() {
         // Creer une image pour la splash screen
@@ -57,26 +65,34 @@ public class PhotoEcran extends JFrame {
         setVisible(true);
         
         setDefaultCloseOperation(EXIT_ON_CLOSE);
-        
-        
-        
-        // Simuler une tache longue
-        for (int i = 0; i <= 100; i++) {
-            try {
-                Thread.sleep(20);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            setProgress(i);
-        }
-
-        // Fermer la fenetre
-        dispose();
     }
 
+    /**
+     * Met à jour la barre de progression ; peut être appelée depuis n'importe quel thread.
+     * @param value Progression, entre 0 et 100.
+     */
     public void setProgress(int value) {
-        progress = value;
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> setProgress(value));
+            return;
+        }
+        progress = Math.max(progress, value); // La barre ne recule jamais
         progressBar.setValue(progress);
         progressBar.setString(progress + "%");
     }
+
+    /**
+     * Fait avancer la barre de progression d'une étape terminée ; peut être appelée depuis n'importe quel thread.
+     * @param poids Part de l'étape dans le démarrage, en pourcents.
+     */
+    public void avancer(int poids) {
+        setProgress(avancement.addAndGet(poids));
+    }
+
+    /**
+     * Ferme l'écran de démarrage dès que la fenêtre principale est prête.
+     */
+    public void fermer() {
+        SwingUtilities.invokeLater(this::dispose);
+    }
 }
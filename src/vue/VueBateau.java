@@ -3,26 +3,34 @@ package vue;
 import javax.swing.JPanel;
 import java.util.ArrayList;
 import model.*;
+import ecoute.Abonnement;
 import ecoute.ModelEcoute;
-import ecoute.notifications.BateauNotification;
+import ecoute.Evenement;
 
 /**
  * Classe représentant la vue d'un bateau.
+ * La vue se désabonne de son bateau quand il est détruit : les vues des flottes replacées ne restent pas
+ * attachées à leurs anciens bateaux.
+ * Les cellules du bateau ne sont lues qu'une fois, à la création de la vue : le bateau est alors posé et
+ * transmis par le thread de jeu, et ses cellules ne changent plus. Ensuite, seule sa visibilité est relue.
  */
 public class VueBateau extends JPanel implements ModelEcoute {
     /** Modèle du bateau */
     protected Bateau bateau;
 
-    /** Tableau unidimensionnel des vues des cellules du bateau */
+    /** Tableau unidimensionnel des vues des cellules du bateau, rempli à la création */
     protected VueCellule[] bateauCellVue;
     
     /** Grille parente du bateau */
     protected GrilleVue parenteGrilleVue;
 
+    /** Abonnement au bateau, fermé à sa destruction */
+    private final Abonnement abonnement;
+
     public VueBateau(Bateau bateau, GrilleVue parenteGrilleVue) {
         // Initialisation du modèle et écoute des événements
         this.bateau = bateau;
-        this.bateau.addListening(this);
+        this.abonnement = this.bateau.abonner(this);
 
         this.parenteGrilleVue = parenteGrilleVue;
 
@@ -51,6 +59,7 @@ public class VueBateau extends JPanel implements ModelEcoute {
     public void creerBateau() {
         int index = 0;
         ArrayList<Cellule> bateauCellulles = bateau.getCellulesBateau();
+        this.bateauCellVue = new VueCellule[bateauCellulles.size()];
         boolean horizontalBateau = true;
         int orientation = 1; // 1 si le bateau est orienté vers le haut ou la droite, -1 sinon
 
@@ -72,6 +81,7 @@ public class VueBateau extends JPanel implements ModelEcoute {
             boolean last = (index == (bateauCellulles.size() - 1));
 
             vueCell.attribuerPourBateau(horizontalBateau, orientation, last, first);
+            bateauCellVue[index] = vueCell;
             index++;
         }
     }
@@ -88,15 +98,12 @@ public class VueBateau extends JPanel implements ModelEcoute {
      * @param show true pour afficher, false pour cacher.
      */
     public void setVisibilitie(boolean show) {
-        ArrayList<Cellule> bateauCellulles = bateau.getCellulesBateau();
         if (show) {
-            for (Cellule cell : bateauCellulles) {
-                VueCellule vueCell = this.getVueCellulle(cell);
+            for (VueCellule vueCell : bateauCellVue) {
                 vueCell.montrerBordure();
             }
         } else {
-            for (Cellule cell : bateauCellulles) {
-                VueCellule vueCell = this.getVueCellulle(cell);
+            for (VueCellule vueCell : bateauCellVue) {
                 vueCell.setDefaultColor();
             }
         }
@@ -106,20 +113,17 @@ public class VueBateau extends JPanel implements ModelEcoute {
      * Méthode de mise à jour lors d'une notification du modèle.
      */
     @Override
-    public void modelMisAJour(Object source, Object notification) {
-        //System.out.println("🔔 Notification reçue dans VueBateau: " + notification);
-        
-        if (notification instanceof BateauNotification) {
-            if (BateauNotification.BATEAU_DETRUIT.equals(notification)) {
-                //System.out.println("🔥 Le bateau est détruit, mise à jour de l'affichage...");
+    public void evenement(Object source, int code) {
+        switch (code) {
+            case Evenement.BATEAU_DETRUIT:
                 this.DetruireBateau();
-            } 
-            else if (BateauNotification.BATEAU_VISIBILITEE_CHANGEE.equals(notification)) {
-                //System.out.println("🚢 Mise à jour de la visibilité : " + this.bateau.estVisible());
+                this.abonnement.close();
+                break;
+            case Evenement.BATEAU_VISIBILITEE_CHANGEE:
                 this.setVisibilitie(this.bateau.estVisible());
-            }
-        } else {
-            //System.out.println("⚠️ Notification inconnue: " + notification);
+                break;
+            default:
+                break;
         }
     }
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ import javax.swing.JPanel;
 import controleur.ControleJeu;
 import model.*;
 import ecoute.ModelEcoute;
-import ecoute.notifications.CelluleNotification;
+import ecoute.Evenement;
 
 /**
  * Représente l'affichage d'une cellule sur la grille.
@@ -36,11 +36,13 @@ public class VueCellule extends JPanel implements ModelEcoute {
 
         // Associer le modèle et écouter les mises à jour
         this.celluleDeGrille = cell;
-        this.celluleDeGrille.addListening(this);
+        this.celluleDeGrille.abonnerFaible(this);
 
         this.setBorder(BorderFactory.createLineBorder(defaultColor, 1));
         this.setPreferredSize(new Dimension(50, 50));
 
+        // Une partie restaurée peut déjà contenir des tirs
+        handleChangementEtat();
         gestionEvenement();
     }
 
@@ -115,29 +117,7 @@ public class VueCellule extends JPanel implements ModelEcoute {
 
             if (!grilleVueparent.estHumainGrille()) {
                 ControleJeu grandParentComJeu = (ControleJeu) grilleVueparent.getParent();
-                Jeu jeu = grandParentComJeu.getJeu();
-
-                // Vérifier si la partie a commencé
-                if (!jeu.debutJeu()) {
-                    new MessageDialog("Appuyez sur le bouton Play pour commencer la partie",
-                            JOptionPane.INFORMATION_MESSAGE).showMessageDialog();
-                    return;
-                }
-
-                // Gérer le tir du joueur humain
-                jeu.setJoueurActuel(jeu.getJoueurHumain());
-                jeu.tireGrilleAdversaire(celluleDeGrille.getPosX(), celluleDeGrille.getPosY());
-
-                // Vérifier si la partie est terminée
-                if (!jeu.estFini()) {
-                    // L'adversaire effectue un tir
-                    int[] pos = jeu.getJoueurAleatoire().tire();
-                    jeu.tireGrilleAdversaire(pos[0], pos[1]);
-
-                    if (jeu.estFini()) grandParentComJeu.finJeu();
-                } else {
-                    grandParentComJeu.finJeu();
-                }
+                grandParentComJeu.tirHumain(celluleDeGrille.getPosX(), celluleDeGrille.getPosY());
             }
         } else {
             System.out.println("DÉBOGAGE : LA CELLULE N'A PAS DE GRILLE PARENT");
@@ -161,13 +141,11 @@ public class VueCellule extends JPanel implements ModelEcoute {
      * Méthode appelée lors d'une mise à jour du modèle.
      */
     @Override
-    public void modelMisAJour(Object source, Object notification) {
-        if (notification instanceof CelluleNotification) {
-            if (notification == CelluleNotification.ETAT_CHANGE) {
-                handleChangementEtat();
-            }
+    public void evenement(Object source, int code) {
+        if (code == Evenement.CELLULE_ETAT_CHANGE) {
+            handleChangementEtat();
         } else {
-            System.out.println("Notification non gérée pour VueCellule : " + notification);
+            System.out.println("Notification non gérée pour VueCellule : " + Evenement.notification(code));
         }
     }
 
@@ -0,0 +1,94 @@
+package controleur;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import ecoute.ModelEcoute;
+import journal.JournalTirs;
+import journal.LecteurJournal;
+import model.GrilleBits;
+import org.junit.Test;
+import simulation.PartieSimulee;
+import simulation.Simulateur;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RelectureTest {
+
+    /** Écouteur qui compte les événements reçus */
+    private static class Compteur implements ModelEcoute {
+        int recus;
+
+        @Override
+        public void evenement(Object source, int code) {
+            recus++;
+        }
+    }
+
+    @Test
+    public void testPartieSuivieEtPositionnement() {
+        PartieSimulee partie = new PartieSimulee(10, 10, Simulateur.fabrique("aleatoire"), Simulateur.fabrique("densite"));
+        // Exécuteur immédiat : la partie est jouée entièrement avant le retour
+        Relecture relecture = Relecture.suivre(partie, Runnable::run);
+        int total = relecture.getNombreTirs();
+        assertEquals(partie.getHistorique().taille(), total);
+        assertEquals(true, relecture.estComplete());
+
+        Compteur[] compteurs = { new Compteur(), new Compteur() };
+        for (int j = 0; j < 2; j++) relecture.getGrille(j).addListening(compteurs[j]);
+
+        // Toute la partie en un appel : un seul événement par grille
+        assertEquals(total, relecture.allerA(Integer.MAX_VALUE));
+        assertEquals(1, compteurs[0].recus);
+        assertEquals(1, compteurs[1].recus);
+        assertEquals(partie.getVainqueur(), relecture.getVainqueur());
+        for (int j = 0; j < 2; j++) {
+            assertArrayEquals(partie.getJoueur(j).getGrille().getBits().getTirs(), relecture.getGrille(j).getBits().getTirs());
+        }
+
+        // Retour en arrière : les grilles ne portent que les tirs joués jusque-là, toujours en un seul événement
+        relecture.allerA(10);
+        assertEquals(10, relecture.getPosition());
+        assertEquals(2, compteurs[0].recus);
+        assertEquals(2, compteurs[1].recus);
+        assertEquals(10, tirsRecus(relecture.getGrille(0).getBits()) + tirsRecus(relecture.getGrille(1).getBits()));
+        assertEquals(-1, relecture.getVainqueur());
+        assertEquals(0, relecture.allerA(10));
+        assertEquals(2, compteurs[0].recus);
+    }
+
+    @Test
+    public void testRelectureDepuisJournal() throws IOException {
+        Path fichier = Files.createTempFile("journal", ".bnj");
+        try {
+            PartieSimulee[] parties = new PartieSimulee[3];
+            try (JournalTirs journal = JournalTirs.ouvrir(fichier)) {
+                for (int p = 0; p < parties.length; p++) {
+                    parties[p] = new PartieSimulee(10, 10, Simulateur.fabrique("aleatoire"), Simulateur.fabrique("aleatoire"));
+                    parties[p].setEnregistrement(journal.nouvellePartie(10, 10));
+                    parties[p].jouer(0);
+                }
+            }
+            try (LecteurJournal lecteur = LecteurJournal.ouvrir(fichier)) {
+                Relecture relecture = Relecture.depuisJournal(lecteur, 2);
+                assertEquals(parties[2].getHistorique().taille(), relecture.getNombreTirs());
+                relecture.allerA(relecture.getNombreTirs());
+                for (int j = 0; j < 2; j++) {
+                    GrilleBits attendue = parties[2].getJoueur(j).getGrille().getBits();
+                    assertArrayEquals(attendue.getOccupation(), relecture.getGrille(j).getBits().getOccupation());
+                    assertArrayEquals(attendue.getCoules(), relecture.getGrille(j).getBits().getCoules());
+                }
+                assertEquals(parties[2].getVainqueur(), relecture.getVainqueur());
+            }
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    private static int tirsRecus(GrilleBits bits) {
+        return Arrays.stream(bits.getTirs()).mapToInt(Long::bitCount).sum();
+    }
+}
@@ -0,0 +1,149 @@
+package ecoute;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import model.Cellule;
+import model.EtatCellule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BusEvenementsTest {
+
+    /** Écouteur qui compte les événements reçus */
+    private static class Compteur implements ModelEcoute {
+        int recus;
+
+        @Override
+        public void evenement(Object source, int code) {
+            recus++;
+        }
+    }
+
+    @Test
+    public void testDiffusionImmediate() {
+        Cellule cellule = new Cellule(0, 0);
+        assertEquals(0, cellule.getNombreEcouteurs());
+
+        Compteur compteur = new Compteur();
+        cellule.addListening(compteur);
+        cellule.setEtat(EtatCellule.RATE);
+        assertEquals(1, compteur.recus);
+
+        cellule.removeListening(compteur);
+        cellule.setEtat(EtatCellule.VIDE);
+        assertEquals(1, compteur.recus);
+        assertEquals(0, cellule.getNombreEcouteurs());
+    }
+
+    @Test
+    public void testEcouteursFaiblesRetires() {
+        Cellule cellule = new Cellule(0, 0);
+        AbstractModelEcoutable modele = cellule;
+        Compteur[] vues = new Compteur[100];
+        for (int i = 0; i < vues.length; i++) {
+            vues[i] = new Compteur();
+            cellule.abonnerFaible(vues[i]);
+        }
+        assertEquals(100, modele.getEcouteurs().length);
+
+        // Vues récupérées par le ramasse-miettes, simulé en vidant les références faibles
+        for (ModelEcoute ecouteur : modele.getEcouteurs()) {
+            ((EcouteFaible) ecouteur).clear();
+        }
+        assertEquals(0, cellule.getNombreEcouteurs());
+        assertEquals(100, modele.getEcouteurs().length);
+
+        // Le prochain abonnement purge le tableau ; un événement retire les enveloppes restantes
+        Compteur vivant = new Compteur();
+        cellule.addListening(vivant);
+        assertEquals(1, modele.getEcouteurs().length);
+        EcouteFaible derniere = new EcouteFaible(new Compteur());
+        cellule.addListening(derniere);
+        derniere.clear();
+        cellule.setEtat(EtatCellule.RATE);
+        assertEquals(1, vivant.recus);
+        assertEquals(1, modele.getEcouteurs().length);
+    }
+
+    @Test
+    public void testLotRegroupeLesEvenements() {
+        Cellule a = new Cellule(0, 0);
+        Cellule b = new Cellule(0, 1);
+        Compteur compteur = new Compteur();
+        a.addListening(compteur);
+        b.addListening(compteur);
+        int[] lots = new int[1];
+        EcouteurLot finLot = n -> lots[0] = n;
+        BusEvenements.ajouterEcouteurLot(finLot);
+
+        try {
+            BusEvenements.debutLot();
+            a.setEtat(EtatCellule.TOUCHE);
+            a.setEtat(EtatCellule.TOUCHE);
+            b.setEtat(EtatCellule.RATE);
+            assertEquals("Rien n'est diffusé avant la fin du lot", 0, compteur.recus);
+            BusEvenements.finLot();
+        } finally {
+            BusEvenements.retirerEcouteurLot(finLot);
+        }
+
+        // Un événement par cellule malgré le double changement de a, puis une seule notification de fin de lot
+        assertEquals(2, compteur.recus);
+        assertEquals(2, lots[0]);
+        assertFalse(BusEvenements.enLot());
+    }
+
+    @Test
+    public void testRelaisVersUnAutreThread() throws Exception {
+        ExecutorService interfaceGraphique = Executors.newSingleThreadExecutor(t -> new Thread(t, "interface"));
+        ExecutorService jeu = Executors.newSingleThreadExecutor();
+        Cellule a = new Cellule(0, 0);
+        Cellule b = new Cellule(0, 1);
+        int[] recus = new int[1];
+        boolean[] autreThread = new boolean[1];
+        ModelEcoute ecouteur = new ModelEcoute() {
+            @Override
+            public void evenement(Object source, int code) {
+                recus[0]++;
+                if (!Thread.currentThread().getName().equals("interface")) autreThread[0] = true;
+            }
+        };
+        a.addListening(ecouteur);
+        b.addListening(ecouteur);
+        try {
+            // L'interface est occupée : tout ce que le jeu émet d'ici là est regroupé en un seul lot
+            interfaceGraphique.execute(() -> sleep(200));
+            RelaisEvenements relais = new RelaisEvenements(interfaceGraphique);
+            jeu.submit(() -> {
+                BusEvenements.relayer(relais);
+                for (int i = 0; i < 1000; i++) {
+                    a.setEtat((i & 1) == 0 ? EtatCellule.TOUCHE : EtatCellule.RATE);
+                }
+                b.setEtat(EtatCellule.RATE);
+                BusEvenements.relayer(null);
+            }).get();
+            assertEquals("Rien n'est diffusé sur le thread de jeu", 0, recus[0]);
+
+            interfaceGraphique.submit(() -> { }).get();
+            assertEquals(2, recus[0]);
+            assertFalse(autreThread[0]);
+        } finally {
+            jeu.shutdown();
+            interfaceGraphique.shutdown();
+            assertTrue(interfaceGraphique.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
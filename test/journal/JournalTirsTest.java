@@ -0,0 +1,156 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import model.Bateau;
+import model.Grille;
+import model.ResultatTir;
+import org.junit.Test;
+import simulation.Simulateur;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JournalTirsTest {
+
+    @Test
+    public void testPartiesParallelesRejouees() throws IOException {
+        Path fichier = Files.createTempFile("journal", ".bnj");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Segments de 4 Kio : les blocs des parties chevauchent souvent deux segments
+            try (JournalTirs journal = JournalTirs.ouvrir(fichier, 12)) {
+                Simulateur simulateur = new Simulateur(10, 10, Simulateur.fabrique("aleatoire"), Simulateur.fabrique("densite"), pool);
+                simulateur.setJournal(journal);
+                simulateur.simuler(2000);
+                assertEquals(2000, journal.getNombreParties());
+            }
+
+            // Chaque partie relue est rejouée sur des grilles neuves : les résultats notés doivent se retrouver
+            try (LecteurJournal lecteur = LecteurJournal.ouvrir(fichier)) {
+                VerificateurPartie verificateur = new VerificateurPartie();
+                assertEquals(2000, lecteur.parcourir(verificateur));
+                assertEquals(2000, verificateur.parties);
+            }
+        } finally {
+            pool.shutdown();
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    public void testLectureEnCoursEtAjout() throws IOException {
+        Path fichier = Files.createTempFile("journal", ".bnj");
+        try {
+            JournalTirs journal = JournalTirs.ouvrir(fichier, 12);
+            EnregistrementPartie enregistrement = journal.nouvellePartie(10, 10);
+            for (int p = 0; p < 3; p++) {
+                enregistrement.bateau(0, 0, 2, false);
+                enregistrement.tir(1, 0, ResultatTir.TOUCHE.ordinal());
+                enregistrement.terminer(-1);
+            }
+            // Une partie commencée mais pas terminée n'est pas visible
+            enregistrement.tir(0, 5, ResultatTir.RATE.ordinal());
+
+            // Journal encore ouvert : la fin des données est retrouvée en sautant les blocs complets
+            try (LecteurJournal lecteur = LecteurJournal.ouvrir(fichier)) {
+                assertEquals(3 * 4, lecteur.getNombreEnregistrements());
+                long entete = lecteur.enregistrement(4);
+                assertEquals(FormatJournal.PARTIE, FormatJournal.type(entete));
+                assertEquals(4, FormatJournal.nombreEnregistrements(entete));
+                assertEquals(FormatJournal.SANS_VAINQUEUR, FormatJournal.vainqueur(lecteur.enregistrement(7)));
+            }
+            journal.close();
+
+            // Réouverture : les nouvelles parties sont ajoutées à la suite
+            try (JournalTirs suite = JournalTirs.ouvrir(fichier)) {
+                EnregistrementPartie autre = suite.nouvellePartie(1000, 1000);
+                autre.tir(0, 999_999, ResultatTir.COULE.ordinal());
+                autre.terminer(0);
+            }
+            try (LecteurJournal lecteur = LecteurJournal.ouvrir(fichier)) {
+                assertEquals(15, lecteur.getNombreEnregistrements());
+                long tir = lecteur.enregistrement(13);
+                assertEquals(999_999, FormatJournal.index(tir));
+                assertEquals(ResultatTir.COULE.ordinal(), FormatJournal.resultat(tir));
+                assertEquals(1000, FormatJournal.lignes(lecteur.enregistrement(12)));
+            }
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCopieEchoueeEtFermeture() throws IOException {
+        Path fichier = Files.createTempFile("journal", ".bnj");
+        try {
+            JournalTirs journal = JournalTirs.ouvrir(fichier, 12);
+            EnregistrementPartie enregistrement = journal.nouvellePartie(10, 10);
+            enregistrement.tir(1, 0, ResultatTir.RATE.ordinal());
+            enregistrement.terminer(-1);
+
+            // Bloc réservé dont la copie échoue en cours de route : la fermeture ne doit pas l'attendre
+            try {
+                journal.ajouter(new long[1], 3);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // Échec attendu, après la réservation
+            }
+            enregistrement.tir(0, 4, ResultatTir.RATE.ordinal());
+            enregistrement.terminer(-1);
+            journal.close();
+
+            try {
+                enregistrement.terminer(-1);
+                fail("Ajout accepté après la fermeture");
+            } catch (IllegalStateException e) {
+                // Le journal fermé refuse les ajouts
+            }
+
+            // Seul le bloc qui précède la copie manquée reste lisible
+            try (LecteurJournal lecteur = LecteurJournal.ouvrir(fichier)) {
+                assertEquals(3, lecteur.getNombreEnregistrements());
+                assertEquals(FormatJournal.TAILLE_ENTETE + 3 * FormatJournal.TAILLE_ENREGISTREMENT, Files.size(fichier));
+            }
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    /**
+     * Repose les flottes notées et rejoue les tirs, en comparant chaque résultat à celui du journal.
+     */
+    private static class VerificateurPartie implements VisiteurJournal {
+        private final Grille[] grilles = new Grille[2];
+        private int parties;
+        private int dernierTireur;
+
+        @Override
+        public void partie(long rang, int lignes, int colonnes) {
+            grilles[0] = new Grille(lignes, colonnes, false);
+            grilles[1] = new Grille(lignes, colonnes, false);
+        }
+
+        @Override
+        public void bateau(int joueur, int index, int taille, boolean vertical) {
+            int colonnes = grilles[joueur].getColonnes();
+            assertTrue(grilles[joueur].poserBateau(index / colonnes, index % colonnes, new Bateau(taille), vertical));
+        }
+
+        @Override
+        public void tir(int tireur, int index, int resultat) {
+            assertEquals(resultat, grilles[1 - tireur].recevoirTir(index).ordinal());
+            dernierTireur = tireur;
+        }
+
+        @Override
+        public void fin(int vainqueur, int nombreTirs) {
+            assertEquals(dernierTireur, vainqueur);
+            assertTrue(grilles[1 - vainqueur].getBits().flotteCoulee());
+            parties++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package metrique;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import ecoute.ModelEcoute;
+import model.Grille;
+import model.JoueurAleatoire;
+import org.junit.Test;
+import simulation.Simulateur;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetriquesTest {
+
+    @Test
+    public void testCompteursEtJmx() throws Exception {
+        Metriques metriques = Metriques.getInstance();
+        Metriques.activer(true);
+        try {
+            metriques.reinitialiser();
+            // Plusieurs threads alimentent les mêmes compteurs
+            new Simulateur(10, 10, Simulateur.fabrique("aleatoire"), Simulateur.fabrique("aleatoire")).simuler(1000);
+            assertEquals(1000, metriques.getParties());
+            // Le vainqueur tire au moins 17 fois et coule les 5 bateaux adverses
+            assertTrue(metriques.getTirs() >= 17 * 1000);
+            assertTrue(metriques.getCoules() >= 5 * 1000);
+            // Personne n'écoute les grilles d'une simulation
+            assertTrue(metriques.getNotifications() > metriques.getTirs());
+            assertEquals(metriques.getNotifications(), metriques.getRepartitionEcouteurs()[0]);
+            assertTrue(metriques.getDecisionsNombre() > 0);
+
+            // Une grille écoutée par deux écouteurs : chaque tir notifie deux écouteurs
+            metriques.reinitialiser();
+            Grille grille = new Grille(10, 10, false);
+            new JoueurAleatoire(grille, grille).ajoutBateauAleatoire();
+            grille.addListening(new ModelEcoute() { });
+            grille.addListening(new ModelEcoute() { });
+            grille.recevoirTir(0);
+            grille.recevoirTir(1);
+            assertEquals(2, metriques.getRepartitionEcouteurs()[2]);
+            assertEquals(4, metriques.getEcouteursNotifies());
+            assertEquals(2, metriques.getEcouteursMax());
+
+            // Les mêmes valeurs sont lues par JMX
+            Metriques.publier();
+            Metriques.publier();
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nom = new ObjectName(Metriques.NOM_JMX);
+            assertEquals(2L, serveur.getAttribute(nom, "Tirs"));
+            serveur.invoke(nom, "reinitialiser", null, null);
+            assertEquals(0L, metriques.getTirs());
+
+            // Désactivées, les métriques ne comptent plus rien
+            Metriques.activer(false);
+            grille.recevoirTir(2);
+            assertEquals(0L, metriques.getTirs());
+        } finally {
+            Metriques.activer(false);
+        }
+    }
+
+    @Test
+    public void testQuantiles() {
+        HistogrammeLatence histogramme = new HistogrammeLatence("test");
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogramme.enregistrer(micros * 1000);
+        }
+        assertEquals(1000, histogramme.nombre());
+        assertEquals(500_500, histogramme.moyenne(), 1);
+        // Les classes sont larges de 25 % au plus
+        assertEquals(500_000, histogramme.quantile(0.5), 500_000 * 0.25);
+        assertEquals(990_000, histogramme.quantile(0.99), 990_000 * 0.25);
+        assertTrue(histogramme.max() >= 1_000_000 && histogramme.max() < 1_250_000);
+
+        for (long nanos = 0; nanos < 1_000_000; nanos += 7) {
+            long bas = HistogrammeLatence.borneInferieure(HistogrammeLatence.classe(nanos));
+            long haut = HistogrammeLatence.borneInferieure(HistogrammeLatence.classe(nanos) + 1);
+            assertTrue(bas <= nanos && nanos < haut);
+        }
+        histogramme.reinitialiser();
+        assertEquals(0, histogramme.nombre());
+    }
+}
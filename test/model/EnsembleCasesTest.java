@@ -0,0 +1,46 @@
+package model;
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EnsembleCasesTest {
+
+    @Test
+    public void testAjoutRetraitEtAppartenance() {
+        EnsembleCases ensemble = new EnsembleCases(100);
+        assertTrue(ensemble.estVide());
+        assertTrue(ensemble.ajouter(42));
+        assertTrue(ensemble.ajouter(7));
+        assertFalse("Case déjà membre", ensemble.ajouter(42));
+        assertEquals(2, ensemble.taille());
+        assertTrue(ensemble.contient(7));
+
+        assertTrue(ensemble.retirer(42));
+        assertFalse(ensemble.retirer(42));
+        assertFalse(ensemble.contient(42));
+        assertEquals(7, ensemble.get(0));
+
+        ensemble.remplir();
+        assertEquals(100, ensemble.taille());
+        assertTrue(ensemble.contient(42));
+    }
+
+    @Test
+    public void testTirageEtMelangeSansDoublon() {
+        EnsembleCases ensemble = EnsembleCases.pleine(64);
+        SplittableRandom generateur = new SplittableRandom(3);
+        ensemble.melanger(generateur);
+
+        boolean[] vues = new boolean[64];
+        for (int i = 0; i < 64; i++) {
+            int index = ensemble.retirerAuHasard(generateur);
+            assertFalse("Case tirée deux fois : " + index, vues[index]);
+            vues[index] = true;
+        }
+        assertTrue(ensemble.estVide());
+    }
+}
@@ -0,0 +1,122 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+public class GrilleBitsTest {
+
+    private GrilleBits bits;
+
+    @Before
+    public void setUp() {
+        bits = new GrilleBits(10, 10);
+    }
+
+    @Test
+    public void testPlacementLimitesEtChevauchement() {
+        // Un bateau horizontal de la ligne 6 occupe les bits 63 et 64, à cheval sur les deux mots
+        assertEquals(0, bits.placer(6, 2, 3, false));
+        assertFalse("Chevauchement interdit", bits.placeLibre(6, 4, 2, true));
+        assertFalse("Chevauchement interdit", bits.placeLibre(5, 3, 2, true));
+        assertTrue(bits.placeLibre(7, 3, 3, true));
+
+        // Sortie de grille
+        assertFalse(bits.placeLibre(0, 8, 3, false));
+        assertFalse(bits.placeLibre(8, 0, 3, true));
+        assertTrue(bits.placeLibre(7, 0, 3, true));
+    }
+
+    @Test
+    public void testTirsEtBateauCoule() {
+        bits.placer(0, 0, 2, true);
+        bits.placer(9, 8, 2, false);
+
+        assertEquals(ResultatTir.RATE, bits.tirer(bits.index(5, 5)));
+        assertEquals(ResultatTir.DEJA_TIRE, bits.tirer(bits.index(5, 5)));
+        assertEquals(ResultatTir.TOUCHE, bits.tirer(bits.index(0, 0)));
+        assertEquals(ResultatTir.COULE, bits.tirer(bits.index(1, 0)));
+        assertTrue(bits.estCoule(0));
+        assertEquals(1, bits.getBateauxRestants());
+        assertFalse(bits.flotteCoulee());
+
+        assertEquals(ResultatTir.TOUCHE, bits.tirer(bits.index(9, 9)));
+        assertEquals(ResultatTir.COULE, bits.tirer(bits.index(9, 8)));
+        assertTrue(bits.flotteCoulee());
+    }
+
+    @Test
+    public void testIndexDesBateaux() {
+        // Tableau dense sur une petite grille, table creuse au-delà de CELLULES_INDEX_MAX cellules
+        for (GrilleBits grille : new GrilleBits[]{bits, new GrilleBits(100, 100)}) {
+            int colonnes = grille.getColonnes();
+            assertEquals(0, grille.placer(0, 0, 3, false));
+            assertEquals(1, grille.placer(1, 1, 4, true));
+            assertEquals(0, grille.bateauEn(grille.index(0, 2)));
+            assertEquals(1, grille.bateauEn(grille.index(4, 1)));
+            assertEquals(-1, grille.bateauEn(grille.index(5, 1)));
+            assertEquals(-1, grille.bateauEn(colonnes - 1));
+
+            grille.viderBateaux();
+            assertEquals(-1, grille.bateauEn(grille.index(0, 2)));
+            assertEquals(0, grille.placer(2, 1, 2, false));
+            assertEquals(0, grille.bateauEn(grille.index(2, 2)));
+            assertEquals(-1, grille.bateauEn(grille.index(4, 1)));
+        }
+    }
+
+    @Test
+    public void testGrilleSynchroniseeAvecLesCellules() {
+        Grille grille = new Grille(10, 10);
+        Bateau bateau = new Bateau(2);
+        assertTrue(grille.poserBateau(3, 3, bateau, false));
+        assertTrue(grille.getTab()[3][4].aUnBateau());
+
+        grille.recevoirTir(3, 3);
+        assertEquals(EtatCellule.TOUCHE, grille.getTab()[3][3].getEtat());
+        assertEquals(ResultatTir.COULE, grille.recevoirTir(3, 4));
+        assertTrue("Le bateau coulé doit être visible", bateau.estVisible());
+        assertEquals(2, bateau.getTouches());
+        assertTrue(bateau.estCoule());
+    }
+
+    @Test
+    public void testEtatPublieImmuable() {
+        Grille grille = new Grille(30, 30, false);
+        assertTrue(grille.poserBateau(0, 0, new Bateau(3), false));
+        EtatGrille avant = grille.getEtatPublie();
+        assertTrue(avant == grille.getEtatPublie());
+
+        // Chaque modification publie un nouvel instantané, sans toucher au précédent
+        grille.recevoirTir(0, 1);
+        EtatGrille apres = grille.getEtatPublie();
+        assertFalse(avant == apres);
+        assertEquals(0, avant.getTirs()[0]);
+        assertEquals(1L << 1, apres.getTouches()[0]);
+        assertTrue(avant.memeFlotte(apres));
+
+        grille.retirerBateaux();
+        assertEquals(1, apres.getNbBateaux());
+        assertEquals(0, grille.getEtatPublie().getNbBateaux());
+        assertFalse(apres.memeFlotte(grille.getEtatPublie()));
+    }
+
+    @Test
+    public void testTablePlacementsEtFlotteAleatoire() {
+        // 10 lignes x 6 positions horizontales + 6 x 10 positions verticales
+        TablePlacements table = TablePlacements.pour(10, 10, 5);
+        assertEquals(120, table.getNbPlacements());
+        assertTrue(table == TablePlacements.pour(10, 10, 5));
+
+        JoueurAleatoire joueur = new JoueurAleatoire(new Grille(10, 10, false), null);
+        for (int i = 0; i < 100; i++) {
+            joueur.ajoutBateauAleatoire();
+            assertEquals(5, joueur.getFlotte().size());
+            long[] occupation = joueur.getGrille().getBits().getOccupation();
+            assertEquals(17, Long.bitCount(occupation[0]) + Long.bitCount(occupation[1]));
+        }
+    }
+}
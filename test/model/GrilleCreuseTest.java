@@ -0,0 +1,52 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GrilleCreuseTest {
+
+    @Test
+    public void testCellulesCreeesALaDemande() {
+        Grille grille = Grille.creuse(1000, 1000);
+        assertNull(grille.getTab());
+        assertEquals(0, grille.getNombreCellules());
+
+        Bateau bateau = new Bateau(3);
+        assertTrue(grille.poserBateau(998, 999, new Bateau(2), true));
+        assertTrue(grille.poserBateau(500, 500, bateau, false));
+        assertEquals("Seules les cellules des bateaux existent", 5, grille.getNombreCellules());
+
+        // Un tir raté ne crée pas de cellule ; la cellule demandée ensuite reprend l'état des masques
+        assertEquals(ResultatTir.RATE, grille.recevoirTir(10, 10));
+        assertEquals(5, grille.getNombreCellules());
+        assertEquals(EtatCellule.RATE, grille.getCellulePosition(10, 10).getEtat());
+        assertSame(grille.getCellulePosition(10, 10), grille.getCellulePosition(10, 10));
+        assertEquals(6, grille.getNombreCellules());
+
+        assertEquals(ResultatTir.TOUCHE, grille.recevoirTir(500, 501));
+        assertEquals(ResultatTir.TOUCHE, grille.recevoirTir(500, 500));
+        assertEquals(ResultatTir.COULE, grille.recevoirTir(500, 502));
+        assertTrue(bateau.estVisible());
+        assertEquals(EtatCellule.TOUCHE, grille.getCellulePosition(500, 502).getEtat());
+        assertSame(bateau, grille.getCellulePosition(500, 501).getBateauCellule());
+    }
+
+    @Test
+    public void testFlotteAleatoireSurGrandeGrille() {
+        Grille grille = Grille.creuse(1000, 1000);
+        JoueurHumain joueur = new JoueurHumain(grille, "Test");
+
+        // Les flottes successives ne laissent pas de cellules derrière elles
+        for (int i = 0; i < 10; i++) {
+            joueur.ajoutBateauAleatoire();
+        }
+        int cellulesFlotte = 0;
+        for (int taille : joueur.getTailleBateau()) cellulesFlotte += taille;
+        assertEquals(cellulesFlotte, grille.getNombreCellules());
+        assertEquals(joueur.getTailleBateau().length, joueur.getBateauxRestants());
+    }
+}
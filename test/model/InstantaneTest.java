@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InstantaneTest {
+
+    private Jeu nouvellePartie() {
+        Grille grille = new Grille(10, 10);
+        Grille grilleAleatoire = new Grille(10, 10);
+        JoueurHumain humain = new JoueurHumain(grille, "Moi");
+        humain.setGenerateur(new GenerateurSplitMix(1));
+        JoueurAleatoire aleatoire = new JoueurAleatoire(grilleAleatoire, grille, new GenerateurSplitMix(2));
+        aleatoire.setVerbeux(false);
+        Jeu jeu = new Jeu(humain, aleatoire);
+        jeu.humainAjoutBateauAleatoire();
+        jeu.debutPartie();
+        return jeu;
+    }
+
+    @Test
+    public void testRestaurationIdentique() {
+        Jeu jeu = nouvellePartie();
+        for (int i = 0; i < 30; i++) {
+            jeu.tireCaseAdversaire(i * 3);                               // Tir du joueur humain
+            jeu.tireCaseAdversaire(jeu.getJoueurAleatoire().tireCase()); // Réponse du joueur aléatoire
+        }
+
+        byte[] donnees = Instantane.capturer(jeu);
+        assertTrue("Instantané trop gros : " + donnees.length, donnees.length < 200);
+
+        Jeu copie = Instantane.restaurer(donnees);
+        copie.getJoueurAleatoire().setVerbeux(false);
+        for (int j = 0; j < 2; j++) {
+            AbstractJoueur original = (j == 0) ? jeu.getJoueurHumain() : jeu.getJoueurAleatoire();
+            AbstractJoueur restaure = (j == 0) ? copie.getJoueurHumain() : copie.getJoueurAleatoire();
+            GrilleBits a = original.getGrille().getBits();
+            GrilleBits b = restaure.getGrille().getBits();
+            assertArrayEquals(a.getOccupation(), b.getOccupation());
+            assertArrayEquals(a.getTirs(), b.getTirs());
+            assertArrayEquals(a.getCoules(), b.getCoules());
+            assertEquals(original.getBateauxRestants(), restaure.getBateauxRestants());
+            for (int k = 0; k < original.getFlotte().size(); k++) {
+                assertEquals(original.getFlotte().get(k).estVisible(), restaure.getFlotte().get(k).estVisible());
+            }
+        }
+        assertEquals(jeu.getHistorique().taille(), copie.getHistorique().taille());
+        assertSame(copie.getJoueurHumain(), copie.getJoueurActuel());
+        assertEquals(EtatCellule.RATE == jeu.getJoueurAleatoire().getGrille().getTab()[0][3].getEtat(),
+                EtatCellule.RATE == copie.getJoueurAleatoire().getGrille().getTab()[0][3].getEtat());
+
+        // Le joueur aléatoire reprend exactement la même suite de tirs
+        for (int i = 0; i < 40; i++) {
+            assertEquals(jeu.getJoueurAleatoire().tireCase(), copie.getJoueurAleatoire().tireCase());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDonneesInvalides() {
+        byte[] donnees = Instantane.capturer(nouvellePartie());
+        Instantane.lire(java.util.Arrays.copyOf(donnees, donnees.length - 5));
+    }
+
+    @Test
+    public void testDonneesCorrompues() {
+        byte[] donnees = Instantane.capturer(nouvellePartie());
+        GenerateurSplitMix generateur = new GenerateurSplitMix(13);
+        for (int essai = 0; essai < 2000; essai++) {
+            byte[] corrompues = donnees.clone();
+            int position = 3 + generateur.nextInt(corrompues.length - 3);
+            if (essai % 2 == 0) {
+                // Entier de cinq octets : longueur négative ou démesurée
+                for (int k = position; k < Math.min(position + 4, corrompues.length); k++) corrompues[k] = (byte) 0xFF;
+                if (position + 4 < corrompues.length) corrompues[position + 4] = (byte) generateur.nextInt(0x10);
+            } else {
+                corrompues[position] = (byte) generateur.nextInt(256);
+            }
+            try {
+                Instantane.lire(corrompues);
+            } catch (IllegalArgumentException e) {
+                // Seule exception attendue d'un instantané invalide
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertArrayEquals;
+
+public class JoueurAleatoireTest {
+
+    private Grille grille;
+    private JoueurAleatoire joueur;
+
+    @Before
+    public void setUp() {
+        grille = new Grille(10, 10);
+        joueur = new JoueurAleatoire(grille, new Grille(10, 10), new SplittableRandom(7));
+        joueur.setVerbeux(false);
+    }
+
+    @Test
+    public void testToutesLesCasesUneSeuleFois() {
+        boolean[] vues = new boolean[100];
+        for (int i = 0; i < 100; i++) {
+            int[] pos = joueur.tire();
+            int index = pos[0] * 10 + pos[1];
+            assertFalse("Case tirée deux fois : " + index, vues[index]);
+            vues[index] = true;
+        }
+        assertEquals(0, joueur.getNombreNonTirees());
+
+        // Les tirs ne doivent pas toucher à la liste des positions de la propre grille du joueur
+        assertEquals(100, grille.getToutesPositions().size());
+    }
+
+    @Test
+    public void testReinitialisationEtGraine() {
+        int[] premiers = new int[20];
+        for (int i = 0; i < 20; i++) premiers[i] = joueur.tireCase();
+        joueur.reinitialiserPositionsNonTirees();
+        assertEquals(100, joueur.getNombreNonTirees());
+
+        // Deux joueurs de même graine tirent dans le même ordre
+        JoueurAleatoire autre = new JoueurAleatoire(grille, null, new SplittableRandom(7));
+        autre.setVerbeux(false);
+        int[] autres = new int[20];
+        for (int i = 0; i < 20; i++) autres[i] = autre.tireCase();
+        assertArrayEquals(premiers, autres);
+    }
+}
@@ -0,0 +1,111 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JoueurDensiteTest {
+
+    private static final int[] FLOTTE = {5, 4, 3, 3, 2};
+
+    @Test
+    public void testCarteIncrementaleEgaleAuRecalcul() {
+        for (int p = 0; p < 10; p++) {
+            Grille grille = new Grille(10, 10, false);
+            Grille grilleAdversaire = new Grille(10, 10, false);
+            new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+            JoueurDensite joueur = new JoueurDensite(grille, grilleAdversaire);
+            joueur.setVerbeux(false);
+
+            while (!grilleAdversaire.getBits().flotteCoulee()) {
+                assertArrayEquals(recalculer(grilleAdversaire.getBits()), joueur.densites());
+                assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(joueur.tireCase()));
+            }
+        }
+    }
+
+    @Test
+    public void testDeuxBateauxCoulesEntreDeuxTirs() {
+        Grille grille = new Grille(10, 10, false);
+        Grille grilleAdversaire = new Grille(10, 10, false);
+        new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+        JoueurDensite joueur = new JoueurDensite(grille, grilleAdversaire);
+        joueur.setVerbeux(false);
+        grilleAdversaire.recevoirTir(joueur.tireCase());
+
+        // Deux bateaux coulés hors du joueur (partie restaurée, rattrapée d'un coup)
+        GrilleBits bits = grilleAdversaire.getBits();
+        for (int b = 0; b < 2; b++) {
+            int origine = bits.getOrigineBateau(b);
+            int pas = ((origine & 1) != 0) ? 10 : 1;
+            for (int k = 0, i = origine >>> 1; k < bits.getTailleBateau(b); k++, i += pas) {
+                grilleAdversaire.recevoirTir(i);
+            }
+        }
+        assertEquals(FLOTTE.length - 2, bits.getBateauxRestants());
+        assertArrayEquals(recalculer(bits), joueur.densites());
+
+        int tirs = 0;
+        while (!bits.flotteCoulee()) {
+            assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(joueur.tireCase()));
+            assertTrue(++tirs <= 100);
+        }
+    }
+
+    @Test
+    public void testPlusFortQueLeHasard() {
+        int parties = 200;
+        int total = 0;
+        for (int p = 0; p < parties; p++) {
+            Grille grille = new Grille(10, 10, false);
+            Grille grilleAdversaire = new Grille(10, 10, false);
+            new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+            JoueurDensite joueur = new JoueurDensite(grille, grilleAdversaire);
+            joueur.setVerbeux(false);
+            while (!grilleAdversaire.getBits().flotteCoulee()) {
+                assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(joueur.tireCase()));
+                total++;
+            }
+        }
+        // Un tireur au hasard a besoin d'environ 95 tirs pour couler la flotte
+        double moyenne = (double) total / parties;
+        assertTrue("Moyenne de " + moyenne + " tirs", moyenne < 70);
+    }
+
+    /**
+     * Carte de densité recalculée de zéro : pour chaque taille de bateau restante, les placements qui ne passent
+     * ni par un tir raté ni par un bateau coulé.
+     */
+    private static int[] recalculer(GrilleBits bits) {
+        int cellules = bits.getLignes() * bits.getColonnes();
+        int[] restants = new int[6];
+        for (int taille : FLOTTE) restants[taille]++;
+        for (int b = 0; b < bits.getNbBateaux(); b++) {
+            if (bits.estCoule(b)) restants[bits.getTailleBateau(b)]--;
+        }
+
+        long[] tirs = bits.getTirs();
+        long[] touches = bits.getTouches();
+        long[] coules = bits.getCoules();
+        int[] densites = new int[cellules];
+        for (int taille = 2; taille <= 5; taille++) {
+            if (restants[taille] == 0) continue;
+            TablePlacements table = TablePlacements.pour(bits.getLignes(), bits.getColonnes(), taille);
+            for (int p = 0; p < table.getNbPlacements(); p++) {
+                boolean vivant = true;
+                for (int k = 0, i = table.getIndex(p); k < taille; k++, i += table.getPas(p)) {
+                    long bit = 1L << i;
+                    if (((tirs[i >>> 6] & ~touches[i >>> 6]) & bit) != 0 || (coules[i >>> 6] & bit) != 0) vivant = false;
+                }
+                if (!vivant) continue;
+                for (int k = 0, i = table.getIndex(p); k < taille; k++, i += table.getPas(p)) {
+                    if ((tirs[i >>> 6] & (1L << i)) == 0) densites[i] += restants[taille];
+                }
+            }
+        }
+        return densites;
+    }
+}
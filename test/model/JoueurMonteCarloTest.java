@@ -0,0 +1,56 @@
+package model;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JoueurMonteCarloTest {
+
+    @Test
+    public void testBudgetRespecte() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Grille grille = new Grille(10, 10, false);
+            Grille grilleAdversaire = new Grille(10, 10, false);
+            new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+            JoueurMonteCarlo joueur = new JoueurMonteCarlo(grille, grilleAdversaire, Duration.ofMillis(30), pool, 0);
+            joueur.setVerbeux(false);
+
+            for (int tir = 0; tir < 5; tir++) {
+                long debut = System.nanoTime();
+                int index = joueur.tireCase();
+                long millis = (System.nanoTime() - debut) / 1_000_000;
+                assertTrue("Tir décidé en " + millis + " ms", millis < 30 + 100);
+                assertTrue(joueur.getDerniersTirages() > 0);
+                assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(index));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlusFortQueLeHasard() {
+        int parties = 20;
+        int total = 0;
+        for (int p = 0; p < parties; p++) {
+            Grille grille = new Grille(10, 10, false);
+            Grille grilleAdversaire = new Grille(10, 10, false);
+            new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+            // Nombre de tirages fixé : la force ne dépend pas de la charge de la machine
+            JoueurMonteCarlo joueur = new JoueurMonteCarlo(grille, grilleAdversaire, Duration.ofSeconds(5), null, 300);
+            joueur.setVerbeux(false);
+            while (!grilleAdversaire.getBits().flotteCoulee()) {
+                assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(joueur.tireCase()));
+                total++;
+            }
+        }
+        // Un tireur au hasard a besoin d'environ 95 tirs pour couler la flotte
+        double moyenne = (double) total / parties;
+        assertTrue("Moyenne de " + moyenne + " tirs", moyenne < 60);
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LivreOuverturesTest {
+
+    private static final int[] FLOTTE = {5, 4, 3, 3, 2};
+
+    @Test
+    public void testPartiesRejoueesDepuisLeLivre() throws Exception {
+        LivreOuvertures livre = new LivreOuvertures(10, 10, FLOTTE, 6, 4096);
+        for (int p = 0; p < 50; p++) {
+            Grille grille = new Grille(10, 10, false);
+            Grille grilleAdversaire = new Grille(10, 10, false);
+            new JoueurAleatoire(grilleAdversaire, grille).ajoutBateauAleatoire();
+            JoueurLivre joueur = new JoueurLivre(new JoueurDensite(grille, grilleAdversaire), grilleAdversaire, livre);
+            joueur.setVerbeux(false);
+            while (!grilleAdversaire.getBits().flotteCoulee()) {
+                assertNotEquals(ResultatTir.DEJA_TIRE, grilleAdversaire.recevoirTir(joueur.tireCase()));
+            }
+        }
+        // Le premier tir n'est calculé qu'une fois, les situations suivantes se répètent souvent
+        assertTrue(livre.tauxSucces() > 0.2);
+        int taille = livre.taille();
+        assertTrue(taille > 6 && taille <= livre.getCapacite());
+
+        // Le livre relu donne les mêmes tirs, et garde les premières situations quand la capacité est réduite
+        Path fichier = Files.createTempFile("livre", ".bin");
+        try {
+            livre.enregistrer(fichier);
+            assertEquals(taille, LivreOuvertures.charger(fichier, 4096).taille());
+
+            LivreOuvertures reduit = LivreOuvertures.charger(fichier, 16);
+            assertTrue(reduit.taille() <= 16);
+            long vide = livre.cle(new GrilleBits(10, 10));
+            assertEquals(livre.chercher(vide), reduit.chercher(vide));
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    @Test
+    public void testCapaciteBornee() {
+        LivreOuvertures livre = new LivreOuvertures(10, 10, FLOTTE, 8, 64);
+        assertEquals(64, livre.getCapacite());
+        GenerateurSplitMix generateur = new GenerateurSplitMix(42);
+        long derniere = 0;
+        for (int i = 0; i < 10_000; i++) {
+            derniere = generateur.nextLong();
+            livre.ajouter(derniere, i % 100, 1);
+        }
+        assertTrue(livre.taille() <= 64);
+        // La dernière situation ajoutée est toujours présente
+        assertEquals((10_000 - 1) % 100, livre.chercher(derniere));
+
+        // Un livre ne s'applique qu'à sa grille et à sa flotte, quel que soit l'ordre des bateaux
+        assertTrue(livre.accepte(10, 10, new int[]{2, 3, 3, 4, 5}));
+        assertTrue(!livre.accepte(10, 10, new int[]{5, 4, 3, 2}));
+        assertTrue(!livre.accepte(12, 10, FLOTTE));
+    }
+}
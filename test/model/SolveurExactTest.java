@@ -0,0 +1,100 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import simulation.EcartOptimal;
+import simulation.Simulateur;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolveurExactTest {
+
+    @Test
+    public void testEsperanceExacte() {
+        // Un bateau de 2 sur une ligne de 3 : le premier tir touche ou non, le second coule ou rate, d'où 2,5 tirs
+        assertEquals(2.5, new SolveurExact(1, 3, new int[] {2}, 64).esperance(), 1e-9);
+
+        // Une table minuscule, qui évince sans cesse, donne la même espérance
+        double optimum = new SolveurExact(3, 3, new int[] {2}, SolveurExact.CAPACITE_DEFAUT).esperance();
+        assertEquals(4.5, optimum, 1e-9);
+        assertEquals(optimum, new SolveurExact(3, 3, new int[] {2}, 16).esperance(), 1e-9);
+
+        // Le joueur optimal atteint l'optimum, qu'aucune stratégie ne bat
+        SolveurExact solveur = new SolveurExact(3, 4, new int[] {3, 2}, SolveurExact.CAPACITE_DEFAUT);
+        double esperance = solveur.esperance();
+        double optimal = EcartOptimal.moyenneTirs(3, 4, new int[] {3, 2},
+                (grille, grilleAdversaire) -> new JoueurOptimal(grille, grilleAdversaire, solveur), 20_000);
+        double densite = EcartOptimal.moyenneTirs(3, 4, new int[] {3, 2}, Simulateur.fabrique("densite"), 20_000);
+        assertEquals(esperance, optimal, 0.05);
+        assertTrue(densite > esperance - 0.05);
+    }
+
+    @Test
+    public void testBateauxCoulesBoutABout() {
+        // Quatre cases coulées en tête de ligne : un bateau de 4, ou deux bateaux de 2, et il ne reste pas la même flotte
+        int[] flotte = {4, 2, 2};
+        GrilleBits unSeul = situationCoulee(flotte, new int[] {4, 2, 2});
+        GrilleBits deux = situationCoulee(flotte, new int[] {2, 2, 4});
+        assertArrayEquals(unSeul.getCoules(), deux.getCoules());
+
+        SolveurExact solveur = new SolveurExact(1, 9, flotte, SolveurExact.CAPACITE_DEFAUT);
+        double esperance = solveur.esperance();
+        double apresUnSeul = solveur.esperance(unSeul);
+        double apresDeux = solveur.esperance(deux);
+        assertNotEquals(apresUnSeul, apresDeux, 1e-3);
+        assertEquals(new SolveurExact(1, 9, flotte, SolveurExact.CAPACITE_DEFAUT).esperance(unSeul), apresUnSeul, 1e-9);
+        assertEquals(new SolveurExact(1, 9, flotte, SolveurExact.CAPACITE_DEFAUT).esperance(deux), apresDeux, 1e-9);
+
+        // Une table minuscule, qui évince sans cesse, retrouve les mêmes espérances (plusieurs premiers tirs se valent)
+        SolveurExact evincant = new SolveurExact(1, 9, flotte, 16);
+        assertEquals(esperance, evincant.esperance(), 1e-9);
+        assertEquals(apresUnSeul, evincant.esperance(unSeul), 1e-9);
+        assertEquals(apresDeux, evincant.esperance(deux), 1e-9);
+    }
+
+    /**
+     * Ligne de 9 cases dont les bateaux sont posés bout à bout dans l'ordre donné, les quatre premières cases visées.
+     */
+    private static GrilleBits situationCoulee(int[] flotte, int[] ordre) {
+        Grille grille = new Grille(1, 9, false);
+        for (int b = 0, colonne = 0; b < ordre.length; colonne += ordre[b++]) {
+            grille.getBits().placer(0, colonne, ordre[b], false);
+        }
+        for (int i = 0; i < 4; i++) grille.recevoirTir(i);
+        assertEquals((ordre[0] == 4) ? 1 : 2, flotte.length - grille.getBits().getBateauxRestants());
+        return grille.getBits();
+    }
+
+    @Test
+    public void testTableEnregistree() throws IOException {
+        Path fichier = Files.createTempFile("solveur", ".bin");
+        try {
+            SolveurExact solveur = new SolveurExact(3, 3, new int[] {2}, 1 << 12);
+            double esperance = solveur.esperance();
+            solveur.enregistrer(fichier);
+
+            SolveurExact charge = SolveurExact.charger(fichier, 1 << 12);
+            assertEquals(solveur.taille(), charge.taille());
+            assertEquals(esperance, charge.esperance(), 1e-12);
+
+            // Les premiers tirs sont lus dans la table, sans rien recalculer
+            Grille grille = new Grille(3, 3, false);
+            JoueurAleatoire defenseur = new JoueurAleatoire(grille, null);
+            defenseur.setTailleBateau(new int[] {2});
+            defenseur.ajoutBateauAleatoire();
+            JoueurOptimal joueur = new JoueurOptimal(new Grille(3, 3, false), grille, charge);
+            joueur.setVerbeux(false);
+            grille.recevoirTir(joueur.tireCase());
+            assertEquals(solveur.meilleurTir(new Grille(3, 3, false).getBits()), charge.meilleurTir(new Grille(3, 3, false).getBits()));
+            assertEquals(0, charge.getSituationsResolues());
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TableZobristTest {
+
+    private static final int[] FLOTTE = {5, 4, 3, 3, 2};
+
+    @Test
+    public void testClesTenuesAJourTirParTir() {
+        for (int colonnes : new int[]{10, 7}) {
+            Grille grille = new Grille(10, colonnes, false);
+            new JoueurAleatoire(grille, null).ajoutBateauAleatoire();
+            GrilleBits bits = grille.getBits();
+            TableZobrist zobrist = bits.getZobrist();
+            assertEquals((colonnes == 10) ? 8 : 4, zobrist.getNbSymetries());
+            assertEquals(0, bits.getCleSituation());
+
+            GenerateurSplitMix generateur = new GenerateurSplitMix(colonnes);
+            int[] ordre = new int[10 * colonnes];
+            for (int i = 0; i < ordre.length; i++) ordre[i] = i;
+            for (int i = ordre.length - 1; i > 0; i--) {
+                int j = generateur.nextInt(i + 1);
+                int t = ordre[i]; ordre[i] = ordre[j]; ordre[j] = t;
+            }
+            for (int index : ordre) {
+                grille.recevoirTir(index);
+                for (int s = 0; s < zobrist.getNbSymetries(); s++) {
+                    assertEquals(zobrist.cle(s, bits), bits.getCleSituation(s));
+                }
+                assertEquals(zobrist.cle(0, bits), bits.getCleSituation());
+                if (bits.flotteCoulee()) break;
+            }
+
+            // Les mêmes tirs dans l'ordre inverse donnent la même clé
+            long cle = bits.getCleSituation();
+            Grille copie = new Grille(10, colonnes, false);
+            for (int b = 0; b < bits.getNbBateaux(); b++) {
+                int origine = bits.getOrigineBateau(b);
+                copie.getBits().placer((origine >>> 1) / colonnes, (origine >>> 1) % colonnes, bits.getTailleBateau(b), (origine & 1) != 0);
+            }
+            assertEquals(bits.getCleFlotte(), copie.getBits().getCleFlotte());
+            for (int i = ordre.length - 1; i >= 0; i--) {
+                if (bits.estTiree(ordre[i])) copie.recevoirTir(ordre[i]);
+            }
+            assertEquals(cle, copie.getBits().getCleSituation());
+
+            // Retirer les bateaux ou les tirs remet les clés en accord avec les masques
+            bits.viderBateaux();
+            assertEquals(0, bits.getCleFlotte());
+            for (int s = 0; s < zobrist.getNbSymetries(); s++) {
+                assertEquals(zobrist.cle(s, bits), bits.getCleSituation(s));
+            }
+            assertEquals(zobrist.cle(0, bits), bits.getCleSituation());
+            bits.viderTirs();
+            assertEquals(0, bits.getCleSituationCanonique());
+        }
+        assertEquals(1, Grille.creuse(1000, 1000).getBits().getZobrist().getNbSymetries());
+    }
+
+    @Test
+    public void testSituationsSymetriquesConfondues() {
+        TableZobrist zobrist = TableZobrist.pour(10, 10);
+        for (int s = 1; s < zobrist.getNbSymetries(); s++) {
+            Grille grille = new Grille(10, 10, false);
+            JoueurAleatoire joueur = new JoueurAleatoire(grille, null);
+            joueur.setTailleBateau(FLOTTE);
+            joueur.ajoutBateauAleatoire();
+            GrilleBits bits = grille.getBits();
+
+            // Image de la grille par la symétrie : flotte et tirs transformés
+            Grille image = new Grille(10, 10, false);
+            for (int b = 0; b < bits.getNbBateaux(); b++) {
+                int origine = bits.getOrigineBateau(b);
+                int taille = bits.getTailleBateau(b);
+                int debut = origine >>> 1;
+                int fin = debut + (taille - 1) * (((origine & 1) != 0) ? 10 : 1);
+                int a = Math.min(zobrist.image(s, debut), zobrist.image(s, fin));
+                int z = Math.max(zobrist.image(s, debut), zobrist.image(s, fin));
+                assertEquals(b, image.getBits().placer(a / 10, a % 10, taille, z - a >= 10));
+            }
+            assertEquals(bits.getCleFlotteCanonique(), image.getBits().getCleFlotteCanonique());
+
+            for (int index = 0; index < 100; index += 3) {
+                assertEquals(grille.recevoirTir(index), image.recevoirTir(zobrist.image(s, index)));
+                assertEquals(index, zobrist.antecedent(s, zobrist.image(s, index)));
+            }
+            assertEquals(bits.getCleSituation(s), image.getBits().getCleSituation());
+            assertEquals(bits.getCleSituationCanonique(), image.getBits().getCleSituationCanonique());
+
+            // Un tir appris dans une situation est retrouvé, transformé, dans son image
+            LivreOuvertures livre = new LivreOuvertures(10, 10, FLOTTE, 64, 256);
+            livre.ajouter(bits, 1, 34);
+            assertTrue(equivalentes(bits, 1, livre.chercher(bits)));
+            assertTrue(equivalentes(image.getBits(), zobrist.image(s, 1), livre.chercher(image.getBits())));
+        }
+    }
+
+    /**
+     * Deux cases se valent si une symétrie qui laisse la situation inchangée envoie l'une sur l'autre :
+     * dans une situation symétrique, le livre peut rendre l'une ou l'autre.
+     */
+    private static boolean equivalentes(GrilleBits bits, int attendue, int obtenue) {
+        TableZobrist zobrist = bits.getZobrist();
+        for (int t = 0; t < zobrist.getNbSymetries(); t++) {
+            if (bits.getCleSituation(t) == bits.getCleSituation() && zobrist.image(t, attendue) == obtenue) return true;
+        }
+        return false;
+    }
+}
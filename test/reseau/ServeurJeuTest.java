@@ -0,0 +1,83 @@
+package reseau;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ServeurJeuTest {
+
+    @Test
+    public void testProtocole() throws IOException {
+        try (ServeurJeu serveur = new ServeurJeu(0, 1);
+             ClientJeu client = new ClientJeu("localhost", serveur.getPort())) {
+            assertTrue(client.commande("TIR 0 0").startsWith("ERREUR"));
+            assertTrue(client.commande("BONJOUR").startsWith("ERREUR"));
+            assertTrue(client.commande("NOUVELLE 3 3").startsWith("ERREUR"));
+
+            String partie = client.commande("NOUVELLE 12 10");
+            assertTrue(partie, partie.startsWith("PARTIE 12 10 "));
+            assertEquals("Un champ par bateau de la flotte par défaut", 5, partie.split(" ").length - 3);
+
+            assertTrue(client.commande("TIR 12 0").startsWith("ERREUR"));
+            String tir = client.commande("TIR 11 9");
+            assertTrue(tir, tir.matches("(RATE|TOUCHE|COULE) RIPOSTE \\d+ \\d+ (RATE|TOUCHE|COULE)"));
+            assertEquals("DEJA_TIRE", client.commande("TIR 11 9"));
+
+            assertEquals("AU REVOIR", client.commande("QUITTER"));
+        }
+    }
+
+    @Test
+    public void testPartiesSimultanees() throws Exception {
+        int connexions = 300;
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try (ServeurJeu serveur = new ServeurJeu(0, 2)) {
+            List<ClientJeu> clients = new ArrayList<>();
+            for (int i = 0; i < connexions; i++) {
+                clients.add(new ClientJeu("localhost", serveur.getPort()));
+            }
+            for (ClientJeu client : clients) {
+                client.commencer(10, 10);
+            }
+            assertEquals(connexions, serveur.getNombreSessions());
+
+            // Chaque thread fait tirer ses clients à tour de rôle : toutes les parties avancent en même temps
+            List<Future<Integer>> terminees = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                List<ClientJeu> tranche = clients.subList(t * connexions / 4, (t + 1) * connexions / 4);
+                terminees.add(threads.submit(() -> {
+                    boolean[] fini = new boolean[tranche.size()];
+                    int nombre = 0;
+                    while (nombre < tranche.size()) {
+                        for (int c = 0; c < tranche.size(); c++) {
+                            if (!fini[c] && tranche.get(c).tirer()) {
+                                fini[c] = true;
+                                nombre++;
+                            }
+                        }
+                    }
+                    return nombre;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : terminees) total += f.get();
+            assertEquals(connexions, total);
+
+            for (ClientJeu client : clients) {
+                assertTrue(client.getDerniereReponse().matches(".* FIN (GAGNE|PERDU)"));
+                assertTrue(client.commande("TIR 0 0").startsWith("ERREUR"));
+                client.close();
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package simulation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import model.Grille;
+import model.JoueurAleatoire;
+import org.junit.Test;
+import reseau.JoueurDistant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PartieAsynchroneTest {
+
+    @Test
+    public void testMilliersDePartiesSurUnThread() throws Exception {
+        ExecutorService ordonnanceur = Executors.newSingleThreadExecutor();
+        ScheduledExecutorService reseau = Executors.newSingleThreadScheduledExecutor();
+        try {
+            List<CompletableFuture<Integer>> resultats = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                Grille grille1 = new Grille(10, 10, false);
+                Grille grille2 = new Grille(10, 10, false);
+                // Joueur dont chaque tir arrive entre 0 et 1 ms plus tard, comme par le réseau
+                JoueurAleatoire lent = new JoueurAleatoire(grille1, grille2) {
+                    @Override
+                    public CompletableFuture<Integer> tireCaseAsync() {
+                        CompletableFuture<Integer> tir = new CompletableFuture<>();
+                        reseau.schedule(() -> tir.complete(tireCase()), ThreadLocalRandom.current().nextInt(1000), TimeUnit.MICROSECONDS);
+                        return tir;
+                    }
+                };
+                JoueurAleatoire rapide = new JoueurAleatoire(grille2, grille1);
+                lent.setVerbeux(false);
+                rapide.setVerbeux(false);
+                lent.ajoutBateauAleatoire();
+                rapide.ajoutBateauAleatoire();
+                resultats.add(new PartieAsynchrone(lent, rapide, ordonnanceur, Duration.ofSeconds(10)).jouer(i & 1));
+            }
+            CompletableFuture.allOf(resultats.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+            for (CompletableFuture<Integer> resultat : resultats) {
+                int vainqueur = resultat.get();
+                assertTrue(vainqueur == 0 || vainqueur == 1);
+            }
+        } finally {
+            ordonnanceur.shutdown();
+            reseau.shutdown();
+        }
+    }
+
+    @Test
+    public void testDelaiEtAnnulation() throws Exception {
+        ExecutorService ordonnanceur = Executors.newSingleThreadExecutor();
+        try {
+            // Un joueur distant qui ne répond pas perd par forfait
+            PartieAsynchrone muette = nouvellePartie(ordonnanceur, Duration.ofMillis(50));
+            assertEquals(Integer.valueOf(1), muette.jouer(0).get(5, TimeUnit.SECONDS));
+            assertTrue(muette.estForfait());
+
+            // Les tirs reçus du réseau complètent l'attente et font avancer la partie
+            Grille grille1 = new Grille(10, 10, false);
+            Grille grille2 = new Grille(10, 10, false);
+            JoueurDistant distant = new JoueurDistant(grille1, "Distant");
+            JoueurAleatoire aleatoire = new JoueurAleatoire(grille2, grille1);
+            aleatoire.setVerbeux(false);
+            distant.ajoutBateauAleatoire();
+            aleatoire.ajoutBateauAleatoire();
+            PartieAsynchrone partie = new PartieAsynchrone(distant, aleatoire, ordonnanceur, null);
+            CompletableFuture<Integer> resultat = partie.jouer(0);
+            for (int index = 0; index < 100 && !resultat.isDone(); index++) {
+                distant.jouer(index);
+                ordonnanceur.submit(() -> { }).get();   // Le tir et la riposte sont joués sur l'ordonnanceur
+            }
+            assertTrue(resultat.isDone());
+            assertFalse(partie.estForfait());
+
+            // Annulation pendant l'attente d'un tir
+            PartieAsynchrone annulee = nouvellePartie(ordonnanceur, null);
+            CompletableFuture<Integer> attente = annulee.jouer(0);
+            Thread.sleep(20);
+            assertTrue(annulee.annuler());
+            try {
+                attente.get(1, TimeUnit.SECONDS);
+                fail("La partie aurait dû être annulée");
+            } catch (CancellationException e) {
+                // Attendu
+            }
+        } finally {
+            ordonnanceur.shutdown();
+        }
+    }
+
+    private static PartieAsynchrone nouvellePartie(ExecutorService ordonnanceur, Duration delai) {
+        Grille grille1 = new Grille(10, 10, false);
+        Grille grille2 = new Grille(10, 10, false);
+        JoueurDistant distant = new JoueurDistant(grille1, "Muet");
+        JoueurAleatoire aleatoire = new JoueurAleatoire(grille2, grille1);
+        aleatoire.setVerbeux(false);
+        distant.ajoutBateauAleatoire();
+        aleatoire.ajoutBateauAleatoire();
+        return new PartieAsynchrone(distant, aleatoire, ordonnanceur, delai);
+    }
+}
@@ -0,0 +1,38 @@
+package simulation;
+
+import model.GenerateurSplitMix;
+import model.JoueurAleatoire;
+import model.JoueurDensite;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PartieSimuleeTest {
+
+    @Test
+    public void testRepriseApresInstantane() {
+        long[] graine = {11};
+        FabriqueJoueur aleatoire = (grille, grilleAdversaire) ->
+                new JoueurAleatoire(grille, grilleAdversaire, new GenerateurSplitMix(graine[0]++));
+        FabriqueJoueur densite = (grille, grilleAdversaire) -> {
+            JoueurDensite joueur = new JoueurDensite(grille, grilleAdversaire);
+            joueur.setGenerateur(new GenerateurSplitMix(graine[0]++));
+            return joueur;
+        };
+
+        PartieSimulee partie = new PartieSimulee(10, 10, aleatoire, densite);
+        for (int i = 0; i < 40; i++) partie.jouerTir();
+        byte[] donnees = partie.capturer();
+
+        // La partie reprise et la partie d'origine se terminent de la même façon, tir pour tir
+        PartieSimulee reprise = PartieSimulee.restaurer(donnees, aleatoire, densite);
+        assertEquals(partie.getActuel(), reprise.getActuel());
+        assertEquals(partie.getTirs(0), reprise.getTirs(0));
+        int vainqueur = partie.continuer();
+        assertEquals(vainqueur, reprise.continuer());
+        assertEquals(partie.getHistorique().taille(), reprise.getHistorique().taille());
+        for (int i = 0; i < partie.getHistorique().taille(); i++) {
+            assertEquals(partie.getHistorique().get(i), reprise.getHistorique().get(i));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package simulation;
+
+import model.JoueurAleatoire;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimulateurTest {
+
+    private final FabriqueJoueur aleatoire = (grille, grilleAdversaire) -> new JoueurAleatoire(grille, grilleAdversaire);
+
+    @Test
+    public void testPartieSimuleeSeTermine() {
+        PartieSimulee partie = new PartieSimulee(10, 10, aleatoire, aleatoire);
+        int vainqueur = partie.jouer(0);
+
+        // Le vainqueur a touché au moins les 17 cellules de la flotte adverse, et au plus toute la grille
+        assertTrue("Le vainqueur doit être 0 ou 1", vainqueur == 0 || vainqueur == 1);
+        assertTrue(partie.getTirs(vainqueur) >= 17);
+        assertTrue(partie.getTirs(vainqueur) <= 100);
+    }
+
+    @Test
+    public void testSimulationParallele() {
+        ResultatsSimulation resultats = new Simulateur(10, 10, aleatoire, aleatoire).simuler(2000);
+
+        // Toutes les parties sont comptées une seule fois malgré le découpage entre threads
+        assertEquals(2000, resultats.getParties());
+        assertEquals(2000, resultats.getVictoires(0) + resultats.getVictoires(1));
+        long total = 0;
+        for (long n : resultats.getTirsPourGagner()) total += n;
+        assertEquals(2000, total);
+        assertTrue(resultats.partiesParSeconde() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOptimalRefuseSurGrandeGrille() {
+        // Refusé à la création de la fabrique, pas au premier tir d'une simulation
+        Simulateur.fabrique("optimal", 10, 10);
+    }
+}
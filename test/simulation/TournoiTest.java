@@ -0,0 +1,75 @@
+package simulation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TournoiTest {
+
+    @Test
+    public void testArretAnticipeEtClassement() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Tournoi tournoi = new Tournoi(10, 10, pool);
+            tournoi.inscrire("aleatoire", Simulateur.fabrique("aleatoire"));
+            tournoi.inscrire("densite", Simulateur.fabrique("densite"));
+            tournoi.inscrire("aleatoire2", Simulateur.fabrique("aleatoire"));
+            tournoi.setPartiesMax(2000);
+            tournoi.setTailleLot(100);
+
+            List<Rencontre> rencontres = tournoi.jouer();
+            assertEquals(3, rencontres.size());
+            for (Rencontre rencontre : rencontres) {
+                assertTrue(rencontre.getDecision() != Rencontre.Decision.EN_COURS);
+                assertTrue(rencontre.getParties() <= 2000);
+            }
+            // La densité écrase le hasard : le test décide bien avant le maximum de parties
+            Rencontre ecrasante = rencontres.get(0);
+            assertEquals(Rencontre.Decision.B_PLUS_FORT, ecrasante.getDecision());
+            assertTrue(ecrasante.getParties() <= 200);
+            assertTrue(ecrasante.ecartElo() < -200);
+
+            Map<String, Double> classement = tournoi.classement();
+            assertEquals("densite", classement.keySet().iterator().next());
+
+            Path csv = Files.createTempFile("tournoi", ".csv");
+            Path json = Files.createTempFile("tournoi", ".json");
+            try {
+                tournoi.exporterCsv(csv);
+                tournoi.exporterJson(json);
+                assertEquals(1 + 3, Files.readAllLines(csv).size());
+                String contenu = Files.readString(json);
+                assertTrue(contenu.contains("\"classement\"") && contenu.contains("\"B_PLUS_FORT\""));
+            } finally {
+                Files.delete(csv);
+                Files.delete(json);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRapportVraisemblance() {
+        Rencontre rencontre = new Rencontre("a", "b", 20, 0.05, 0.05, 100_000);
+        ResultatsSimulation resultats = new ResultatsSimulation(100);
+        for (int i = 0; i < 120; i++) resultats.enregistrer(i < 90 ? 0 : 1, 50);
+        // 90 victoires sur 120 : l'écart est bien plus grand que 20 Elo, A est déclaré plus fort
+        assertEquals(Rencontre.Decision.A_PLUS_FORT, rencontre.ajouter(resultats));
+        assertTrue(rencontre.getRapportA() > Math.log(0.95 / 0.05));
+
+        // Des milliers de parties à égalité : aucune des deux n'a 20 Elo d'avance
+        Rencontre egale = new Rencontre("a", "b", 20, 0.05, 0.05, 100_000);
+        ResultatsSimulation partage = new ResultatsSimulation(100);
+        for (int i = 0; i < 4000; i++) partage.enregistrer(i & 1, 50);
+        assertEquals(Rencontre.Decision.EQUIVALENTES, egale.ajouter(partage));
+        assertEquals(0.5, Rencontre.scoreAttendu(0), 1e-12);
+    }
+}
@@ -0,0 +1,75 @@
+package vue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ecoute.ModelEcoute;
+import model.Bateau;
+import model.Cellule;
+import model.Grille;
+import model.JoueurAleatoire;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VueBateauTest {
+
+    /** Nombre de placements de la flotte, comme autant d'appuis sur « Placer mes Bateaux » */
+    private static final int PLACEMENTS = 1000;
+
+    @Test
+    public void testPlacementsRepetesSansFuite() {
+        Grille grille = new Grille(10, 10);
+        JoueurAleatoire joueur = new JoueurAleatoire(grille, grille);
+        joueur.setVerbeux(false);
+        GrilleVue vue = new GrilleVue(grille, "Joueur", true, true);
+        List<Bateau> anciens = new ArrayList<>();
+
+        for (int i = 1; i <= PLACEMENTS; i++) {
+            joueur.ajoutBateauAleatoire();
+            for (Bateau bateau : joueur.getFlotte()) {
+                new VueBateau(bateau, vue);
+            }
+            if (i % 100 == 0 && i < PLACEMENTS) anciens.addAll(joueur.getFlotte());
+        }
+
+        // Chaque bateau et chaque cellule gardent un seul écouteur, quel que soit le nombre de placements
+        for (Bateau bateau : joueur.getFlotte()) {
+            assertEquals(1, bateau.getNombreEcouteurs());
+        }
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                assertEquals(1, grille.getCellulePosition(x, y).getNombreEcouteurs());
+            }
+        }
+        assertEquals(1, grille.getNombreEcouteurs());
+
+        // Les anciens bateaux, encore retenus ici, ne retiennent plus leurs vues : elles ont fermé leur abonnement
+        for (Bateau ancien : anciens) {
+            assertTrue(ancien.estDetruit());
+            assertEquals(0, ancien.getNombreEcouteurs());
+        }
+    }
+
+    @Test
+    public void testAbonnementFaible() {
+        Cellule cellule = new Cellule(0, 0);
+        int[] recus = new int[1];
+        ModelEcoute ecouteur = new ModelEcoute() {
+            @Override
+            public void evenement(Object source, int code) {
+                recus[0]++;
+            }
+        };
+        cellule.abonnerFaible(ecouteur);
+        cellule.setEtat(model.EtatCellule.RATE);
+        assertEquals(1, recus[0]);
+        cellule.removeListening(ecouteur);
+        assertEquals(0, cellule.getNombreEcouteurs());
+        cellule.abonner(ecouteur).close();
+        assertEquals(0, cellule.getNombreEcouteurs());
+        cellule.abonnerFaible(ecouteur).close();
+        assertEquals(0, cellule.getNombreEcouteurs());
+    }
+}